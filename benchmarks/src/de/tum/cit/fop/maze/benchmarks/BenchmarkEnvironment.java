@@ -0,0 +1,53 @@
+package de.tum.cit.fop.maze.benchmarks;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import de.tum.cit.fop.maze.entities.Player;
+import de.tum.cit.fop.maze.game.Difficulty;
+import de.tum.cit.fop.maze.game.DifficultyConfig;
+import de.tum.cit.fop.maze.game.GameManager;
+import de.tum.cit.fop.maze.game.GameRuntime;
+
+import java.util.Random;
+
+/**
+ * 基准测试公共环境：每个 JMH 进程启动一次无头 libGDX（只为了 Gdx.files 等静态对象），
+ * 并提供"跑过一段时间、敌人已经散开"的对局。
+ */
+final class BenchmarkEnvironment {
+
+    private static final int[][] DIRS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+
+    private BenchmarkEnvironment() {}
+
+    static synchronized void init() {
+        if (Gdx.app != null) return;
+        GameRuntime.setHeadless(true);
+        HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+        config.updatesPerSecond = -1; // 不进入渲染循环，只初始化 Gdx.*
+        new HeadlessApplication(new ApplicationAdapter() {}, config);
+    }
+
+    /**
+     * 固定种子建局，玩家随机走动 warmupTicks 步后返回
+     */
+    static GameManager populatedGame(Difficulty difficulty, boolean twoPlayer, long seed, int warmupTicks) {
+        init();
+        GameManager gm = new GameManager(DifficultyConfig.of(difficulty), twoPlayer);
+        gm.setRunSeed(seed);
+        gm.resetGame();
+
+        Random random = new Random(seed);
+        float step = gm.getTimestep().getStep();
+        for (int tick = 0; tick < warmupTicks; tick++) {
+            if (tick % 8 == 0) {
+                int[] dir = DIRS[random.nextInt(DIRS.length)];
+                gm.onMoveInput(Player.PlayerIndex.P1, dir[0], dir[1]);
+            }
+            gm.update(step);
+        }
+        return gm;
+    }
+}
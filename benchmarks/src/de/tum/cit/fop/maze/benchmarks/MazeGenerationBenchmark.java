@@ -0,0 +1,51 @@
+package de.tum.cit.fop.maze.benchmarks;
+
+import de.tum.cit.fop.maze.game.Difficulty;
+import de.tum.cit.fop.maze.game.DifficultyConfig;
+import de.tum.cit.fop.maze.maze.MazeGenerator;
+import de.tum.cit.fop.maze.maze.MazeGrid;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MazeGenerator.generateMaze：每种难度的尺寸各测一次。
+ * 生成器实例复用（与 LevelPreloader 相同），种子每次递增，避免总是同一张图。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MazeGenerationBenchmark {
+
+    @Param({"EASY", "NORMAL", "HARD", "TUTORIAL", "ENDLESS", "BOSS"})
+    public Difficulty difficulty;
+
+    private DifficultyConfig config;
+    private MazeGenerator generator;
+    private long seed;
+
+    @Setup
+    public void setup() {
+        config = DifficultyConfig.of(difficulty);
+        generator = new MazeGenerator(1L);
+        seed = 1L;
+    }
+
+    @Benchmark
+    public MazeGrid generateMaze() {
+        return generator.generateMaze(config, seed++);
+    }
+}
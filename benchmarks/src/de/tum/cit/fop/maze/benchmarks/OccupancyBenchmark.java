@@ -0,0 +1,102 @@
+package de.tum.cit.fop.maze.benchmarks;
+
+import de.tum.cit.fop.maze.entities.enemy.Enemy;
+import de.tum.cit.fop.maze.game.Difficulty;
+import de.tum.cit.fop.maze.game.GameManager;
+import de.tum.cit.fop.maze.game.entity.EntityStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GameManager 的移动 / 占用查询：canPlayerMoveTo、isEnemyValidMove、getEnemiesAt。
+ * <p>
+ * 对局先跑 {@link #WARMUP_TICKS} 步让敌人散开；查询坐标一半取敌人所在格及其邻格（命中路径），
+ * 一半在地图内随机（多数是墙或空地），每次调用查完整批 {@link #QUERIES} 个坐标。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OccupancyBenchmark {
+
+    private static final int QUERIES = 4096;
+    private static final int WARMUP_TICKS = 600;
+
+    @Param({"NORMAL", "HARD"})
+    public Difficulty difficulty;
+
+    private GameManager gm;
+    private final int[] xs = new int[QUERIES];
+    private final int[] ys = new int[QUERIES];
+
+    @Setup
+    public void setup() {
+        gm = BenchmarkEnvironment.populatedGame(difficulty, false, 42L, WARMUP_TICKS);
+
+        Random random = new Random(7);
+        EntityStore<Enemy> enemies = gm.getEnemies();
+        int w = gm.getMaze().getWidth();
+        int h = gm.getMaze().getHeight();
+        for (int i = 0; i < QUERIES; i++) {
+            if (i % 2 == 0 && !enemies.isEmpty()) {
+                Enemy e = enemies.get(random.nextInt(enemies.size()));
+                xs[i] = e.getX() + random.nextInt(3) - 1;
+                ys[i] = e.getY() + random.nextInt(3) - 1;
+            } else {
+                xs[i] = random.nextInt(w);
+                ys[i] = random.nextInt(h);
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        gm.dispose();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public int canPlayerMoveTo() {
+        int n = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            if (gm.canPlayerMoveTo(xs[i], ys[i])) n++;
+        }
+        return n;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public int isEnemyValidMove() {
+        int n = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            if (gm.isEnemyValidMove(xs[i], ys[i])) n++;
+        }
+        return n;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public int getEnemiesAt() {
+        int n = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            n += gm.getEnemiesAt(xs[i], ys[i]).size();
+        }
+        return n;
+    }
+}
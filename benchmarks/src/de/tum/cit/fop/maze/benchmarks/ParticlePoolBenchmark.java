@@ -0,0 +1,74 @@
+package de.tum.cit.fop.maze.benchmarks;
+
+import com.badlogic.gdx.math.MathUtils;
+import de.tum.cit.fop.maze.effects.boba.BobaParticlePool;
+import de.tum.cit.fop.maze.effects.portal.PortalParticlePool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 粒子池的每帧更新：每次调用 = 发射 emitters 组粒子 + 推进一帧（1/60 秒）。
+ * 预热后活跃粒子数稳定，池里的对象循环复用，gc.alloc.rate.norm 理应接近 0。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParticlePoolBenchmark {
+
+    private static final float FRAME = 1f / 60f;
+
+    /** 每帧同时发射的特效数量（子弹命中点 / 传送门个数） */
+    @Param({"1", "8"})
+    public int emitters;
+
+    private BobaParticlePool boba;
+    private PortalParticlePool portal;
+
+    @Setup
+    public void setup() {
+        BenchmarkEnvironment.init();
+        MathUtils.random.setSeed(42L);
+        boba = new BobaParticlePool();
+        portal = new PortalParticlePool();
+    }
+
+    @TearDown
+    public void tearDown() {
+        boba.dispose();
+        portal.dispose();
+    }
+
+    @Benchmark
+    public int bobaSplashAndMist() {
+        for (int i = 0; i < emitters; i++) {
+            float x = i * 64f;
+            boba.createSplashEffect(x, 0f);
+            boba.createMistEffect(x, 32f);
+        }
+        boba.update(FRAME);
+        return boba.getActiveParticleCount();
+    }
+
+    @Benchmark
+    public void portalTornado() {
+        for (int i = 0; i < emitters; i++) {
+            portal.spawnTornadoParticles(i * 64f, 0f, 24f);
+        }
+        portal.update(FRAME, 0f, 0f);
+    }
+}
@@ -0,0 +1,102 @@
+package de.tum.cit.fop.maze.benchmarks;
+
+import de.tum.cit.fop.maze.game.Difficulty;
+import de.tum.cit.fop.maze.game.EnemyTier;
+import de.tum.cit.fop.maze.game.GameManager;
+import de.tum.cit.fop.maze.game.achievement.AchievementType;
+import de.tum.cit.fop.maze.game.save.GameSaveData;
+import de.tum.cit.fop.maze.game.save.StorageManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * StorageManager 存档流水线的各阶段：序列化、GZIP 压缩、解压、反序列化，
+ * 以及自动存档在主线程上取快照的开销（和旧的 JSON 往返深拷贝对比）。
+ * <p>
+ * 存档数据来自一局跑过 {@link #WARMUP_TICKS} 步的双人对局（含技能状态、击杀统计）。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SaveDataBenchmark {
+
+    private static final int WARMUP_TICKS = 1200;
+
+    @Param({"NORMAL", "HARD"})
+    public Difficulty difficulty;
+
+    private StorageManager storage;
+    private GameManager gm;
+    private GameSaveData data;
+    private String json;
+    private byte[] compressed;
+
+    @Setup
+    public void setup() throws IOException {
+        gm = BenchmarkEnvironment.populatedGame(difficulty, true, 42L, WARMUP_TICKS);
+        storage = StorageManager.getInstance();
+
+        data = gm.captureSaveData();
+        for (EnemyTier tier : EnemyTier.values()) {
+            data.sessionKills.put(tier.name(), 12 + tier.ordinal());
+        }
+        data.recordNewAchievement(AchievementType.ACH_02_FIRST_CUP.id);
+        data.recordNewAchievement(AchievementType.ACH_04_PEARL_SWEEPER.id);
+
+        json = storage.serialize(data);
+        compressed = storage.compress(json);
+    }
+
+    @TearDown
+    public void tearDown() {
+        gm.dispose();
+    }
+
+    @Benchmark
+    public String serialize() {
+        return storage.serialize(data);
+    }
+
+    @Benchmark
+    public GameSaveData deserialize() {
+        return storage.deserialize(GameSaveData.class, json);
+    }
+
+    @Benchmark
+    public byte[] compress() throws IOException {
+        return storage.compress(json);
+    }
+
+    @Benchmark
+    public String decompress() throws IOException {
+        return storage.decompress(compressed);
+    }
+
+    /** 自动存档在主线程上的全部开销：采集状态 + 拷贝快照（之后的序列化在存档线程） */
+    @Benchmark
+    public GameSaveData snapshot() {
+        return new GameSaveData(gm.captureSaveData());
+    }
+
+    /** 旧的快照方式：JSON 往返深拷贝，留作对比 */
+    @Benchmark
+    public GameSaveData jsonRoundTrip() {
+        return storage.deserialize(GameSaveData.class, storage.serialize(data));
+    }
+}
@@ -0,0 +1,72 @@
+package de.tum.cit.fop.maze.benchmarks;
+
+import de.tum.cit.fop.maze.game.Difficulty;
+import de.tum.cit.fop.maze.game.DifficultyConfig;
+import de.tum.cit.fop.maze.game.GameManager;
+import de.tum.cit.fop.maze.maze.MazeGrid;
+import de.tum.cit.fop.maze.maze.MazeRenderer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MazeRenderer 的墙分析（analyze + splitWall）。
+ * <p>
+ * 分析结果按迷宫版本缓存，所以每次调用先把一个路径格改成墙再改回来（内容不变、版本号 +2），
+ * 再取 getWallGroups，强制整张图重新分析一遍。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WallAnalysisBenchmark {
+
+    @Param({"EASY", "NORMAL", "HARD"})
+    public Difficulty difficulty;
+
+    private GameManager gm;
+    private MazeRenderer renderer;
+    private int pathX;
+    private int pathY;
+
+    @Setup
+    public void setup() {
+        gm = BenchmarkEnvironment.populatedGame(difficulty, false, 42L, 0);
+        renderer = new MazeRenderer(gm, DifficultyConfig.of(difficulty));
+
+        MazeGrid maze = gm.getMaze();
+        pathX = gm.getPlayer().getX();
+        pathY = gm.getPlayer().getY();
+        if (maze.get(pathX, pathY) != 1) {
+            throw new IllegalStateException("Player is not standing on a path cell");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        renderer.dispose();
+        gm.dispose();
+    }
+
+    @Benchmark
+    public List<MazeRenderer.WallGroup> analyze() {
+        MazeGrid maze = gm.getMaze();
+        maze.setWall(pathX, pathY);
+        maze.setPath(pathX, pathY);
+        return renderer.getWallGroups();
+    }
+}
@@ -30,6 +30,7 @@
 import de.tum.cit.fop.maze.tools.PVPipeline;
 import de.tum.cit.fop.maze.utils.Logger;
 import de.tum.cit.fop.maze.game.save.StorageManager;
+import de.tum.cit.fop.maze.utils.AtlasManager;
 import de.tum.cit.fop.maze.utils.TextureManager;
 
 import java.util.List;
@@ -89,6 +90,7 @@ public void startNewGame(Difficulty difficulty) {
     private DifficultyConfig createDifficultyConfig(Difficulty difficulty) {
         DifficultyConfig baseConfig = DifficultyConfig.of(difficulty);
         if (difficulty == Difficulty.ENDLESS) {
+            // 棋盘保持 40x40：距离场 BFS、墙体分析、刷怪选点都按整张棋盘计算，放大棋盘会成倍变慢
             return new DifficultyConfig(
                     Difficulty.ENDLESS, 40, 40, 0,
                     1, 1, 1, 1,
@@ -358,6 +360,7 @@ public void dispose() {
         if (audioManager != null) audioManager.dispose();
         assets.dispose();
         TextureManager.getInstance().dispose();
+        AtlasManager.getInstance().dispose();
     }
 
     public void resetMaze(Difficulty difficulty) {
@@ -26,6 +26,9 @@ public class MeleeAttackAbility extends Ability {
     private GameManager gameManager;
 
     private final List<int[]> attackTiles = new ArrayList<>();
+    // 每次挥砍复用，避免逐格查询分配
+    private final List<Enemy> hitBuffer = new ArrayList<>();
+    private final Set<Enemy> hitEnemies = new HashSet<>();
     private float attackTimer = 0f;
     private boolean damageDone = false;
 
@@ -112,21 +115,20 @@ private void calculateAttackTiles(Player player) {
     private void dealDamage(GameManager gameManager) {
         if (gameManager == null) return;
         int damage = (int)((baseDamage + (level - 1) * damagePerLevel));
-        Set<Enemy> hitEnemies = new HashSet<>();
+        hitEnemies.clear();
 
         for (int[] tile : attackTiles) {
-            List<Enemy> enemies = gameManager.getEnemiesAt(tile[0], tile[1]);
-            if (enemies != null) {
-                for (Enemy enemy : enemies) {
-                    if (enemy != null && !enemy.isDead() && hitEnemies.add(enemy)) {
-                        enemy.takeDamage(damage);
-
-                        // 受击火花
-                        if (gameManager.getCombatEffectManager() != null) {
-                            float ex = (enemy.getX() + 0.5f) * GameConstants.CELL_SIZE;
-                            float ey = (enemy.getY() + 0.5f) * GameConstants.CELL_SIZE;
-                            gameManager.getCombatEffectManager().spawnHitSpark(ex, ey);
-                        }
+            hitBuffer.clear();
+            gameManager.collectEnemiesAt(tile[0], tile[1], hitBuffer);
+            for (Enemy enemy : hitBuffer) {
+                if (enemy != null && !enemy.isDead() && hitEnemies.add(enemy)) {
+                    enemy.takeDamage(damage);
+
+                    // 受击火花
+                    if (gameManager.getCombatEffectManager() != null) {
+                        float ex = (enemy.getX() + 0.5f) * GameConstants.CELL_SIZE;
+                        float ey = (enemy.getY() + 0.5f) * GameConstants.CELL_SIZE;
+                        gameManager.getCombatEffectManager().spawnHitSpark(ex, ey);
                     }
                 }
             }
@@ -134,7 +136,9 @@ private void dealDamage(GameManager gameManager) {
 
         if (!hitEnemies.isEmpty()) {
             float shakeStrength = 2.0f + (level * 0.5f);
-            de.tum.cit.fop.maze.utils.CameraManager.getInstance().shake(0.15f, shakeStrength);
+            if (de.tum.cit.fop.maze.utils.CameraManager.getInstance() != null) {
+                de.tum.cit.fop.maze.utils.CameraManager.getInstance().shake(0.15f, shakeStrength);
+            }
             gameManager.triggerHitFeedback(shakeStrength);
         }
     }
@@ -5,6 +5,7 @@
 import com.badlogic.gdx.audio.Sound;
 import com.badlogic.gdx.utils.Disposable;
 import com.badlogic.gdx.utils.ObjectMap;
+import de.tum.cit.fop.maze.game.GameRuntime;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -210,8 +211,8 @@ public long playSound(String id, float volumeMultiplier) {
     }
 
     public long playSound(String id, float volumeMultiplier, float pitch, float pan) {
-        // 检查全局开关
-        if (!masterEnabled || !sfxEnabled) return -1;
+        // 检查全局开关（无头模式不出声）
+        if (!masterEnabled || !sfxEnabled || GameRuntime.isHeadless()) return -1;
 
         AudioConfig config = configs.get(id);
         if (config == null || !config.isEnabled()) {
@@ -268,8 +269,8 @@ public void playMusic(String id) {
     }
 
     public void playMusic(String id, boolean loop) {
-        // 检查全局开关
-        if (!masterEnabled || !musicEnabled) return;
+        // 检查全局开关（无头模式不出声）
+        if (!masterEnabled || !musicEnabled || GameRuntime.isHeadless()) return;
 
         AudioConfig config = configs.get(id);
         if (config == null || !config.isEnabled() || !config.isMusic()) {
@@ -6,6 +6,7 @@
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.utils.Array;
 import de.tum.cit.fop.maze.game.GameConstants;
+import de.tum.cit.fop.maze.utils.ViewCuller;
 
 /**
  * 冲刺残影特效管理器
@@ -76,6 +77,13 @@ public void update(float delta, float playerX, float playerY, boolean shouldCrea
     }
 
     public void render(SpriteBatch batch) {
+        render(batch, null);
+    }
+
+    /**
+     * @param view 视野裁剪；null 表示全部绘制
+     */
+    public void render(SpriteBatch batch, ViewCuller view) {
         if (ghosts.size == 0) return;
 
         // 保存旧状态
@@ -89,6 +97,9 @@ public void render(SpriteBatch batch) {
 
         for (Ghost g : ghosts) {
             if (g.region == null) continue;
+            // 残影按玩家贴图放大 2.9 倍，用一个半格子宽的余量
+            if (view != null && !view.isPointVisible((g.x + 0.5f) * GameConstants.CELL_SIZE,
+                    (g.y + 1f) * GameConstants.CELL_SIZE, 1.5f * GameConstants.CELL_SIZE)) continue;
 
             // 应用颜色和透明度
             // alpha * 0.5f 降低整体亮度，防止过曝
@@ -7,6 +7,8 @@
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.math.MathUtils;
 import de.tum.cit.fop.maze.effects.Player.combat.instances.*;
+import de.tum.cit.fop.maze.game.GameRuntime;
+import de.tum.cit.fop.maze.utils.ViewCuller;
 
 import java.util.ArrayList;
 import java.util.Iterator;
@@ -25,6 +27,13 @@ public CombatEffectManager() {
         this.effects = new ArrayList<>();
         this.particleSystem = new CombatParticleSystem();
 
+        // 无头模式不创建字体，飘字直接跳过
+        if (GameRuntime.isHeadless()) {
+            this.scoreFont = null;
+            this.textFont = null;
+            return;
+        }
+
         BitmapFont tmpScoreFont;
         try {
             if (Gdx.files.internal("ui/font.fnt").exists()) {
@@ -57,14 +66,27 @@ public void update(float delta) {
     }
 
     public void renderShapes(ShapeRenderer shapeRenderer) {
+        renderShapes(shapeRenderer, null);
+    }
+
+    /**
+     * @param view 视野裁剪；null 表示全部绘制
+     */
+    public void renderShapes(ShapeRenderer shapeRenderer, ViewCuller view) {
         for (CombatEffect effect : effects) {
+            if (view != null && !view.isPointVisible(effect.x, effect.y, ViewCuller.EFFECT_MARGIN)) continue;
             effect.renderShape(shapeRenderer);
         }
-        particleSystem.render(shapeRenderer);
+        particleSystem.render(shapeRenderer, view);
     }
 
     public void renderSprites(SpriteBatch batch) {
+        renderSprites(batch, null);
+    }
+
+    public void renderSprites(SpriteBatch batch, ViewCuller view) {
         for (CombatEffect effect : effects) {
+            if (view != null && !view.isPointVisible(effect.x, effect.y, ViewCuller.EFFECT_MARGIN)) continue;
             effect.renderSprite(batch);
         }
     }
@@ -149,7 +171,7 @@ public void spawnHeal(float x, float y) {
 
     // 🔥 [核心修改] 统一的分数飘字方法
     public void spawnScoreText(float x, float y, int score) {
-        if (score == 0) return;
+        if (score == 0 || scoreFont == null) return;
         String text = (score > 0 ? "+" : "") + score;
         Color color = (score > 0) ? Color.GOLD : Color.RED;
 
@@ -162,7 +184,7 @@ public void spawnScoreText(float x, float y, int score) {
     }
 
     public void spawnStatusText(float x, float y, String text, Color color) {
-        if (text == null || text.isEmpty()) return;
+        if (text == null || text.isEmpty() || textFont == null) return;
         safeAddEffect(new FloatingTextEffect(x, y, text, color, textFont));
     }
 
@@ -3,6 +3,7 @@
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.utils.Array;
+import de.tum.cit.fop.maze.utils.ViewCuller;
 import java.util.Iterator;
 
 public class CombatParticleSystem {
@@ -46,7 +47,13 @@ public void update(float delta) {
     }
 
     public void render(ShapeRenderer sr) {
+        render(sr, null);
+    }
+
+    public void render(ShapeRenderer sr, ViewCuller view) {
         for (Particle p : particles) {
+            // 高光十字最长伸出一个 size
+            if (view != null && !view.isPointVisible(p.x, p.y, p.size)) continue;
             float alpha = p.life / p.maxLife;
             sr.setColor(p.color.r, p.color.g, p.color.b, alpha);
 
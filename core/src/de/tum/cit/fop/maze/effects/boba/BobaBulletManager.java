@@ -5,6 +5,7 @@
 import com.badlogic.gdx.utils.Disposable;
 import de.tum.cit.fop.maze.entities.enemy.EnemyBoba.BobaBullet;
 import de.tum.cit.fop.maze.game.GameConstants;
+import de.tum.cit.fop.maze.utils.ViewCuller;
 
 /**
  * Boba 子弹特效管理器
@@ -116,6 +117,13 @@ public void update(float deltaTime) {
      * 注意：这个 render 方法应该在游戏的 SpriteBatch begin/end 块内调用
      */
     public void render(SpriteBatch batch) {
+        render(batch, null);
+    }
+
+    /**
+     * @param view 视野裁剪；null 表示全部绘制
+     */
+    public void render(SpriteBatch batch, ViewCuller view) {
         if (!isEnabled) return;
 
         bulletsRendered = 0;
@@ -128,6 +136,8 @@ public void render(SpriteBatch batch) {
             // 再渲染子弹本身（由特效管理器完全控制）
             for (BobaBullet bullet : managedBullets) {
                 if (bullet.isActive()) {
+                    if (view != null && !view.isPointVisible(bullet.getRealX() * GameConstants.CELL_SIZE,
+                            bullet.getRealY() * GameConstants.CELL_SIZE, GameConstants.CELL_SIZE)) continue;
                     bulletRenderer.render(bullet, batch);
                     bulletsRendered++;
                 }
@@ -138,7 +148,7 @@ public void render(SpriteBatch batch) {
         }
 
         // 最后渲染粒子效果（在最上层）
-        particlePool.render(batch);
+        particlePool.render(batch, view);
     }
 
     /**
@@ -2,12 +2,13 @@
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import de.tum.cit.fop.maze.entities.enemy.EnemyBoba.BobaBullet;
 import de.tum.cit.fop.maze.game.GameConstants;
+import de.tum.cit.fop.maze.game.GameRuntime;
+import de.tum.cit.fop.maze.utils.AtlasManager;
 
 public class BobaBulletRenderer {
 
@@ -16,6 +17,11 @@ public class BobaBulletRenderer {
     private final ShapeRenderer shapeRenderer;
 
     public BobaBulletRenderer() {
+        // 无头模式不创建任何 GL 资源（render 也不会被调用）
+        if (GameRuntime.isHeadless()) {
+            shapeRenderer = null;
+            return;
+        }
         shapeRenderer = new ShapeRenderer();
         loadTexture();
     }
@@ -34,10 +40,8 @@ private void loadTexture() {
                 return;
             }
 
-            // 2. 尝试加载
-            Texture tex = new Texture(file);
-            tex.setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
-            this.bulletTexture = new TextureRegion(tex);
+            // 2. 尝试加载（特效图集，线性过滤）
+            this.bulletTexture = AtlasManager.getInstance().findRegion(path);
 
             System.out.println("✅ [BobaSuccess] 成功加载子弹贴图: " + path);
 
@@ -104,8 +108,6 @@ public void setEffectIntensity(float intensity) {
 
     public void dispose() {
         if (shapeRenderer != null) shapeRenderer.dispose();
-        if (bulletTexture != null && bulletTexture.getTexture() != null) {
-            bulletTexture.getTexture().dispose();
-        }
+        // 子弹贴图是图集里共享的区域，不在这里释放
     }
 }
\ No newline at end of file
@@ -7,6 +7,8 @@
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Pool;
+import de.tum.cit.fop.maze.game.GameRuntime;
+import de.tum.cit.fop.maze.utils.ViewCuller;
 
 /**
  * 粒子池 - 奶茶特效专用
@@ -44,7 +46,7 @@ protected Particle newObject() {
             }
         };
         activeParticles = new Array<>();
-        shapeRenderer = new ShapeRenderer();
+        shapeRenderer = GameRuntime.isHeadless() ? null : new ShapeRenderer();
     }
 
     // ==========================================
@@ -158,6 +160,10 @@ public void update(float delta) {
     }
 
     public void render(SpriteBatch batch) {
+        render(batch, null);
+    }
+
+    public void render(SpriteBatch batch, ViewCuller view) {
         if (activeParticles.size == 0) return;
 
         batch.end(); // 暂停 SpriteBatch 以使用 ShapeRenderer
@@ -168,6 +174,7 @@ public void render(SpriteBatch batch) {
         shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
 
         for (Particle p : activeParticles) {
+            if (view != null && !view.isPointVisible(p.x, p.y, p.size / 2)) continue;
             if (p.type == ParticleType.MIST) {
                 // 米白色雾气
                 shapeRenderer.setColor(0.95f, 0.92f, 0.85f, p.alpha * 0.6f);
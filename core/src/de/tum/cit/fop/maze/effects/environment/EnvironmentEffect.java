@@ -37,4 +37,6 @@ public void update(float delta, EnvironmentParticleSystem ps) {
     public abstract void renderSprite(SpriteBatch batch);
 
     public boolean isFinished() { return isFinished; }
+    public float getX() { return x; }
+    public float getY() { return y; }
 }
\ No newline at end of file
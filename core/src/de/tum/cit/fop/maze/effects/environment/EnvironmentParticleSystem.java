@@ -3,6 +3,7 @@
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.utils.Array;
+import de.tum.cit.fop.maze.utils.ViewCuller;
 import java.util.Iterator;
 
 /**
@@ -49,7 +50,12 @@ public void update(float delta) {
     }
 
     public void render(ShapeRenderer sr) {
+        render(sr, null);
+    }
+
+    public void render(ShapeRenderer sr, ViewCuller view) {
         for (EnvParticle p : particles) {
+            if (view != null && !view.isPointVisible(p.x, p.y, p.size / 2)) continue;
             float alpha = p.life / p.maxLife;
             sr.setColor(p.color.r, p.color.g, p.color.b, alpha);
 
@@ -9,6 +9,7 @@
 import de.tum.cit.fop.maze.effects.environment.EnvironmentEffect;
 import de.tum.cit.fop.maze.effects.environment.EnvironmentParticleSystem;
 import de.tum.cit.fop.maze.utils.Logger;
+import de.tum.cit.fop.maze.utils.ViewCuller;
 
 import java.util.Iterator;
 
@@ -73,6 +74,13 @@ public void update(float delta) {
      * 在 GameScreen 中，应该在 batch.end() 之后，单独调用
      */
     public void renderShapes(ShapeRenderer sr) {
+        renderShapes(sr, null);
+    }
+
+    /**
+     * @param view 视野裁剪；null 表示全部绘制
+     */
+    public void renderShapes(ShapeRenderer sr, ViewCuller view) {
         if (sr == null) {
             Logger.warning("ShapeRenderer is null, cannot render item effect shapes");
             return;
@@ -84,9 +92,10 @@ public void renderShapes(ShapeRenderer sr) {
         sr.begin(ShapeRenderer.ShapeType.Filled);
 
         for (EnvironmentEffect effect : effects) {
+            if (view != null && !view.isPointVisible(effect.getX(), effect.getY(), ViewCuller.EFFECT_MARGIN)) continue;
             effect.renderShape(sr);
         }
-        particleSystem.render(sr);
+        particleSystem.render(sr, view);
 
         sr.end();
     }
@@ -96,11 +105,16 @@ public void renderShapes(ShapeRenderer sr) {
      * 在 GameScreen 中，应该在 batch.begin() 和 batch.end() 之间调用
      */
     public void renderSprites(SpriteBatch batch) {
+        renderSprites(batch, null);
+    }
+
+    public void renderSprites(SpriteBatch batch, ViewCuller view) {
         if (batch == null) {
             Logger.warning("SpriteBatch is null, cannot render item effect sprites");
             return;
         }
         for (EnvironmentEffect effect : effects) {
+            if (view != null && !view.isPointVisible(effect.getX(), effect.getY(), ViewCuller.EFFECT_MARGIN)) continue;
             effect.renderSprite(batch);
         }
     }
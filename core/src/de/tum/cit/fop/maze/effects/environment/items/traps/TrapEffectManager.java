@@ -8,6 +8,7 @@
 import de.tum.cit.fop.maze.effects.environment.EnvironmentEffect;
 import de.tum.cit.fop.maze.effects.environment.EnvironmentParticleSystem;
 import de.tum.cit.fop.maze.utils.Logger;
+import de.tum.cit.fop.maze.utils.ViewCuller;
 import java.util.Iterator;
 
 public class TrapEffectManager {
@@ -56,6 +57,13 @@ public void update(float delta) {
      * 在 GameScreen 中，应在 batch.end() 之后调用
      */
     public void renderShapes(ShapeRenderer sr) {
+        renderShapes(sr, null);
+    }
+
+    /**
+     * @param view 视野裁剪；null 表示全部绘制
+     */
+    public void renderShapes(ShapeRenderer sr, ViewCuller view) {
         if (sr == null) {
             Logger.warning("ShapeRenderer is null, cannot render trap effect shapes");
             return;
@@ -67,12 +75,13 @@ public void renderShapes(ShapeRenderer sr) {
         sr.begin(ShapeRenderer.ShapeType.Filled);
 
         for (EnvironmentEffect effect : effects) {
+            if (view != null && !view.isPointVisible(effect.getX(), effect.getY(), ViewCuller.EFFECT_MARGIN)) continue;
             // 🔴 修正：调用新的 renderShape 方法
             effect.renderShape(sr);
         }
 
         // 渲染粒子系统
-        particleSystem.render(sr);
+        particleSystem.render(sr, view);
 
         sr.end();
     }
@@ -83,11 +92,16 @@ public void renderShapes(ShapeRenderer sr) {
      * (虽然目前的陷阱子类里这个方法是空的，但必须调用以保证接口完整)
      */
     public void renderSprites(SpriteBatch batch) {
+        renderSprites(batch, null);
+    }
+
+    public void renderSprites(SpriteBatch batch, ViewCuller view) {
         if (batch == null) {
             Logger.warning("SpriteBatch is null, cannot render trap effect sprites");
             return;
         }
         for (EnvironmentEffect effect : effects) {
+            if (view != null && !view.isPointVisible(effect.getX(), effect.getY(), ViewCuller.EFFECT_MARGIN)) continue;
             effect.renderSprite(batch);
         }
     }
@@ -7,6 +7,7 @@
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.utils.Array;
+import de.tum.cit.fop.maze.game.GameRuntime;
 
 public class PortalParticlePool {
     private final Array<PortalParticle> activeParticles = new Array<>();
@@ -27,6 +28,7 @@ public PortalParticlePool() {
      * 避免引入外部图片资源
      */
     private void createTrailTexture() {
+        if (GameRuntime.isHeadless()) return;
         int width = 8;
         int height = 32;
         Pixmap pixmap = new Pixmap(width, height, Pixmap.Format.RGBA8888);
@@ -3,17 +3,19 @@
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.glutils.ShaderProgram;
 import de.tum.cit.fop.maze.game.GameConstants;
+import de.tum.cit.fop.maze.game.GameRuntime;
 import de.tum.cit.fop.maze.tools.PerlinNoise;
+import de.tum.cit.fop.maze.utils.AtlasManager;
 import de.tum.cit.fop.maze.utils.Logger;
 
 public class FogSystem {
     private ShaderProgram shader;
-    private final Texture fogTexture;
+    private final TextureRegion fogTexture;
 
     private boolean active = false;
     private boolean debugEnabled = false;
@@ -28,8 +30,13 @@ public class FogSystem {
     private boolean disposed = false;
 
     public FogSystem() {
+        if (GameRuntime.isHeadless()) {
+            // 无头模式：只跑雾气计时（影响敌人视野），不创建纹理和着色器
+            fogTexture = null;
+            return;
+        }
         ShaderProgram.pedantic = false; // 增强兼容性
-        fogTexture = new Texture("effects/fog.png");
+        fogTexture = AtlasManager.getInstance().findRegion("effects/fog.png");
 
         String vertexShader = Gdx.files.internal("shaders/vertex.glsl").readString();
         String fragmentShader = Gdx.files.internal("shaders/fragment.glsl").readString();
@@ -126,7 +133,7 @@ public void render(SpriteBatch batch, float camLeft, float camBottom, float camW
     public void dispose() {
         if (disposed) return;
 
-        fogTexture.dispose();
+        // 雾气贴图是图集里共享的区域，不在这里释放
         disposed = true;
     }
 
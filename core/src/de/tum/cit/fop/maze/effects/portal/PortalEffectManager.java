@@ -7,6 +7,7 @@
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.math.MathUtils;
 import de.tum.cit.fop.maze.game.GameConstants;
+import de.tum.cit.fop.maze.game.GameRuntime;
 
 /**
  * 传送门特效总管
@@ -49,6 +50,7 @@ public PortalEffectManager(PortalOwner owner) {
      * 纯代码生成，无需外部图片
      */
     private void createGlowTexture() {
+        if (GameRuntime.isHeadless()) return;
         int size = 64; // 纹理分辨率，64x64足够了，反正会放大
         Pixmap pixmap = new Pixmap(size, size, Pixmap.Format.RGBA8888);
 
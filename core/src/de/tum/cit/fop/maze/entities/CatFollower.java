@@ -6,12 +6,15 @@
 import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
-import com.badlogic.gdx.math.MathUtils;
 import de.tum.cit.fop.maze.game.GameConstants;
 import de.tum.cit.fop.maze.game.GameManager;
+import de.tum.cit.fop.maze.game.GameRuntime;
+import de.tum.cit.fop.maze.maze.PathRequest;
+import de.tum.cit.fop.maze.maze.PathfindingService;
+import de.tum.cit.fop.maze.utils.GameRandom;
 import de.tum.cit.fop.maze.utils.TextureManager;
 
-public class CatFollower extends GameObject {
+public class CatFollower extends GameObject implements Interpolated {
 
     /* ================== 跟随对象 ================== */
 
@@ -46,6 +49,9 @@ private enum State {
     private float idleTargetY;
 
     private State state = State.FOLLOW_PLAYER;
+
+    // 隔墙时沿寻路绕过去，而不是贴着墙原地不动
+    private PathRequest route;
     /* ================== Animation ================== */
 
     private static Animation<TextureRegion> animLeft;
@@ -61,7 +67,7 @@ private enum Facing {
 
     private Facing facing = Facing.FRONT;
     private static void loadAnimations(TextureManager tm) {
-        if (animLeft != null) return;
+        if (animLeft != null || GameRuntime.isHeadless()) return;
 
         animLeft = new Animation<>(
                 0.18f,
@@ -129,8 +135,58 @@ public void update(float delta) {
     private void updateFollow(float delta) {
         float targetX = player.getX() + 0.5f;
         float targetY = player.getY() + 0.2f;
+        float speed = player.getMoveSpeed() * PLAYER_SPEED_RATIO;
+
+        int catX = (int) worldX;
+        int catY = (int) worldY;
+        int px = player.getX();
+        int py = player.getY();
+
+        // 相邻或同格：直接贴过去
+        if (Math.abs(px - catX) + Math.abs(py - catY) <= 1) {
+            cancelRoute();
+            moveToward(targetX, targetY, delta, speed);
+            return;
+        }
 
-        moveToward(targetX, targetY, delta, player.getMoveSpeed() * 0.75f);
+        int dir = nextRouteStep(catX, catY, px, py);
+        if (dir != PathfindingService.NO_STEP) {
+            moveToward(catX + PathfindingService.DIR_X[dir] + 0.5f,
+                    catY + PathfindingService.DIR_Y[dir] + 0.2f, delta, speed);
+        } else {
+            moveToward(targetX, targetY, delta, speed);
+        }
+    }
+
+    /**
+     * 去玩家所在格的下一步方向；路径还在计算或不可用时返回 NO_STEP
+     */
+    private int nextRouteStep(int catX, int catY, int px, int py) {
+        PathfindingService pathfinding = gm.getPathfinding();
+        if (pathfinding == null) return PathfindingService.NO_STEP;
+
+        if (route == null || !route.matches(px, py, 1)
+                || route.getStatus() == PathRequest.Status.CANCELLED) {
+            // 玩家换格后旧请求作废，别让它继续占每帧的节点预算
+            pathfinding.cancel(route);
+            route = pathfinding.request(catX, catY, px, py, 1);
+        }
+        if (!route.isFound()) return PathfindingService.NO_STEP;
+
+        int dir = route.nextStep(catX, catY);
+        if (dir == PathfindingService.NO_STEP) {
+            route = null;  // 偏离路径，下一帧重新请求
+        }
+        return dir;
+    }
+
+    /**
+     * 撤掉还在排队的寻路请求（贴到玩家身边、或猫被移除时）
+     */
+    public void cancelRoute() {
+        PathfindingService pathfinding = gm.getPathfinding();
+        if (pathfinding != null) pathfinding.cancel(route);
+        route = null;
     }
     private void enterIdleWander() {
         state = State.IDLE_WANDER;
@@ -155,8 +211,8 @@ private void pickNewIdleTarget() {
         // 最多尝试几次，找一个合法格子
         for (int i = 0; i < 10; i++) {
 
-            int dx = MathUtils.random(-2, 2);
-            int dy = MathUtils.random(-2, 2);
+            int dx = GameRandom.random(-2, 2);
+            int dy = GameRandom.random(-2, 2);
 
             int tx = px + dx;
             int ty = py + dy;
@@ -292,4 +348,18 @@ private int[] getPreferredGrid(Player p) {
         };
     }
 
+    /* ================= 渲染插值 ================= */
+
+    private final InterpolationState interpolation = new InterpolationState();
+
+    @Override
+    public InterpolationState getInterpolation() {
+        return interpolation;
+    }
+
+    @Override
+    public void setWorldPosition(float worldX, float worldY) {
+        this.worldX = worldX;
+        this.worldY = worldY;
+    }
 }
@@ -2,10 +2,12 @@
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Sprite;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.MathUtils;
+import de.tum.cit.fop.maze.game.GameRuntime;
+import de.tum.cit.fop.maze.utils.AtlasManager;
 import de.tum.cit.fop.maze.utils.Logger;
 
 public class Compass {
@@ -13,8 +15,8 @@ public class Compass {
     private final Player player;
     private ExitDoor nearestExit;
 
-    private final Texture baseTexture;
-    private final Texture needleTexture;
+    private final TextureRegion baseTexture;
+    private final TextureRegion needleTexture;
 
     private final Sprite baseSprite;
     private final Sprite needleSprite;
@@ -24,10 +26,17 @@ public class Compass {
     public Compass(Player player) {
         this.player = player;
 
+        // 无头模式只记录最近出口，不创建纹理
+        if (GameRuntime.isHeadless()) {
+            baseTexture = null;
+            needleTexture = null;
+            baseSprite = null;
+            needleSprite = null;
+            return;
+        }
 
-
-        baseTexture = new Texture(Gdx.files.internal("ui/HUD/compass_base.png"));
-        needleTexture = new Texture(Gdx.files.internal("ui/HUD/compass_needle.png"));
+        baseTexture = AtlasManager.getInstance().findRegion("ui/HUD/compass_base.png");
+        needleTexture = AtlasManager.getInstance().findRegion("ui/HUD/compass_needle.png");
 
         baseSprite = new Sprite(baseTexture);
         needleSprite = new Sprite(needleTexture);
@@ -78,8 +87,7 @@ public void drawAsUI(SpriteBatch batch) {
 
 
     public void dispose() {
-        baseTexture.dispose();
-        needleTexture.dispose();
+        // 贴图是 HUD 图集里共享的区域，不在这里释放
     }
     public float getUIWidth() {
         return baseSprite.getWidth() * baseSprite.getScaleX();
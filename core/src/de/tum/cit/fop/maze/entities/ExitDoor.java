@@ -1,12 +1,13 @@
 package de.tum.cit.fop.maze.entities;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import de.tum.cit.fop.maze.effects.portal.PortalEffectManager;
 import de.tum.cit.fop.maze.game.GameConstants;
 import de.tum.cit.fop.maze.game.GameManager;
+import de.tum.cit.fop.maze.game.GameRuntime;
+import de.tum.cit.fop.maze.utils.AtlasManager;
 import de.tum.cit.fop.maze.utils.Logger;
 
 import java.util.EnumMap;
@@ -20,9 +21,9 @@ public enum DoorDirection {
 
     private final PortalEffectManager portalEffect = new PortalEffectManager();
 
-    // ===== 四个方向的贴图 =====
-    private final EnumMap<DoorDirection, Texture> lockedTextures = new EnumMap<>(DoorDirection.class);
-    private final EnumMap<DoorDirection, Texture> unlockedTextures = new EnumMap<>(DoorDirection.class);
+    // ===== 四个方向的贴图（道具合并图集里的共享区域，所有门共用） =====
+    private final EnumMap<DoorDirection, TextureRegion> lockedTextures = new EnumMap<>(DoorDirection.class);
+    private final EnumMap<DoorDirection, TextureRegion> unlockedTextures = new EnumMap<>(DoorDirection.class);
 
     // ===== 门状态 =====
     private final DoorDirection direction;
@@ -38,33 +39,35 @@ public ExitDoor(int x, int y, DoorDirection direction) {
         this.direction = direction;
         this.active = true;
 
+        if (GameRuntime.isHeadless()) return;
         try {
+            AtlasManager atlas = AtlasManager.getInstance();
             // 只加载四个方向的锁定门贴图
             lockedTextures.put(DoorDirection.UP,
-                    new Texture(Gdx.files.internal("imgs/Items/door_up_locked.png")));
+                    atlas.findRegion("imgs/Items/door_up_locked.png"));
             lockedTextures.put(DoorDirection.DOWN,
-                    new Texture(Gdx.files.internal("imgs/Items/door_down_locked.png")));
+                    atlas.findRegion("imgs/Items/door_down_locked.png"));
             lockedTextures.put(DoorDirection.LEFT,
-                    new Texture(Gdx.files.internal("imgs/Items/door_left_locked.png")));
+                    atlas.findRegion("imgs/Items/door_left_locked.png"));
             lockedTextures.put(DoorDirection.RIGHT,
-                    new Texture(Gdx.files.internal("imgs/Items/door_right_locked.png")));
+                    atlas.findRegion("imgs/Items/door_right_locked.png"));
 
             // 解锁门贴图（如果存在的话）
             unlockedTextures.put(DoorDirection.UP,
-                    new Texture(Gdx.files.internal("imgs/Items/door_up_locked.png")));
+                    atlas.findRegion("imgs/Items/door_up_locked.png"));
             unlockedTextures.put(DoorDirection.DOWN,
-                    new Texture(Gdx.files.internal("imgs/Items/door_down_locked.png")));
+                    atlas.findRegion("imgs/Items/door_down_locked.png"));
             unlockedTextures.put(DoorDirection.LEFT,
-                    new Texture(Gdx.files.internal("imgs/Items/door_left_locked.png")));
+                    atlas.findRegion("imgs/Items/door_left_locked.png"));
             unlockedTextures.put(DoorDirection.RIGHT,
-                    new Texture(Gdx.files.internal("imgs/Items/door_right_locked.png")));
+                    atlas.findRegion("imgs/Items/door_right_locked.png"));
 
             Logger.debug("ExitDoor created at (" + x + ", " + y + ") facing " + direction);
         } catch (Exception e) {
             Logger.error("Failed to load door textures: " + e.getMessage());
             // 如果解锁门贴图不存在，使用锁定门贴图作为fallback
             for (DoorDirection dir : DoorDirection.values()) {
-                Texture lockedTex = lockedTextures.get(dir);
+                TextureRegion lockedTex = lockedTextures.get(dir);
                 if (lockedTex != null) {
                     unlockedTextures.put(dir, lockedTex);
                 }
@@ -130,7 +133,7 @@ public void drawSprite(SpriteBatch batch) {
         portalEffect.renderBack(batch, px, py);
 
         // ===== 根据方向和锁状态选择贴图 =====
-        Texture tex;
+        TextureRegion tex;
         if (locked) {
             tex = lockedTextures.get(direction);
         } else {
@@ -227,13 +230,7 @@ public void resetDoor() {
     }
 
     public void dispose() {
-        // 释放所有贴图资源
-        for (Texture tex : lockedTextures.values()) {
-            if (tex != null) tex.dispose();
-        }
-        for (Texture tex : unlockedTextures.values()) {
-            if (tex != null) tex.dispose();
-        }
+        // 贴图是图集里共享的，不在这里释放
         portalEffect.dispose();
     }
 
@@ -7,6 +7,8 @@
 public abstract class GameObject {
     protected int x, y;
     protected boolean active = true;
+    // 实体登记表分配的稳定 id（0 = 尚未登记）
+    private int entityId;
 
     // 渲染类型枚举
     public enum RenderType {
@@ -42,6 +44,12 @@ public void onInteract(Player player) {
     public boolean isPassable() {
         return true;
     }
+    // 占用的格子矩形（空间索引用），默认只占自身 1x1
+    public int getFootprintX() { return x; }
+    public int getFootprintY() { return y; }
+    public int getFootprintWidth() { return 1; }
+    public int getFootprintHeight() { return 1; }
+
     // 碰撞检测
     public boolean collidesWith(GameObject other) {
         return this.x == other.x && this.y == other.y;
@@ -55,6 +63,8 @@ public boolean collidesWith(GameObject other) {
     public void setPosition(int x, int y) { this.x = x; this.y = y; }
     public boolean isActive() { return active; }
     public void setActive(boolean active) { this.active = active; }
+    public int getEntityId() { return entityId; }
+    public void setEntityId(int entityId) { this.entityId = entityId; }
 
     // 调试信息
     public String getPositionString() {
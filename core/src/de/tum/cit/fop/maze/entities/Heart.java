@@ -1,11 +1,12 @@
 package de.tum.cit.fop.maze.entities;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.graphics.Color;
 import de.tum.cit.fop.maze.game.GameConstants;
+import de.tum.cit.fop.maze.game.GameRuntime;
+import de.tum.cit.fop.maze.utils.AtlasManager;
 import de.tum.cit.fop.maze.utils.Logger;
 
 /**
@@ -14,7 +15,7 @@
  */
 public class Heart extends GameObject {
     private boolean active = true;
-    private Texture texture;
+    private TextureRegion texture;
 
     // ✅ Fix 1: 构造函数参数匹配 GameObject(int, int)
     public Heart(int x, int y) {
@@ -29,8 +30,9 @@ public Heart(float x, float y) {
     }
 
     private void loadTexture() {
+        if (GameRuntime.isHeadless()) return;
         try {
-            texture = new Texture(Gdx.files.internal("imgs/Items/heart.png"));
+            texture = AtlasManager.getInstance().findRegion("imgs/Items/heart.png");
         } catch (Exception e) {
             Logger.error("Heart texture missing");
         }
@@ -76,6 +78,7 @@ public void drawShape(ShapeRenderer shapeRenderer) {
     }
 
     public void dispose() {
-        if (texture != null) texture.dispose();
+        // 贴图是道具图集里共享的区域，不在这里释放
+        texture = null;
     }
 }
\ No newline at end of file
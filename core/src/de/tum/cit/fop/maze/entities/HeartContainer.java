@@ -1,11 +1,12 @@
 package de.tum.cit.fop.maze.entities;
 
-import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import de.tum.cit.fop.maze.game.GameConstants;
+import de.tum.cit.fop.maze.game.GameRuntime;
+import de.tum.cit.fop.maze.utils.AtlasManager;
 import de.tum.cit.fop.maze.utils.Logger;
 import de.tum.cit.fop.maze.utils.TextureManager;
 
@@ -21,7 +22,7 @@ public class HeartContainer extends GameObject {
 
     // 设置默认颜色为橙色 (当没有图片或在调试模式时显示)
     private Color color = Color.ORANGE;
-    private Texture containerTexture;
+    private TextureRegion containerTexture;
     private boolean collected = false;
 
     // 纹理管理
@@ -87,11 +88,11 @@ public boolean isPassable() {
      * 但理想情况下应该通过 TextureManager.get() 获取。
      */
     private void updateTexture() {
-        if (containerTexture == null) {
+        if (containerTexture == null && !GameRuntime.isHeadless()) {
             try {
                 // ⚠️ 确保 assets/Items/heart_container.png 存在！
                 // 如果没有图片，会捕获异常并显示为橙色方块
-                containerTexture = new Texture(Gdx.files.internal("imgs/Items/heart_container.png"));
+                containerTexture = AtlasManager.getInstance().findRegion("imgs/Items/heart_container.png");
             } catch (Exception e) {
                 Logger.error("HeartContainer texture missing, using fallback shape: " + e.getMessage());
             }
@@ -169,9 +170,7 @@ public void collect() {
      * GameManager 在 dispose() 时应该调用这个
      */
     public void dispose() {
-        if (containerTexture != null) {
-            containerTexture.dispose();
-            containerTexture = null;
-        }
+        // 贴图是道具图集里共享的区域，不在这里释放
+        containerTexture = null;
     }
 }
\ No newline at end of file
@@ -0,0 +1,40 @@
+package de.tum.cit.fop.maze.entities;
+
+/**
+ * 支持渲染插值的实体 (Render Interpolation)
+ * <p>
+ * 固定步长模拟下，每一步开始前 {@link #savePreviousPosition()}；
+ * 渲染前 {@link #applyInterpolation(float)} 把平滑坐标临时换成两步之间的插值，
+ * 渲染后 {@link #restorePosition()} 换回真实坐标。绘制代码不需要任何改动。
+ * <p>
+ * 实体只需要提供自己的 {@link InterpolationState} 和平滑坐标的读写，三个步骤都由这里的默认实现完成。
+ */
+public interface Interpolated {
+
+    InterpolationState getInterpolation();
+
+    float getWorldX();
+
+    float getWorldY();
+
+    /** 只改平滑坐标（格子坐标不动） */
+    void setWorldPosition(float worldX, float worldY);
+
+    default void savePreviousPosition() {
+        getInterpolation().save(getWorldX(), getWorldY());
+    }
+
+    default void applyInterpolation(float alpha) {
+        InterpolationState s = getInterpolation();
+        if (s.begin(getWorldX(), getWorldY(), alpha)) {
+            setWorldPosition(s.getRenderX(), s.getRenderY());
+        }
+    }
+
+    default void restorePosition() {
+        InterpolationState s = getInterpolation();
+        if (!s.isApplied()) return;
+        setWorldPosition(s.getRealX(), s.getRealY());
+        s.end();
+    }
+}
@@ -0,0 +1,55 @@
+package de.tum.cit.fop.maze.entities;
+
+/**
+ * {@link Interpolated} 实体共用的插值状态：上一步位置 + 渲染期间暂存的真实位置
+ */
+public final class InterpolationState {
+
+    /** 一步之内移动超过这么多格视为瞬移（重生、传送），不插值 */
+    private static final float SNAP_DISTANCE = 1.5f;
+
+    private float prevX;
+    private float prevY;
+    private boolean hasPrevious;
+
+    private float realX;
+    private float realY;
+    private float renderX;
+    private float renderY;
+    private boolean applied;
+
+    public void save(float x, float y) {
+        prevX = x;
+        prevY = y;
+        hasPrevious = true;
+    }
+
+    /**
+     * 记下真实位置并算出插值位置；返回 false 表示不需要替换（没有上一步或是瞬移）
+     */
+    public boolean begin(float x, float y, float alpha) {
+        if (applied || !hasPrevious) return false;
+        float dx = x - prevX;
+        float dy = y - prevY;
+        if (dx == 0f && dy == 0f) return false;
+        if (Math.abs(dx) > SNAP_DISTANCE || Math.abs(dy) > SNAP_DISTANCE) return false;
+
+        realX = x;
+        realY = y;
+        renderX = prevX + dx * alpha;
+        renderY = prevY + dy * alpha;
+        applied = true;
+        return true;
+    }
+
+    public boolean isApplied() { return applied; }
+    public float getRenderX() { return renderX; }
+    public float getRenderY() { return renderY; }
+
+    public float getRealX() { return realX; }
+    public float getRealY() { return realY; }
+
+    public void end() {
+        applied = false;
+    }
+}
@@ -2,9 +2,11 @@
 
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import de.tum.cit.fop.maze.entities.GameObject;
+import de.tum.cit.fop.maze.entities.Interpolated;
+import de.tum.cit.fop.maze.entities.InterpolationState;
 import de.tum.cit.fop.maze.game.GameManager;
 
-public abstract class DynamicObstacle extends GameObject {
+public abstract class DynamicObstacle extends GameObject implements Interpolated {
 
     public DynamicObstacle(int x, int y) {
         super(x, y);  // 使用 GameObject 的坐标系统
@@ -31,4 +33,18 @@ public float getWorldY() {
         return worldY;
     }
 
+    /* ================= 渲染插值 ================= */
+
+    private final InterpolationState interpolation = new InterpolationState();
+
+    @Override
+    public InterpolationState getInterpolation() {
+        return interpolation;
+    }
+
+    @Override
+    public void setWorldPosition(float worldX, float worldY) {
+        this.worldX = worldX;
+        this.worldY = worldY;
+    }
 }
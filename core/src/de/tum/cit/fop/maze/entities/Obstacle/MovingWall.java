@@ -215,6 +215,28 @@ public void update(float delta, GameManager gm) {
         }
     }
 
+    /* ================= 占用矩形（空间索引） ================= */
+
+    @Override
+    public int getFootprintX() {
+        return isMoving ? Math.min(x, (int) targetX) : x;
+    }
+
+    @Override
+    public int getFootprintY() {
+        return isMoving ? Math.min(y, (int) targetY) : y;
+    }
+
+    @Override
+    public int getFootprintWidth() {
+        return isMoving ? Math.abs((int) targetX - x) + 1 : 1;
+    }
+
+    @Override
+    public int getFootprintHeight() {
+        return isMoving ? Math.abs((int) targetY - y) + 1 : 1;
+    }
+
     /**
      * 移动过程中：同时占用当前格子和目标格子
      */
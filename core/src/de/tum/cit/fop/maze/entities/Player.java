@@ -12,10 +12,11 @@
 import de.tum.cit.fop.maze.entities.chapter.Chapter1Relic;
 import de.tum.cit.fop.maze.game.GameConstants;
 import de.tum.cit.fop.maze.game.GameManager;
+import de.tum.cit.fop.maze.game.GameRuntime;
 import de.tum.cit.fop.maze.utils.Logger;
 import de.tum.cit.fop.maze.utils.TextureManager; // 确保包含这个
 
-public class Player extends GameObject {
+public class Player extends GameObject implements Interpolated {
 
     private GameManager gameManager;
 
@@ -166,6 +167,34 @@ public Player(int x, int y, GameManager gameManager, PlayerIndex index) {
         this.targetY = y;
         this.playerIndex = index;
 
+        // 无头模式只跑模拟，不加载任何图集
+        if (!GameRuntime.isHeadless()) {
+            loadAnimations();
+        }
+
+        abilityManager = new AbilityManager(this, gameManager);
+
+        Logger.gameEvent("Player spawned at " + getPositionString());
+    }
+
+    public Player(int x, int y) {
+        super(x, y);
+        this.worldX = x;
+        this.worldY = y;
+        this.targetX = x;
+        this.targetY = y;
+        this.playerIndex = PlayerIndex.P1;
+        this.isTutorial = true;
+        this.lives = 1;
+        this.maxLives = 1;
+
+        if (!GameRuntime.isHeadless()) {
+            loadPlayer1Animations();
+        }
+        this.abilityManager = null;
+    }
+
+    private void loadAnimations() {
         if (playerIndex == PlayerIndex.P2) {
             loadPlayer2Animations();
             castAtlas = new TextureAtlas("ani/Character/magic/player2.atlas");
@@ -178,10 +207,6 @@ public Player(int x, int y, GameManager gameManager, PlayerIndex index) {
             loadPlayer1Animations();
         }
 
-        abilityManager = new AbilityManager(this, gameManager);
-
-        Logger.gameEvent("Player spawned at " + getPositionString());
-
         if (playerIndex == PlayerIndex.P1) {
             TextureAtlas attackAtlas = new TextureAtlas("ani/Character/melee/player1.atlas");
             backAtkAnim = new Animation<>(0.08f, attackAtlas.findRegions("player1_back"), Animation.PlayMode.NORMAL);
@@ -197,21 +222,6 @@ public Player(int x, int y, GameManager gameManager, PlayerIndex index) {
         }
     }
 
-    public Player(int x, int y) {
-        super(x, y);
-        this.worldX = x;
-        this.worldY = y;
-        this.targetX = x;
-        this.targetY = y;
-        this.playerIndex = PlayerIndex.P1;
-        this.isTutorial = true;
-        this.lives = 1;
-        this.maxLives = 1;
-
-        loadPlayer1Animations();
-        this.abilityManager = null;
-    }
-
     private void loadPlayer1Animations() {
         frontAtlas = new TextureAtlas("ani/Character/player1/front.atlas");
         backAtlas  = new TextureAtlas("ani/Character/player1/back.atlas");
@@ -903,4 +913,13 @@ public TextureRegion getCurrentFrame() {
         // 4. 返回当前帧
         return anim.getKeyFrame(timeState, looping);
     }
-}
\ No newline at end of file
+
+    /* ================= 渲染插值 ================= */
+
+    private final InterpolationState interpolation = new InterpolationState();
+
+    @Override
+    public InterpolationState getInterpolation() {
+        return interpolation;
+    }
+}
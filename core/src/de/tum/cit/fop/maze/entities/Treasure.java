@@ -1,11 +1,12 @@
 package de.tum.cit.fop.maze.entities;
 
-import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import de.tum.cit.fop.maze.game.GameConstants;
+import de.tum.cit.fop.maze.game.GameRuntime;
+import de.tum.cit.fop.maze.utils.AtlasManager;
 import de.tum.cit.fop.maze.utils.Logger;
 import de.tum.cit.fop.maze.utils.TextureManager;
 
@@ -16,8 +17,8 @@
 public class Treasure extends GameObject {
 
     private boolean isOpened = false;
-    private Texture closedTexture;
-    private Texture openTexture;
+    private TextureRegion closedTexture;
+    private TextureRegion openTexture;
     private TextureManager textureManager;
     private boolean needsTextureUpdate = true;
 
@@ -47,10 +48,10 @@ public boolean isPassable() {
     }
 
     private void updateTexture() {
-        if (closedTexture == null || openTexture == null) {
+        if ((closedTexture == null || openTexture == null) && !GameRuntime.isHeadless()) {
             try {
-                closedTexture = new Texture(Gdx.files.internal("imgs/Items/chest_closed.png"));
-                openTexture = new Texture(Gdx.files.internal("imgs/Items/chest_open.png"));
+                closedTexture = AtlasManager.getInstance().findRegion("imgs/Items/chest_closed.png");
+                openTexture = AtlasManager.getInstance().findRegion("imgs/Items/chest_open.png");
             } catch (Exception e) {
                 Logger.error("Failed to load treasure textures: " + e.getMessage());
             }
@@ -66,7 +67,7 @@ public void onTextureModeChanged() {
     @Override
     public void drawSprite(SpriteBatch batch) {
         if (needsTextureUpdate) updateTexture();
-        Texture currentTexture = isOpened ? openTexture : closedTexture;
+        TextureRegion currentTexture = isOpened ? openTexture : closedTexture;
         if (currentTexture != null) {
             batch.draw(currentTexture, x * GameConstants.CELL_SIZE, y * GameConstants.CELL_SIZE, GameConstants.CELL_SIZE, GameConstants.CELL_SIZE);
         }
@@ -92,7 +93,8 @@ public RenderType getRenderType() {
     }
 
     public void dispose() {
-        if (closedTexture != null) closedTexture.dispose();
-        if (openTexture != null) openTexture.dispose();
+        // 贴图是道具图集里共享的区域，不在这里释放
+        closedTexture = null;
+        openTexture = null;
     }
 }
\ No newline at end of file
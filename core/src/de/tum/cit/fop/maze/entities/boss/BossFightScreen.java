@@ -33,6 +33,7 @@
 import de.tum.cit.fop.maze.utils.BossCamera;
 import de.tum.cit.fop.maze.utils.BossMazeCamera;
 import de.tum.cit.fop.maze.utils.CameraManager;
+import de.tum.cit.fop.maze.utils.ViewCuller;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
@@ -144,6 +145,7 @@ private enum BossDeathState {
     private float bossDeathTimer = 0f;
 
     private ShapeRenderer shapeRenderer;
+    private final ViewCuller viewCuller = new ViewCuller();
 
     private enum PhaseTransitionState {
         NONE,        // 正常游戏
@@ -338,6 +340,8 @@ public void render(float delta) {
 
 
         update(delta);
+        // 实体画在上一步与当前步之间的插值位置
+        gameManager.beginInterpolatedRender();
 
 
         // ===== 清屏 =====
@@ -467,12 +471,12 @@ && shouldRenderGameplay()) {
             Gdx.gl.glStencilOp(GL20.GL_KEEP, GL20.GL_KEEP, GL20.GL_KEEP);
 
             batch.setProjectionMatrix(cam.combined);
+            // 杯口圆形只占镜头的一部分，按镜头范围裁剪即可
+            viewCuller.begin(cam);
             batch.begin();
 
             mazeRenderer.renderFloor(batch);
-            for (MazeRenderer.WallGroup g : mazeRenderer.getWallGroups()) {
-                mazeRenderer.renderWallGroup(batch, g);
-            }
+            mazeRenderer.renderWalls(batch, viewCuller);
 
 
             // =====================================
@@ -481,28 +485,28 @@ && shouldRenderGameplay()) {
 
 // 🔑 Keys
             for (Key k : gameManager.getKeys()) {
-                if (k != null && k.isActive()) {
+                if (k != null && k.isActive() && viewCuller.isVisible(k)) {
                     k.drawSprite(batch);
                 }
             }
 
 // ❤️ Hearts
             for (Heart h : gameManager.getHearts()) {
-                if (h != null && h.isActive()) {
+                if (h != null && h.isActive() && viewCuller.isVisible(h)) {
                     h.drawSprite(batch);
                 }
             }
 
 // 💰 Treasures
             for (Treasure t : gameManager.getTreasures()) {
-                if (t != null && t.isActive()) {
+                if (t != null && t.isActive() && viewCuller.isVisible(t)) {
                     t.drawSprite(batch);
                 }
             }
 
 // 📦 Heart Containers（E04 掉落，可选）
             for (HeartContainer hc : gameManager.getHeartContainers()) {
-                if (hc != null && hc.isActive()) {
+                if (hc != null && hc.isActive() && viewCuller.isVisible(hc)) {
                     hc.drawSprite(batch);
                 }
             }
@@ -554,15 +558,15 @@ && shouldRenderGameplay()) {
             }
 
             for (Enemy e : gameManager.getEnemies()) {
-                if (e.isActive()) {
+                if (e.isActive() && viewCuller.isVisible(e)) {
                     e.drawSprite(batch);
                 }
             }
             if (gameManager.getBobaBulletEffectManager() != null) {
-                gameManager.getBobaBulletEffectManager().render(batch);
+                gameManager.getBobaBulletEffectManager().render(batch, viewCuller);
             }
             if (gameManager.getCombatEffectManager() != null) {
-                gameManager.getCombatEffectManager().renderSprites(batch);
+                gameManager.getCombatEffectManager().renderSprites(batch, viewCuller);
             }
 
 
@@ -592,9 +596,10 @@ && shouldRenderGameplay()) {
 
                 shapeRenderer.setProjectionMatrix(cam.combined);
                 shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
-                gameManager.getCombatEffectManager().renderShapes(shapeRenderer);
+                gameManager.getCombatEffectManager().renderShapes(shapeRenderer, viewCuller);
                 shapeRenderer.end();
             }
+            viewCuller.report();
             Gdx.gl.glDisable(GL20.GL_STENCIL_TEST);
 
 
@@ -661,8 +666,7 @@ && shouldRenderGameplay()) {
         }
         drawRageFlashOverlay();
 
-
-        
+        gameManager.endInterpolatedRender();
     }
 
     private void drawRageFlashOverlay() {
@@ -864,7 +868,7 @@ private void update(float delta) {
 
 
         if (!isMazeFrozen()) {
-            gameManager.update(delta);
+            gameManager.advance(delta);
         }
 
         updateCupShake(delta);
@@ -1164,7 +1168,7 @@ private void applyPhase(BossMazeConfig.Phase phase) {
             gameManager.rebuildMazeForBossWithPrebuilt(dc, preload.maze);
         } else {
             // 兜底（极少发生）
-            gameManager.rebuildMazeForBoss(dc);
+            gameManager.rebuildMazeForBoss(dc, phase.index);
         }
 
         difficultyConfig = dc;
@@ -1443,7 +1447,12 @@ private boolean isPlayerInsideAOE(Player player, BossAOE aoe) {
         float dx = px - aoe.x;
         float dy = py - aoe.y;
 
-        return dx * dx + dy * dy <= aoe.radius * aoe.radius;
+        if (dx * dx + dy * dy > aoe.radius * aoe.radius) return false;
+
+        // 冲击被墙挡住：从 AOE 中心格到玩家格需要视线
+        int cx = (int) (aoe.x / GameConstants.CELL_SIZE);
+        int cy = (int) (aoe.y / GameConstants.CELL_SIZE);
+        return gameManager.getLineOfSight().hasLineOfSight(cx, cy, player.getX(), player.getY());
     }
 
 
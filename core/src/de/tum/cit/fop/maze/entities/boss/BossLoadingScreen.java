@@ -23,7 +23,9 @@
 import de.tum.cit.fop.maze.entities.boss.config.BossMazeConfig;
 import de.tum.cit.fop.maze.entities.boss.config.BossMazeConfigLoader;
 import de.tum.cit.fop.maze.game.DifficultyConfig;
+import de.tum.cit.fop.maze.game.LevelPreloader;
 import de.tum.cit.fop.maze.maze.MazeGenerator;
+import de.tum.cit.fop.maze.maze.MazeGrid;
 import de.tum.cit.fop.maze.screen.MenuScreen;
 import de.tum.cit.fop.maze.utils.BlockingInputProcessor;
 
@@ -170,12 +172,13 @@ public void render(float delta) {
 
     private void preloadAllPhasesAsync() {
 
-        new Thread(() -> {
+        // 复用关卡预生成的后台线程，不再单独起 Thread
+        LevelPreloader.submit(() -> {
 
             BossMazeConfig config =
                     BossMazeConfigLoader.loadOne("story_file/boss/boss_phases.json");
 
-            // ⭐ 每个线程一个独立 generator（安全）
+            // ⭐ 每个任务一个独立 generator（安全）
             MazeGenerator generator = new MazeGenerator();
 
             for (int i = 0; i < 3; i++) {
@@ -186,7 +189,7 @@ private void preloadAllPhasesAsync() {
                         BossDifficultyFactory.create(config.base, phase);
 
                 // ✅ 正确方法名（与你工程一致）
-                int[][] maze = generator.generateMaze(dc);
+                MazeGrid maze = generator.generateMaze(dc);
 
                 BossPhasePreloadData data = new BossPhasePreloadData();
                 data.maze = maze;
@@ -201,7 +204,7 @@ private void preloadAllPhasesAsync() {
                 );
             }
 
-        }, "BossPhasePreloader").start();
+        });
 
     }
 
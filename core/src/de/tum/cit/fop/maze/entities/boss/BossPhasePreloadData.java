@@ -1,8 +1,9 @@
 package de.tum.cit.fop.maze.entities.boss;
 
 import de.tum.cit.fop.maze.entities.boss.config.BossMazeConfig;
+import de.tum.cit.fop.maze.maze.MazeGrid;
 
 public class BossPhasePreloadData {
-    public int[][] maze;
+    public MazeGrid maze;
     public BossMazeConfig.Phase phase;
 }
\ No newline at end of file
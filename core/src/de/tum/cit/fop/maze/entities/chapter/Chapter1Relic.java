@@ -6,6 +6,7 @@
 import de.tum.cit.fop.maze.entities.GameObject;
 import de.tum.cit.fop.maze.entities.Player;
 import de.tum.cit.fop.maze.game.GameConstants;
+import de.tum.cit.fop.maze.game.GameRuntime;
 import de.tum.cit.fop.maze.utils.Logger;
 import de.tum.cit.fop.maze.utils.TextureManager;
 
@@ -30,7 +31,7 @@ public Chapter1Relic(int x, int y, RelicData data, ChapterContext chapterContext
             return;
         }
 
-        if (relicTexture == null) {
+        if (relicTexture == null && !GameRuntime.isHeadless()) {
             relicTexture = new Texture("imgs/Items/chapter1_relic.png");
         }
 
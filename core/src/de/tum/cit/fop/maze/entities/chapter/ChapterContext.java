@@ -1,8 +1,8 @@
 package de.tum.cit.fop.maze.entities.chapter;
 
 import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.utils.Json;
+import de.tum.cit.fop.maze.utils.GameRandom;
 import de.tum.cit.fop.maze.utils.Logger;
 
 import java.util.*;
@@ -78,7 +78,7 @@ public RelicData requestRelic() {
 
         if (pool.isEmpty()) return null;
 
-        activeRelic = pool.get(MathUtils.random(pool.size() - 1));
+        activeRelic = pool.get(GameRandom.random(pool.size() - 1));
         return activeRelic;
     }
 
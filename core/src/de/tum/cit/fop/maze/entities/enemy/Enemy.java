@@ -4,16 +4,23 @@
 import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
-import com.badlogic.gdx.math.MathUtils;
 import de.tum.cit.fop.maze.audio.AudioManager;
 import de.tum.cit.fop.maze.audio.AudioType;
 import de.tum.cit.fop.maze.entities.GameObject;
+import de.tum.cit.fop.maze.entities.Interpolated;
+import de.tum.cit.fop.maze.entities.InterpolationState;
+import de.tum.cit.fop.maze.entities.Player;
 import de.tum.cit.fop.maze.game.GameConstants;
 import de.tum.cit.fop.maze.game.GameManager;
+import de.tum.cit.fop.maze.game.spatial.DistanceField;
+import de.tum.cit.fop.maze.maze.PathRequest;
+import de.tum.cit.fop.maze.maze.PathfindingService;
 import de.tum.cit.fop.maze.utils.Logger;
 import de.tum.cit.fop.maze.utils.TextureManager;
 
-public abstract class Enemy extends GameObject {
+import java.util.Random;
+
+public abstract class Enemy extends GameObject implements Interpolated {
 
     // ... (Variables omitted) ...
     protected float worldX;
@@ -52,8 +59,21 @@ public abstract class Enemy extends GameObject {
     protected static final int[][] CARDINAL_DIRS = {{1,0}, {-1,0}, {0,1}, {0,-1}};
     protected GameManager gameManager;
 
+    // 巡逻锚点（出生位置）；离开超过 PATROL_RADIUS 后沿寻路回来
+    protected final int homeX;
+    protected final int homeY;
+    protected static final int PATROL_RADIUS = 6;
+    private PathRequest route;
+
+    /** 每个敌人独立的随机数：决策阶段可能在工作线程运行，不能共用 MathUtils 的全局随机数 */
+    protected final Random rng;
+
     public Enemy(int x, int y) {
         super(x, y);
+        this.homeX = x;
+        this.homeY = y;
+        // 默认按出生格播种；由 GameManager 登记时会用 seedRandom 换成关卡种子派生的序列
+        this.rng = new Random(x * 0x9E3779B97F4A7C15L + y * 0xC2B2AE3D27D4EB4FL);
         this.worldX = x;
         this.worldY = y;
         textureManager = TextureManager.getInstance();
@@ -61,6 +81,10 @@ public Enemy(int x, int y) {
         texture = null;
     }
 
+    public void seedRandom(long seed) {
+        rng.setSeed(seed);
+    }
+
     protected abstract void updateTexture();
     public abstract void update(float delta, GameManager gm);
 
@@ -116,6 +140,28 @@ protected void updateHitFlash(float delta) {
     }
 
     public void setGameManager(GameManager gm) { this.gameManager = gm; }
+
+    /**
+     * 敌人格子坐标的唯一写入口：写入后立即同步空间索引（占用格子没变时只比较一次矩形）。
+     * 只能在渲染线程调用，决策阶段只写意图
+     */
+    public final void moveTo(int nx, int ny) {
+        x = nx;
+        y = ny;
+        GameManager gm = gameManager;
+        if (gm != null && gm.getSpatialIndex() != null) {
+            gm.getSpatialIndex().update(this);
+        }
+    }
+
+    @Override
+    public void setPosition(int x, int y) { moveTo(x, y); }
+
+    @Override
+    public void setX(int x) { moveTo(x, y); }
+
+    @Override
+    public void setY(int y) { moveTo(x, y); }
     public enum Direction { UP, DOWN, LEFT, RIGHT }
 
     @Override
@@ -221,8 +267,7 @@ protected AudioType getAttackSound() {
     }
 
     protected void startMoveTo(int nx, int ny) {
-        x = nx;
-        y = ny;
+        moveTo(nx, ny);
         targetX = nx;
         targetY = ny;
         isMoving = true;
@@ -240,7 +285,7 @@ protected void tryMoveRandom(float delta, GameManager gm) {
         for (int i = 0; i < 4; i++) {
             int nx = x + dirX;
             int ny = y + dirY;
-            if (gm.isEnemyValidMove(nx, ny)) {
+            if (canStepTo(gm, nx, ny)) {
                 startMoveTo(nx, ny);
                 moveCooldown = moveInterval;
                 return;
@@ -249,8 +294,221 @@ protected void tryMoveRandom(float delta, GameManager gm) {
         }
     }
 
+    /* ================== 两阶段更新 ================== */
+
+    /** 单独调用 update 时复用的意图；只在渲染线程使用，decide + apply 之间不会重入 */
+    private static final EnemyIntent SOLO_INTENT = new EnemyIntent();
+
+    /**
+     * 不经调度器、单独调用 update 时：用本帧快照决策后立即应用
+     */
+    protected final void decideAndApply(float delta, GameManager gm) {
+        setGameManager(gm);
+        EnemyIntent intent = SOLO_INTENT;
+        intent.reset();
+        decide(delta, gm.getEnemySnapshot(), intent);
+        boolean accepted = intent.hasMove() && gm.isEnemyValidMove(intent.getMoveX(), intent.getMoveY());
+        apply(delta, gm, intent, accepted);
+    }
+
+    /**
+     * 是否实现了 {@link #decide} / {@link #apply}；否则由调度器在应用阶段直接调用 update
+     */
+    public boolean supportsIntents() {
+        return false;
+    }
+
+    /**
+     * 决策阶段：只读 snapshot，只修改自身状态（计时器、动画、随机数），结果写进 out。
+     * 可能与其他敌人的 decide 并行执行，不得访问 GameManager 或其他实体
+     */
+    public void decide(float delta, EnemyTickSnapshot snapshot, EnemyIntent out) {
+    }
+
+    /**
+     * 应用阶段（渲染线程，按敌人列表顺序）：落实意图。
+     * moveAccepted 表示 out.moveTo 的格子通过了校验且没有被本帧更早的敌人占走
+     */
+    public void apply(float delta, GameManager gm, EnemyIntent intent, boolean moveAccepted) {
+        if (moveAccepted) {
+            startMoveTo(intent.moveX, intent.moveY);
+        } else if (intent.route && !followRoute(gm, intent.routeX, intent.routeY)) {
+            // 回不去（不可达/已到达）：本帧改为随机走一步
+            moveCooldown = 0f;
+            tryMoveRandom(0f, gm);
+        }
+        applyActions(gm, intent);
+        if (intent.sound != null) {
+            AudioManager.getInstance().play(intent.sound);
+        }
+        if (intent.advanceMotion) {
+            moveContinuously(delta);
+        }
+    }
+
+    /**
+     * 移动落实之后、播放音效之前：子类在这里执行射击等需要改动世界的动作
+     */
+    protected void applyActions(GameManager gm, EnemyIntent intent) {
+    }
+
+    /**
+     * 决策版 tryMoveRandom：按快照判断能否通行，移动写进意图
+     */
+    protected void decideRandomStep(float delta, EnemyTickSnapshot snapshot, EnemyIntent out) {
+        if (isMoving) return;
+        moveCooldown -= delta;
+        dirCooldown -= delta;
+        if (dirCooldown <= 0f) {
+            pickRandomDir();
+            dirCooldown = changeDirInterval;
+        }
+        if (moveCooldown > 0f) return;
+        for (int i = 0; i < 4; i++) {
+            int nx = x + dirX;
+            int ny = y + dirY;
+            if (snapshot.isWalkable(nx, ny)) {
+                out.moveTo(nx, ny);
+                moveCooldown = moveInterval;
+                return;
+            }
+            pickRandomDir();
+        }
+    }
+
+    /**
+     * 决策版 patrolAroundHome：回出生点的寻路留给应用阶段
+     */
+    protected void decidePatrolAroundHome(float delta, EnemyTickSnapshot snapshot, EnemyIntent out) {
+        if (isMoving) return;
+        if (Math.abs(x - homeX) + Math.abs(y - homeY) > PATROL_RADIUS) {
+            moveCooldown -= delta;
+            if (moveCooldown > 0f) return;
+            out.routeTo(homeX, homeY);
+            moveCooldown = moveInterval;
+            return;
+        }
+        decideRandomStep(delta, snapshot, out);
+    }
+
+    /**
+     * 实体边长（格），寻路时按它查净空图
+     */
+    protected int getPathSize() {
+        return 1;
+    }
+
+    /**
+     * 锚点移动到 (nx, ny) 是否合法；多格实体需要覆盖
+     */
+    protected boolean canStepTo(GameManager gm, int nx, int ny) {
+        return gm.isEnemyValidMove(nx, ny);
+    }
+
+    /**
+     * 在出生点附近随机巡逻；走得太远时先沿路径回到出生点
+     */
+    protected void patrolAroundHome(float delta, GameManager gm) {
+        if (isMoving) return;
+        if (Math.abs(x - homeX) + Math.abs(y - homeY) > PATROL_RADIUS) {
+            moveCooldown -= delta;
+            if (moveCooldown > 0f) return;
+            if (followRoute(gm, homeX, homeY)) {
+                moveCooldown = moveInterval;
+                return;
+            }
+        }
+        tryMoveRandom(delta, gm);
+    }
+
+    /**
+     * 沿寻路服务给出的路径朝 (gx, gy) 走一步。
+     * 路径还在排队计算时原地等待并返回 true；不可达、已到达或偏离路径时返回 false，由调用方兜底
+     */
+    protected boolean followRoute(GameManager gm, int gx, int gy) {
+        PathfindingService pathfinding = gm.getPathfinding();
+        if (pathfinding == null) return false;
+
+        int pathSize = getPathSize();
+        boolean stale = route == null
+                || !route.matches(gx, gy, pathSize)
+                || route.getStatus() == PathRequest.Status.CANCELLED
+                // 不可达的结果只对同一起点有效，换了位置再试一次
+                || (route.getStatus() == PathRequest.Status.NO_PATH
+                    && (route.getStartX() != x || route.getStartY() != y));
+        if (stale) {
+            pathfinding.cancel(route);
+            route = pathfinding.request(x, y, gx, gy, pathSize);
+        }
+        if (!route.isDone()) return true;
+
+        int dir = route.nextStep(x, y);
+        if (dir == PathfindingService.NO_STEP) {
+            if (route.isFound()) route = null;
+            return false;
+        }
+
+        int nx = x + CARDINAL_DIRS[dir][0];
+        int ny = y + CARDINAL_DIRS[dir][1];
+        if (!canStepTo(gm, nx, ny)) {
+            route = null;
+            return false;
+        }
+        startMoveTo(nx, ny);
+        return true;
+    }
+
+    /**
+     * 死亡或被移除时撤掉还在排队的寻路请求，别占后面请求的节点预算
+     */
+    public void cancelRoute(PathfindingService pathfinding) {
+        if (pathfinding != null) pathfinding.cancel(route);
+        route = null;
+    }
+
+    /**
+     * 追击方向（CARDINAL_DIRS 下标）：沿目标玩家的距离场走，能绕开墙；
+     * 距离场不可用时退回按坐标差的贪心方向。已重合时返回 DistanceField.NO_STEP
+     */
+    protected int chooseChaseDir(GameManager gm, Player target) {
+        return chooseChaseDir(gm.getDistanceField(target), target.getX(), target.getY());
+    }
+
+    protected int chooseChaseDir(DistanceField field, int targetX, int targetY) {
+        if (field != null) {
+            int dir = field.stepToward(x, y);
+            if (dir != DistanceField.NO_STEP) return dir;
+        }
+        return greedyDir(targetX, targetY);
+    }
+
+    /**
+     * 后撤方向：沿距离场走向更远的格子，否则取贪心方向的反方向
+     */
+    protected int chooseRetreatDir(GameManager gm, Player target) {
+        return chooseRetreatDir(gm.getDistanceField(target), target.getX(), target.getY());
+    }
+
+    protected int chooseRetreatDir(DistanceField field, int targetX, int targetY) {
+        if (field != null) {
+            int dir = field.stepAway(x, y);
+            if (dir != DistanceField.NO_STEP) return dir;
+        }
+        int dir = greedyDir(targetX, targetY);
+        return dir == DistanceField.NO_STEP ? dir : dir ^ 1;
+    }
+
+    /** 只走正交：取坐标差较大的轴（相等时走 y 轴） */
+    private int greedyDir(int targetX, int targetY) {
+        int dx = Integer.compare(targetX, x);
+        int dy = Integer.compare(targetY, y);
+        if (Math.abs(dx) > Math.abs(dy)) return dx > 0 ? 0 : 1;
+        if (dy != 0) return dy > 0 ? 2 : 3;
+        return DistanceField.NO_STEP;
+    }
+
     protected void pickRandomDir() {
-        int[] dir = CARDINAL_DIRS[MathUtils.random(0, CARDINAL_DIRS.length - 1)];
+        int[] dir = CARDINAL_DIRS[rng.nextInt(CARDINAL_DIRS.length)];
         dirX = dir[0];
         dirY = dir[1];
     }
@@ -268,4 +526,19 @@ protected void pickRandomDir() {
     public void markHitByDash() { hitByDash = true; }
     public void resetDashHit() { hitByDash = false; }
     public boolean occupiesCell(int cellX, int cellY) { return active && cellX == x && cellY == y; }
-}
\ No newline at end of file
+
+    /* ================= 渲染插值 ================= */
+
+    private final InterpolationState interpolation = new InterpolationState();
+
+    @Override
+    public InterpolationState getInterpolation() {
+        return interpolation;
+    }
+
+    @Override
+    public void setWorldPosition(float worldX, float worldY) {
+        this.worldX = worldX;
+        this.worldY = worldY;
+    }
+}
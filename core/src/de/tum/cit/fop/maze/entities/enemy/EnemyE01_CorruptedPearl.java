@@ -11,6 +11,8 @@
 import de.tum.cit.fop.maze.entities.enemy.EnemyBoba.BobaBullet;
 import de.tum.cit.fop.maze.game.GameConstants;
 import de.tum.cit.fop.maze.game.GameManager;
+import de.tum.cit.fop.maze.game.GameRuntime;
+import de.tum.cit.fop.maze.game.spatial.DistanceField;
 import de.tum.cit.fop.maze.entities.Player;
 import de.tum.cit.fop.maze.utils.Logger;
 
@@ -81,6 +83,7 @@ public void drawSprite(SpriteBatch batch) {
 
     @Override
     protected void updateTexture() {
+        if (GameRuntime.isHeadless()) return;
         Logger.debug("E01 updateTexture CALLED");
         // 1️⃣ 前（DOWN）
         TextureAtlas frontAtlas =
@@ -124,6 +127,16 @@ protected void updateTexture() {
 
     @Override
     public void update(float delta, GameManager gm) {
+        decideAndApply(delta, gm);
+    }
+
+    @Override
+    public boolean supportsIntents() {
+        return true;
+    }
+
+    @Override
+    public void decide(float delta, EnemyTickSnapshot snapshot, EnemyIntent out) {
 
         if (isMoving) {
             stateTime += delta;
@@ -136,14 +149,16 @@ public void update(float delta, GameManager gm) {
         updateHitFlash(delta);
 
         // ✅ 唯一合法目标来源
-        Player target = gm.getNearestAlivePlayer(x, y);
-        if (target == null) return;
+        int target = snapshot.nearestPlayer(x, y);
+        if (target < 0) return;
 
-        float dist = distanceTo(target);
+        int tx = snapshot.getPlayerX(target);
+        int ty = snapshot.getPlayerY(target);
 
         shootCooldown -= delta;
 
-        state = (dist <= detectRange)
+        // 射程内且没有墙挡着才进入攻击
+        state = snapshot.canSee(x, y, tx, ty, detectRange)
                 ? EnemyState.ATTACK
                 : EnemyState.PATROL;
 
@@ -152,8 +167,8 @@ public void update(float delta, GameManager gm) {
             attackTimer += delta;
 
             if (attackTimer >= ATTACK_WINDUP) {
-                shootAt(target, gm);
-                AudioManager.getInstance().play(AudioType.ENEMY_ATTACK_E01);
+                out.shootAt(tx, ty);
+                out.sound = AudioType.ENEMY_ATTACK_E01;
                 shootCooldown = SHOOT_INTERVAL;
                 attackTimer = -ATTACK_FLASH;
             }
@@ -167,21 +182,27 @@ public void update(float delta, GameManager gm) {
         }
 
         switch (state) {
-            case PATROL -> patrol(delta, gm);
-            case ATTACK -> combat(delta, gm, target, dist);
+            case PATROL -> decidePatrolAroundHome(delta, snapshot, out);
+            case ATTACK -> combat(snapshot, target, out);
         }
 
-        moveContinuously(delta);
+        out.advanceMotion = true;
     }
 
-
-    private void patrol(float delta, GameManager gm) {
-        tryMoveRandom(delta, gm);
+    @Override
+    protected void applyActions(GameManager gm, EnemyIntent intent) {
+        // 在移动之后开火：子弹从新位置射出（与原先的顺序一致）
+        if (intent.shoot) {
+            shootAt(intent.shootTargetX, intent.shootTargetY, gm);
+        }
     }
 
-    private void combat(float delta, GameManager gm, Player target, float dist) {
+    private void combat(EnemyTickSnapshot snapshot, int target, EnemyIntent out) {
 
         float idealDistance = detectRange * 0.5f;
+        int tx = snapshot.getPlayerX(target);
+        int ty = snapshot.getPlayerY(target);
+        float dist = distanceTo(tx, ty);
 
         if (shootCooldown <= 0f && !isAttacking) {
             isAttacking = true;
@@ -189,52 +210,47 @@ private void combat(float delta, GameManager gm, Player target, float dist) {
         }
 
         if (!isMoving) {
-            int dx = Integer.compare(target.getX(), x);
-            int dy = Integer.compare(target.getY(), y);
-
-            if (Math.abs(dx) > Math.abs(dy)) {
-                dy = 0;
-            } else {
-                dx = 0;
+            // 靠近 / 后撤都沿距离场走，不会卡在墙后
+            DistanceField field = snapshot.getDistanceField(target);
+            int dir = DistanceField.NO_STEP;
+            if (dist > idealDistance + 0.5f) {
+                dir = chooseChaseDir(field, tx, ty);
+            } else if (dist < idealDistance - 0.5f) {
+                dir = chooseRetreatDir(field, tx, ty);
             }
 
-            int nx = x + dx;
-            int ny = y + dy;
-
-            if (dist > idealDistance + 0.5f && gm.isEnemyValidMove(nx, ny)) {
-                startMoveTo(nx, ny);
-            } else if (dist < idealDistance - 0.5f) {
-                int bx = x - dx;
-                int by = y - dy;
-                if (gm.isEnemyValidMove(bx, by)) {
-                    startMoveTo(bx, by);
+            if (dir != DistanceField.NO_STEP) {
+                int nx = x + CARDINAL_DIRS[dir][0];
+                int ny = y + CARDINAL_DIRS[dir][1];
+                if (snapshot.isWalkable(nx, ny)) {
+                    out.moveTo(nx, ny);
                 }
             }
         }
 
         if (shootCooldown <= 0f) {
-            shootAt(target, gm);
+            out.shootAt(tx, ty);
             shootCooldown = SHOOT_INTERVAL;
         }
     }
 
 
-    private void shootAt(Player target, GameManager gm) {
-        float dx = target.getX() - x;
-        float dy = target.getY() - y;
+    private void shootAt(int targetX, int targetY, GameManager gm) {
+        float dx = targetX - x;
+        float dy = targetY - y;
 
         BobaBullet bullet = new BobaBullet(
                 x + 0.5f, y + 0.5f, dx, dy, attack
         );
 
         gm.spawnProjectile(bullet);
-        Logger.debug("✅ E01 发射 BobaBullet → " + target.getPlayerIndex());
+        Logger.debug("✅ E01 发射 BobaBullet → (" + targetX + "," + targetY + ")");
     }
 
 
-    private float distanceTo(Player p) {
-        float dx = p.getX() - x;
-        float dy = p.getY() - y;
+    private float distanceTo(int targetX, int targetY) {
+        float dx = targetX - x;
+        float dy = targetY - y;
         return (float) Math.sqrt(dx * dx + dy * dy);
     }
 }
@@ -5,12 +5,12 @@
 import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
-import com.badlogic.gdx.math.MathUtils;
 import de.tum.cit.fop.maze.audio.AudioManager;
 import de.tum.cit.fop.maze.audio.AudioType;
 import de.tum.cit.fop.maze.entities.Player;
 import de.tum.cit.fop.maze.game.GameConstants;
 import de.tum.cit.fop.maze.game.GameManager;
+import de.tum.cit.fop.maze.game.GameRuntime;
 import de.tum.cit.fop.maze.utils.Logger;
 
 /**
@@ -23,8 +23,15 @@ public class EnemyE02_SmallCoffeeBean extends Enemy {
     private float targetWorldX;  // 连续移动目标坐标
     private float targetWorldY;
     private boolean isMovingContinuously = false;
+    /** 决策阶段走到了新格子，格子坐标等应用阶段再写 */
+    private boolean gridSyncPending = false;
     private float moveSpeedMultiplier = 1.0f;
 
+    // 决策阶段选好的新目标，应用阶段确认后生效
+    private float pendingTargetX;
+    private float pendingTargetY;
+    private float pendingSpeedMultiplier = 1.0f;
+
     private float rotation = 0f;
     private float rotationSpeed = 180f; // 度/秒
     // 🔥 动画相关
@@ -165,6 +172,7 @@ protected void drawSingleAnimation(SpriteBatch batch) {
 
     @Override
     protected void updateTexture() {
+        if (GameRuntime.isHeadless()) return;
         Logger.debug("=== E02 updateTexture 调用 ===");
 
         try {
@@ -233,6 +241,16 @@ protected void updateTexture() {
 
     @Override
     public void update(float delta, GameManager gm) {
+        decideAndApply(delta, gm);
+    }
+
+    @Override
+    public boolean supportsIntents() {
+        return true;
+    }
+
+    @Override
+    public void decide(float delta, EnemyTickSnapshot snapshot, EnemyIntent out) {
         if (!active) return;
         rotation += rotationSpeed * delta;
         if (rotation > 360f) rotation -= 360f;
@@ -241,10 +259,35 @@ public void update(float delta, GameManager gm) {
 
         // 🔥 受击闪烁
         updateHitFlash(delta);
-        updateContinuousMovement(delta, gm);}
+        updateContinuousMovement(delta, snapshot, out);
+    }
+
+    @Override
+    public void apply(float delta, GameManager gm, EnemyIntent intent, boolean moveAccepted) {
+        // 决策阶段到达了目标：格子坐标在这里（渲染线程）落实，同时更新空间索引
+        if (gridSyncPending) {
+            gridSyncPending = false;
+            moveTo(Math.round(worldX), Math.round(worldY));
+        }
+        if (!intent.hasMove()) return;
+        if (!moveAccepted) {
+            // 目标格被占或已失效：停下，下一帧重新选方向
+            isMovingContinuously = false;
+            return;
+        }
+
+        // 设置目标位置
+        targetWorldX = pendingTargetX;
+        targetWorldY = pendingTargetY;
+        isMovingContinuously = true;
+        moveSpeedMultiplier = pendingSpeedMultiplier;
+
+        // 更新格子坐标
+        moveTo(Math.round(worldX), Math.round(worldY));
+    }
 
     // 🔥 连续平滑移动逻辑
-    private void updateContinuousMovement(float delta, GameManager gm) {
+    private void updateContinuousMovement(float delta, EnemyTickSnapshot snapshot, EnemyIntent out) {
         // 如果正在移动，先更新当前位置
         if (isMovingContinuously) {
             updateContinuousPosition(delta);
@@ -252,7 +295,7 @@ private void updateContinuousMovement(float delta, GameManager gm) {
 
         // 检查是否需要选择新方向
         if (!isMovingContinuously || hasReachedTarget()) {
-            chooseNewDirection(gm);
+            chooseNewDirection(snapshot, out);
         }
     }
 
@@ -271,9 +314,8 @@ private void updateContinuousPosition(float delta) {
             worldY = targetWorldY;
             isMovingContinuously = false;
 
-            // 🔥 更新格子坐标
-            x = Math.round(worldX);
-            y = Math.round(worldY);
+            // 🔥 格子坐标留到应用阶段再写（决策阶段可能在工作线程）
+            gridSyncPending = true;
             return;
         }
 
@@ -286,9 +328,8 @@ private void updateContinuousPosition(float delta) {
             worldY = targetWorldY;
             isMovingContinuously = false;
 
-            // 🔥 更新格子坐标
-            x = Math.round(worldX);
-            y = Math.round(worldY);
+            // 🔥 格子坐标留到应用阶段再写（决策阶段可能在工作线程）
+            gridSyncPending = true;
         } else {
             // 正常移动
             worldX += (dx / distance) * moveStep;
@@ -303,11 +344,11 @@ private boolean hasReachedTarget() {
         return Math.sqrt(dx * dx + dy * dy) < 0.01f;
     }
 
-    // 🔥 选择新方向并开始移动
-    private void chooseNewDirection(GameManager gm) {
+    // 🔥 选择新方向：只记下目标，由应用阶段确认后开始移动
+    private void chooseNewDirection(EnemyTickSnapshot snapshot, EnemyIntent out) {
         // 尝试随机方向
         for (int attempt = 0; attempt < 4; attempt++) {
-            int[] dir = CARDINAL_DIRS[MathUtils.random(0, CARDINAL_DIRS.length - 1)];
+            int[] dir = CARDINAL_DIRS[rng.nextInt(CARDINAL_DIRS.length)];
             float newTargetX = worldX + dir[0];
             float newTargetY = worldY + dir[1];
 
@@ -315,21 +356,13 @@ private void chooseNewDirection(GameManager gm) {
             int gridY = Math.round(newTargetY);
 
             // 检查目标位置是否可通行
-            if (gm.isEnemyValidMove(gridX, gridY)) {
-                // 设置目标位置
-                targetWorldX = newTargetX;
-                targetWorldY = newTargetY;
-                isMovingContinuously = true;
+            if (snapshot.isWalkable(gridX, gridY)) {
+                pendingTargetX = newTargetX;
+                pendingTargetY = newTargetY;
 
                 // 🔥 随机速度变化，让移动更有趣
-                moveSpeedMultiplier = MathUtils.random(0.8f, 1.2f);
-
-                // 更新格子坐标
-                x = Math.round(worldX);
-                y = Math.round(worldY);
-
-                Logger.debug("E02 新方向: (" + dir[0] + "," + dir[1] +
-                        "), 速度倍率: " + moveSpeedMultiplier);
+                pendingSpeedMultiplier = 0.8f + rng.nextFloat() * 0.4f;
+                out.moveTo(gridX, gridY);
                 return;
             }
         }
@@ -12,6 +12,9 @@
 import de.tum.cit.fop.maze.entities.Player;
 import de.tum.cit.fop.maze.game.GameConstants;
 import de.tum.cit.fop.maze.game.GameManager;
+import de.tum.cit.fop.maze.game.GameRuntime;
+import de.tum.cit.fop.maze.game.spatial.DistanceField;
+import de.tum.cit.fop.maze.game.spatial.LineOfSight;
 import de.tum.cit.fop.maze.utils.Logger;
 
 public class EnemyE03_CaramelJuggernaut extends Enemy {
@@ -63,6 +66,7 @@ public EnemyE03_CaramelJuggernaut(int x, int y) {
 
     // 🔥 创建红色圆形贴图的方法
     private Texture createRedCircleTexture() {
+        if (GameRuntime.isHeadless()) return null;
         int size = 64; // 纹理大小
         Pixmap pixmap = new Pixmap(size, size, Pixmap.Format.RGBA8888);
 
@@ -170,6 +174,7 @@ public void drawShape(ShapeRenderer shapeRenderer) {
 
     @Override
     protected void updateTexture() {
+        if (GameRuntime.isHeadless()) return;
         Logger.debug("=== E03 updateTexture 调用 ===");
 
         try {
@@ -264,11 +269,12 @@ public void update(float delta, GameManager gm) {
             return;
         }
 
-        float dist = distanceTo(target);
+        int tx = target.getX();
+        int ty = target.getY();
 
         // =========== [开始插入] 气浪特效触发逻辑 ===========
         // 1. 进入 5 格范围内
-        if (dist <= AGGRO_TRIGGER_RANGE) {
+        if (LineOfSight.inRange(x, y, tx, ty, AGGRO_TRIGGER_RANGE)) {
             // 如果之前没触发过，现在触发
             if (!isAggroed) {
                 isAggroed = true; // 标记为已触发
@@ -283,16 +289,14 @@ public void update(float delta, GameManager gm) {
         }
         // 2. 玩家逃得够远 (2.5倍距离 = 12.5格)，重置状态
         // 这样如果你跑远了再回来，它会再次爆发气浪
-        else if (dist > AGGRO_TRIGGER_RANGE * 2.5f) {
+        else if (!LineOfSight.inRange(x, y, tx, ty, AGGRO_TRIGGER_RANGE * 2.5f)) {
             isAggroed = false;
         }
         // =========== [结束插入] =============================
 
         aoeCooldown -= delta;
 
-        boolean canSeeTarget =
-                dist <= detectRange &&
-                        !hasWallBetween(target, gm);
+        boolean canSeeTarget = gm.getLineOfSight().canSee(x, y, tx, ty, detectRange);
 
         if (canSeeTarget) {
             state = EnemyState.ATTACK;
@@ -329,32 +333,6 @@ private void updateDirection(Player player) {
             direction = (dy > 0) ? Direction.UP : Direction.DOWN;
         }
     }
-    private boolean hasWallBetween(Player player, GameManager gm) {
-
-        int px = player.getX();
-        int py = player.getY();
-
-        // 只处理同一行或同一列（正交视线）
-        if (x == px) {
-            int minY = Math.min(y, py);
-            int maxY = Math.max(y, py);
-            for (int ty = minY + 1; ty < maxY; ty++) {
-                if (gm.getMazeCell(x, ty) == 0) {
-                    return true; // 有墙
-                }
-            }
-        } else if (y == py) {
-            int minX = Math.min(x, px);
-            int maxX = Math.max(x, px);
-            for (int tx = minX + 1; tx < maxX; tx++) {
-                if (gm.getMazeCell(tx, y) == 0) {
-                    return true; // 有墙
-                }
-            }
-        }
-
-        return false; // 没被墙挡住
-    }
 
     private void tryAOEAttack(Player target, GameManager gm) {
         if (aoeCooldown > 0f) return;
@@ -362,7 +340,7 @@ private void tryAOEAttack(Player target, GameManager gm) {
         for (Player p : gm.getPlayers()) {
             if (p == null || p.isDead()) continue;
 
-            if (isPlayerInAOE(p) && !hasWallBetween(p, gm)) {
+            if (isPlayerInAOE(p) && gm.getLineOfSight().hasLineOfSight(x, y, p.getX(), p.getY())) {
                 p.takeDamage(AOE_DAMAGE);
 
                 isAoeActive = true;
@@ -380,18 +358,12 @@ private void chasePlayer(float delta, GameManager gm, Player player) {
 
         if (isMoving) return;
 
-        int dx = Integer.compare(player.getX(), x);
-        int dy = Integer.compare(player.getY(), y);
-
-        // 只走正交
-        if (Math.abs(dx) > Math.abs(dy)) {
-            dy = 0;
-        } else {
-            dx = 0;
-        }
+        // 沿距离场追击（只走正交）
+        int dir = chooseChaseDir(gm, player);
+        if (dir == DistanceField.NO_STEP) return;
 
-        int nx = x + dx;
-        int ny = y + dy;
+        int nx = x + CARDINAL_DIRS[dir][0];
+        int ny = y + CARDINAL_DIRS[dir][1];
 
         if (gm.isEnemyValidMove(nx, ny)) {
             startMoveTo(nx, ny);
@@ -409,12 +381,6 @@ private boolean isPlayerInAOE(Player player) {
     }
 
 
-    private float distanceTo(Player p) {
-        float dx = p.getX() - x;
-        float dy = p.getY() - y;
-        return (float) Math.sqrt(dx * dx + dy * dy);
-    }
-
     @Override
     protected void drawAnimated(SpriteBatch batch) {
         if (!hasAnimation()) {
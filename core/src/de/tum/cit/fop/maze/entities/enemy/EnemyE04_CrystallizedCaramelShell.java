@@ -12,6 +12,9 @@
 import de.tum.cit.fop.maze.entities.Player;
 import de.tum.cit.fop.maze.game.GameConstants;
 import de.tum.cit.fop.maze.game.GameManager;
+import de.tum.cit.fop.maze.game.GameRuntime;
+import de.tum.cit.fop.maze.game.spatial.DistanceField;
+import de.tum.cit.fop.maze.maze.PathfindingService;
 import de.tum.cit.fop.maze.utils.Logger;
 
 public class EnemyE04_CrystallizedCaramelShell extends Enemy {
@@ -69,6 +72,12 @@ public boolean occupiesCell(int cellX, int cellY) {
                 cellY >= y && cellY < y + GRID_SIZE);
     }
 
+    @Override
+    public int getFootprintWidth() { return GRID_SIZE; }
+
+    @Override
+    public int getFootprintHeight() { return GRID_SIZE; }
+
     protected boolean canMoveTo(int targetX, int targetY, GameManager gm) {
         for (int dx = 0; dx < GRID_SIZE; dx++) {
             for (int dy = 0; dy < GRID_SIZE; dy++) {
@@ -78,12 +87,8 @@ protected boolean canMoveTo(int targetX, int targetY, GameManager gm) {
                 if (!gm.isEnemyValidMove(checkX, checkY)) {
                     return false;
                 }
-                for (Enemy other : gm.getEnemies()) {
-                    if (other != this && other instanceof EnemyE04_CrystallizedCaramelShell) {
-                        if (other.occupiesCell(checkX, checkY)) {
-                            return false;
-                        }
-                    }
+                if (gm.isShellAt(checkX, checkY, this)) {
+                    return false;
                 }
             }
         }
@@ -154,8 +159,9 @@ public void update(float delta, GameManager gm) {
         Player target = gm.getNearestAlivePlayer(x + GRID_SIZE / 2, y + GRID_SIZE / 2);
 
         if (target != null) {
-            float dist = distanceTo(target);
-            if (dist <= detectRange) {
+            // 从壳的中心格看向玩家：射程内且没有墙挡着才追
+            if (gm.getLineOfSight().canSee(x + GRID_SIZE / 2, y + GRID_SIZE / 2,
+                    target.getX(), target.getY(), detectRange)) {
                 if (!hasEnteredAttack) {
                     hasEnteredAttack = true;
                     AudioManager.getInstance().play(AudioType.ENEMY_ATTACK_E04);
@@ -163,10 +169,10 @@ public void update(float delta, GameManager gm) {
                 chaseTarget(gm, target);
             } else {
                 hasEnteredAttack = false;
-                tryMoveRandom(delta, gm);
+                patrolAroundHome(delta, gm);
             }
         } else {
-            tryMoveRandom(delta, gm);
+            patrolAroundHome(delta, gm);
         }
 
         moveContinuously(delta);
@@ -188,8 +194,7 @@ public void update(float delta, GameManager gm) {
 
             // 🔥🔥🔥 关键修复：同步逻辑坐标！
             // 如果不更新 x, y，掉落物就会掉在出生点，而不是死亡点
-            this.x = (int) worldX;
-            this.y = (int) worldY;
+            moveTo((int) worldX, (int) worldY);
         }
     }
 
@@ -212,6 +217,7 @@ public RenderType getRenderType() {
 
     @Override
     protected void updateTexture() {
+        if (GameRuntime.isHeadless()) return;
         try {
             TextureAtlas atlas = textureManager.getEnemyE04Atlas();
             if (atlas == null) {
@@ -300,21 +306,42 @@ public void drawShape(ShapeRenderer shapeRenderer) {}
     /* ================== 行为辅助 ================== */
     private void chaseTarget(GameManager gm, Player target) {
         if (isMoving) return;
-        int dx = Integer.compare(target.getX(), x);
-        int dy = Integer.compare(target.getY(), y);
-        if (Math.abs(dx) > Math.abs(dy)) dy = 0;
-        else dx = 0;
-        int nx = x + dx;
-        int ny = y + dy;
+        if (occupiesCell(target.getX(), target.getY())) return;
+        // 按 2x2 净空寻路，避免挤进 1 格宽的缝里卡住；路径不可用时退回距离场
+        if (routeToTarget(gm, target)) return;
+        int dir = chooseChaseDir(gm, target);
+        if (dir == DistanceField.NO_STEP) return;
+        int nx = x + CARDINAL_DIRS[dir][0];
+        int ny = y + CARDINAL_DIRS[dir][1];
         if (canMoveTo(nx, ny, gm)) startMoveTo(nx, ny);
     }
 
-    private float distanceTo(Player p) {
-        float centerX = x + GRID_SIZE / 2f;
-        float centerY = y + GRID_SIZE / 2f;
-        float dx = p.getX() + 0.5f - centerX;
-        float dy = p.getY() + 0.5f - centerY;
-        return (float) Math.sqrt(dx * dx + dy * dy);
+    /**
+     * 选一个能让 2x2 身体覆盖玩家所在格、且净空足够的锚点作为寻路终点
+     */
+    private boolean routeToTarget(GameManager gm, Player target) {
+        PathfindingService pathfinding = gm.getPathfinding();
+        if (pathfinding == null) return false;
+        for (int oy = 0; oy < GRID_SIZE; oy++) {
+            for (int ox = 0; ox < GRID_SIZE; ox++) {
+                int gx = target.getX() - ox;
+                int gy = target.getY() - oy;
+                if (pathfinding.getClearance(gx, gy) >= GRID_SIZE) {
+                    return followRoute(gm, gx, gy);
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected int getPathSize() {
+        return GRID_SIZE;
+    }
+
+    @Override
+    protected boolean canStepTo(GameManager gm, int nx, int ny) {
+        return canMoveTo(nx, ny, gm);
     }
 
     @Override
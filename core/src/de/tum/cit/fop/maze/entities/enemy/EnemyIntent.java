@@ -0,0 +1,63 @@
+package de.tum.cit.fop.maze.entities.enemy;
+
+import de.tum.cit.fop.maze.audio.AudioType;
+
+/**
+ * 敌人一帧的意图 (Enemy Intent)
+ * <p>
+ * 决策阶段（可能在工作线程）只写意图，不碰游戏世界；
+ * 应用阶段在渲染线程按敌人列表顺序逐个落实，并负责解决抢格冲突。
+ * 每个敌人每帧复用同一个对象，{@link #reset()} 后重新填写。
+ */
+public final class EnemyIntent {
+
+    /* ===== 移动：想走进的格子（锚点） ===== */
+    boolean move;
+    int moveX;
+    int moveY;
+
+    /* ===== 沿寻路走向目标（寻路服务只能在渲染线程调用） ===== */
+    boolean route;
+    int routeX;
+    int routeY;
+
+    /* ===== 射击：目标格子，子弹方向在应用阶段按敌人最新位置计算 ===== */
+    boolean shoot;
+    int shootTargetX;
+    int shootTargetY;
+
+    AudioType sound;
+
+    /** 应用阶段是否推进平滑移动（moveContinuously） */
+    boolean advanceMotion;
+
+    public void reset() {
+        move = false;
+        route = false;
+        shoot = false;
+        sound = null;
+        advanceMotion = false;
+    }
+
+    public void moveTo(int x, int y) {
+        move = true;
+        moveX = x;
+        moveY = y;
+    }
+
+    public void routeTo(int x, int y) {
+        route = true;
+        routeX = x;
+        routeY = y;
+    }
+
+    public void shootAt(int targetX, int targetY) {
+        shoot = true;
+        shootTargetX = targetX;
+        shootTargetY = targetY;
+    }
+
+    public boolean hasMove() { return move; }
+    public int getMoveX() { return moveX; }
+    public int getMoveY() { return moveY; }
+}
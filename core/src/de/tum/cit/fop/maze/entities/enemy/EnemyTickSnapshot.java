@@ -0,0 +1,111 @@
+package de.tum.cit.fop.maze.entities.enemy;
+
+import de.tum.cit.fop.maze.entities.Player;
+import de.tum.cit.fop.maze.game.GameManager;
+import de.tum.cit.fop.maze.game.spatial.DistanceField;
+import de.tum.cit.fop.maze.game.spatial.LineOfSight;
+import de.tum.cit.fop.maze.game.spatial.SpatialIndex;
+import de.tum.cit.fop.maze.maze.MazeGrid;
+
+import java.util.List;
+
+/**
+ * 敌人决策阶段看到的世界 (Per-tick Enemy Snapshot)
+ * <p>
+ * 每帧在敌人更新前于渲染线程 {@link #capture} 一次：玩家位置拷贝到数组；
+ * 迷宫取写时复制快照，只有迷宫被替换或版本变化时才重新取。
+ * 决策阶段期间没有任何写入（距离场、空间索引都在此之前更新完毕、在应用阶段之后才再变），
+ * 因此多个工作线程可以同时读取。
+ */
+public final class EnemyTickSnapshot {
+
+    private static final int MAX_PLAYERS = 4;
+
+    private MazeGrid maze;
+    /** 当前快照取自哪个迷宫、哪个版本 */
+    private MazeGrid mazeSource;
+    private int mazeSourceVersion;
+    private SpatialIndex index;
+    private LineOfSight lineOfSight;
+
+    private final int[] playerX = new int[MAX_PLAYERS];
+    private final int[] playerY = new int[MAX_PLAYERS];
+    private final DistanceField[] fields = new DistanceField[MAX_PLAYERS];
+    private int playerCount;
+
+    /**
+     * 在渲染线程记录本帧状态
+     */
+    public void capture(MazeGrid maze, SpatialIndex index, List<Player> players, GameManager gm) {
+        if (maze == null) {
+            this.maze = null;
+            this.mazeSource = null;
+        } else if (maze != mazeSource || maze.getVersion() != mazeSourceVersion) {
+            this.maze = maze.snapshot();
+            this.mazeSource = maze;
+            this.mazeSourceVersion = maze.getVersion();
+        }
+        this.index = index;
+        this.lineOfSight = gm.getLineOfSight();
+        playerCount = 0;
+        for (int i = 0; i < players.size() && playerCount < MAX_PLAYERS; i++) {
+            Player p = players.get(i);
+            if (p == null || p.isDead()) continue;
+            playerX[playerCount] = p.getX();
+            playerY[playerCount] = p.getY();
+            fields[playerCount] = gm.getDistanceField(p);
+            playerCount++;
+        }
+        for (int i = playerCount; i < MAX_PLAYERS; i++) {
+            fields[i] = null;
+        }
+    }
+
+    public int getWidth() { return maze == null ? 0 : maze.getWidth(); }
+    public int getHeight() { return maze == null ? 0 : maze.getHeight(); }
+
+    public int getPlayerCount() { return playerCount; }
+    public int getPlayerX(int i) { return playerX[i]; }
+    public int getPlayerY(int i) { return playerY[i]; }
+
+    /** 以第 i 个存活玩家为源的距离场，可能为 null */
+    public DistanceField getDistanceField(int i) { return fields[i]; }
+
+    /**
+     * 与 GameManager.getNearestAlivePlayer 相同的直线距离规则；没有存活玩家时返回 -1
+     */
+    public int nearestPlayer(int x, int y) {
+        int nearest = -1;
+        float bestDist = Float.MAX_VALUE;
+        for (int i = 0; i < playerCount; i++) {
+            float dx = playerX[i] - x;
+            float dy = playerY[i] - y;
+            float dist = dx * dx + dy * dy;
+            if (dist < bestDist) {
+                bestDist = dist;
+                nearest = i;
+            }
+        }
+        return nearest;
+    }
+
+    /**
+     * 距离不超过 range 且视线不被墙挡住（视线缓存按线程分开，可在工作线程调用）
+     */
+    public boolean canSee(int x, int y, int targetX, int targetY, float range) {
+        return lineOfSight != null && lineOfSight.canSee(x, y, targetX, targetY, range);
+    }
+
+    /**
+     * 与 GameManager.isEnemyValidMove 相同的规则（不含本帧的抢格，抢格由应用阶段处理）
+     */
+    public boolean isWalkable(int x, int y) {
+        if (maze == null || !maze.isPath(x, y)) return false;
+        if (index == null) return true;
+        if (!index.isEmpty(SpatialIndex.Layer.EXIT_DOOR, x, y)) return false;
+        for (int n = index.first(SpatialIndex.Layer.TRAP, x, y); n != SpatialIndex.NONE; n = index.next(n)) {
+            if (!index.get(n).isPassable()) return false;
+        }
+        return true;
+    }
+}
@@ -14,9 +14,28 @@ public Trap(int x, int y) {
     /** 每帧更新 */
     public abstract void update(float delta);
 
+    /**
+     * 本帧是否需要调用 {@link #update(float)}。
+     * 状态切换交给 GameScheduler 的机关、或者待机时什么都不做的机关返回 false，每帧零开销。
+     */
+    public boolean needsUpdate() {
+        return true;
+    }
+
     /** 玩家踩上时 */
     public abstract void onPlayerStep(Player player);
 
+    /**
+     * 所在区块被冻结、从 GameManager 摘下时调用。
+     * 在 GameScheduler 上登记了计时器的机关要在这里挂起，否则冻结期间仍会照常触发
+     */
+    public void onFrozen() {
+    }
+
+    /** 区块解冻、重新放回 GameManager 之后调用，恢复 {@link #onFrozen()} 挂起的计时器 */
+    public void onThawed() {
+    }
+
     /** 是否还需要参与渲染 */
     public boolean isActive() {
         return active;
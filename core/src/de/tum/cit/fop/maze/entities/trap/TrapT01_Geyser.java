@@ -9,6 +9,8 @@
 import com.badlogic.gdx.utils.Array;
 import de.tum.cit.fop.maze.entities.Player;
 import de.tum.cit.fop.maze.game.GameConstants;
+import de.tum.cit.fop.maze.game.GameRuntime;
+import de.tum.cit.fop.maze.game.time.GameScheduler;
 import de.tum.cit.fop.maze.utils.Logger;
 import de.tum.cit.fop.maze.utils.TextureManager;
 
@@ -22,8 +24,16 @@ private enum State {
     }
 
     private State state = State.IDLE;
-    private float timer = 0f;
-    private float damageTickTimer = 0f;
+
+    /* ===== 计时：阶段切换由时间轮回调驱动，不参与每帧 update ===== */
+    private final GameScheduler scheduler;
+    private final Runnable nextPhase = this::nextPhase;
+    private long phaseHandle = GameScheduler.NONE;
+    /** 下一次允许造成伤害的模拟步 */
+    private long nextDamageTick = 0L;
+    /** 区块冻结时当前阶段还剩的步数，以及冻结时的模拟步 */
+    private int suspendedTicks;
+    private long frozenAtTick;
 
     /* ===== 可调参数 ===== */
     private final float idleDuration     = 1.0f;
@@ -40,8 +50,9 @@ private enum State {
 
 
 
-    public TrapT01_Geyser(int x, int y, float cycleDuration) {
+    public TrapT01_Geyser(int x, int y, float cycleDuration, GameScheduler scheduler) {
         super(x, y);
+        this.scheduler = scheduler;
 
         Logger.debug("=== T01 地热喷口创建于 (" + x + "," + y + ") ===");
         Logger.debug("IDLE: " + idleDuration + "s, WARNING: " + warningDuration + "s");
@@ -55,9 +66,12 @@ public TrapT01_Geyser(int x, int y, float cycleDuration) {
         } else {
             Logger.warning("⚠️ T01 没有动画帧，将使用回退渲染");
         }
+
+        phaseHandle = scheduler.schedule(idleDuration, nextPhase);
     }
     // 🔥 加载动画资源
     private void loadAnimation() {
+        if (GameRuntime.isHeadless()) return;
         try {
             // 尝试从 TextureManager 获取
             TextureManager tm = TextureManager.getInstance();
@@ -99,48 +113,72 @@ public boolean isPassable() {
         return true;
     }
 
+    @Override
+    public boolean needsUpdate() {
+        return false;
+    }
+
     @Override
     public void update(float delta) {
-        if (!active) return;
+        // 阶段切换都在 nextPhase 里
+    }
 
-        timer += delta;
+    /** 当前阶段到期：切到下一阶段并登记它的时长 */
+    private void nextPhase() {
+        if (!active) return;
 
         switch (state) {
             case IDLE -> {
-                if (timer >= idleDuration) {
-                    state = State.WARNING;
-                    timer = 0f;
-                    Logger.debug("T01 进入警告状态");
-                }
+                state = State.WARNING;
+                Logger.debug("T01 进入警告状态");
             }
-
             case WARNING -> {
-                if (timer >= warningDuration) {
-                    state = State.ERUPTING;
-                    timer = 0f;
-                    damageTickTimer = 0f;
-                    Logger.debug("T01 开始喷发！");
-                }
+                state = State.ERUPTING;
+                nextDamageTick = 0L;
+                Logger.debug("T01 开始喷发！");
             }
-
             case ERUPTING -> {
-                damageTickTimer -= delta;
-
-                if (timer >= eruptDuration) {
-                    state = State.COOLDOWN;
-                    timer = 0f;
-                    Logger.debug("T01 进入冷却状态");
-                }
+                state = State.COOLDOWN;
+                Logger.debug("T01 进入冷却状态");
             }
-
             case COOLDOWN -> {
-                if (timer >= cooldownDuration) {
-                    state = State.IDLE;
-                    timer = 0f;
-                    Logger.debug("T01 恢复待机状态");
-                }
+                state = State.IDLE;
+                Logger.debug("T01 恢复待机状态");
             }
         }
+        phaseHandle = scheduler.schedule(getPhaseDuration(), nextPhase);
+    }
+
+    @Override
+    public void onFrozen() {
+        if (phaseHandle == GameScheduler.NONE) return;
+        suspendedTicks = Math.max(1, scheduler.getRemainingTicks(phaseHandle));
+        frozenAtTick = scheduler.getTick();
+        scheduler.cancel(phaseHandle);
+        phaseHandle = GameScheduler.NONE;
+    }
+
+    @Override
+    public void onThawed() {
+        if (phaseHandle != GameScheduler.NONE || suspendedTicks == 0) return;
+        // 阶段从冻结时的进度接着走，伤害间隔也顺延冻结的时长
+        nextDamageTick += scheduler.getTick() - frozenAtTick;
+        phaseHandle = scheduler.scheduleTicks(suspendedTicks, nextPhase);
+        suspendedTicks = 0;
+    }
+
+    private float getPhaseDuration() {
+        return switch (state) {
+            case IDLE -> idleDuration;
+            case WARNING -> warningDuration;
+            case ERUPTING -> eruptDuration;
+            case COOLDOWN -> cooldownDuration;
+        };
+    }
+
+    /** 当前阶段已经过去的时间（秒），动画用 */
+    private float getPhaseTime() {
+        return Math.max(0f, getPhaseDuration() - scheduler.getRemaining(phaseHandle));
     }
 
     @Override
@@ -148,9 +186,10 @@ public void onPlayerStep(Player player) {
         if (!active || state != State.ERUPTING) return;
 
         // 在喷射阶段，每 0.5s 扣一次血
-        if (damageTickTimer <= 0f) {
+        long tick = scheduler.getTick();
+        if (tick >= nextDamageTick) {
             player.takeDamage(damagePerTick);
-            damageTickTimer = damageInterval;
+            nextDamageTick = tick + scheduler.toTicks(damageInterval);
             Logger.debug("T01 对玩家造成伤害: " + damagePerTick);
         }
     }
@@ -160,6 +199,7 @@ private int getFrameIndex() {
         if (totalFrames == 0) return 0;
 
         int frameIndex = 0;
+        float timer = getPhaseTime();
 
         switch (state) {
             case IDLE -> {
@@ -248,7 +288,7 @@ public void drawSprite(SpriteBatch batch) {
 
         // 🔥 喷发时添加闪烁效果
         if (state == State.ERUPTING) {
-            float pulse = (float) Math.sin(timer * 10f) * 0.2f + 0.8f;
+            float pulse = (float) Math.sin(getPhaseTime() * 10f) * 0.2f + 0.8f;
             batch.setColor(1f, pulse, pulse, 1f);
         }
 
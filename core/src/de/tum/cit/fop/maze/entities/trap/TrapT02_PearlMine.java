@@ -11,6 +11,7 @@
 import de.tum.cit.fop.maze.entities.enemy.Enemy;
 import de.tum.cit.fop.maze.game.GameConstants;
 import de.tum.cit.fop.maze.game.GameManager;
+import de.tum.cit.fop.maze.game.GameRuntime;
 import de.tum.cit.fop.maze.utils.Logger;
 import de.tum.cit.fop.maze.utils.TextureManager;
 
@@ -76,6 +77,7 @@ public TrapT02_PearlMine(int x, int y, GameManager gm) {
     }
 
     private void loadAnimation() {
+        if (GameRuntime.isHeadless()) return;
         try {
             TextureManager tm = TextureManager.getInstance();
             atlas = tm.getTrapT02Atlas();
@@ -114,6 +116,12 @@ public boolean isPassable() {
         return true;
     }
 
+    /** 待机时只靠游戏时钟循环动画帧，触发前不进 update */
+    @Override
+    public boolean needsUpdate() {
+        return state != State.IDLE;
+    }
+
     @Override
     public void update(float delta) {
         if (!active) return;
@@ -123,7 +131,6 @@ public void update(float delta) {
         switch (state) {
             case IDLE:
                 // 待机状态 - 不做任何事，等待触发
-                updateIdle(delta);
                 break;
 
             case WARNING:
@@ -186,11 +193,9 @@ private void updateFragments(float delta) {
     }
 
     // 🔥 各状态更新方法
-    private void updateIdle(float delta) {
-        // 轻微的呼吸效果
-        float breath = (float) Math.sin(timer * 2f) * 0.05f;
-        explosionScale = 1.0f + breath;
-        currentColor.set(1, 1, 1, 1);
+    /** 待机时不进 update，呼吸缩放直接按游戏时钟算 */
+    private float getIdleBreathScale() {
+        return 1.0f + (float) Math.sin(gm.getScheduler().getTime() * 2f) * 0.05f;
     }
 
     private void updateWarning(float delta) {
@@ -304,7 +309,7 @@ private int getFrameIndex() {
         switch (state) {
             case IDLE:
                 // 待机状态：缓慢循环前几帧
-                progress = (timer % 3.0f) / 3.0f;
+                progress = (gm.getScheduler().getTime() % 3.0f) / 3.0f;
                 return (int)(progress * Math.min(4, totalFrames));
 
             case WARNING:
@@ -409,8 +414,13 @@ public void drawSprite(SpriteBatch batch) {
                 break;
 
             default:
-                // 待机状态：正常渲染
-                batch.draw(frame, x * size, y * size, size, size);
+                // 待机状态：轻微的呼吸效果
+                float breathSize = size * getIdleBreathScale();
+                float breathOffset = (breathSize - size) / 2f;
+                batch.draw(frame,
+                        x * size - breathOffset,
+                        y * size - breathOffset,
+                        breathSize, breathSize);
                 break;
         }
 
@@ -519,6 +529,7 @@ public float getTimer() {
 
     // 🔥 获取爆炸效果参数（可用于粒子效果）
     public float getExplosionScale() {
+        if (state == State.IDLE) return getIdleBreathScale();
         return explosionScale;
     }
 
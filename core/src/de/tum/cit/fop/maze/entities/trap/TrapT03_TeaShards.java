@@ -9,6 +9,7 @@
 import com.badlogic.gdx.utils.Array;
 import de.tum.cit.fop.maze.entities.Player;
 import de.tum.cit.fop.maze.game.GameConstants;
+import de.tum.cit.fop.maze.game.GameRuntime;
 import de.tum.cit.fop.maze.utils.TextureManager;
 
 public class TrapT03_TeaShards extends Trap {
@@ -32,8 +33,10 @@ private enum State {
 
     public TrapT03_TeaShards(int x, int y) {
         super(x, y);
-        TextureAtlas atlas = new TextureAtlas("ani/T03/T03.atlas");
-        loadAnimation(atlas);
+        if (!GameRuntime.isHeadless()) {
+            TextureAtlas atlas = new TextureAtlas("ani/T03/T03.atlas");
+            loadAnimation(atlas);
+        }
 
 
     }
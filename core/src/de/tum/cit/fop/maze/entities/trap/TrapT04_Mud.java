@@ -9,6 +9,7 @@
 import com.badlogic.gdx.utils.Array;
 import de.tum.cit.fop.maze.entities.Player;
 import de.tum.cit.fop.maze.game.GameConstants;
+import de.tum.cit.fop.maze.game.GameRuntime;
 import de.tum.cit.fop.maze.utils.Logger;
 import de.tum.cit.fop.maze.utils.TextureManager;
 
@@ -70,6 +71,7 @@ public TrapT04_Mud(int x, int y) {
     }
 
     private void loadAnimation() {
+        if (GameRuntime.isHeadless()) return;
         try {
             TextureManager tm = TextureManager.getInstance();
             atlas = tm.getTrapT04Atlas();
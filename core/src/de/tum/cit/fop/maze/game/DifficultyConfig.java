@@ -1,5 +1,7 @@
 package de.tum.cit.fop.maze.game;
 
+import java.util.Objects;
+
 public class DifficultyConfig {
     public final Difficulty difficulty;
 
@@ -134,4 +136,39 @@ public static DifficultyConfig of(Difficulty d) {
 
         };
     }
+
+    /* ===== 按值比较（关卡预生成用来判断后台结果是否还适用） ===== */
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof DifficultyConfig that)) return false;
+        return difficulty == that.difficulty
+                && mazeWidth == that.mazeWidth
+                && mazeHeight == that.mazeHeight
+                && exitCount == that.exitCount
+                && enemyE01PearlCount == that.enemyE01PearlCount
+                && enemyE02CoffeeBeanCount == that.enemyE02CoffeeBeanCount
+                && enemyE03CaramelCount == that.enemyE03CaramelCount
+                && enemyE04ShellCount == that.enemyE04ShellCount
+                && trapT01GeyserCount == that.trapT01GeyserCount
+                && trapT02PearlMineCount == that.trapT02PearlMineCount
+                && trapT03TeaShardCount == that.trapT03TeaShardCount
+                && trapT04MudTileCount == that.trapT04MudTileCount
+                && initialLives == that.initialLives
+                && Float.compare(enemyHpMultiplier, that.enemyHpMultiplier) == 0
+                && Float.compare(enemyDamageMultiplier, that.enemyDamageMultiplier) == 0
+                && keyCount == that.keyCount
+                && Float.compare(scoreMultiplier, that.scoreMultiplier) == 0
+                && Float.compare(penaltyMultiplier, that.penaltyMultiplier) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(difficulty, mazeWidth, mazeHeight, exitCount,
+                enemyE01PearlCount, enemyE02CoffeeBeanCount, enemyE03CaramelCount, enemyE04ShellCount,
+                trapT01GeyserCount, trapT02PearlMineCount, trapT03TeaShardCount, trapT04MudTileCount,
+                initialLives, enemyHpMultiplier, enemyDamageMultiplier, keyCount,
+                scoreMultiplier, penaltyMultiplier);
+    }
 }
\ No newline at end of file
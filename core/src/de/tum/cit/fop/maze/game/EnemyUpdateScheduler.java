@@ -0,0 +1,205 @@
+package de.tum.cit.fop.maze.game;
+
+import de.tum.cit.fop.maze.entities.enemy.Enemy;
+import de.tum.cit.fop.maze.entities.enemy.EnemyIntent;
+import de.tum.cit.fop.maze.entities.enemy.EnemyTickSnapshot;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 敌人两阶段更新 (Two-phase Enemy Update)
+ * <ol>
+ *   <li>决策：支持意图的敌人（{@link Enemy#supportsIntents()}）对着本帧快照 {@link Enemy#decide}，
+ *       只改自身状态、只写意图。敌人多时在 ForkJoin 线程池上并行。</li>
+ *   <li>应用：渲染线程按敌人列表顺序逐个落实。移动目标先过 {@link GameManager#isEnemyValidMove}，
+ *       本帧已被更早的敌人占走的格子一律拒绝，所以两个敌人不会抢到同一格；
+ *       不支持意图的敌人在这一步按原样调用 update。</li>
+ * </ol>
+ * 决策只依赖快照和敌人自身状态，应用顺序固定，因此串行与并行的结果完全一致。
+ */
+public final class EnemyUpdateScheduler {
+
+    public enum Mode {
+        /** 敌人数量达到 {@link #PARALLEL_THRESHOLD} 才并行 */
+        AUTO,
+        SERIAL,
+        PARALLEL
+    }
+
+    public static final int PARALLEL_THRESHOLD = 64;
+    /** 每个并行任务至少处理的敌人数 */
+    private static final int CHUNK = 32;
+
+    private final ForkJoinPool pool = ForkJoinPool.commonPool();
+    private Mode mode = Mode.AUTO;
+
+    /* ===== 本帧批次 ===== */
+    private Enemy[] batch = new Enemy[64];
+    private float[] deltas = new float[64];
+    private EnemyIntent[] intents = new EnemyIntent[64];
+    private int size;
+
+    /* ===== 本帧占格 ===== */
+    private int[] claimStamp = new int[0];
+    private int claimWidth;
+    private int claimHeight;
+    private int claimTick;
+    private boolean applying;
+
+    /* ===== 统计 ===== */
+    private boolean lastRunParallel;
+    private long lastDecideNanos;
+    private long lastApplyNanos;
+
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    public Mode getMode() { return mode; }
+    public boolean wasLastRunParallel() { return lastRunParallel; }
+    public long getLastDecideNanos() { return lastDecideNanos; }
+    public long getLastApplyNanos() { return lastApplyNanos; }
+    public int getLastBatchSize() { return size; }
+
+    /* ================= 批次 ================= */
+
+    public void begin() {
+        Arrays.fill(batch, 0, size, null);
+        size = 0;
+    }
+
+    public void add(Enemy enemy, float delta) {
+        if (size == batch.length) {
+            int cap = size * 2;
+            batch = Arrays.copyOf(batch, cap);
+            deltas = Arrays.copyOf(deltas, cap);
+            intents = Arrays.copyOf(intents, cap);
+        }
+        batch[size] = enemy;
+        deltas[size] = delta;
+        if (intents[size] == null) intents[size] = new EnemyIntent();
+        size++;
+    }
+
+    /**
+     * 对本批敌人执行决策 + 应用
+     */
+    public void run(GameManager gm, EnemyTickSnapshot snapshot) {
+        beginClaims(snapshot.getWidth(), snapshot.getHeight());
+
+        long t0 = System.nanoTime();
+        for (int i = 0; i < size; i++) {
+            intents[i].reset();
+        }
+        boolean parallel = mode == Mode.PARALLEL
+                || (mode == Mode.AUTO && size >= PARALLEL_THRESHOLD && pool.getParallelism() > 1);
+        if (parallel) {
+            pool.invoke(new DecideTask(snapshot, 0, size));
+        } else {
+            decideRange(snapshot, 0, size);
+        }
+        lastRunParallel = parallel;
+
+        long t1 = System.nanoTime();
+        applying = true;
+        try {
+            for (int i = 0; i < size; i++) {
+                Enemy e = batch[i];
+                // 位置写入统一走 Enemy.moveTo，由它同步空间索引
+                e.setGameManager(gm);
+                int oldX = e.getX();
+                int oldY = e.getY();
+
+                if (e.supportsIntents()) {
+                    EnemyIntent intent = intents[i];
+                    boolean accepted = intent.hasMove()
+                            && gm.isEnemyValidMove(intent.getMoveX(), intent.getMoveY());
+                    e.apply(deltas[i], gm, intent, accepted);
+                    if (accepted) claim(intent.getMoveX(), intent.getMoveY());
+                } else {
+                    e.update(deltas[i], gm);
+                }
+
+                if (e.getX() != oldX || e.getY() != oldY) {
+                    claimFootprint(e);
+                }
+            }
+        } finally {
+            applying = false;
+        }
+        lastDecideNanos = t1 - t0;
+        lastApplyNanos = System.nanoTime() - t1;
+    }
+
+    /**
+     * 应用阶段中：(x, y) 是否已被本帧更早的敌人占走。其余时间恒为 false
+     */
+    public boolean isClaimed(int x, int y) {
+        if (!applying || x < 0 || y < 0 || x >= claimWidth || y >= claimHeight) return false;
+        return claimStamp[y * claimWidth + x] == claimTick;
+    }
+
+    /* ================= 内部 ================= */
+
+    private void decideRange(EnemyTickSnapshot snapshot, int from, int to) {
+        for (int i = from; i < to; i++) {
+            Enemy e = batch[i];
+            if (e.supportsIntents()) {
+                e.decide(deltas[i], snapshot, intents[i]);
+            }
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private final class DecideTask extends RecursiveAction {
+        private final EnemyTickSnapshot snapshot;
+        private final int from;
+        private final int to;
+
+        DecideTask(EnemyTickSnapshot snapshot, int from, int to) {
+            this.snapshot = snapshot;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= CHUNK) {
+                decideRange(snapshot, from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new DecideTask(snapshot, from, mid), new DecideTask(snapshot, mid, to));
+        }
+    }
+
+    private void beginClaims(int width, int height) {
+        if (width != claimWidth || height != claimHeight) {
+            claimWidth = width;
+            claimHeight = height;
+            claimStamp = new int[width * height];
+            claimTick = 0;
+        }
+        if (++claimTick == Integer.MAX_VALUE) {
+            Arrays.fill(claimStamp, 0);
+            claimTick = 1;
+        }
+    }
+
+    private void claim(int x, int y) {
+        if (x < 0 || y < 0 || x >= claimWidth || y >= claimHeight) return;
+        claimStamp[y * claimWidth + x] = claimTick;
+    }
+
+    private void claimFootprint(Enemy e) {
+        int fx = e.getFootprintX();
+        int fy = e.getFootprintY();
+        for (int y = fy; y < fy + e.getFootprintHeight(); y++) {
+            for (int x = fx; x < fx + e.getFootprintWidth(); x++) {
+                claim(x, y);
+            }
+        }
+    }
+}
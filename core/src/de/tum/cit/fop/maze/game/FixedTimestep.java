@@ -0,0 +1,87 @@
+package de.tum.cit.fop.maze.game;
+
+/**
+ * 固定步长累加器 (Fixed Timestep Accumulator)
+ * <p>
+ * 把每帧不定长的 delta 累加起来，按固定的模拟步长切成若干步：
+ * 显示器刷新率再高也不会多算模拟，一次卡顿（自动存档、生成关卡）也不会变成一步走好几格。
+ * 追帧超过 {@link #getMaxSteps()} 步的部分直接丢弃，避免越卡越追、越追越卡。
+ * <p>
+ * 剩下不足一步的时间通过 {@link #getAlpha()} 交给渲染，在上一步和当前步的位置之间插值。
+ */
+public final class FixedTimestep {
+
+    public static final int DEFAULT_TICK_RATE = 60;
+    public static final int DEFAULT_MAX_STEPS = 5;
+
+    private static final int MIN_TICK_RATE = 10;
+    private static final int MAX_TICK_RATE = 240;
+
+    private int tickRate = DEFAULT_TICK_RATE;
+    private float step = 1f / DEFAULT_TICK_RATE;
+    private int maxSteps = DEFAULT_MAX_STEPS;
+    private float accumulator;
+
+    /* ===== 统计 ===== */
+    private int lastSteps;
+    private float droppedTime;
+
+    /**
+     * 每秒模拟步数，限制在 [10, 240]
+     */
+    public void setTickRate(int hz) {
+        int clamped = Math.max(MIN_TICK_RATE, Math.min(MAX_TICK_RATE, hz));
+        if (clamped == tickRate) return;
+        tickRate = clamped;
+        step = 1f / clamped;
+        // 步长变了，残留时间按新步长截断，避免一次多出好几步
+        accumulator = Math.min(accumulator, step);
+    }
+
+    /**
+     * 单帧最多追几步，至少 1
+     */
+    public void setMaxSteps(int maxSteps) {
+        this.maxSteps = Math.max(1, maxSteps);
+    }
+
+    /**
+     * 累加本帧时间，返回这一帧要跑的模拟步数
+     */
+    public int accumulate(float frameDelta) {
+        if (frameDelta > 0f) {
+            accumulator += frameDelta;
+        }
+        int steps = (int) (accumulator / step);
+        if (steps > maxSteps) {
+            // 丢掉追不上的部分，只保留不足一步的零头
+            float keep = accumulator - steps * step;
+            droppedTime += (steps - maxSteps) * step;
+            steps = maxSteps;
+            accumulator = steps * step + keep;
+        }
+        accumulator -= steps * step;
+        if (accumulator < 0f) accumulator = 0f;
+        lastSteps = steps;
+        return steps;
+    }
+
+    /**
+     * 渲染插值系数：0 = 上一步的位置，1 = 当前步的位置
+     */
+    public float getAlpha() {
+        return Math.min(1f, accumulator / step);
+    }
+
+    public void reset() {
+        accumulator = 0f;
+        lastSteps = 0;
+    }
+
+    public float getStep() { return step; }
+    public int getTickRate() { return tickRate; }
+    public int getMaxSteps() { return maxSteps; }
+    public int getLastSteps() { return lastSteps; }
+    /** 因超过追帧上限而丢弃的模拟时间（秒，累计） */
+    public float getDroppedTime() { return droppedTime; }
+}
@@ -1,5 +1,6 @@
 package de.tum.cit.fop.maze.game;
 
+import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.graphics.Color;
 import de.tum.cit.fop.maze.abilities.Ability;
@@ -24,18 +25,37 @@
 import de.tum.cit.fop.maze.game.achievement.AchievementManager;
 import de.tum.cit.fop.maze.game.achievement.CareerData;
 import de.tum.cit.fop.maze.game.event.GameEventSource;
+import de.tum.cit.fop.maze.game.event.GameEventType;
 import de.tum.cit.fop.maze.game.save.GameSaveData;
 import de.tum.cit.fop.maze.game.save.PlayerSaveData;
 import de.tum.cit.fop.maze.game.score.*;
+import de.tum.cit.fop.maze.game.endless.EndlessChunkManager;
+import de.tum.cit.fop.maze.game.entity.EntityRegistry;
+import de.tum.cit.fop.maze.game.entity.EntityStore;
+import de.tum.cit.fop.maze.game.lod.SimulationLod;
+import de.tum.cit.fop.maze.game.replay.FrameTimeStats;
+import de.tum.cit.fop.maze.game.replay.Replay;
+import de.tum.cit.fop.maze.game.replay.ReplayPlayer;
+import de.tum.cit.fop.maze.game.replay.ReplayRecorder;
+import de.tum.cit.fop.maze.game.spatial.DistanceField;
+import de.tum.cit.fop.maze.game.spatial.LineOfSight;
+import de.tum.cit.fop.maze.game.spatial.SpatialIndex;
+import de.tum.cit.fop.maze.game.time.GameScheduler;
 import de.tum.cit.fop.maze.input.PlayerInputHandler;
 import de.tum.cit.fop.maze.maze.MazeGenerator;
+import de.tum.cit.fop.maze.maze.MazeGrid;
+import de.tum.cit.fop.maze.maze.MazeRenderer;
+import de.tum.cit.fop.maze.maze.PathfindingService;
+import de.tum.cit.fop.maze.tools.Profiler;
+import de.tum.cit.fop.maze.utils.GameRandom;
 import de.tum.cit.fop.maze.utils.Logger;
 import de.tum.cit.fop.maze.game.save.StorageManager;
 
+import java.io.IOException;
 import java.util.*;
 import java.util.function.Consumer;
 
-import static com.badlogic.gdx.math.MathUtils.random;
+import static de.tum.cit.fop.maze.utils.GameRandom.random;
 import static de.tum.cit.fop.maze.maze.MazeGenerator.BORDER_THICKNESS;
 
 public class GameManager implements PlayerInputHandler.InputHandlerCallback {
@@ -83,25 +103,60 @@ public void setAutoSaveEnabled(boolean enabled) {
 
     // ✨ 自动保存
     private boolean restoringFromSave = false;
-    private float autoSaveTimer = 0f;
+    private long autoSaveHandle = GameScheduler.NONE;
     private static final float AUTO_SAVE_INTERVAL = 30f;
+    private final Runnable autoSaveTask = this::onAutoSave;
 
     private boolean revivePending = false;
-    private float reviveTimer = 0f;
+    private long reviveHandle = GameScheduler.NONE;
+    private final Runnable reviveTask = this::onReviveDue;
 
-    private int[][] maze;
+    private MazeGrid maze;
     private final List<Player> players = new ArrayList<>();
     private boolean twoPlayerMode = true;
     private Player player;
 
-    private final List<Enemy> enemies = new ArrayList<>();
-    private final List<Trap> traps = new ArrayList<>();
-    private final List<Heart> hearts = new ArrayList<>();
-    private final List<HeartContainer> heartContainers = new ArrayList<>();
-    private final List<Treasure> treasures = new ArrayList<>();
-    private final List<ExitDoor> exitDoors = new ArrayList<>();
+    /** 各类实体的紧凑存储；模拟步内新增的实体步末才加入（见 {@link EntityStore}） */
+    private final EntityRegistry entities = new EntityRegistry();
+    private final EntityStore<Enemy> enemies = entities.createStore();
+    private final EntityStore<Trap> traps = entities.createStore();
+    private final EntityStore<Heart> hearts = entities.createStore();
+    private final EntityStore<HeartContainer> heartContainers = entities.createStore();
+    private final EntityStore<Treasure> treasures = entities.createStore();
+    private final EntityStore<ExitDoor> exitDoors = entities.createStore();
     private final Array<BobaBullet> bullets = new Array<>();
-    private List<DynamicObstacle> obstacles = new ArrayList<>();
+    private final EntityStore<DynamicObstacle> obstacles = entities.createStore();
+
+    // 所有动态实体的格子索引，碰撞/占用查询都走这里
+    private SpatialIndex spatialIndex;
+    /** 每个玩家一张 BFS 距离场，按 PlayerIndex 编号存放 */
+    private final DistanceField[] playerFields = {new DistanceField(), new DistanceField()};
+    /** 点对点寻路（猫、回巡逻点的敌人、2x2 的 E04），每帧按节点预算推进 */
+    private final PathfindingService pathfinding = new PathfindingService();
+    /** 敌人索敌、AOE 判定用的视线查询，结果按帧缓存 */
+    private final LineOfSight lineOfSight = new LineOfSight();
+    /** 远处的敌人/机关/障碍降频或休眠 */
+    private final SimulationLod lod = new SimulationLod();
+    /** 关卡内的冷却 / 计时器（时间轮），随模拟步推进，换关时清空 */
+    private final GameScheduler scheduler = new GameScheduler();
+    /** 敌人先对快照并行决策，再按列表顺序落实 */
+    private final EnemyUpdateScheduler enemyScheduler = new EnemyUpdateScheduler();
+    private final EnemyTickSnapshot enemySnapshot = new EnemyTickSnapshot();
+
+    /**
+     * 特效更新（粒子、传送门）只改各自的状态：模拟步里只记下"这一步要更新"，
+     * 步末在事件分发之前统一更新一次
+     */
+    private float effectDelta;
+    private boolean effectsDue;
+    private boolean combatEffectsDue;
+    private boolean spawnPortalDue;
+
+    /** 固定步长模拟：{@link #advance(float)} 把帧时间切成等长的步 */
+    private final FixedTimestep timestep = new FixedTimestep();
+    /** advance 已在本帧锁存过输入，单步 update 里不再重复读键盘 */
+    private boolean inputLatchedByAdvance = false;
+    private boolean interpolating = false;
 
     private int mouseTileX = -1;
     private int mouseTileY = -1;
@@ -110,6 +165,26 @@ public void setAutoSaveEnabled(boolean enabled) {
 
     private Compass compass;
     private final MazeGenerator generator = new MazeGenerator();
+    // 对局种子：每关的迷宫和模拟随机数都由它和关卡号派生，录像回放时固定
+    private long runSeed = GameRandom.newSeed();
+    // 本关已出生的敌人数，和关卡种子一起决定每个敌人的随机序列
+    private long enemySpawnSerial = 0;
+    // 已执行的模拟步数，录像按它对齐输入
+    private long simulationTick = 0;
+    private ReplayRecorder replayRecorder;
+    private ReplayPlayer replayPlayer;
+    private boolean replayDispatching = false;
+    // 下一次重置关卡后开始录制 / 回放
+    private boolean pendingRecordStart = false;
+    private Replay pendingPlayback;
+    private long lastAdvanceNanos = 0;
+    private String lastReplayReport;
+    // 下一关迷宫在后台线程预生成，过关时直接取用
+    private final LevelPreloader levelPreloader = new LevelPreloader();
+    /** 当前迷宫若来自预生成，这里存着后台扫好的墙段，渲染器第一次分析时取走 */
+    private LevelPreloader.PreparedLevel preparedLevel;
+    // 无尽模式：按区块按需生成迷宫、冻结远处实体（其他模式为 null）
+    private EndlessChunkManager endlessChunks;
     private KeyEffectManager keyEffectManager;
     private final PlayerInputHandler inputHandler;
 
@@ -125,7 +200,7 @@ public void setAutoSaveEnabled(boolean enabled) {
     private CatFollower cat;
     private Map<String, Float> gameVariables;
 
-    private final List<Key> keys = new ArrayList<>();
+    private final EntityStore<Key> keys = entities.createStore();
     private boolean keyProcessed = false;
 
     private boolean pendingReset = false;
@@ -133,8 +208,9 @@ public void setAutoSaveEnabled(boolean enabled) {
 
     private boolean levelTransitionInProgress = false;
     private ExitDoor currentExitDoor = null;
-    private float levelTransitionTimer = 0f;
+    private long levelTransitionHandle = GameScheduler.NONE;
     private static final float LEVEL_TRANSITION_DELAY = 0.5f;
+    private final Runnable levelTransitionTask = this::finishLevelTransition;
 
     private boolean levelCompletedPendingSettlement = false;
     private int currentLevel = 1;
@@ -143,7 +219,7 @@ public void setAutoSaveEnabled(boolean enabled) {
     private final ChapterContext chapterContext;
     private boolean chapterMode = false;
     private Chapter1Relic chapter1Relic;
-    private final List<Chapter1Relic> chapterRelics = new ArrayList<>();
+    private final EntityStore<Chapter1Relic> chapterRelics = entities.createStore();
     private boolean viewingChapterRelic = false;
     private boolean restoreLock = false;
 
@@ -152,9 +228,16 @@ public void setAutoSaveEnabled(boolean enabled) {
     public void setEnemyKillListener(Consumer<Enemy> listener) {
         this.enemyKillListener = listener;
     }
-    /**✅ [修复] 注册游戏事件监听器 (供 EndlessScreen 等使用)*/
-    public void setGameListener(de.tum.cit.fop.maze.game.event.GameListener listener) {
-        GameEventSource.getInstance().addListener(listener);
+
+    private SimulationStepListener stepListener;
+
+    /** 屏幕的玩法逻辑挂在模拟步里跑（见 {@link SimulationStepListener}）；传 null 取消 */
+    public void setStepListener(SimulationStepListener listener) {
+        this.stepListener = listener;
+    }
+    /**✅ [修复] 注册游戏事件监听器 (供 EndlessScreen 等使用)；types 为空时订阅全部事件*/
+    public void setGameListener(de.tum.cit.fop.maze.game.event.GameListener listener, GameEventType... types) {
+        GameEventSource.getInstance().addListener(listener, types);
     }
 
     public GameManager(DifficultyConfig difficultyConfig, boolean twoPlayerMode, ChapterContext chapterContext)  {
@@ -181,7 +264,9 @@ public GameManager(DifficultyConfig difficultyConfig, boolean twoPlayerMode, Cha
                 difficultyConfig.difficulty
         );
 
-        eventSource.addListener(this.scoreManager);
+        // 分数不处理过关事件（结算由 calculateResult 负责）
+        eventSource.addListener(this.scoreManager,
+                GameEventType.ENEMY_KILLED, GameEventType.PLAYER_DAMAGE, GameEventType.ITEM_COLLECTED);
         eventSource.addListener(this.achievementManager);
 
         this.twoPlayerMode = twoPlayerMode;
@@ -205,6 +290,8 @@ public void resetGame() {
         gameVariables.put("dmg_taken", 1.0f);
         gameVariables.put("cam_zoom", 1.0f);
         gameVariables.put("time_scale", 1.0f);
+        gameVariables.put("tick_rate", (float) FixedTimestep.DEFAULT_TICK_RATE);
+        gameVariables.put("max_catchup", (float) FixedTimestep.DEFAULT_MAX_STEPS);
 
         // ============================================================
         // 🔥 [核心逻辑] New Game 自动槽位绑定 (Strategy A)
@@ -220,20 +307,32 @@ public void resetGame() {
         }
         // ============================================================
 
+        long levelSeed = levelSeed(currentLevel);
+        GameRandom.setSeed(levelSeed);
+        hitStopTimer = 0f;
+
         if (!restoringFromSave) {
-            maze = generator.generateMaze(difficultyConfig);
+            if (isEndlessMode()) {
+                generator.setSeed(levelSeed);
+                maze = generator.createEmptyMaze(difficultyConfig);
+            } else {
+                maze = takeOrGenerateMaze(currentLevel);
+            }
         } else {
             if (maze == null && gameSaveData.maze != null) {
-                maze = deepCopyMaze(gameSaveData.maze);
+                maze = snapshotMaze(gameSaveData.maze);
             }
         }
 
         if (maze == null) {
-            maze = generator.generateMaze(difficultyConfig);
+            maze = generator.generateMaze(difficultyConfig, levelSeed);
         }
+        setupEndlessChunks();
 
         enemies.clear();
+        enemySpawnSerial = 0;
         traps.clear();
+        clearLevelTimers();
         hearts.clear();
         heartContainers.clear();
         treasures.clear();
@@ -244,6 +343,7 @@ public void resetGame() {
         }
         keys.clear();
         players.clear();
+        resetSpatialIndex();
 
         if (!restoringFromSave) {
             int[] spawn1 = randomEmptyCell();
@@ -261,14 +361,13 @@ public void resetGame() {
                 players.add(p2);
             }
             revivePending = false;
-            reviveTimer = 0f;
         } else {
             // 读档：从数据恢复
             restorePlayersFromSaveData();
         }
 
         syncSinglePlayerRef();
-        cat = null;
+        removeCat();
         if (difficultyConfig.difficulty == Difficulty.HARD) {
             fogSystem = new FogSystem();
         } else {
@@ -290,7 +389,8 @@ public void resetGame() {
 
         playerSpawnPortal = new PortalEffectManager(PortalEffectManager.PortalOwner.PLAYER);
         playerSpawnPortal.startPlayerSpawnEffect(px, py);
-        obstacles = new ArrayList<>();
+        obstacles.clear();
+        spatialIndex.clear(SpatialIndex.Layer.OBSTACLE);
 
         if (!restoringFromSave) {
             generateLevel();
@@ -311,11 +411,142 @@ public void resetGame() {
 
         levelTransitionInProgress = false;
         currentExitDoor = null;
-        levelTransitionTimer = 0f;
 
+        prefetchNextLevel();
         Logger.gameEvent("Game reset complete");
     }
 
+    private boolean isEndlessMode() {
+        return difficultyConfig.difficulty == Difficulty.ENDLESS;
+    }
+
+    /**
+     * 无尽模式接管当前迷宫；全墙的新迷宫先生成中心区块（其余区块随玩家移动按需生成）
+     */
+    private void setupEndlessChunks() {
+        if (!isEndlessMode()) {
+            endlessChunks = null;
+            return;
+        }
+        endlessChunks = new EndlessChunkManager(this, generator, maze, generator.getSeed());
+        if (endlessChunks.getGeneratedCount() == 0) {
+            endlessChunks.generateStartArea();
+        }
+    }
+
+    /**
+     * 把锚点落在 [x0, x1) x [y0, y1) 内的实体从列表和空间索引中摘下（区块冻结）
+     */
+    public void freezeRegion(int x0, int y0, int x1, int y1,
+                             List<GameObject> outEntities, List<SpatialIndex.Layer> outLayers) {
+        freezeFrom(enemies, SpatialIndex.Layer.ENEMY, x0, y0, x1, y1, outEntities, outLayers);
+        freezeFrom(traps, SpatialIndex.Layer.TRAP, x0, y0, x1, y1, outEntities, outLayers);
+        freezeFrom(obstacles, SpatialIndex.Layer.OBSTACLE, x0, y0, x1, y1, outEntities, outLayers);
+        freezeFrom(keys, SpatialIndex.Layer.KEY, x0, y0, x1, y1, outEntities, outLayers);
+        freezeFrom(hearts, SpatialIndex.Layer.HEART, x0, y0, x1, y1, outEntities, outLayers);
+        freezeFrom(heartContainers, SpatialIndex.Layer.HEART_CONTAINER, x0, y0, x1, y1, outEntities, outLayers);
+        freezeFrom(treasures, SpatialIndex.Layer.TREASURE, x0, y0, x1, y1, outEntities, outLayers);
+    }
+
+    private <T extends GameObject> void freezeFrom(EntityStore<T> list, SpatialIndex.Layer layer,
+                                                   int x0, int y0, int x1, int y1,
+                                                   List<GameObject> outEntities, List<SpatialIndex.Layer> outLayers) {
+        Iterator<T> it = list.iterator();
+        while (it.hasNext()) {
+            T obj = it.next();
+            int x = obj.getX();
+            int y = obj.getY();
+            if (x >= x0 && x < x1 && y >= y0 && y < y1) {
+                it.remove();
+                spatialIndex.remove(obj);
+                lod.forget(obj);
+                if (obj instanceof Trap trap) trap.onFrozen();
+                outEntities.add(obj);
+                outLayers.add(layer);
+            }
+        }
+    }
+
+    /**
+     * 把冻结的实体放回对应列表和空间索引（区块解冻）
+     */
+    public void thawEntities(List<GameObject> entities, List<SpatialIndex.Layer> layers) {
+        for (int i = 0; i < entities.size(); i++) {
+            GameObject obj = entities.get(i);
+            switch (layers.get(i)) {
+                case ENEMY -> track(enemies, (Enemy) obj, SpatialIndex.Layer.ENEMY);
+                case TRAP -> {
+                    Trap trap = (Trap) obj;
+                    track(traps, trap, SpatialIndex.Layer.TRAP);
+                    trap.onThawed();
+                }
+                case OBSTACLE -> track(obstacles, (DynamicObstacle) obj, SpatialIndex.Layer.OBSTACLE);
+                case KEY -> track(keys, (Key) obj, SpatialIndex.Layer.KEY);
+                case HEART -> track(hearts, (Heart) obj, SpatialIndex.Layer.HEART);
+                case HEART_CONTAINER -> track(heartContainers, (HeartContainer) obj, SpatialIndex.Layer.HEART_CONTAINER);
+                case TREASURE -> track(treasures, (Treasure) obj, SpatialIndex.Layer.TREASURE);
+                case EXIT_DOOR -> track(exitDoors, (ExitDoor) obj, SpatialIndex.Layer.EXIT_DOOR);
+            }
+        }
+    }
+
+    public EndlessChunkManager getEndlessChunks() {
+        return endlessChunks;
+    }
+
+    /**
+     * 敌人总数：活跃列表 + 无尽模式冻结区块里暂存的敌人
+     */
+    public int getTotalEnemyCount() {
+        return enemies.size() + (endlessChunks != null ? endlessChunks.getFrozenEnemyCount() : 0);
+    }
+
+    /**
+     * 优先使用后台预生成的迷宫，未就绪时同步生成
+     */
+    private MazeGrid takeOrGenerateMaze(int level) {
+        long seed = levelSeed(level);
+        LevelPreloader.PreparedLevel prebuilt = levelPreloader.take(level, difficultyConfig, seed);
+        preparedLevel = prebuilt;
+        if (prebuilt != null) {
+            Logger.debug("Using pre-generated maze for Level " + level);
+            return prebuilt.maze;
+        }
+        return generator.generateMaze(difficultyConfig, seed);
+    }
+
+    /**
+     * 取走后台为 maze 扫好的墙段（只给一次）；maze 不是预生成的那张或已被改写时返回 null
+     */
+    public List<MazeRenderer.WallGroup> takePreparedWalls(MazeGrid maze) {
+        LevelPreloader.PreparedLevel prepared = preparedLevel;
+        if (prepared == null || prepared.maze != maze || maze.getVersion() != prepared.wallsVersion) {
+            return null;
+        }
+        preparedLevel = null;
+        return prepared.walls;
+    }
+
+    private void prefetchNextLevel() {
+        if (!isEndlessMode() && currentLevel < GameConstants.MAX_LEVELS) {
+            levelPreloader.prefetch(currentLevel + 1, difficultyConfig, levelSeed(currentLevel + 1));
+        }
+    }
+
+    /**
+     * 关卡种子：同一对局种子下每关固定，预生成与同步生成得到同一张迷宫
+     */
+    private long levelSeed(int level) {
+        return GameRandom.mix(runSeed + 0x9E3779B97F4A7C15L * level);
+    }
+
+    /**
+     * Boss 阶段的迷宫种子：由对局种子和阶段号派生，和普通关卡的种子错开
+     */
+    private long bossPhaseSeed(int phaseIndex) {
+        return GameRandom.mix(~runSeed + 0xC2B2AE3D27D4EB4FL * (phaseIndex + 1));
+    }
+
     private StorageManager.SaveTarget pendingRestoreSource;
 
     public void restoreFromSaveData(GameSaveData saveData, StorageManager.SaveTarget source) {
@@ -367,83 +598,342 @@ private int[] findNearbySpawn(Player p1) {
     }
 
     public boolean canPlayerMoveTo(int x, int y) {
-        if (x < 0 || y < 0 || y >= maze.length || x >= maze[0].length) {
+        if (x < 0 || y < 0 || y >= maze.getHeight() || x >= maze.getWidth()) {
             return false;
         }
 
-        for (Enemy enemy : enemies) {
-            if (enemy instanceof EnemyE04_CrystallizedCaramelShell) {
-                EnemyE04_CrystallizedCaramelShell shell = (EnemyE04_CrystallizedCaramelShell) enemy;
-                if (shell.isActive() && shell.occupiesCell(x, y)) {
-                    return false;
-                }
+        if (isShellAt(x, y, null)) {
+            return false;
+        }
+
+        int door = spatialIndex.first(SpatialIndex.Layer.EXIT_DOOR, x, y);
+        if (door != SpatialIndex.NONE) {
+            return !((ExitDoor) spatialIndex.get(door)).isLocked();
+        }
+
+        // MovingWall 移动中会同时登记当前格和目标格
+        if (!spatialIndex.isEmpty(SpatialIndex.Layer.OBSTACLE, x, y)) {
+            return false;
+        }
+        return maze.get(x, y) == 1;
+    }
+
+    /**
+     * 该格是否被（除 exclude 外的）存活 E04 2x2 外壳占据
+     */
+    public boolean isShellAt(int x, int y, Enemy exclude) {
+        for (int n = spatialIndex.first(SpatialIndex.Layer.ENEMY, x, y); n != SpatialIndex.NONE; n = spatialIndex.next(n)) {
+            if (spatialIndex.get(n) instanceof EnemyE04_CrystallizedCaramelShell shell
+                    && shell != exclude && shell.occupiesCell(x, y)) {
+                return true;
             }
         }
+        return false;
+    }
 
-        for (ExitDoor door : exitDoors) {
-            if (door.getX() == x && door.getY() == y) {
-                return !door.isLocked();
+    /**
+     * 每帧调用一次：按固定步长推进模拟，返回本帧跑了几步。
+     * 输入每帧只锁存一次，在模拟步里按步长消费（"刚按下"不会因为一帧多步被重复触发，
+     * 也不会因为一帧零步被漏掉；移动间隔和技能冷却按步推进）。
+     */
+    public int advance(float frameDelta) {
+        endInterpolatedRender();
+        recordFrameTime();
+        if (gameVariables != null) {
+            timestep.setTickRate(Math.round(gameVariables.getOrDefault("tick_rate", (float) FixedTimestep.DEFAULT_TICK_RATE)));
+            timestep.setMaxSteps(Math.round(gameVariables.getOrDefault("max_catchup", (float) FixedTimestep.DEFAULT_MAX_STEPS)));
+        }
+
+        int steps = timestep.accumulate(frameDelta);
+        Profiler.begin(Profiler.Phase.INPUT);
+        inputHandler.latch(this, twoPlayerMode);
+        Profiler.end(Profiler.Phase.INPUT);
+
+        float step = timestep.getStep();
+        inputLatchedByAdvance = true;
+        Profiler.begin(Profiler.Phase.SIMULATION);
+        try {
+            for (int i = 0; i < steps; i++) {
+                savePreviousPositions();
+                update(step);
+                if (levelCompletedPendingSettlement) break;
             }
+        } finally {
+            inputLatchedByAdvance = false;
+            Profiler.end(Profiler.Phase.SIMULATION);
         }
+        return steps;
+    }
 
-        for (DynamicObstacle o : obstacles) {
-            if (o instanceof MovingWall mw) {
-                if (mw.occupiesCell(x, y)) return false;
-            } else {
-                if (o.getX() == x && o.getY() == y) return false;
+    /**
+     * 世界渲染前调用：实体平滑坐标临时换成上一步与当前步之间的插值
+     */
+    public void beginInterpolatedRender() {
+        if (interpolating) return;
+        float alpha = timestep.getAlpha();
+        for (Player p : players) p.applyInterpolation(alpha);
+        for (Enemy e : enemies) e.applyInterpolation(alpha);
+        for (DynamicObstacle o : obstacles) o.applyInterpolation(alpha);
+        if (cat != null) cat.applyInterpolation(alpha);
+        interpolating = true;
+    }
+
+    /**
+     * 世界渲染后调用，换回真实坐标（下一次 advance 开头也会自动调用）
+     */
+    public void endInterpolatedRender() {
+        if (!interpolating) return;
+        for (Player p : players) p.restorePosition();
+        for (Enemy e : enemies) e.restorePosition();
+        for (DynamicObstacle o : obstacles) o.restorePosition();
+        if (cat != null) cat.restorePosition();
+        interpolating = false;
+    }
+
+    private void savePreviousPositions() {
+        for (Player p : players) p.savePreviousPosition();
+        for (Enemy e : enemies) e.savePreviousPosition();
+        for (DynamicObstacle o : obstacles) o.savePreviousPosition();
+        if (cat != null) cat.savePreviousPosition();
+    }
+
+    private void consumeInput(float delta) {
+        if (!inputLatchedByAdvance) inputHandler.latch(this, twoPlayerMode);
+        inputHandler.update(delta, this, Player.PlayerIndex.P1);
+        if (twoPlayerMode) {
+            inputHandler.update(delta, this, Player.PlayerIndex.P2);
+        }
+    }
+
+    public FixedTimestep getTimestep() {
+        return timestep;
+    }
+
+    /* ================= 录像 ================= */
+
+    public long getSimulationTick() {
+        return simulationTick;
+    }
+
+    public long getRunSeed() {
+        return runSeed;
+    }
+
+    /**
+     * 指定对局种子（基准测试 / 无头模拟用），下一次 resetGame 起生效
+     */
+    public void setRunSeed(long runSeed) {
+        this.runSeed = runSeed;
+    }
+
+    /**
+     * 从下一次重置关卡开始录制当前关卡（马上请求重置）
+     */
+    public void startRecording() {
+        pendingPlayback = null;
+        pendingRecordStart = true;
+        requestReset();
+    }
+
+    /**
+     * 结束录制并写入 replays/ 目录，返回文件；没有在录制或写入失败时返回 null
+     */
+    public FileHandle stopRecording() {
+        FrameTimeStats frameTimes = replayRecorder == null ? null : replayRecorder.getFrameTimes();
+        Replay replay = finishRecording();
+        if (replay == null) return null;
+        FileHandle file = Replay.newFile();
+        try {
+            replay.save(file);
+        } catch (IOException e) {
+            Logger.error("Failed to save replay: " + e.getMessage());
+            return null;
+        }
+        lastReplayReport = "Recorded " + replay.getLength() + " ticks, " + replay.getEventCount()
+                + " events -> " + file.path() + " | frames " + frameTimes;
+        Logger.info(lastReplayReport);
+        return file;
+    }
+
+    /**
+     * 结束录制并直接返回录像，不写文件（测试、无头模拟用）；没有在录制时返回 null
+     */
+    public Replay finishRecording() {
+        if (replayRecorder == null) return null;
+        ReplayRecorder recorder = replayRecorder;
+        replayRecorder = null;
+        return recorder.finish(simulationTick);
+    }
+
+    /**
+     * 用录像的种子和起始关卡重开本关，并从下一步开始回放
+     */
+    public void startPlayback(Replay replay) {
+        if (replay.getDifficulty() != difficultyConfig.difficulty || replay.isTwoPlayer() != twoPlayerMode) {
+            throw new IllegalArgumentException("Replay was recorded on " + replay.getDifficulty()
+                    + (replay.isTwoPlayer() ? " (2P)" : " (1P)"));
+        }
+        replayRecorder = null;
+        pendingRecordStart = false;
+        pendingPlayback = replay;
+        runSeed = replay.getSeed();
+        currentLevel = replay.getStartLevel();
+        levelPreloader.cancel();
+        requestReset();
+    }
+
+    public boolean isRecording() {
+        return replayRecorder != null;
+    }
+
+    public boolean isReplayPlaying() {
+        return replayPlayer != null || pendingPlayback != null;
+    }
+
+    public ReplayPlayer getReplayPlayer() {
+        return replayPlayer;
+    }
+
+    /** 最近一次录制 / 回放结束时的摘要（含帧耗时百分位） */
+    public String getLastReplayReport() {
+        return lastReplayReport;
+    }
+
+    private boolean ignoresLiveInput() {
+        return replayPlayer != null && !replayDispatching;
+    }
+
+    private void startPendingReplay() {
+        if (!pendingRecordStart && pendingPlayback == null) return;
+        armAutoSave();
+        debugTimer = 0f;
+        lastAdvanceNanos = 0;
+
+        if (pendingRecordStart) {
+            pendingRecordStart = false;
+            Replay replay = new Replay(difficultyConfig.difficulty, twoPlayerMode, runSeed, currentLevel, timestep.getTickRate());
+            replayRecorder = new ReplayRecorder(replay, simulationTick);
+            replayRecorder.onMouse(simulationTick, mouseTileX, mouseTileY);
+            Logger.info("Replay recording started (seed=" + runSeed + ", level=" + currentLevel + ")");
+        } else {
+            Replay replay = pendingPlayback;
+            pendingPlayback = null;
+            gameVariables.put("tick_rate", (float) replay.getTickRate());
+            timestep.setTickRate(replay.getTickRate());
+            replayPlayer = new ReplayPlayer(replay, simulationTick);
+            Logger.info("Replay playback started (" + replay.getLength() + " ticks)");
+        }
+    }
+
+    private void finishPlayback() {
+        ReplayPlayer finished = replayPlayer;
+        replayPlayer = null;
+        lastReplayReport = "Replay finished: " + finished.getReplay().getLength() + " ticks, score=" + getScore()
+                + " | frames " + finished.getFrameTimes();
+        Logger.info(lastReplayReport);
+    }
+
+    private void recordFrameTime() {
+        long now = System.nanoTime();
+        if (lastAdvanceNanos != 0) {
+            if (replayPlayer != null) {
+                replayPlayer.getFrameTimes().add(now - lastAdvanceNanos);
+            } else if (replayRecorder != null) {
+                replayRecorder.getFrameTimes().add(now - lastAdvanceNanos);
             }
         }
-        return maze[y][x] == 1;
+        lastAdvanceNanos = now;
     }
 
+    /**
+     * 推进一个模拟步；正常游戏循环请用 {@link #advance(float)}。
+     * 这一步里发布的游戏事件（击杀、受伤、拾取、过关）在步末统一分发给分数 / 成就等监听器。
+     */
     public void update(float delta) {
+        entities.beginTick();
+        try {
+            simulateStep(delta);
+        } finally {
+            entities.endTick();
+        }
+        applyPendingReset();
+        updateEffects();
+        GameEventSource.getInstance().dispatch();
+    }
+
+    private void updateEffects() {
+        Profiler.begin(Profiler.Phase.EFFECTS);
+        if (effectsDue) {
+            if (keyEffectManager != null) keyEffectManager.update(effectDelta);
+            if (itemEffectManager != null) itemEffectManager.update(effectDelta);
+            if (trapEffectManager != null) trapEffectManager.update(effectDelta);
+            bobaBulletEffectManager.update(effectDelta);
+        }
+        if ((effectsDue || combatEffectsDue) && combatEffectManager != null) combatEffectManager.update(effectDelta);
+        if (spawnPortalDue && playerSpawnPortal != null) playerSpawnPortal.update(effectDelta);
+        effectsDue = false;
+        combatEffectsDue = false;
+        spawnPortalDue = false;
+        Profiler.end(Profiler.Phase.EFFECTS);
+    }
+
+    private void simulateStep(float delta) {
+        effectDelta = delta;
+        if (replayPlayer != null) {
+            if (replayPlayer.isFinished(simulationTick)) {
+                finishPlayback();
+            } else {
+                replayDispatching = true;
+                try {
+                    replayPlayer.dispatch(simulationTick, this);
+                } finally {
+                    replayDispatching = false;
+                }
+            }
+        }
+        // 玩家输入在这一步消费，和回放事件记在同一个步号上；顿帧、看遗物、过关时按下的键作废
+        if (!viewingChapterRelic && hitStopTimer <= 0 && !levelTransitionInProgress) {
+            consumeInput(delta);
+        } else {
+            inputHandler.clear();
+        }
+        simulationTick++;
+
         // 🔥 [修正] 顿帧逻辑：允许特效播放
         if (hitStopTimer > 0) {
             hitStopTimer -= delta;
 
             // 关键：在顿帧期间，允许战斗特效（粒子）继续更新，但暂停其他逻辑
-            if (combatEffectManager != null) {
-                combatEffectManager.update(delta);
-            }
+            combatEffectsDue = true;
 
             if (hitStopTimer > 0) return; // 冻结核心逻辑（实体移动、AI等）
         }
 
-        if (!viewingChapterRelic) {
-            inputHandler.update(delta, this, Player.PlayerIndex.P1);
-            if (twoPlayerMode) {
-                inputHandler.update(delta, this, Player.PlayerIndex.P2);
-            }
-        }
+
+        // 到期的计时器在这一步开头触发；过关计时也在里面，先记下触发前的状态
+        boolean inTransition = levelTransitionInProgress;
+        scheduler.advance(delta);
 
         if (playerSpawnPortal != null && player != null) {
             float cx = (player.getX() + 0.5f) * GameConstants.CELL_SIZE;
             float cy = (player.getY() + 0.15f) * GameConstants.CELL_SIZE;
             playerSpawnPortal.setCenter(cx, cy);
-            playerSpawnPortal.update(delta);
+            spawnPortalDue = true;
 
+            // 上一步末尾已经更新过，这里看到的是完整状态
             if (playerSpawnPortal.isFinished()) {
                 playerSpawnPortal.dispose();
                 playerSpawnPortal = null;
             }
         }
 
-        if (levelTransitionInProgress) {
+        if (inTransition) {
             if (currentExitDoor != null) {
                 currentExitDoor.update(delta, this);
             }
-            levelTransitionTimer += delta;
-            if (levelTransitionTimer >= LEVEL_TRANSITION_DELAY) {
-                levelTransitionInProgress = false;
-                levelTransitionTimer = 0f;
-                currentExitDoor = null;
-                if (chapterContext != null) {
-                    chapterContext.clearActiveRelic();
-                }
-                nextLevel();
-            }
             return;
         }
+        Profiler.begin(Profiler.Phase.PLAYERS);
         for (Player p : players) {
             p.update(delta);
         }
@@ -456,26 +946,47 @@ public void update(float delta) {
                     cat = new CatFollower(player, this);
                 cat.update(delta);
             } else {
-                cat = null;
+                removeCat();
             }
         } else {
-            cat = null;
+            removeCat();
         }
         if (fogSystem != null) {
             fogSystem.update(delta);
         }
+        Profiler.end(Profiler.Phase.PLAYERS);
 
+        Profiler.begin(Profiler.Phase.PATHFINDING);
+        if (endlessChunks != null) {
+            endlessChunks.update(players);
+        }
+        updateDistanceFields();
+        lineOfSight.beginTick(maze);
+        pathfinding.update();
+        lod.beginFrame(players);
+        Profiler.end(Profiler.Phase.PATHFINDING);
+
+        Profiler.begin(Profiler.Phase.TRAPS);
         for (Trap trap : traps) {
-            if (trap.isActive()) {
-                trap.update(delta);
+            if (trap.isActive() && trap.needsUpdate()) {
+                float dt = lod.step(trap, delta);
+                if (dt >= 0f) trap.update(dt);
             }
         }
+        Profiler.end(Profiler.Phase.TRAPS);
+
+        Profiler.begin(Profiler.Phase.ENEMIES);
+        enemyScheduler.begin();
+        for (Enemy e : enemies) {
+            float dt = lod.step(e, delta);
+            if (dt >= 0f) enemyScheduler.add(e, dt);
+        }
+        enemySnapshot.capture(maze, spatialIndex, players, this);
+        enemyScheduler.run(this, enemySnapshot);
 
         Iterator<Enemy> enemyIterator = enemies.iterator();
         while (enemyIterator.hasNext()) {
             Enemy e = enemyIterator.next();
-            e.update(delta, this);
-            e.setGameManager(this);
             if (e.isDead() || !e.isActive()) {
                 if (e.isDead()) {
                     EnemyTier tier = EnemyTier.E01;
@@ -496,39 +1007,68 @@ public void update(float delta) {
                         handleEnemyDrop(e);
                     }
                 }
+                e.cancelRoute(pathfinding);
                 enemyIterator.remove();
+                spatialIndex.remove(e);
+                lod.forget(e);
             }
         }
+        Profiler.end(Profiler.Phase.ENEMIES);
 
+        Profiler.begin(Profiler.Phase.OBSTACLES);
         for (ExitDoor door : exitDoors) {
-            door.update(delta, this);
+            float dt = lod.step(door, delta);
+            if (dt >= 0f) door.update(dt, this);
         }
         checkExitReached();
         updateCompass();
+        Profiler.end(Profiler.Phase.OBSTACLES);
+
+        Profiler.begin(Profiler.Phase.BULLETS);
         updateBullets(delta);
+        Profiler.end(Profiler.Phase.BULLETS);
+
+        Profiler.begin(Profiler.Phase.OBSTACLES);
         for (DynamicObstacle o : obstacles) {
-            o.update(delta, this);
+            float dt = lod.step(o, delta);
+            if (dt < 0f) continue;
+            o.update(dt, this);
+            if (spatialIndex.update(o)) {
+                invalidateDistanceFields();
+                pathfinding.invalidateRegion(o.getFootprintX(), o.getFootprintY(),
+                        o.getFootprintX() + o.getFootprintWidth() - 1,
+                        o.getFootprintY() + o.getFootprintHeight() - 1);
+            }
         }
+        Profiler.end(Profiler.Phase.OBSTACLES);
+
+        Profiler.begin(Profiler.Phase.BULLETS);
         bobaBulletEffectManager.addBullets(bullets);
-        bobaBulletEffectManager.update(delta);
+        Profiler.end(Profiler.Phase.BULLETS);
 
+        Profiler.begin(Profiler.Phase.COLLISIONS);
         handlePlayerEnemyCollision();
         handleDashHitEnemies();
         checkAutoPickup();
+        Profiler.end(Profiler.Phase.COLLISIONS);
 
-        if (keyEffectManager != null) keyEffectManager.update(delta);
-        if (itemEffectManager != null) itemEffectManager.update(delta);
-        if (trapEffectManager != null) trapEffectManager.update(delta);
-        if (combatEffectManager != null) combatEffectManager.update(delta);
+        // 特效在步末统一更新（见 updateEffects），本步后面生成的特效也一起推进
+        effectsDue = true;
 
+        Profiler.begin(Profiler.Phase.COLLISIONS);
         handlePlayerTrapInteraction();
         handleKeyLogic();
-
-        if (pendingReset) {
-            pendingReset = false;
-            if (restoreLock || restoringFromSave) return;
-            resetGame();
-            justReset = true;
+        Profiler.end(Profiler.Phase.COLLISIONS);
+
+        if (stepListener != null) {
+            // 监听器在所有实体遍历之外：先把本步排队的增删落实，监听器里的增删立即生效，
+            // 同一次刷怪循环里后刷的敌人能看到先刷的（列表、计数、空间索引都一致）
+            entities.endTick();
+            try {
+                stepListener.onSimulationStep(delta);
+            } finally {
+                entities.beginTick();
+            }
         }
 
         debugTimer += delta;
@@ -537,26 +1077,70 @@ public void update(float delta) {
             debugTimer = 0f;
         }
 
-        autoSaveTimer += delta;
-        if (autoSaveTimer >= AUTO_SAVE_INTERVAL) {
-            autoSaveTimer = 0f;
-            if (!autoSaveEnabled) {
-                Logger.error("⛔ AutoSave skipped (disabled)");
-                return;
-            }
-            if (restoringFromSave) return;
-            if (!levelTransitionInProgress && player != null && !player.isDead()) {
-                StorageManager.SaveTarget old = currentSaveTarget;
-                currentSaveTarget = StorageManager.SaveTarget.AUTO;
-                saveGameProgress();
-                currentSaveTarget = old;
-            }
+    }
+
+    /**
+     * 步内请求的重开（过关、重试）在实体增删整理完之后执行，重建关卡时增删立即生效
+     */
+    private void applyPendingReset() {
+        if (!pendingReset) return;
+        pendingReset = false;
+        if (restoreLock || restoringFromSave) return;
+        resetGame();
+        justReset = true;
+        if (stepListener != null) {
+            stepListener.onLevelReset();
+        }
+        startPendingReplay();
+    }
+
+    /** 关卡计时器的时间轮；机关等按模拟步计时的对象在这里登记回调 */
+    public GameScheduler getScheduler() {
+        return scheduler;
+    }
+
+    /** 世界重建时丢弃上一关的全部计时器，只保留自动存档 */
+    private void clearLevelTimers() {
+        scheduler.clear();
+        levelTransitionHandle = GameScheduler.NONE;
+        reviveHandle = GameScheduler.NONE;
+        armAutoSave();
+    }
+
+    private void armAutoSave() {
+        scheduler.cancel(autoSaveHandle);
+        autoSaveHandle = scheduler.schedule(AUTO_SAVE_INTERVAL, autoSaveTask);
+    }
+
+    private void onAutoSave() {
+        autoSaveHandle = scheduler.schedule(AUTO_SAVE_INTERVAL, autoSaveTask);
+        if (!autoSaveEnabled) {
+            Logger.error("⛔ AutoSave skipped (disabled)");
+            return;
+        }
+        if (restoringFromSave) return;
+        // 回放中不自动存档，免得覆盖玩家自己的存档
+        if (replayPlayer != null) return;
+        if (!levelTransitionInProgress && player != null && !player.isDead()) {
+            StorageManager.SaveTarget old = currentSaveTarget;
+            currentSaveTarget = StorageManager.SaveTarget.AUTO;
+            Profiler.begin(Profiler.Phase.AUTOSAVE);
+            saveGameProgress();
+            Profiler.end(Profiler.Phase.AUTOSAVE);
+            currentSaveTarget = old;
         }
     }
 
     public float getReviveProgress() {
         if (!revivePending) return 0f;
-        return Math.min(1f, reviveTimer / REVIVE_DELAY);
+        return Math.min(1f, 1f - scheduler.getRemaining(reviveHandle) / REVIVE_DELAY);
+    }
+
+    /** 猫跟随只在 HARD + 迷雾时存在；移除时撤掉它排队中的寻路请求 */
+    private void removeCat() {
+        if (cat == null) return;
+        cat.cancelRoute();
+        cat = null;
     }
 
     private Player lastReviveTarget = null;
@@ -571,35 +1155,44 @@ private void updateEndlessRevive(float delta) {
         boolean p2Dead = p2.isDead();
 
         if (p1Dead && p2Dead) {
-            revivePending = false;
-            reviveTimer = 0f;
-            lastReviveTarget = null;
+            cancelRevive();
             return;
         }
 
         if (p1Dead ^ p2Dead) {
-            Player alive = p1Dead ? p2 : p1;
-            Player dead  = p1Dead ? p1 : p2;
+            Player dead = p1Dead ? p1 : p2;
 
-            if (dead != lastReviveTarget) {
-                reviveTimer = 0f;
+            // 换了倒下的人，或者上一次复活没成功（找不到出生点），重新计 10 秒
+            if (dead != lastReviveTarget || !scheduler.isPending(reviveHandle)) {
+                scheduler.cancel(reviveHandle);
+                reviveHandle = scheduler.schedule(REVIVE_DELAY, reviveTask);
                 lastReviveTarget = dead;
             }
-
             revivePending = true;
-            reviveTimer += delta;
+        } else {
+            cancelRevive();
+        }
+    }
 
-            if (reviveTimer >= REVIVE_DELAY) {
-                revivePlayer(dead, alive);
-                revivePending = false;
-                reviveTimer = 0f;
-                lastReviveTarget = null;
+    private void cancelRevive() {
+        scheduler.cancel(reviveHandle);
+        reviveHandle = GameScheduler.NONE;
+        revivePending = false;
+        lastReviveTarget = null;
+    }
+
+    private void onReviveDue() {
+        reviveHandle = GameScheduler.NONE;
+        Player p1 = getPlayerByIndex(Player.PlayerIndex.P1);
+        Player p2 = getPlayerByIndex(Player.PlayerIndex.P2);
+        if (p1 != null && p2 != null && p1.isDead() ^ p2.isDead()) {
+            Player dead = p1.isDead() ? p1 : p2;
+            if (dead == lastReviveTarget) {
+                revivePlayer(dead, p1.isDead() ? p2 : p1);
             }
-        } else {
-            revivePending = false;
-            reviveTimer = 0f;
-            lastReviveTarget = null;
         }
+        revivePending = false;
+        lastReviveTarget = null;
     }
 
     private void revivePlayer(Player dead, Player alive) {
@@ -637,44 +1230,32 @@ private void handlePlayerEnemyCollision() {
             if (p == null || p.isDead()) continue;
             if (p.isDashInvincible()) continue;
 
-            for (Enemy enemy : enemies) {
-                if (enemy == null || enemy.isDead() || !enemy.isActive()) continue;
+            int pcx = p.getX();
+            int pcy = p.getY();
 
-                boolean hit = false;
+            // E02 是连续移动的圆形判定，网格坐标与世界坐标最多差 1 格 → 查 3x3
+            for (int cy = pcy - 1; cy <= pcy + 1; cy++) {
+                for (int cx = pcx - 1; cx <= pcx + 1; cx++) {
+                    for (int n = spatialIndex.first(SpatialIndex.Layer.ENEMY, cx, cy); n != SpatialIndex.NONE; n = spatialIndex.next(n)) {
+                        Enemy enemy = (Enemy) spatialIndex.get(n);
+                        if (enemy.isDead() || !enemy.isActive()) continue;
 
-                if (enemy instanceof EnemyE02_SmallCoffeeBean e02) {
-                    float px = p.getWorldX() + 0.5f;
-                    float py = p.getWorldY() + 0.5f;
+                        boolean hit = false;
 
-                    float dx = px - e02.getWorldX();
-                    float dy = py - e02.getWorldY();
-                    float radius = 0.6f;
-                    hit = (dx * dx + dy * dy) <= radius * radius;
-                } else {
-                    hit = enemy.getX() == p.getX() && enemy.getY() == p.getY();
-                }
+                        if (enemy instanceof EnemyE02_SmallCoffeeBean e02) {
+                            float px = p.getWorldX() + 0.5f;
+                            float py = p.getWorldY() + 0.5f;
 
-                if (hit) {
-                    int livesBefore = p.getLives();
-                    p.takeDamage(enemy.getCollisionDamage());
-                    int damage = livesBefore - p.getLives();
-                    if (hit && enemy instanceof EnemyE02_SmallCoffeeBean) {
-                        AudioManager.getInstance().play(AudioType.ENEMY_ATTACK_E02);
-                    }
-                    if (damage > 0) {
-                        DamageSource source = DamageSource.UNKNOWN;
-                        if (enemy instanceof EnemyE01_CorruptedPearl) source = DamageSource.ENEMY_E01;
-                        else if (enemy instanceof EnemyE02_SmallCoffeeBean) source = DamageSource.ENEMY_E02;
-                        else if (enemy instanceof EnemyE03_CaramelJuggernaut) source = DamageSource.ENEMY_E03;
-                        else if (enemy instanceof EnemyE04_CrystallizedCaramelShell) source = DamageSource.ENEMY_E04;
-
-                        GameEventSource.getInstance().onPlayerDamage(p.getLives(), source);
-
-                        int penalty = (int) (source.penaltyScore * difficultyConfig.penaltyMultiplier);
-                        if (combatEffectManager != null && penalty > 0) {
-                            float tx = (p.getX() + 0.5f) * GameConstants.CELL_SIZE;
-                            float ty = (p.getY() + 0.5f) * GameConstants.CELL_SIZE;
-                            combatEffectManager.spawnScoreText(tx, ty + 40, -penalty);
+                            float dx = px - e02.getWorldX();
+                            float dy = py - e02.getWorldY();
+                            float radius = 0.6f;
+                            hit = (dx * dx + dy * dy) <= radius * radius;
+                        } else if (cx == pcx && cy == pcy) {
+                            hit = enemy.getX() == pcx && enemy.getY() == pcy;
+                        }
+
+                        if (hit) {
+                            applyEnemyContactDamage(p, enemy);
                         }
                     }
                 }
@@ -682,6 +1263,31 @@ private void handlePlayerEnemyCollision() {
         }
     }
 
+    private void applyEnemyContactDamage(Player p, Enemy enemy) {
+        int livesBefore = p.getLives();
+        p.takeDamage(enemy.getCollisionDamage());
+        int damage = livesBefore - p.getLives();
+        if (enemy instanceof EnemyE02_SmallCoffeeBean) {
+            AudioManager.getInstance().play(AudioType.ENEMY_ATTACK_E02);
+        }
+        if (damage > 0) {
+            DamageSource source = DamageSource.UNKNOWN;
+            if (enemy instanceof EnemyE01_CorruptedPearl) source = DamageSource.ENEMY_E01;
+            else if (enemy instanceof EnemyE02_SmallCoffeeBean) source = DamageSource.ENEMY_E02;
+            else if (enemy instanceof EnemyE03_CaramelJuggernaut) source = DamageSource.ENEMY_E03;
+            else if (enemy instanceof EnemyE04_CrystallizedCaramelShell) source = DamageSource.ENEMY_E04;
+
+            GameEventSource.getInstance().onPlayerDamage(p.getLives(), source);
+
+            int penalty = (int) (source.penaltyScore * difficultyConfig.penaltyMultiplier);
+            if (combatEffectManager != null && penalty > 0) {
+                float tx = (p.getX() + 0.5f) * GameConstants.CELL_SIZE;
+                float ty = (p.getY() + 0.5f) * GameConstants.CELL_SIZE;
+                combatEffectManager.spawnScoreText(tx, ty + 40, -penalty);
+            }
+        }
+    }
+
     private void handlePlayerTrapInteraction() {
         if (levelTransitionInProgress) return;
 
@@ -691,10 +1297,11 @@ private void handlePlayerTrapInteraction() {
             int px = p.getX();
             int py = p.getY();
 
-            for (Trap trap : traps) {
-                if (!trap.isActive()) continue;
-
-                if (trap.getX() == px && trap.getY() == py) {
+            int n = spatialIndex.first(SpatialIndex.Layer.TRAP, px, py);
+            while (n != SpatialIndex.NONE) {
+                Trap trap = (Trap) spatialIndex.get(n);
+                n = spatialIndex.next(n);
+                if (trap.isActive()) {
                     trap.onPlayerStep(p);
                 }
             }
@@ -704,12 +1311,25 @@ private void handlePlayerTrapInteraction() {
     private void updateCompass() {
         if (compass == null) return;
 
+        // 优先按真实路径距离选门；距离场不可达时退回直线距离
+        DistanceField field = getDistanceField(player);
         ExitDoor nearest = null;
+        int bestPath = DistanceField.UNREACHABLE;
         float bestDist = Float.MAX_VALUE;
 
         for (ExitDoor door : exitDoors) {
             if (!door.isActive()) continue;
 
+            int path = field != null ? field.distanceAround(door.getX(), door.getY()) : DistanceField.UNREACHABLE;
+            if (path != DistanceField.UNREACHABLE) {
+                if (path < bestPath) {
+                    bestPath = path;
+                    nearest = door;
+                }
+                continue;
+            }
+            if (bestPath != DistanceField.UNREACHABLE) continue;
+
             float dx = door.getX() - player.getX();
             float dy = door.getY() - player.getY();
             float dist = dx * dx + dy * dy;
@@ -722,6 +1342,9 @@ private void updateCompass() {
         compass.update(nearest);
     }
 
+    // 冲刺命中的临时列表（复用，避免每帧分配）
+    private final List<Enemy> dashHitScratch = new ArrayList<>();
+
     private void handleDashHitEnemies() {
         if (levelTransitionInProgress) return;
 
@@ -730,36 +1353,49 @@ private void handleDashHitEnemies() {
 
             float px = p.getWorldX() + 0.5f;
             float py = p.getWorldY() + 0.5f;
+            int pcx = (int) px;
+            int pcy = (int) py;
+
+            // 先收集再结算：takeDamage 可能触发死亡回调
+            dashHitScratch.clear();
+            for (int cy = pcy - 1; cy <= pcy + 1; cy++) {
+                for (int cx = pcx - 1; cx <= pcx + 1; cx++) {
+                    for (int n = spatialIndex.first(SpatialIndex.Layer.ENEMY, cx, cy); n != SpatialIndex.NONE; n = spatialIndex.next(n)) {
+                        Enemy enemy = (Enemy) spatialIndex.get(n);
+                        if (enemy.isDead() || !enemy.isActive()) continue;
+
+                        boolean hit = false;
+
+                        if (enemy instanceof EnemyE02_SmallCoffeeBean e02) {
+                            float dx = px - e02.getWorldX();
+                            float dy = py - e02.getWorldY();
+                            hit = (dx * dx + dy * dy) <= 0.7f * 0.7f;
+                        } else if (cx == pcx && cy == pcy) {
+                            // E04 在其 2x2 的每个格子都有登记，这里只看玩家所在格
+                            hit = enemy.occupiesCell(pcx, pcy);
+                        }
 
-            for (Enemy enemy : enemies) {
-                if (enemy == null || enemy.isDead() || !enemy.isActive()) continue;
-
-                boolean hit = false;
-
-                if (enemy instanceof EnemyE02_SmallCoffeeBean e02) {
-                    float dx = px - e02.getWorldX();
-                    float dy = py - e02.getWorldY();
-                    hit = (dx * dx + dy * dy) <= 0.7f * 0.7f;
-                } else if (enemy instanceof EnemyE04_CrystallizedCaramelShell shell) {
-                    hit = shell.occupiesCell((int) px, (int) py);
-                } else {
-                    hit = enemy.getX() == (int) px && enemy.getY() == (int) py;
+                        if (hit) {
+                            dashHitScratch.add(enemy);
+                        }
+                    }
                 }
+            }
 
-                if (hit) {
-                    enemy.markHitByDash();
-                    enemy.takeDamage(2);
-
-                    // =========== 冲刺撞击反馈 ===========
-                    if (combatEffectManager != null) {
-                        // 1. 生成打击火花
-                        float ex = (enemy.getX() + 0.5f) * GameConstants.CELL_SIZE;
-                        float ey = (enemy.getY() + 0.5f) * GameConstants.CELL_SIZE;
-                        combatEffectManager.spawnHitSpark(ex, ey);
-                    }
-                    // 2. 触发轻微顿帧和震动 (强度 1.5f, 比普攻轻一点)
-                    triggerHitFeedback(1.5f);
+            for (int i = 0; i < dashHitScratch.size(); i++) {
+                Enemy enemy = dashHitScratch.get(i);
+                enemy.markHitByDash();
+                enemy.takeDamage(2);
+
+                // =========== 冲刺撞击反馈 ===========
+                if (combatEffectManager != null) {
+                    // 1. 生成打击火花
+                    float ex = (enemy.getX() + 0.5f) * GameConstants.CELL_SIZE;
+                    float ey = (enemy.getY() + 0.5f) * GameConstants.CELL_SIZE;
+                    combatEffectManager.spawnHitSpark(ex, ey);
                 }
+                // 2. 触发轻微顿帧和震动 (强度 1.5f, 比普攻轻一点)
+                triggerHitFeedback(1.5f);
             }
         }
     }
@@ -815,13 +1451,25 @@ private void checkExitReached() {
     private void startLevelTransition(ExitDoor door) {
         levelTransitionInProgress = true;
         currentExitDoor = door;
-        levelTransitionTimer = 0f;
+        scheduler.cancel(levelTransitionHandle);
+        levelTransitionHandle = scheduler.schedule(LEVEL_TRANSITION_DELAY, levelTransitionTask);
         GameEventSource.getInstance().onLevelFinished(currentLevel);
         Logger.gameEvent("Level transition started");
     }
 
+    private void finishLevelTransition() {
+        levelTransitionHandle = GameScheduler.NONE;
+        levelTransitionInProgress = false;
+        currentExitDoor = null;
+        if (chapterContext != null) {
+            chapterContext.clearActiveRelic();
+        }
+        nextLevel();
+    }
+
     public void nextLevel() {
         levelCompletedPendingSettlement = true;
+        if (replayRecorder != null) stopRecording();
         Logger.gameEvent("Level " + currentLevel + " completed");
         currentLevel++;
         restoringFromSave = false;
@@ -859,12 +1507,7 @@ private void handleKeyLogic() {
     }
 
     public boolean isExitDoorAt(int x, int y) {
-        for (ExitDoor door : exitDoors) {
-            if (door.getX() == x && door.getY() == y) {
-                return true;
-            }
-        }
-        return false;
+        return !spatialIndex.isEmpty(SpatialIndex.Layer.EXIT_DOOR, x, y);
     }
 
     public boolean isLevelCompletedPendingSettlement() {
@@ -903,6 +1546,164 @@ public void spawnProjectile(BobaBullet bullet) {
         bullets.add(bullet);
     }
 
+    /* ================= 空间索引维护 ================= */
+
+    /**
+     * 外部（如 EndlessScreen）生成敌人必须走这里，保证空间索引同步
+     */
+    public void spawnEnemy(Enemy enemy) {
+        if (enemy == null) return;
+        trackEnemy(enemy);
+    }
+
+    public void spawnHeart(Heart heart) {
+        if (heart == null) return;
+        track(hearts, heart, SpatialIndex.Layer.HEART);
+    }
+
+    public void clearExitDoors() {
+        exitDoors.clear();
+        spatialIndex.clear(SpatialIndex.Layer.EXIT_DOOR);
+    }
+
+    public void clearKeys() {
+        keys.clear();
+        spatialIndex.clear(SpatialIndex.Layer.KEY);
+    }
+
+    /**
+     * 外部通过迭代器从列表中移除实体后调用，从索引中注销
+     */
+    public void untrackEntity(GameObject obj) {
+        spatialIndex.remove(obj);
+        lod.forget(obj);
+    }
+
+    public SpatialIndex getSpatialIndex() {
+        return spatialIndex;
+    }
+
+    /**
+     * 新出生的敌人：随机序列由关卡种子和本关的出生序号派生，
+     * 同一格先后刷出的敌人（无尽模式的连续波次）也互不相同，回放时照样能复现
+     */
+    private void trackEnemy(Enemy enemy) {
+        enemy.seedRandom(GameRandom.mix(levelSeed(currentLevel) + 0xD1B54A32D192ED03L * ++enemySpawnSerial));
+        track(enemies, enemy, SpatialIndex.Layer.ENEMY);
+    }
+
+    private <T extends GameObject> void track(EntityStore<T> list, T obj, SpatialIndex.Layer layer) {
+        list.add(obj);
+        spatialIndex.add(obj, layer);
+    }
+
+    /**
+     * 按当前迷宫尺寸重建空间索引，并重新登记所有列表中的实体
+     */
+    private void resetSpatialIndex() {
+        if (spatialIndex == null
+                || spatialIndex.getWidth() != maze.getWidth()
+                || spatialIndex.getHeight() != maze.getHeight()) {
+            spatialIndex = new SpatialIndex(maze.getWidth(), maze.getHeight());
+        } else {
+            spatialIndex.clear();
+        }
+        spatialIndex.addAll(enemies, SpatialIndex.Layer.ENEMY);
+        spatialIndex.addAll(traps, SpatialIndex.Layer.TRAP);
+        spatialIndex.addAll(exitDoors, SpatialIndex.Layer.EXIT_DOOR);
+        spatialIndex.addAll(obstacles, SpatialIndex.Layer.OBSTACLE);
+        spatialIndex.addAll(keys, SpatialIndex.Layer.KEY);
+        spatialIndex.addAll(hearts, SpatialIndex.Layer.HEART);
+        spatialIndex.addAll(heartContainers, SpatialIndex.Layer.HEART_CONTAINER);
+        spatialIndex.addAll(treasures, SpatialIndex.Layer.TREASURE);
+        invalidateDistanceFields();
+
+        pathfinding.setMaze(maze);
+        pathfinding.setBlocker(this::isPathBlocked);
+        pathfinding.clearCache();
+        lod.clear();
+    }
+
+    /**
+     * 寻路用的动态阻挡：出口门、不可通行的机关和障碍物（迷宫墙由净空图处理）
+     */
+    private boolean isPathBlocked(int x, int y) {
+        if (isExitDoorAt(x, y)) return true;
+        for (int n = spatialIndex.first(SpatialIndex.Layer.TRAP, x, y); n != SpatialIndex.NONE; n = spatialIndex.next(n)) {
+            if (!spatialIndex.get(n).isPassable()) return true;
+        }
+        for (int n = spatialIndex.first(SpatialIndex.Layer.OBSTACLE, x, y); n != SpatialIndex.NONE; n = spatialIndex.next(n)) {
+            if (!spatialIndex.get(n).isPassable()) return true;
+        }
+        return false;
+    }
+
+    public PathfindingService getPathfinding() {
+        return pathfinding;
+    }
+
+    public LineOfSight getLineOfSight() {
+        return lineOfSight;
+    }
+
+    public SimulationLod getSimulationLod() {
+        return lod;
+    }
+
+    public EnemyUpdateScheduler getEnemyScheduler() {
+        return enemyScheduler;
+    }
+
+    /** 本帧敌人决策用的快照，只在敌人更新期间有效 */
+    public EnemyTickSnapshot getEnemySnapshot() {
+        return enemySnapshot;
+    }
+
+    /* ================= 距离场 ================= */
+
+    /**
+     * 每帧最多为每个存活玩家做一次 BFS（只有玩家换格子或通行性变化时才重算）
+     */
+    private void updateDistanceFields() {
+        for (Player p : players) {
+            if (p == null) continue;
+            DistanceField field = playerFields[p.getPlayerIndex().getNumber()];
+            if (p.isDead()) {
+                field.clear();
+            } else {
+                field.update(maze, spatialIndex, p.getX(), p.getY());
+            }
+        }
+    }
+
+    private void invalidateDistanceFields() {
+        for (DistanceField field : playerFields) {
+            field.invalidate();
+        }
+    }
+
+    /**
+     * 以该玩家为源的距离场；玩家为空或已死亡时返回 null
+     */
+    public DistanceField getDistanceField(Player p) {
+        if (p == null || p.isDead()) return null;
+        DistanceField field = playerFields[p.getPlayerIndex().getNumber()];
+        return field.hasSource() ? field : null;
+    }
+
+    /**
+     * (x, y) 到最近存活玩家的真实路径距离；不可达时返回 DistanceField.UNREACHABLE
+     */
+    public int getPathDistanceToNearestPlayer(int x, int y) {
+        int best = DistanceField.UNREACHABLE;
+        for (Player p : players) {
+            DistanceField field = getDistanceField(p);
+            if (field == null) continue;
+            best = Math.min(best, field.distanceAround(x, y));
+        }
+        return best;
+    }
+
     public BobaBulletManager getBobaBulletEffectManager() {
         return bobaBulletEffectManager;
     }
@@ -917,12 +1718,10 @@ private void checkAutoPickup() {
             int py = p.getY();
 
             // ================== 🔑 KEYS ==================
-            Iterator<Key> keyIterator = keys.iterator();
-            while (keyIterator.hasNext()) {
-                Key key = keyIterator.next();
-                if (!key.isActive()) continue;
-
-                if (key.getX() == px && key.getY() == py) {
+            for (int n = spatialIndex.first(SpatialIndex.Layer.KEY, px, py); n != SpatialIndex.NONE; ) {
+                Key key = (Key) spatialIndex.get(n);
+                n = spatialIndex.next(n);
+                if (key.isActive()) {
                     float fx = key.getX() * GameConstants.CELL_SIZE;
                     float fy = key.getY() * GameConstants.CELL_SIZE;
 
@@ -931,7 +1730,8 @@ private void checkAutoPickup() {
                     }
 
                     key.onInteract(p);
-                    keyIterator.remove();
+                    keys.remove(key);
+                    spatialIndex.remove(key);
                     onKeyCollected();
 
                     if (combatEffectManager != null) {
@@ -944,12 +1744,10 @@ private void checkAutoPickup() {
             }
 
             // ================== ❤️ HEARTS ==================
-            Iterator<Heart> heartIterator = hearts.iterator();
-            while (heartIterator.hasNext()) {
-                Heart h = heartIterator.next();
-                if (!h.isActive()) continue;
-
-                if (h.getX() == px && h.getY() == py) {
+            for (int n = spatialIndex.first(SpatialIndex.Layer.HEART, px, py); n != SpatialIndex.NONE; ) {
+                Heart h = (Heart) spatialIndex.get(n);
+                n = spatialIndex.next(n);
+                if (h.isActive()) {
                     float fx = (h.getX() + 0.5f) * GameConstants.CELL_SIZE;
                     float fy = (h.getY() + 0.5f) * GameConstants.CELL_SIZE;
 
@@ -967,15 +1765,16 @@ private void checkAutoPickup() {
                         // 移除 HP 文字，保持清爽
                     }
 
-                    heartIterator.remove();
+                    hearts.remove(h);
+                    spatialIndex.remove(h);
                 }
             }
 
             // ================== 🧡 HEART CONTAINERS ==================
-            Iterator<HeartContainer> hcIterator = heartContainers.iterator();
-            while (hcIterator.hasNext()) {
-                HeartContainer hc = hcIterator.next();
-                if (hc.isActive() && hc.getX() == px && hc.getY() == py) {
+            for (int n = spatialIndex.first(SpatialIndex.Layer.HEART_CONTAINER, px, py); n != SpatialIndex.NONE; ) {
+                HeartContainer hc = (HeartContainer) spatialIndex.get(n);
+                n = spatialIndex.next(n);
+                if (hc.isActive()) {
                     float fx = (hc.getX() + 0.5f) * GameConstants.CELL_SIZE;
                     float fy = (hc.getY() + 0.5f) * GameConstants.CELL_SIZE;
 
@@ -985,17 +1784,16 @@ private void checkAutoPickup() {
                         combatEffectManager.spawnStatusText(fx, fy + 60, "MAX HP UP", Color.GREEN);
                     }
 
-                    hcIterator.remove();
+                    heartContainers.remove(hc);
+                    spatialIndex.remove(hc);
                 }
             }
 
             // ================== 📦 TREASURES ==================
-            Iterator<Treasure> treasureIterator = treasures.iterator();
-            while (treasureIterator.hasNext()) {
-                Treasure t = treasureIterator.next();
-                if (!t.isInteractable()) continue;
-
-                if (t.getX() == px && t.getY() == py) {
+            for (int n = spatialIndex.first(SpatialIndex.Layer.TREASURE, px, py); n != SpatialIndex.NONE; ) {
+                Treasure t = (Treasure) spatialIndex.get(n);
+                n = spatialIndex.next(n);
+                if (t.isInteractable()) {
                     float fx = (t.getX() + 0.5f) * GameConstants.CELL_SIZE;
                     float fy = (t.getY() + 0.5f) * GameConstants.CELL_SIZE;
 
@@ -1011,16 +1809,16 @@ private void checkAutoPickup() {
                         combatEffectManager.spawnScoreText(fx, fy + 30, ScoreConstants.SCORE_TREASURE);
                     }
 
-                    treasureIterator.remove();
+                    treasures.remove(t);
+                    spatialIndex.remove(t);
                 }
             }
         }
     }
 
     private void generateLevel() {
-        if (exitDoors.isEmpty()) {
-            generateExitDoors();
-        }
+        // 出口也属于本关布局：上一次重置留下的门是用别的种子摆的，必须按本关种子重摆，否则录像回放会分叉
+        generateExitDoors();
         generateEnemies();
         generateTraps();
         generateHearts();
@@ -1031,32 +1829,35 @@ private void generateLevel() {
 
     private void generateMovingWalls() {
         obstacles.clear();
+        spatialIndex.clear(SpatialIndex.Layer.OBSTACLE);
         int sx, sy, ex, ey;
         do {
-            sx = random.nextInt(difficultyConfig.mazeWidth - 10);
-            sy = random.nextInt(difficultyConfig.mazeHeight);
+            sx = GameRandom.get().nextInt(difficultyConfig.mazeWidth - 10);
+            sy = GameRandom.get().nextInt(difficultyConfig.mazeHeight);
             ex = sx + 5;
             ey = sy;
         } while (!isWalkableLine(sx, sy, ex, ey));
 
         MovingWall wall = new MovingWall(sx, sy, ex, ey, MovingWall.WallType.SINGLE);
-        obstacles.add(wall);
+        track(obstacles, wall, SpatialIndex.Layer.OBSTACLE);
     }
 
     public boolean isEnemyValidMove(int x, int y) {
-        if (x < 0 || y < 0 || x >= maze[0].length || y >= maze.length) {
+        if (x < 0 || y < 0 || x >= maze.getWidth() || y >= maze.getHeight()) {
             return false;
         }
-        if (maze[y][x] == 0) {
+        if (maze.get(x, y) == 0) {
             return false;
         }
-        for (ExitDoor door : exitDoors) {
-            if (door.getX() == x && door.getY() == y) {
-                return false;
-            }
+        if (isExitDoorAt(x, y)) {
+            return false;
+        }
+        // 本帧已被更早更新的敌人占走
+        if (enemyScheduler.isClaimed(x, y)) {
+            return false;
         }
-        for (var trap : traps) {
-            if (trap.getX() == x && trap.getY() == y && !trap.isPassable()) {
+        for (int n = spatialIndex.first(SpatialIndex.Layer.TRAP, x, y); n != SpatialIndex.NONE; n = spatialIndex.next(n)) {
+            if (!spatialIndex.get(n).isPassable()) {
                 return false;
             }
         }
@@ -1066,21 +1867,32 @@ public boolean isEnemyValidMove(int x, int y) {
     private boolean isWalkableLine(int sx, int sy, int ex, int ey) {
         if (sy != ey) return false;
         for (int x = sx; x <= ex; x++) {
-            if (maze[sy][x] != 1) return false;
+            if (maze.get(x, sy) != 1) return false;
         }
         return true;
     }
 
     public List<Enemy> getEnemiesAt(int x, int y) {
         List<Enemy> result = new ArrayList<>();
-        for (Enemy enemy : enemies) {
-            if (enemy == null) continue;
+        collectEnemiesAt(x, y, result);
+        return result;
+    }
+
+    /**
+     * 不分配的版本：把锚点在 (x, y) 的活着的敌人追加到 out（不清空），返回追加的个数。
+     * 每帧都要查的调用方复用自己的列表
+     */
+    public int collectEnemiesAt(int x, int y, List<? super Enemy> out) {
+        int count = 0;
+        for (int n = spatialIndex.first(SpatialIndex.Layer.ENEMY, x, y); n != SpatialIndex.NONE; n = spatialIndex.next(n)) {
+            Enemy enemy = (Enemy) spatialIndex.get(n);
             if (enemy.isDead()) continue;
             if (enemy.getX() == x && enemy.getY() == y) {
-                result.add(enemy);
+                out.add(enemy);
+                count++;
             }
         }
-        return result;
+        return count;
     }
 
     private void generateKeys() {
@@ -1088,10 +1900,10 @@ private void generateKeys() {
         for (int i = 0; i < keyCount; i++) {
             int x, y;
             do {
-                x = random.nextInt(difficultyConfig.mazeWidth);
-                y = random.nextInt(difficultyConfig.mazeHeight);
+                x = GameRandom.get().nextInt(difficultyConfig.mazeWidth);
+                y = GameRandom.get().nextInt(difficultyConfig.mazeHeight);
             } while (getMazeCell(x, y) != 1 || isOccupied(x, y) || isExitDoorAt(x, y));
-            keys.add(new Key(x, y, this));
+            track(keys, new Key(x, y, this), SpatialIndex.Layer.KEY);
         }
     }
 
@@ -1099,26 +1911,28 @@ private boolean isOccupied(int x, int y) {
         for (Player p : players) {
             if (p != null && p.getX() == x && p.getY() == y) return true;
         }
-        for (Enemy e : enemies) {
+        if (isEnemyAnchoredAt(x, y)) return true;
+        return spatialIndex.hasActive(SpatialIndex.Layer.TREASURE, x, y)
+                || spatialIndex.hasActive(SpatialIndex.Layer.HEART, x, y)
+                || spatialIndex.hasActive(SpatialIndex.Layer.KEY, x, y)
+                || spatialIndex.hasActive(SpatialIndex.Layer.TRAP, x, y);
+    }
+
+    /**
+     * 是否有存活敌人以 (x, y) 为锚点（E04 只算左下角格）
+     */
+    private boolean isEnemyAnchoredAt(int x, int y) {
+        for (int n = spatialIndex.first(SpatialIndex.Layer.ENEMY, x, y); n != SpatialIndex.NONE; n = spatialIndex.next(n)) {
+            GameObject e = spatialIndex.get(n);
             if (e.isActive() && e.getX() == x && e.getY() == y) return true;
         }
-        for (Treasure t : treasures) {
-            if (t.isActive() && t.getX() == x && t.getY() == y) return true;
-        }
-        for (Heart h : hearts) {
-            if (h.isActive() && h.getX() == x && h.getY() == y) return true;
-        }
-        for (Key k : keys) {
-            if (k.isActive() && k.getX() == x && k.getY() == y) return true;
-        }
-        for (Trap trap : traps) {
-            if (trap.isActive() && trap.getX() == x && trap.getY() == y) return true;
-        }
         return false;
     }
 
     private void generateExitDoors() {
+        for (ExitDoor door : exitDoors) door.dispose();
         exitDoors.clear();
+        spatialIndex.clear(SpatialIndex.Layer.EXIT_DOOR);
         for (int i = 0; i < difficultyConfig.exitCount; i++) {
             int[] p = randomWallCell();
             int attempts = 0;
@@ -1128,20 +1942,20 @@ private void generateExitDoors() {
             }
             ExitDoor.DoorDirection direction = determineDoorDirection(p[0], p[1]);
             ExitDoor door = new ExitDoor(p[0], p[1], direction);
-            exitDoors.add(door);
+            track(exitDoors, door, SpatialIndex.Layer.EXIT_DOOR);
             Logger.debug("ExitDoor created at (" + p[0] + ", " + p[1] + ") facing " + direction);
         }
     }
 
     private ExitDoor.DoorDirection determineDoorDirection(int x, int y) {
-        int[][] maze = getMaze();
-        int width = maze[0].length;
-        int height = maze.length;
+        MazeGrid maze = getMaze();
+        int width = maze.getWidth();
+        int height = maze.getHeight();
 
-        boolean up = y + 1 < height && maze[y + 1][x] == 1;
-        boolean down = y - 1 >= 0 && maze[y - 1][x] == 1;
-        boolean left = x - 1 >= 0 && maze[y][x - 1] == 1;
-        boolean right = x + 1 < width && maze[y][x + 1] == 1;
+        boolean up = y + 1 < height && maze.get(x, y + 1) == 1;
+        boolean down = y - 1 >= 0 && maze.get(x, y - 1) == 1;
+        boolean left = x - 1 >= 0 && maze.get(x - 1, y) == 1;
+        boolean right = x + 1 < width && maze.get(x + 1, y) == 1;
 
         List<ExitDoor.DoorDirection> possibleDirections = new ArrayList<>();
         if (up) possibleDirections.add(ExitDoor.DoorDirection.UP);
@@ -1150,7 +1964,7 @@ private ExitDoor.DoorDirection determineDoorDirection(int x, int y) {
         if (right) possibleDirections.add(ExitDoor.DoorDirection.RIGHT);
 
         if (!possibleDirections.isEmpty()) {
-            return possibleDirections.get(random.nextInt(possibleDirections.size()));
+            return possibleDirections.get(GameRandom.get().nextInt(possibleDirections.size()));
         }
         if (y >= height - 3) return ExitDoor.DoorDirection.DOWN;
         if (y <= 2) return ExitDoor.DoorDirection.UP;
@@ -1160,36 +1974,36 @@ private ExitDoor.DoorDirection determineDoorDirection(int x, int y) {
     }
 
     private boolean isValidDoorPosition(int x, int y) {
-        int[][] maze = getMaze();
-        int width = maze[0].length;
-        int height = maze.length;
-        if (maze[y][x] != 0) return false;
+        MazeGrid maze = getMaze();
+        int width = maze.getWidth();
+        int height = maze.getHeight();
+        if (maze.get(x, y) != 0) return false;
 
         boolean hasAdjacentPath = false;
-        if (y + 1 < height && maze[y + 1][x] == 1) hasAdjacentPath = true;
-        if (y - 1 >= 0 && maze[y - 1][x] == 1) hasAdjacentPath = true;
-        if (x - 1 >= 0 && maze[y][x - 1] == 1) hasAdjacentPath = true;
-        if (x + 1 < width && maze[y][x + 1] == 1) hasAdjacentPath = true;
+        if (y + 1 < height && maze.get(x, y + 1) == 1) hasAdjacentPath = true;
+        if (y - 1 >= 0 && maze.get(x, y - 1) == 1) hasAdjacentPath = true;
+        if (x - 1 >= 0 && maze.get(x - 1, y) == 1) hasAdjacentPath = true;
+        if (x + 1 < width && maze.get(x + 1, y) == 1) hasAdjacentPath = true;
         return hasAdjacentPath;
     }
 
     private int[] randomWallCell() {
-        int[][] maze = getMaze();
-        int width = maze[0].length;
-        int height = maze.length;
+        MazeGrid maze = getMaze();
+        int width = maze.getWidth();
+        int height = maze.getHeight();
 
         for (int attempt = 0; attempt < 1000; attempt++) {
-            int x = BORDER_THICKNESS + random.nextInt(width - BORDER_THICKNESS * 2);
-            int y = BORDER_THICKNESS + random.nextInt(height - BORDER_THICKNESS * 2);
+            int x = BORDER_THICKNESS + GameRandom.get().nextInt(width - BORDER_THICKNESS * 2);
+            int y = BORDER_THICKNESS + GameRandom.get().nextInt(height - BORDER_THICKNESS * 2);
 
-            if (maze[y][x] != 0) continue;
+            if (maze.get(x, y) != 0) continue;
             if (isExitDoorAt(x, y)) continue;
 
             boolean hasAdjacentPath = false;
-            if (y + 1 < height && maze[y + 1][x] == 1) hasAdjacentPath = true;
-            if (y - 1 >= 0 && maze[y - 1][x] == 1) hasAdjacentPath = true;
-            if (x - 1 >= 0 && maze[y][x - 1] == 1) hasAdjacentPath = true;
-            if (x + 1 < width && maze[y][x + 1] == 1) hasAdjacentPath = true;
+            if (y + 1 < height && maze.get(x, y + 1) == 1) hasAdjacentPath = true;
+            if (y - 1 >= 0 && maze.get(x, y - 1) == 1) hasAdjacentPath = true;
+            if (x - 1 >= 0 && maze.get(x - 1, y) == 1) hasAdjacentPath = true;
+            if (x + 1 < width && maze.get(x + 1, y) == 1) hasAdjacentPath = true;
 
             if (!hasAdjacentPath) continue;
             return new int[]{x, y};
@@ -1200,38 +2014,38 @@ private int[] randomWallCell() {
     private void generateEnemies() {
         for (int i = 0; i < difficultyConfig.enemyE01PearlCount; i++) {
             int[] p = randomEmptyCell();
-            enemies.add(new EnemyE01_CorruptedPearl(p[0], p[1]));
+            trackEnemy(new EnemyE01_CorruptedPearl(p[0], p[1]));
         }
         for (int i = 0; i < difficultyConfig.enemyE02CoffeeBeanCount; i++) {
             int[] p = randomEmptyCell();
-            enemies.add(new EnemyE02_SmallCoffeeBean(p[0], p[1]));
+            trackEnemy(new EnemyE02_SmallCoffeeBean(p[0], p[1]));
         }
         for (int i = 0; i < difficultyConfig.enemyE03CaramelCount; i++) {
             int[] p = randomEmptyCell();
-            enemies.add(new EnemyE03_CaramelJuggernaut(p[0], p[1]));
+            trackEnemy(new EnemyE03_CaramelJuggernaut(p[0], p[1]));
         }
         for (int i = 0; i < difficultyConfig.enemyE04ShellCount; i++) {
             int[] p = randomE04SpawnCell();
-            enemies.add(new EnemyE04_CrystallizedCaramelShell(p[0], p[1]));
+            trackEnemy(new EnemyE04_CrystallizedCaramelShell(p[0], p[1]));
         }
     }
 
     private void generateTraps() {
         for (int i = 0; i < difficultyConfig.trapT01GeyserCount; i++) {
             int[] p = randomEmptyCell();
-            traps.add(new TrapT01_Geyser(p[0], p[1], 3f));
+            track(traps, new TrapT01_Geyser(p[0], p[1], 3f, scheduler), SpatialIndex.Layer.TRAP);
         }
         for (int i = 0; i < difficultyConfig.trapT02PearlMineCount; i++) {
             int[] p = randomEmptyCell();
-            traps.add(new TrapT02_PearlMine(p[0], p[1], this));
+            track(traps, new TrapT02_PearlMine(p[0], p[1], this), SpatialIndex.Layer.TRAP);
         }
         for (int i = 0; i < difficultyConfig.trapT03TeaShardCount; i++) {
             int[] p = randomEmptyCell();
-            traps.add(new TrapT03_TeaShards(p[0], p[1]));
+            track(traps, new TrapT03_TeaShards(p[0], p[1]), SpatialIndex.Layer.TRAP);
         }
         for (int i = 0; i < difficultyConfig.trapT04MudTileCount; i++) {
             int[] p = randomEmptyCell();
-            traps.add(new TrapT04_Mud(p[0], p[1]));
+            track(traps, new TrapT04_Mud(p[0], p[1]), SpatialIndex.Layer.TRAP);
         }
     }
 
@@ -1239,7 +2053,7 @@ private void generateHearts() {
         int count = 10;
         for (int i = 0; i < count; i++) {
             int[] p = randomEmptyCell();
-            hearts.add(new Heart(p[0], p[1]));
+            track(hearts, new Heart(p[0], p[1]), SpatialIndex.Layer.HEART);
         }
     }
 
@@ -1253,22 +2067,22 @@ private void generateTreasures() {
             int tx = p[0];
             int ty = p[1];
             if (isOccupied(tx, ty)) continue;
-            treasures.add(new Treasure(tx, ty));
+            track(treasures, new Treasure(tx, ty), SpatialIndex.Layer.TREASURE);
             spawned++;
         }
     }
 
     private int[] randomEmptyCell() {
         int x, y;
-        int width = maze[0].length;
-        int height = maze.length;
+        int width = maze.getWidth();
+        int height = maze.getHeight();
         int attempts = 0;
         do {
             x = random(1, width - 2);
             y = random(1, height - 2);
             attempts++;
             if (attempts > 500) {
-                return new int[]{maze[0].length / 2, maze.length / 2};
+                return new int[]{maze.getWidth() / 2, maze.getHeight() / 2};
             }
         } while (!canPlayerMoveTo(x, y) || isOccupied(x, y));
         return new int[]{x, y};
@@ -1307,27 +2121,27 @@ public void respawnPlayersTogetherForBoss() {
     }
 
     public int getMazeCell(int x, int y) {
-        if (x < 0 || y < 0 || y >= maze.length || x >= maze[0].length) {
-            return 0;
-        }
-        return maze[y][x];
+        // MazeGrid 越界直接返回 0（墙）
+        return maze.get(x, y);
     }
 
     public Player getPlayer() { return player; }
     public List<Player> getPlayers() { return players; }
-    public int[][] getMaze() { return maze; }
-    public List<Enemy> getEnemies() { return enemies; }
-    public List<Trap> getTraps() { return traps; }
-    public List<Heart> getHearts() { return hearts; }
-    public List<Treasure> getTreasures() { return treasures; }
-    public List<ExitDoor> getExitDoors() { return exitDoors; }
-    public List<Key> getKeys() { return keys; }
+    public MazeGrid getMaze() { return maze; }
+    public EntityStore<Enemy> getEnemies() { return enemies; }
+    public EntityStore<Trap> getTraps() { return traps; }
+    public EntityStore<Heart> getHearts() { return hearts; }
+    public EntityStore<Treasure> getTreasures() { return treasures; }
+    public EntityStore<ExitDoor> getExitDoors() { return exitDoors; }
+    public EntityStore<Key> getKeys() { return keys; }
     public int getCurrentLevel() { return currentLevel; }
     public boolean isTwoPlayerMode() { return twoPlayerMode; }
     public Compass getCompass() { return compass; }
 
     @Override
     public void onMoveInput(Player.PlayerIndex index, int dx, int dy) {
+        if (ignoresLiveInput()) return;
+        if (replayRecorder != null) replayRecorder.onMove(simulationTick, index, dx, dy);
         Player p = getPlayerByIndex(index);
         if (p == null) return;
         p.updateDirection(dx, dy);
@@ -1358,6 +2172,8 @@ public float getMoveDelayMultiplier() {
 
     @Override
     public boolean onAbilityInput(Player.PlayerIndex index, int slot) {
+        if (ignoresLiveInput()) return false;
+        if (replayRecorder != null) replayRecorder.onAbility(simulationTick, index, slot);
         if (levelTransitionInProgress) return false;
         Player p = getPlayerByIndex(index);
         if (p == null || p.isDead()) return false;
@@ -1367,6 +2183,8 @@ public boolean onAbilityInput(Player.PlayerIndex index, int slot) {
 
     @Override
     public void onInteractInput(Player.PlayerIndex index) {
+        if (ignoresLiveInput()) return;
+        if (replayRecorder != null) replayRecorder.onInteract(simulationTick, index);
         if (levelTransitionInProgress) return;
         Player p = getPlayerByIndex(index);
         if (p == null || p.isDead()) return;
@@ -1378,17 +2196,16 @@ public void onInteractInput(Player.PlayerIndex index) {
                 return;
             }
         }
-        for (Treasure t : treasures) {
-            if (t.isInteractable() && t.getX() == px && t.getY() == py) {
+        for (int n = spatialIndex.first(SpatialIndex.Layer.TREASURE, px, py); n != SpatialIndex.NONE; n = spatialIndex.next(n)) {
+            Treasure t = (Treasure) spatialIndex.get(n);
+            if (t.isInteractable()) {
                 t.onInteract(p);
                 return;
             }
         }
-        for (Heart h : hearts) {
-            if (h.isActive() && h.getX() == px && h.getY() == py) {
-                h.onInteract(p);
-                return;
-            }
+        Heart h = spatialIndex.find(SpatialIndex.Layer.HEART, px, py, Heart.class);
+        if (h != null) {
+            h.onInteract(p);
         }
     }
 
@@ -1411,10 +2228,15 @@ public PlayerInputHandler getInputHandler() {
     }
 
     public void dispose() {
+        if (replayRecorder != null) stopRecording();
+        levelPreloader.cancel();
+        pathfinding.cancelAll();
         if (player != null && !player.isDead()) {
             saveGameProgress();
         }
         GameEventSource eventSource = GameEventSource.getInstance();
+        // 最后一步之后发生的事件（例如暂停菜单里触发的）先分发掉，再注销
+        eventSource.dispatch();
         if (scoreManager != null) eventSource.removeListener(scoreManager);
         if (achievementManager != null) {
             eventSource.removeListener(achievementManager);
@@ -1461,43 +2283,27 @@ public boolean isPlayerDead() {
     }
 
     public boolean isObstacleValidMove(int nx, int ny) {
-        if (nx < 0 || ny < 0 || ny >= maze.length || nx >= maze[0].length) return false;
-        if (maze[ny][nx] == 0) return false;
-        for (ExitDoor door : exitDoors) {
-            if (door.getX() == nx && door.getY() == ny) return false;
-        }
-        for (Enemy e : enemies) {
-            if (e.isActive() && e.getX() == nx && e.getY() == ny) return false;
-        }
-        for (DynamicObstacle o : obstacles) {
-            if (o instanceof MovingWall mw) {
-                if (mw.occupiesCell(nx, ny)) return false;
-            } else {
-                if (o.getX() == nx && o.getY() == ny) return false;
-            }
-        }
-        return true;
+        if (nx < 0 || ny < 0 || ny >= maze.getHeight() || nx >= maze.getWidth()) return false;
+        if (maze.get(nx, ny) == 0) return false;
+        if (isExitDoorAt(nx, ny)) return false;
+        if (isEnemyAnchoredAt(nx, ny)) return false;
+        return spatialIndex.isEmpty(SpatialIndex.Layer.OBSTACLE, nx, ny);
     }
 
-    public List<DynamicObstacle> getObstacles() { return obstacles; }
+    public EntityStore<DynamicObstacle> getObstacles() { return obstacles; }
     public CatFollower getCat() { return cat; }
 
-    // =================================================================
-    // 🔥 修改方法 2: saveGameProgress (实现定向保存)
-    // =================================================================
-    public void saveGameProgress() {
-        if (restoringFromSave) {
-            Logger.error("🚫 SAVE BLOCKED (restoring)");
-            return;
-        }
-
+    /**
+     * 把当前对局打包进 gameSaveData 并返回（不写盘）
+     */
+    public GameSaveData captureSaveData() {
         // 1. 准备数据对象
         if (gameSaveData == null) {
             gameSaveData = new GameSaveData();
         }
 
         // 2. 打包核心数据 (保持原有逻辑)
-        gameSaveData.maze = deepCopyMaze(maze);
+        gameSaveData.maze = snapshotMaze(maze);
         gameSaveData.currentLevel = currentLevel;
         gameSaveData.difficulty = difficultyConfig.difficulty.name();
         gameSaveData.twoPlayerMode = twoPlayerMode;
@@ -1527,6 +2333,19 @@ public void saveGameProgress() {
             int currentTotal = scoreManager.getCurrentScore();
             gameSaveData.score = Math.max(0, currentTotal - currentFinal);
         }
+        return gameSaveData;
+    }
+
+    // =================================================================
+    // 🔥 修改方法 2: saveGameProgress (实现定向保存)
+    // =================================================================
+    public void saveGameProgress() {
+        if (restoringFromSave) {
+            Logger.error("🚫 SAVE BLOCKED (restoring)");
+            return;
+        }
+
+        captureSaveData();
 
         // ============================================================
         // 🔥 [核心逻辑] 定向保存到绑定槽位
@@ -1549,13 +2368,12 @@ public void saveGameProgress() {
         }
     }
 
-    private int[][] deepCopyMaze(int[][] src) {
+    /**
+     * 迷宫快照：写时复制，O(1)，任意一方写入时才真正拷贝（不是深拷贝，见 {@link MazeGrid#snapshot()}）
+     */
+    private MazeGrid snapshotMaze(MazeGrid src) {
         if (src == null) return null;
-        int[][] copy = new int[src.length][];
-        for (int i = 0; i < src.length; i++) {
-            copy[i] = Arrays.copyOf(src[i], src[i].length);
-        }
-        return copy;
+        return src.snapshot();
     }
 
     public LevelResult getLevelResult() {
@@ -1638,11 +2456,14 @@ private void restorePlayersFromSaveData() {
         restorePlayers(gameSaveData, true);
     }
 
+    // 特效可能还在任务里更新，先 join 再交出去
     public ItemEffectManager getItemEffectManager() { return itemEffectManager; }
     public TrapEffectManager getTrapEffectManager() { return trapEffectManager; }
     public CombatEffectManager getCombatEffectManager() { return combatEffectManager; }
 
     public void setMouseTargetTile(int x, int y) {
+        if (ignoresLiveInput()) return;
+        if (replayRecorder != null) replayRecorder.onMouse(simulationTick, x, y);
         this.mouseTileX = x;
         this.mouseTileY = y;
     }
@@ -1650,16 +2471,16 @@ public void setMouseTargetTile(int x, int y) {
     public int getMouseTileY() { return mouseTileY; }
 
     private void handleEnemyDrop(Enemy enemy) {
-        if (Math.random() <= 1.00) {
+        if (GameRandom.random() <= 1.00) {
             int x = enemy.getX();
             int y = enemy.getY();
             HeartContainer container = new HeartContainer(x, y);
-            heartContainers.add(container);
+            track(heartContainers, container, SpatialIndex.Layer.HEART_CONTAINER);
             Logger.gameEvent("✨ E04 掉落了焦糖核心！");
         }
     }
 
-    public List<HeartContainer> getHeartContainers() { return heartContainers; }
+    public EntityStore<HeartContainer> getHeartContainers() { return heartContainers; }
     public boolean isReviving() { return revivePending; }
     public Player getRevivingTarget() {
         if (!revivePending) return null;
@@ -1728,7 +2549,7 @@ private void applyTreasureBuff(Player player) {
         if (!player.hasBuffManaEfficiency()) dropPool.add(2);
 
         if (!dropPool.isEmpty()) {
-            int choice = dropPool.get((int)(Math.random() * dropPool.size()));
+            int choice = dropPool.get(GameRandom.get().nextInt(dropPool.size()));
             switch (choice) {
                 case 0 -> { player.activateAttackBuff(); Logger.gameEvent("💥 Treasure Buff: Attack +50%"); }
                 case 1 -> { player.activateRegenBuff(); Logger.gameEvent("❤️ Treasure Buff: Regeneration"); }
@@ -1746,7 +2567,7 @@ private void spawnChapter1Relic(Chapter1Relic relic) {
         Logger.gameEvent("📜 Chapter1Relic added to world");
     }
 
-    public List<Chapter1Relic> getChapterRelics() { return chapterRelics; }
+    public EntityStore<Chapter1Relic> getChapterRelics() { return chapterRelics; }
     public void enterChapterRelicView() { viewingChapterRelic = true; }
     public void exitChapterRelicView() { viewingChapterRelic = false; }
     public boolean isViewingChapterRelic() { return viewingChapterRelic; }
@@ -1796,19 +2617,22 @@ private void respawnPlayersAfterAutoRestore() {
 
     private void buildWorldFromRestore(GameSaveData data) {
         Logger.error("🧩 buildWorldFromRestore START");
-        boolean isNewLevelTransition = (data.maze == null || data.maze.length == 0);
+        boolean isNewLevelTransition = (data.maze == null || data.maze.getHeight() == 0);
         restoringFromSave = true;
 
         if (isNewLevelTransition) {
             Logger.info("generating NEW maze for Level " + data.currentLevel);
-            this.maze = generator.generateMaze(difficultyConfig);
-            data.maze = deepCopyMaze(this.maze);
+            this.maze = takeOrGenerateMaze(data.currentLevel);
+            data.maze = snapshotMaze(this.maze);
         } else {
-            this.maze = deepCopyMaze(data.maze);
+            this.maze = snapshotMaze(data.maze);
         }
+        setupEndlessChunks();
 
         enemies.clear();
+        enemySpawnSerial = 0;
         traps.clear();
+        clearLevelTimers();
         hearts.clear();
         heartContainers.clear();
         treasures.clear();
@@ -1817,6 +2641,7 @@ private void buildWorldFromRestore(GameSaveData data) {
         obstacles.clear();
         players.clear();
         bullets.clear();
+        resetSpatialIndex();
 
         Player p1 = null;
         if (data.players.containsKey(Player.PlayerIndex.P1.name())) {
@@ -1878,9 +2703,9 @@ private void buildWorldFromRestore(GameSaveData data) {
 
         levelTransitionInProgress = false;
         currentExitDoor = null;
-        levelTransitionTimer = 0f;
 
         restorePlayers(data, !isNewLevelTransition);
+        prefetchNextLevel();
         Logger.error("🧩 buildWorldFromRestore DONE");
     }
 
@@ -1902,13 +2727,15 @@ public void onEnemyKilled(Enemy enemy) {
         }
     }
 
-    public void rebuildMazeForBoss(DifficultyConfig dc) {
+    public void rebuildMazeForBoss(DifficultyConfig dc, int phaseIndex) {
         Logger.error("🔥 rebuildMazeForBoss CALLED");
         this.difficultyConfig = dc;
-        this.maze = generator.generateMaze(dc);
+        this.maze = generator.generateMaze(dc, bossPhaseSeed(phaseIndex));
 
         enemies.clear();
+        enemySpawnSerial = 0;
         traps.clear();
+        clearLevelTimers();
         hearts.clear();
         heartContainers.clear();
         treasures.clear();
@@ -1917,6 +2744,7 @@ public void rebuildMazeForBoss(DifficultyConfig dc) {
         exitDoors.clear();
         bullets.clear();
         bobaBulletEffectManager.clearAllBullets(false);
+        resetSpatialIndex();
 
         generateExitDoors();
         generateEnemies();
@@ -1934,17 +2762,20 @@ public void rebuildMazeForBoss(DifficultyConfig dc) {
         Logger.error("🔥 rebuildMazeForBoss DONE");
     }
 
-    public void rebuildMazeForBossWithPrebuilt(DifficultyConfig dc, int[][] prebuiltMaze) {
+    public void rebuildMazeForBossWithPrebuilt(DifficultyConfig dc, MazeGrid prebuiltMaze) {
         this.difficultyConfig = dc;
-        this.maze = deepCopyMaze(prebuiltMaze);
+        this.maze = snapshotMaze(prebuiltMaze);
 
         enemies.clear();
+        enemySpawnSerial = 0;
         traps.clear();
+        clearLevelTimers();
         hearts.clear();
         treasures.clear();
         keys.clear();
         obstacles.clear();
         exitDoors.clear();
+        resetSpatialIndex();
 
         generateExitDoors();
         generateEnemies();
@@ -1956,8 +2787,8 @@ public void rebuildMazeForBossWithPrebuilt(DifficultyConfig dc, int[][] prebuilt
     }
 
     private int[] randomE04SpawnCell() {
-        int width = maze[0].length;
-        int height = maze.length;
+        int width = maze.getWidth();
+        int height = maze.getHeight();
         int minX = BORDER_THICKNESS;
         int maxX = width - BORDER_THICKNESS - 2;
         int minY = BORDER_THICKNESS;
@@ -1967,10 +2798,10 @@ private int[] randomE04SpawnCell() {
             int x = (maxX > minX) ? random(minX, maxX) : random(1, width - 3);
             int y = (maxY > minY) ? random(minY, maxY) : random(1, height - 3);
 
-            if (maze[y][x] != 1) continue;
-            if (maze[y + 1][x] != 1) continue;
-            if (maze[y][x + 1] != 1) continue;
-            if (maze[y + 1][x + 1] != 1) continue;
+            if (maze.get(x, y) != 1) continue;
+            if (maze.get(x, y + 1) != 1) continue;
+            if (maze.get(x + 1, y) != 1) continue;
+            if (maze.get(x + 1, y + 1) != 1) continue;
 
             boolean overlapsPlayer = false;
             for (Player p : players) {
@@ -0,0 +1,24 @@
+package de.tum.cit.fop.maze.game;
+
+/**
+ * 运行环境 (Runtime Mode)
+ * <p>
+ * 无头模式（headless）用于在没有显卡的机器上跑完整模拟：压力测试、数值平衡、性能基准。
+ * 打开后实体、特效、迷宫不再创建任何 GL 资源（纹理、图集、字体、着色器），
+ * 也不播放任何声音；模拟逻辑（关卡、敌人、陷阱、子弹、计分、存档）与正常游戏完全相同。
+ * 必须在创建 {@link GameManager} 之前设置。
+ */
+public final class GameRuntime {
+
+    private static volatile boolean headless = false;
+
+    private GameRuntime() {}
+
+    public static boolean isHeadless() {
+        return headless;
+    }
+
+    public static void setHeadless(boolean headless) {
+        GameRuntime.headless = headless;
+    }
+}
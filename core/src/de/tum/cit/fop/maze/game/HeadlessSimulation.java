@@ -0,0 +1,141 @@
+package de.tum.cit.fop.maze.game;
+
+import de.tum.cit.fop.maze.game.replay.FrameTimeStats;
+import de.tum.cit.fop.maze.game.replay.Replay;
+import de.tum.cit.fop.maze.game.replay.ReplayPlayer;
+
+/**
+ * 无头模拟驱动 (Headless Simulation Runner)
+ * <p>
+ * 在没有窗口、没有显卡的环境里按固定步长把 {@link GameManager} 推进若干步，用于压力测试、
+ * 数值平衡扫描和性能基准。必须在 libGDX 应用（通常是 HeadlessApplication）已经启动后、
+ * 在应用线程上使用；构造时会打开 {@link GameRuntime#setHeadless(boolean) 无头模式}。
+ * <p>
+ * 每一步直接调用 {@link GameManager#update(float)}，步长与正常游戏的固定步长一致，
+ * 因此模拟结果与有画面时相同；键盘输入不会被读取，需要操作时通过 {@link InputScript} 注入，
+ * 或用 {@link #forReplay(Replay)} 全速回放一段录像。每步耗时记入 {@link Result#tickTimes}。
+ */
+public final class HeadlessSimulation {
+
+    /**
+     * 每步模拟前调用，可在这里调用 onMoveInput / onAbilityInput 等模拟玩家操作
+     */
+    @FunctionalInterface
+    public interface InputScript {
+        void beforeTick(int tick, GameManager gm);
+    }
+
+    /**
+     * 一次运行的结果
+     */
+    public static final class Result {
+        public final int ticks;
+        public final long nanos;
+        public final long maxTickNanos;
+        public final boolean levelCompleted;
+        public final boolean playerDead;
+        public final int score;
+        public final FrameTimeStats tickTimes;
+
+        Result(int ticks, long nanos, long maxTickNanos, boolean levelCompleted, boolean playerDead, int score,
+               FrameTimeStats tickTimes) {
+            this.ticks = ticks;
+            this.nanos = nanos;
+            this.maxTickNanos = maxTickNanos;
+            this.levelCompleted = levelCompleted;
+            this.playerDead = playerDead;
+            this.score = score;
+            this.tickTimes = tickTimes;
+        }
+
+        public double getTicksPerSecond() {
+            return nanos <= 0 ? 0 : ticks * 1e9 / nanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("ticks=%d time=%.2fs ticks/s=%.0f score=%d levelCompleted=%b playerDead=%b | tick %s",
+                    ticks, nanos / 1e9, getTicksPerSecond(), score, levelCompleted, playerDead, tickTimes);
+        }
+    }
+
+    private final GameManager gameManager;
+    private InputScript inputScript;
+    private boolean replaying;
+    private boolean stopOnLevelEnd = true;
+
+    public HeadlessSimulation(DifficultyConfig difficultyConfig, boolean twoPlayerMode) {
+        GameRuntime.setHeadless(true);
+        this.gameManager = new GameManager(difficultyConfig, twoPlayerMode);
+        this.gameManager.resetGame();
+    }
+
+    /**
+     * 按录像的难度和人数建局，run 时从第一步开始回放，录像结束即停止
+     */
+    public static HeadlessSimulation forReplay(Replay replay) {
+        HeadlessSimulation sim = new HeadlessSimulation(DifficultyConfig.of(replay.getDifficulty()), replay.isTwoPlayer());
+        sim.gameManager.startPlayback(replay);
+        sim.replaying = true;
+        return sim;
+    }
+
+    public GameManager getGameManager() {
+        return gameManager;
+    }
+
+    public void setInputScript(InputScript inputScript) {
+        this.inputScript = inputScript;
+    }
+
+    /**
+     * 关卡完成或玩家死亡时是否提前结束（默认 true）
+     */
+    public void setStopOnLevelEnd(boolean stopOnLevelEnd) {
+        this.stopOnLevelEnd = stopOnLevelEnd;
+    }
+
+    /**
+     * 推进最多 maxTicks 步
+     */
+    public Result run(int maxTicks) {
+        long start = System.nanoTime();
+        long maxTick = 0;
+        int ticks = 0;
+        FrameTimeStats tickTimes = new FrameTimeStats();
+
+        while (ticks < maxTicks) {
+            // 回放：第一步先完成重置，之后录像放完即停止
+            if (replaying && ticks > 0) {
+                ReplayPlayer player = gameManager.getReplayPlayer();
+                if (player == null || player.isFinished(gameManager.getSimulationTick())) break;
+            }
+            if (stopOnLevelEnd && (gameManager.isLevelCompletedPendingSettlement() || gameManager.isPlayerDead())) {
+                break;
+            }
+            if (inputScript != null) {
+                inputScript.beforeTick(ticks, gameManager);
+            }
+            long t0 = System.nanoTime();
+            gameManager.update(gameManager.getTimestep().getStep());
+            long t = System.nanoTime() - t0;
+            tickTimes.add(t);
+            if (t > maxTick) maxTick = t;
+            ticks++;
+        }
+
+        return new Result(
+                ticks,
+                System.nanoTime() - start,
+                maxTick,
+                gameManager.isLevelCompletedPendingSettlement(),
+                gameManager.isPlayerDead(),
+                gameManager.getScore(),
+                tickTimes
+        );
+    }
+
+    public void dispose() {
+        gameManager.dispose();
+    }
+}
@@ -0,0 +1,145 @@
+package de.tum.cit.fop.maze.game;
+
+import de.tum.cit.fop.maze.maze.MazeGenerator;
+import de.tum.cit.fop.maze.maze.MazeGrid;
+import de.tum.cit.fop.maze.maze.MazeRenderer;
+import de.tum.cit.fop.maze.utils.Logger;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 关卡预生成 (Level Preloader)
+ * <p>
+ * 在当前关卡游玩期间，于后台线程提前生成下一关的迷宫，并顺带扫出它的墙段；
+ * 过关时 {@link #take(int, DifficultyConfig, long)} 直接交换引用，不再在渲染线程里卡顿。
+ * 迷宫按关卡种子生成，与同步生成的结果完全相同（录像回放依赖这一点）。
+ * <p>
+ * 实体摆放仍在渲染线程：实体构造时会加载纹理，必须留在 GL 线程，
+ * 而且摆放要按固定顺序消耗模拟随机数，回放才对得上。
+ * 后台尚未完成时 take 返回 null，由调用方同步生成（兜底）。
+ * 取消会中断工作线程，生成器在循环中检查中断并提前退出，不会占着线程把整张迷宫生成完。
+ * <p>
+ * 所有任务共用一个低优先级守护线程，Boss 阶段预加载也通过 {@link #submit(Runnable)} 复用它。
+ */
+public final class LevelPreloader {
+
+    private static final ExecutorService WORKER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "LevelPreloader");
+        t.setDaemon(true);  // 守护线程，不会阻止JVM退出
+        t.setPriority(Thread.MIN_PRIORITY);
+        return t;
+    });
+
+    /**
+     * 后台准备好的一关：迷宫，以及按原始迷宫（未考虑出口门）扫出的墙段
+     */
+    public static final class PreparedLevel {
+        public final MazeGrid maze;
+        public final List<MazeRenderer.WallGroup> walls;
+        /** 扫描墙段时的迷宫版本；之后迷宫被改写则墙段作废 */
+        public final int wallsVersion;
+
+        PreparedLevel(MazeGrid maze, List<MazeRenderer.WallGroup> walls) {
+            this.maze = maze;
+            this.walls = walls;
+            this.wallsVersion = maze.getVersion();
+        }
+    }
+
+    /** 只在 WORKER 线程上使用（单线程执行器保证串行） */
+    private final MazeGenerator generator = new MazeGenerator();
+
+    public LevelPreloader() {
+        generator.setInterruptible(true);
+    }
+
+    private Future<PreparedLevel> pending;
+    private int pendingLevel = -1;
+    private DifficultyConfig pendingConfig;
+    private long pendingSeed;
+
+    /**
+     * 在后台线程执行任意预加载任务
+     */
+    public static <T> Future<T> submit(Callable<T> task) {
+        return WORKER.submit(task);
+    }
+
+    public static Future<?> submit(Runnable task) {
+        return WORKER.submit(task);
+    }
+
+    /**
+     * 开始为 level 预生成迷宫；已有同一关卡的任务时忽略
+     */
+    public void prefetch(int level, DifficultyConfig config, long seed) {
+        if (config == null) return;
+        if (pending != null && matches(level, config, seed)) return;
+        cancel();
+
+        pendingLevel = level;
+        pendingConfig = config;
+        pendingSeed = seed;
+        pending = WORKER.submit(() -> {
+            MazeGrid maze = generator.generateMaze(config, seed);
+            Logger.debug("Level " + level + " maze pre-generated in "
+                    + String.format("%.2f", generator.getLastGenerationMillis()) + " ms");
+            if (Thread.currentThread().isInterrupted()) throw new CancellationException();
+            return new PreparedLevel(maze, MazeRenderer.scanWalls(maze));
+        });
+    }
+
+    /**
+     * 取出为 level 预生成的关卡。
+     * 没有匹配任务、任务未完成或失败时返回 null（并取消任务），调用方应同步生成。
+     */
+    public PreparedLevel take(int level, DifficultyConfig config, long seed) {
+        Future<PreparedLevel> future = pending;
+        if (future == null || !matches(level, config, seed) || !future.isDone()) {
+            if (future != null) {
+                Logger.debug("Level " + level + " maze not ready, generating synchronously");
+            }
+            cancel();
+            return null;
+        }
+
+        pending = null;
+        pendingLevel = -1;
+        pendingConfig = null;
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            Logger.warning("Level pre-generation failed: " + e.getCause());
+            return null;
+        } catch (CancellationException e) {
+            return null;
+        }
+    }
+
+    /** 配置按值比较：调用方每次可能传入新构造但内容相同的 DifficultyConfig */
+    private boolean matches(int level, DifficultyConfig config, long seed) {
+        return pendingLevel == level && pendingSeed == seed && config.equals(pendingConfig);
+    }
+
+    public boolean isReady(int level) {
+        return pending != null && pendingLevel == level && pending.isDone();
+    }
+
+    public void cancel() {
+        if (pending != null) {
+            pending.cancel(true);
+        }
+        pending = null;
+        pendingLevel = -1;
+        pendingConfig = null;
+    }
+}
@@ -0,0 +1,16 @@
+package de.tum.cit.fop.maze.game;
+
+/**
+ * 每个固定模拟步末尾回调一次（顿帧、过关过渡中的步不回调）。
+ * 屏幕自己的玩法逻辑（无尽模式的波次、刷怪、掉落）放在这里跑，
+ * 和实体更新用同一串步长、同一段随机序列，回放时步数对得上就不会分叉。
+ * <p>
+ * 回调时本步实体更新里排队的增删已经落实，回调里的增删立即生效（不在步内延迟），
+ * 所以不要在遍历实体列表的同时直接增删，需要时用迭代器的 remove。
+ */
+public interface SimulationStepListener {
+    void onSimulationStep(float delta);
+
+    /** 关卡在步末被重建（重开、开始录制 / 回放）之后回调，屏幕在这里把自己的玩法状态也归零 */
+    default void onLevelReset() {}
+}
@@ -140,7 +140,9 @@ public void onLevelFinished(int levelNumber) {
             }
         }
 
-        saveCareerSync();
+        // 事件在模拟步末分发，这里不能阻塞写盘：交给存档线程（退出时 flushAllSaves 会等它写完）
+        saveCareer();
+        needsSave = false;
     }
 
     public void onPVWatched() {
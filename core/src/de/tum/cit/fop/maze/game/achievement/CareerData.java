@@ -34,4 +34,28 @@ public class CareerData {
 
     // === 已解锁成就列表 ===
     public HashSet<String> unlockedAchievements = new HashSet<>();
+
+    /**
+     * 默认无参构造函数 (Json 序列化必需)
+     */
+    public CareerData() {
+    }
+
+    /**
+     * 拷贝构造函数 (异步写盘前在主线程取快照)
+     */
+    public CareerData(CareerData other) {
+        this.totalKills_E01 = other.totalKills_E01;
+        this.totalKills_E02 = other.totalKills_E02;
+        this.totalKills_E03 = other.totalKills_E03;
+        this.totalDashKills_E04 = other.totalDashKills_E04;
+        this.totalKills_Global = other.totalKills_Global;
+        this.totalHeartsCollected = other.totalHeartsCollected;
+        this.collectedBuffTypes = new HashSet<>(other.collectedBuffTypes);
+        this.hasWatchedPV = other.hasWatchedPV;
+        this.hasHealedOnce = other.hasHealedOnce;
+        this.hasClearedHardMode = other.hasClearedHardMode;
+        this.hasKilledBoss = other.hasKilledBoss;
+        this.unlockedAchievements = new HashSet<>(other.unlockedAchievements);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,332 @@
+package de.tum.cit.fop.maze.game.endless;
+
+import de.tum.cit.fop.maze.entities.GameObject;
+import de.tum.cit.fop.maze.entities.Player;
+import de.tum.cit.fop.maze.entities.enemy.Enemy;
+import de.tum.cit.fop.maze.game.GameManager;
+import de.tum.cit.fop.maze.game.spatial.SpatialIndex;
+import de.tum.cit.fop.maze.maze.MazeGenerator;
+import de.tum.cit.fop.maze.maze.MazeGrid;
+import de.tum.cit.fop.maze.utils.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 无尽模式区块管理 (Endless Chunk Manager)
+ * <p>
+ * 无尽模式的棋盘按固定大小的区块（CHUNK_BLOCKS_X x CHUNK_BLOCKS_Y 个道路块）划分：
+ * <ul>
+ *     <li>开局只生成玩家周围的区块，其余保持实心墙；玩家靠近时按需生成。</li>
+ *     <li>新区块生成后，与已生成的相邻区块在交界处按确定性的位置打通，保证走廊连通。</li>
+ *     <li>离所有玩家都足够远的区块被冻结：其中的实体从 GameManager 摘下保存在区块里，
+ *         不再参与更新/碰撞；玩家回来时原样放回。</li>
+ * </ul>
+ * 迷宫位图本身就是紧凑形式（每格 1 bit），冻结时无需额外压缩。
+ * 每帧只比较玩家所在区块是否变化，变化时才做生成/冻结，开销与走了多远无关。
+ */
+public final class EndlessChunkManager {
+
+    /** 区块大小（单位：道路块，一个块 = 3x4 格） */
+    public static final int CHUNK_BLOCKS_X = 8;
+    public static final int CHUNK_BLOCKS_Y = 6;
+
+    /** 玩家所在区块周围多少圈需要生成并保持活跃 */
+    private static final int ACTIVE_RADIUS = 1;
+    /** 超过多少圈才冻结（比 ACTIVE_RADIUS 大一圈，避免在边界来回抖动） */
+    private static final int FREEZE_RADIUS = 2;
+    /** 区块交界处每条边打通的通道数量 */
+    private static final int OPENINGS_PER_EDGE = 2;
+
+    private static final byte UNGENERATED = 0;
+    private static final byte ACTIVE = 1;
+    private static final byte FROZEN = 2;
+
+    private final GameManager gm;
+    private final MazeGenerator generator;
+    private final MazeGrid maze;
+    private final long worldSeed;
+
+    private final int blocksX;
+    private final int blocksY;
+    private final int chunksX;
+    private final int chunksY;
+
+    private final byte[] states;
+    /** 冻结区块中的实体及其所在图层（两个列表一一对应） */
+    private final List<List<GameObject>> frozenEntities;
+    private final List<List<SpatialIndex.Layer>> frozenLayers;
+
+    /** 上次处理时各玩家所在区块，未变化则跳过 */
+    private final int[] lastPlayerChunks = {-1, -1};
+
+    private int generatedCount;
+    private int frozenCount;
+    /** 冻结区块里的敌人总数（波次统计、刷怪上限要把它们算上） */
+    private int frozenEnemyCount;
+
+    /**
+     * 接管一个迷宫：已经含有通路的区块视为已生成（用于读档），其余等待按需生成
+     */
+    public EndlessChunkManager(GameManager gm, MazeGenerator generator, MazeGrid maze, long worldSeed) {
+        this.gm = gm;
+        this.generator = generator;
+        this.maze = maze;
+        this.worldSeed = worldSeed;
+
+        this.blocksX = MazeGenerator.getBlocksX(maze);
+        this.blocksY = MazeGenerator.getBlocksY(maze);
+        this.chunksX = Math.max(1, (blocksX + CHUNK_BLOCKS_X - 1) / CHUNK_BLOCKS_X);
+        this.chunksY = Math.max(1, (blocksY + CHUNK_BLOCKS_Y - 1) / CHUNK_BLOCKS_Y);
+
+        int chunkCount = chunksX * chunksY;
+        this.states = new byte[chunkCount];
+        this.frozenEntities = new ArrayList<>(chunkCount);
+        this.frozenLayers = new ArrayList<>(chunkCount);
+        for (int i = 0; i < chunkCount; i++) {
+            frozenEntities.add(null);
+            frozenLayers.add(null);
+        }
+
+        for (int cy = 0; cy < chunksY; cy++) {
+            for (int cx = 0; cx < chunksX; cx++) {
+                if (!isChunkSolid(cx, cy)) {
+                    states[cy * chunksX + cx] = ACTIVE;
+                    generatedCount++;
+                }
+            }
+        }
+    }
+
+    /* ================= 生成 ================= */
+
+    /**
+     * 生成棋盘中心附近的区块（新开局时使用）
+     */
+    public void generateStartArea() {
+        generateAround(chunksX / 2, chunksY / 2);
+    }
+
+    private void generateAround(int cx, int cy) {
+        for (int y = cy - ACTIVE_RADIUS; y <= cy + ACTIVE_RADIUS; y++) {
+            for (int x = cx - ACTIVE_RADIUS; x <= cx + ACTIVE_RADIUS; x++) {
+                if (inBounds(x, y) && states[y * chunksX + x] == UNGENERATED) {
+                    generateChunk(x, y);
+                }
+            }
+        }
+    }
+
+    private void generateChunk(int cx, int cy) {
+        int bx0 = cx * CHUNK_BLOCKS_X;
+        int by0 = cy * CHUNK_BLOCKS_Y;
+        int bw = Math.min(CHUNK_BLOCKS_X, blocksX - bx0);
+        int bh = Math.min(CHUNK_BLOCKS_Y, blocksY - by0);
+
+        generator.carveBlockRegion(maze, bx0, by0, bw, bh, chunkSeed(cx, cy));
+        states[cy * chunksX + cx] = ACTIVE;
+        generatedCount++;
+
+        // 与已生成的相邻区块缝合
+        if (isGenerated(cx - 1, cy)) stitchVertical(cx - 1, cy);
+        if (isGenerated(cx + 1, cy)) stitchVertical(cx, cy);
+        if (isGenerated(cx, cy - 1)) stitchHorizontal(cx, cy - 1);
+        if (isGenerated(cx, cy + 1)) stitchHorizontal(cx, cy);
+
+        Logger.debug("Endless chunk (" + cx + ", " + cy + ") generated, total " + generatedCount);
+    }
+
+    /**
+     * 打通区块 (cx, cy) 与右侧区块之间的竖直交界
+     */
+    private void stitchVertical(int cx, int cy) {
+        int bx = (cx + 1) * CHUNK_BLOCKS_X - 1;
+        int by0 = cy * CHUNK_BLOCKS_Y;
+        int span = Math.min(CHUNK_BLOCKS_Y, blocksY - by0);
+        long h = edgeHash(cx, cy, 1);
+        for (int i = 0; i < OPENINGS_PER_EDGE; i++) {
+            int by = by0 + (int) Long.remainderUnsigned(h >>> (i * 16), span);
+            generator.connectBlocks(maze, bx, by, 1);
+        }
+    }
+
+    /**
+     * 打通区块 (cx, cy) 与上方区块之间的水平交界
+     */
+    private void stitchHorizontal(int cx, int cy) {
+        int by = (cy + 1) * CHUNK_BLOCKS_Y - 1;
+        int bx0 = cx * CHUNK_BLOCKS_X;
+        int span = Math.min(CHUNK_BLOCKS_X, blocksX - bx0);
+        long h = edgeHash(cx, cy, 0);
+        for (int i = 0; i < OPENINGS_PER_EDGE; i++) {
+            int bx = bx0 + (int) Long.remainderUnsigned(h >>> (i * 16), span);
+            generator.connectBlocks(maze, bx, by, 0);
+        }
+    }
+
+    /* ================= 每帧更新 ================= */
+
+    /**
+     * 玩家跨区块时：生成附近区块、冻结远处区块、解冻回到范围内的区块
+     */
+    public void update(List<Player> players) {
+        boolean changed = false;
+        int n = Math.min(players.size(), lastPlayerChunks.length);
+        for (int i = 0; i < n; i++) {
+            Player p = players.get(i);
+            int chunk = (p == null || p.isDead()) ? -1 : chunkIndexOfCell(p.getX(), p.getY());
+            if (chunk != lastPlayerChunks[i]) {
+                lastPlayerChunks[i] = chunk;
+                changed = true;
+            }
+        }
+        if (!changed) return;
+
+        boolean anyAlive = false;
+        for (int i = 0; i < n; i++) {
+            if (lastPlayerChunks[i] >= 0) anyAlive = true;
+        }
+        // 玩家全部阵亡/复活中：保持现状，不冻结任何区块
+        if (!anyAlive) return;
+
+        for (int i = 0; i < n; i++) {
+            int chunk = lastPlayerChunks[i];
+            if (chunk >= 0) generateAround(chunk % chunksX, chunk / chunksX);
+        }
+
+        for (int cy = 0; cy < chunksY; cy++) {
+            for (int cx = 0; cx < chunksX; cx++) {
+                int index = cy * chunksX + cx;
+                int dist = distanceToNearestPlayer(cx, cy, n);
+                if (states[index] == ACTIVE && dist > FREEZE_RADIUS) {
+                    freeze(cx, cy);
+                } else if (states[index] == FROZEN && dist <= ACTIVE_RADIUS) {
+                    thaw(cx, cy);
+                }
+            }
+        }
+    }
+
+    private void freeze(int cx, int cy) {
+        int index = cy * chunksX + cx;
+        List<GameObject> entities = new ArrayList<>();
+        List<SpatialIndex.Layer> layers = new ArrayList<>();
+
+        int x0 = MazeGenerator.blockOriginX(cx * CHUNK_BLOCKS_X);
+        int y0 = MazeGenerator.blockOriginY(cy * CHUNK_BLOCKS_Y);
+        int x1 = MazeGenerator.blockOriginX((cx + 1) * CHUNK_BLOCKS_X);
+        int y1 = MazeGenerator.blockOriginY((cy + 1) * CHUNK_BLOCKS_Y);
+        gm.freezeRegion(x0, y0, x1, y1, entities, layers);
+        for (GameObject obj : entities) {
+            if (obj instanceof Enemy) frozenEnemyCount++;
+        }
+
+        frozenEntities.set(index, entities);
+        frozenLayers.set(index, layers);
+        states[index] = FROZEN;
+        frozenCount++;
+        Logger.debug("Endless chunk (" + cx + ", " + cy + ") frozen with " + entities.size() + " entities");
+    }
+
+    private void thaw(int cx, int cy) {
+        int index = cy * chunksX + cx;
+        List<GameObject> entities = frozenEntities.get(index);
+        if (entities != null) {
+            for (GameObject obj : entities) {
+                if (obj instanceof Enemy) frozenEnemyCount--;
+            }
+            gm.thawEntities(entities, frozenLayers.get(index));
+        }
+        frozenEntities.set(index, null);
+        frozenLayers.set(index, null);
+        states[index] = ACTIVE;
+        frozenCount--;
+        Logger.debug("Endless chunk (" + cx + ", " + cy + ") thawed");
+    }
+
+    /* ================= 查询 ================= */
+
+    public int getChunksX() { return chunksX; }
+    public int getChunksY() { return chunksY; }
+    public int getGeneratedCount() { return generatedCount; }
+    public int getFrozenCount() { return frozenCount; }
+    public int getActiveCount() { return generatedCount - frozenCount; }
+    public int getFrozenEnemyCount() { return frozenEnemyCount; }
+
+    /**
+     * 把冻结区块里的敌人追加到 out（只读统计用，不要修改它们）
+     */
+    public void collectFrozenEnemies(List<Enemy> out) {
+        for (List<GameObject> entities : frozenEntities) {
+            if (entities == null) continue;
+            for (GameObject obj : entities) {
+                if (obj instanceof Enemy enemy) out.add(enemy);
+            }
+        }
+    }
+
+    public boolean isGenerated(int cx, int cy) {
+        return inBounds(cx, cy) && states[cy * chunksX + cx] != UNGENERATED;
+    }
+
+    public boolean isFrozen(int cx, int cy) {
+        return inBounds(cx, cy) && states[cy * chunksX + cx] == FROZEN;
+    }
+
+    /** 格子是否落在冻结区块里（冻结区块不再刷新实体） */
+    public boolean isCellFrozen(int x, int y) {
+        return states[chunkIndexOfCell(x, y)] == FROZEN;
+    }
+
+    /**
+     * 格子所在区块下标；边框/越界格子归到最近的区块
+     */
+    public int chunkIndexOfCell(int x, int y) {
+        int bx = Math.max(0, Math.min(blocksX - 1, MazeGenerator.blockAtX(x)));
+        int by = Math.max(0, Math.min(blocksY - 1, MazeGenerator.blockAtY(y)));
+        return (by / CHUNK_BLOCKS_Y) * chunksX + (bx / CHUNK_BLOCKS_X);
+    }
+
+    /* ================= 内部 ================= */
+
+    private boolean inBounds(int cx, int cy) {
+        return cx >= 0 && cy >= 0 && cx < chunksX && cy < chunksY;
+    }
+
+    private int distanceToNearestPlayer(int cx, int cy, int playerCount) {
+        int best = Integer.MAX_VALUE;
+        for (int i = 0; i < playerCount; i++) {
+            int chunk = lastPlayerChunks[i];
+            if (chunk < 0) continue;
+            int d = Math.max(Math.abs(chunk % chunksX - cx), Math.abs(chunk / chunksX - cy));
+            best = Math.min(best, d);
+        }
+        return best;
+    }
+
+    /**
+     * 区块范围内是否全部是墙（即尚未生成）
+     */
+    private boolean isChunkSolid(int cx, int cy) {
+        int x0 = MazeGenerator.blockOriginX(cx * CHUNK_BLOCKS_X);
+        int y0 = MazeGenerator.blockOriginY(cy * CHUNK_BLOCKS_Y);
+        int x1 = Math.min(maze.getWidth(), MazeGenerator.blockOriginX((cx + 1) * CHUNK_BLOCKS_X));
+        int y1 = Math.min(maze.getHeight(), MazeGenerator.blockOriginY((cy + 1) * CHUNK_BLOCKS_Y));
+        return maze.isAreaAll(x0, y0, x1 - x0, y1 - y0, 0);
+    }
+
+    private long chunkSeed(int cx, int cy) {
+        return mix(worldSeed ^ ((long) cx << 32 | (cy & 0xFFFFFFFFL)));
+    }
+
+    private long edgeHash(int cx, int cy, int dir) {
+        return mix(worldSeed + 0x9E3779B97F4A7C15L * (((long) cx << 34) ^ ((long) cy << 2) ^ dir));
+    }
+
+    /** SplitMix64 混合函数 */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
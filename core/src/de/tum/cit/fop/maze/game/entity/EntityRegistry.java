@@ -0,0 +1,50 @@
+package de.tum.cit.fop.maze.game.entity;
+
+import de.tum.cit.fop.maze.entities.GameObject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 实体登记表 (Entity Registry)
+ * <p>
+ * 每类实体一个 {@link EntityStore}；实体第一次加入时分配稳定 id（之后在不同关卡、冻结 / 解冻之间保持不变）。
+ * <p>
+ * GameManager 在每个模拟步前后调用 {@link #beginTick()} / {@link #endTick()}：
+ * 步内的删除立即从遍历中消失，新增排队到步末，屏幕和 HUD 可以直接遍历各个 store，不用每帧复制列表。
+ * 步末的屏幕回调（{@link de.tum.cit.fop.maze.game.SimulationStepListener}）在延迟窗口之外运行。
+ */
+public final class EntityRegistry {
+
+    private final List<EntityStore<?>> stores = new ArrayList<>();
+    private int nextId = 1;
+    private boolean deferring;
+
+    public <T extends GameObject> EntityStore<T> createStore() {
+        EntityStore<T> store = new EntityStore<>(this);
+        stores.add(store);
+        return store;
+    }
+
+    public void beginTick() {
+        deferring = true;
+    }
+
+    /**
+     * 步末：应用步内排队的增删
+     */
+    public void endTick() {
+        deferring = false;
+        for (int i = 0; i < stores.size(); i++) {
+            stores.get(i).flush();
+        }
+    }
+
+    public boolean isDeferring() {
+        return deferring;
+    }
+
+    void assignId(GameObject obj) {
+        if (obj.getEntityId() == 0) obj.setEntityId(nextId++);
+    }
+}
@@ -0,0 +1,220 @@
+package de.tum.cit.fop.maze.game.entity;
+
+import com.badlogic.gdx.utils.IntIntMap;
+import de.tum.cit.fop.maze.entities.GameObject;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 一类实体（敌人、机关、钥匙……）的紧凑存储
+ * <p>
+ * 实体按槽位连续存放，删除时把最后一个实体换到空出的槽位 (swap-remove)，不移动其余元素；
+ * 槽位通过实体 id 查找，所以 {@link #remove} / {@link #contains} 都是 O(1)。
+ * 不保证顺序。
+ * <p>
+ * 直接遍历即可，不必先复制一份：
+ * <ul>
+ *   <li>模拟步内（{@link EntityRegistry#isDeferring()}）删除只把槽位标记为已删除，遍历时跳过，
+ *       新增的实体先排队，步末 {@link EntityRegistry#endTick()} 时统一整理，
+ *       所以遍历中途增删（包括嵌套遍历同一类实体）不会漏项或抛异常</li>
+ *   <li>模拟步外增删立即生效；遍历中用迭代器的 remove 删除是安全的</li>
+ * </ul>
+ */
+public final class EntityStore<T extends GameObject> implements Iterable<T> {
+
+    private final EntityRegistry registry;
+
+    private GameObject[] items = new GameObject[16];
+    private boolean[] removed = new boolean[16];
+    /** 已占用的槽位数（含步内标记删除的） */
+    private int count;
+    private int removedCount;
+    private final IntIntMap slotOf = new IntIntMap();
+
+    /** 步内新增、等待步末加入的实体 */
+    private GameObject[] pending = new GameObject[8];
+    private int pendingCount;
+
+    EntityStore(EntityRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * 加入实体；已经在里面的不会重复加入
+     */
+    public void add(T obj) {
+        if (obj == null) return;
+        registry.assignId(obj);
+        int slot = slotOf.get(obj.getEntityId(), -1);
+        if (slot >= 0) {
+            // 同一步内先删后加：撤销删除标记
+            if (removed[slot]) {
+                removed[slot] = false;
+                removedCount--;
+            }
+            return;
+        }
+        if (registry.isDeferring()) {
+            if (indexOfPending(obj) >= 0) return;
+            if (pendingCount == pending.length) pending = Arrays.copyOf(pending, pendingCount * 2);
+            pending[pendingCount++] = obj;
+        } else {
+            append(obj);
+        }
+    }
+
+    /**
+     * 移除实体
+     * @return 实体原本是否在里面
+     */
+    public boolean remove(GameObject obj) {
+        if (obj == null || obj.getEntityId() == 0) return false;
+        int slot = slotOf.get(obj.getEntityId(), -1);
+        if (slot >= 0) {
+            if (removed[slot]) return false;
+            removeAt(slot);
+            return true;
+        }
+        int p = indexOfPending(obj);
+        if (p < 0) return false;
+        System.arraycopy(pending, p + 1, pending, p, pendingCount - p - 1);
+        pending[--pendingCount] = null;
+        return true;
+    }
+
+    public boolean contains(GameObject obj) {
+        if (obj == null || obj.getEntityId() == 0) return false;
+        int slot = slotOf.get(obj.getEntityId(), -1);
+        return slot >= 0 && !removed[slot];
+    }
+
+    public void clear() {
+        pendingCount = 0;
+        Arrays.fill(pending, null);
+        if (registry.isDeferring()) {
+            for (int i = 0; i < count; i++) {
+                if (!removed[i]) {
+                    removed[i] = true;
+                    removedCount++;
+                }
+            }
+            return;
+        }
+        Arrays.fill(items, 0, count, null);
+        Arrays.fill(removed, 0, count, false);
+        count = 0;
+        removedCount = 0;
+        slotOf.clear();
+    }
+
+    /** 当前可见的实体数（步内新增的要到步末才计入） */
+    public int size() {
+        return count - removedCount;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * 按槽位取实体；只在模拟步外使用（步内可能取到已标记删除的实体）
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        if (index < 0 || index >= count) throw new IndexOutOfBoundsException(index);
+        return (T) items[index];
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new Itr();
+    }
+
+    /**
+     * 步末整理：真正删除标记的槽位，再加入排队的新实体
+     */
+    void flush() {
+        if (removedCount > 0) {
+            // 从后往前：换进来的最后一个实体已经检查过，一定是存活的
+            for (int i = count - 1; i >= 0; i--) {
+                if (removed[i]) swapRemove(i);
+            }
+            removedCount = 0;
+        }
+        for (int i = 0; i < pendingCount; i++) {
+            append(pending[i]);
+            pending[i] = null;
+        }
+        pendingCount = 0;
+    }
+
+    private void removeAt(int slot) {
+        if (registry.isDeferring()) {
+            removed[slot] = true;
+            removedCount++;
+        } else {
+            swapRemove(slot);
+        }
+    }
+
+    private void append(GameObject obj) {
+        if (count == items.length) {
+            items = Arrays.copyOf(items, count * 2);
+            removed = Arrays.copyOf(removed, count * 2);
+        }
+        items[count] = obj;
+        removed[count] = false;
+        slotOf.put(obj.getEntityId(), count);
+        count++;
+    }
+
+    private void swapRemove(int slot) {
+        slotOf.remove(items[slot].getEntityId(), -1);
+        int last = --count;
+        if (slot != last) {
+            items[slot] = items[last];
+            removed[slot] = removed[last];
+            slotOf.put(items[slot].getEntityId(), slot);
+        }
+        items[last] = null;
+        removed[last] = false;
+    }
+
+    private int indexOfPending(GameObject obj) {
+        for (int i = 0; i < pendingCount; i++) {
+            if (pending[i] == obj) return i;
+        }
+        return -1;
+    }
+
+    private final class Itr implements Iterator<T> {
+        private int cursor;
+        private int lastSlot = -1;
+
+        @Override
+        public boolean hasNext() {
+            while (cursor < count && removed[cursor]) cursor++;
+            return cursor < count;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            lastSlot = cursor++;
+            return (T) items[lastSlot];
+        }
+
+        @Override
+        public void remove() {
+            if (lastSlot < 0) throw new IllegalStateException();
+            boolean swaps = !registry.isDeferring();
+            removeAt(lastSlot);
+            // 步外是 swap-remove：最后一个实体换到了这个槽位，下次从这里继续
+            if (swaps) cursor = lastSlot;
+            lastSlot = -1;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package de.tum.cit.fop.maze.game.event;
+
+import java.util.Arrays;
+
+/**
+ * 事件环形缓冲区：每个事件拆成 (类型, 整数参数, 整数参数, 字符串参数) 存进平行数组，入队出队不分配对象。
+ * 满了按两倍扩容（只在击杀高峰第一次出现时发生一次），不会丢事件。
+ * <p>
+ * 本身不加锁；跨线程使用时由调用方同步。
+ */
+final class GameEventQueue {
+
+    private int[] types;
+    private int[] args0;
+    private int[] args1;
+    private String[] texts;
+    private int head;
+    private int size;
+
+    GameEventQueue(int capacity) {
+        types = new int[capacity];
+        args0 = new int[capacity];
+        args1 = new int[capacity];
+        texts = new String[capacity];
+    }
+
+    void push(GameEventType type, int arg0, int arg1, String text) {
+        if (size == types.length) grow();
+        int i = (head + size) % types.length;
+        types[i] = type.ordinal();
+        args0[i] = arg0;
+        args1[i] = arg1;
+        texts[i] = text;
+        size++;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /* 读队首事件（先读出来再 pop） */
+
+    int headType() {
+        return types[head];
+    }
+
+    int headArg0() {
+        return args0[head];
+    }
+
+    int headArg1() {
+        return args1[head];
+    }
+
+    String headText() {
+        return texts[head];
+    }
+
+    void pop() {
+        texts[head] = null;
+        head = (head + 1) % types.length;
+        size--;
+    }
+
+    void clear() {
+        Arrays.fill(texts, null);
+        head = 0;
+        size = 0;
+    }
+
+    private void grow() {
+        int capacity = types.length * 2;
+        int[] t = new int[capacity];
+        int[] a0 = new int[capacity];
+        int[] a1 = new int[capacity];
+        String[] s = new String[capacity];
+        for (int n = 0; n < size; n++) {
+            int i = (head + n) % types.length;
+            t[n] = types[i];
+            a0[n] = args0[i];
+            a1[n] = args1[i];
+            s[n] = texts[i];
+        }
+        types = t;
+        args0 = a0;
+        args1 = a1;
+        texts = s;
+        head = 0;
+    }
+}
@@ -4,35 +4,57 @@
 import de.tum.cit.fop.maze.game.score.DamageSource;
 import de.tum.cit.fop.maze.utils.Logger;
 
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * 游戏事件源 - 单例模式
  * 负责管理所有游戏事件监听器，并将事件分发给所有注册的监听器
  * <p>
- * 修复：
- * 1. 使用 CopyOnWriteArrayList 防止并发修改异常
- * 2. 添加监听器数量检查，防止泄漏
- * 3. 添加调试日志
+ * 事件不再在发生处同步回调（以前击杀事件在 GameManager 遍历敌人的循环里直接触发成就、存档）：
+ * 1. onEnemyKilled 等方法只把事件写进预分配的环形缓冲区，不分配对象
+ * 2. GameManager 在每个模拟步结束时调用 {@link #dispatch()}，按发生顺序一次性分发
+ * 3. 监听器可以只订阅部分事件类型；只维护自身状态的重型消费者可以用
+ *    {@link #addAsyncListener} 在后台线程收事件
+ * <p>
+ * 发布与 dispatch 只在模拟线程（渲染线程）调用；注册 / 注销可以在任意线程。
  */
 public class GameEventSource {
 
     // 单例实例
     private static GameEventSource instance;
 
-    // 监听器列表（使用线程安全的列表，防止并发修改异常）
-    private final List<GameListener> listeners;
-    
     // 监听器数量警告阈值
     private static final int MAX_LISTENERS_WARNING = 10;
 
+    private static final int QUEUE_CAPACITY = 256;
+
+    private static final GameEventType[] TYPES = GameEventType.values();
+    private static final EnemyTier[] TIERS = EnemyTier.values();
+    private static final DamageSource[] SOURCES = DamageSource.values();
+    private static final GameListener[] NO_LISTENERS = new GameListener[0];
+
+    /** 注册记录（增删时加锁），分发时读下面按类型展开的快照数组 */
+    private final List<Subscription> subscriptions = new ArrayList<>();
+    private volatile GameListener[][] syncByType = emptyTable();
+    private volatile GameListener[][] asyncByType = emptyTable();
+
+    /** 本步发生、尚未分发的事件 */
+    private final GameEventQueue pending = new GameEventQueue(QUEUE_CAPACITY);
+    private boolean dispatching = false;
+
+    /** 交给后台线程的事件（以自身为锁） */
+    private final GameEventQueue asyncQueue = new GameEventQueue(QUEUE_CAPACITY);
+    private Thread asyncWorker;
+
+    private record Subscription(GameListener listener, EnumSet<GameEventType> types, boolean async) {
+    }
+
     /**
      * 私有构造函数，防止外部实例化
      */
     private GameEventSource() {
-        // 使用 CopyOnWriteArrayList 防止遍历时修改导致的异常
-        this.listeners = new CopyOnWriteArrayList<>();
     }
 
     /**
@@ -47,69 +69,101 @@ public static GameEventSource getInstance() {
     }
 
     /**
-     * 添加事件监听器
+     * 添加事件监听器，在模拟线程上接收事件
      * @param listener 要添加的监听器
+     * @param types 只订阅这些类型；不传则订阅全部
      */
-    public void addListener(GameListener listener) {
+    public void addListener(GameListener listener, GameEventType... types) {
+        subscribe(listener, types, false);
+    }
+
+    /**
+     * 添加在后台线程接收事件的监听器（所有后台监听器共用一个线程，按发生顺序收到事件）。
+     * 回调里不能碰游戏状态（实体、存档数据等），只适合统计、持久化这类自成一体的消费者。
+     * @param listener 要添加的监听器
+     * @param types 只订阅这些类型；不传则订阅全部
+     */
+    public void addAsyncListener(GameListener listener, GameEventType... types) {
+        subscribe(listener, types, true);
+        startAsyncWorker();
+    }
+
+    private synchronized void subscribe(GameListener listener, GameEventType[] types, boolean async) {
         if (listener == null) return;
-        
+
         // 防止重复添加
-        if (listeners.contains(listener)) {
-            Logger.warning("GameEventSource: Listener already registered, skipping: " + listener.getClass().getSimpleName());
-            return;
+        for (Subscription s : subscriptions) {
+            if (s.listener() == listener) {
+                Logger.warning("GameEventSource: Listener already registered, skipping: " + listener.getClass().getSimpleName());
+                return;
+            }
         }
-        
-        listeners.add(listener);
-        
+
+        EnumSet<GameEventType> set = EnumSet.noneOf(GameEventType.class);
+        if (types == null || types.length == 0) {
+            set = EnumSet.allOf(GameEventType.class);
+        } else {
+            for (GameEventType type : types) set.add(type);
+        }
+        subscriptions.add(new Subscription(listener, set, async));
+        rebuildTables();
+
         // 监听器数量警告
-        if (listeners.size() > MAX_LISTENERS_WARNING) {
-            Logger.warning("GameEventSource: Too many listeners (" + listeners.size() + "), possible memory leak!");
+        if (subscriptions.size() > MAX_LISTENERS_WARNING) {
+            Logger.warning("GameEventSource: Too many listeners (" + subscriptions.size() + "), possible memory leak!");
         }
-        
-        Logger.debug("GameEventSource: Added listener " + listener.getClass().getSimpleName() + ", total: " + listeners.size());
+
+        Logger.debug("GameEventSource: Added listener " + listener.getClass().getSimpleName()
+                + " " + set + (async ? " (async)" : "") + ", total: " + subscriptions.size());
     }
 
     /**
      * 移除事件监听器
      * @param listener 要移除的监听器
      */
-    public void removeListener(GameListener listener) {
+    public synchronized void removeListener(GameListener listener) {
         if (listener == null) return;
-        boolean removed = listeners.remove(listener);
+        boolean removed = subscriptions.removeIf(s -> s.listener() == listener);
         if (removed) {
-            Logger.debug("GameEventSource: Removed listener " + listener.getClass().getSimpleName() + ", remaining: " + listeners.size());
+            rebuildTables();
+            Logger.debug("GameEventSource: Removed listener " + listener.getClass().getSimpleName() + ", remaining: " + subscriptions.size());
         }
     }
 
     /**
-     * 清空所有监听器
+     * 清空所有监听器；尚未分发的事件没有人接收了，一并丢弃
      */
-    public void clearListeners() {
-        int count = listeners.size();
-        listeners.clear();
+    public synchronized void clearListeners() {
+        int count = subscriptions.size();
+        subscriptions.clear();
+        rebuildTables();
+        pending.clear();
         Logger.debug("GameEventSource: Cleared " + count + " listeners");
     }
-    
+
     /**
      * 获取当前监听器数量（用于调试）
      */
-    public int getListenerCount() {
-        return listeners.size();
+    public synchronized int getListenerCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * 尚未分发的事件数
+     */
+    public int getPendingCount() {
+        return pending.size();
     }
 
+    /* ================= 发布（只入队） ================= */
+
     /**
      * 当敌人被击杀时触发
      * @param tier 敌人等级
      * @param isDashKill 是否通过冲刺击杀
      */
     public void onEnemyKilled(EnemyTier tier, boolean isDashKill) {
-        for (GameListener listener : listeners) {
-            try {
-                listener.onEnemyKilled(tier, isDashKill);
-            } catch (Exception e) {
-                Logger.error("GameEventSource: Error in onEnemyKilled listener: " + e.getMessage());
-            }
-        }
+        pending.push(GameEventType.ENEMY_KILLED, tier.ordinal(), isDashKill ? 1 : 0, null);
     }
 
     /**
@@ -118,13 +172,7 @@ public void onEnemyKilled(EnemyTier tier, boolean isDashKill) {
      * @param source 伤害来源
      */
     public void onPlayerDamage(int currentHp, DamageSource source) {
-        for (GameListener listener : listeners) {
-            try {
-                listener.onPlayerDamage(currentHp, source);
-            } catch (Exception e) {
-                Logger.error("GameEventSource: Error in onPlayerDamage listener: " + e.getMessage());
-            }
-        }
+        pending.push(GameEventType.PLAYER_DAMAGE, currentHp, source.ordinal(), null);
     }
 
     /**
@@ -132,13 +180,7 @@ public void onPlayerDamage(int currentHp, DamageSource source) {
      * @param itemType 物品类型（如 "HEART", "TREASURE", "KEY"）
      */
     public void onItemCollected(String itemType) {
-        for (GameListener listener : listeners) {
-            try {
-                listener.onItemCollected(itemType);
-            } catch (Exception e) {
-                Logger.error("GameEventSource: Error in onItemCollected listener: " + e.getMessage());
-            }
-        }
+        pending.push(GameEventType.ITEM_COLLECTED, 0, 0, itemType);
     }
 
     /**
@@ -146,13 +188,106 @@ public void onItemCollected(String itemType) {
      * @param levelNumber 关卡编号
      */
     public void onLevelFinished(int levelNumber) {
+        pending.push(GameEventType.LEVEL_FINISHED, levelNumber, 0, null);
+    }
+
+    /* ================= 分发 ================= */
+
+    /**
+     * 按发生顺序把队列里的事件分发给同步监听器，并转交后台监听器。
+     * 由 GameManager 在每个模拟步结束时调用；监听器在回调里发布的新事件也在这一轮分发完。
+     */
+    public void dispatch() {
+        if (dispatching) return;
+        dispatching = true;
+        try {
+            while (!pending.isEmpty()) {
+                int type = pending.headType();
+                int arg0 = pending.headArg0();
+                int arg1 = pending.headArg1();
+                String text = pending.headText();
+                pending.pop();
+
+                deliver(syncByType[type], type, arg0, arg1, text);
+
+                if (asyncByType[type].length > 0) {
+                    synchronized (asyncQueue) {
+                        asyncQueue.push(TYPES[type], arg0, arg1, text);
+                        asyncQueue.notify();
+                    }
+                }
+            }
+        } finally {
+            dispatching = false;
+        }
+    }
+
+    private void deliver(GameListener[] listeners, int type, int arg0, int arg1, String text) {
         for (GameListener listener : listeners) {
             try {
-                listener.onLevelFinished(levelNumber);
+                switch (TYPES[type]) {
+                    case ENEMY_KILLED -> listener.onEnemyKilled(TIERS[arg0], arg1 != 0);
+                    case PLAYER_DAMAGE -> listener.onPlayerDamage(arg0, SOURCES[arg1]);
+                    case ITEM_COLLECTED -> listener.onItemCollected(text);
+                    case LEVEL_FINISHED -> listener.onLevelFinished(arg0);
+                }
             } catch (Exception e) {
-                Logger.error("GameEventSource: Error in onLevelFinished listener: " + e.getMessage());
+                Logger.error("GameEventSource: Error in " + TYPES[type] + " listener: " + e.getMessage());
+            }
+        }
+    }
+
+    private synchronized void startAsyncWorker() {
+        if (asyncWorker != null) return;
+        asyncWorker = new Thread(this::runAsyncWorker, "GameEventSource-Async");
+        asyncWorker.setDaemon(true);  // 守护线程，不会阻止JVM退出
+        asyncWorker.start();
+    }
+
+    private void runAsyncWorker() {
+        while (true) {
+            int type;
+            int arg0;
+            int arg1;
+            String text;
+            synchronized (asyncQueue) {
+                while (asyncQueue.isEmpty()) {
+                    try {
+                        asyncQueue.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                type = asyncQueue.headType();
+                arg0 = asyncQueue.headArg0();
+                arg1 = asyncQueue.headArg1();
+                text = asyncQueue.headText();
+                asyncQueue.pop();
+            }
+            deliver(asyncByType[type], type, arg0, arg1, text);
+        }
+    }
+
+    private void rebuildTables() {
+        GameListener[][] sync = emptyTable();
+        GameListener[][] async = emptyTable();
+        for (GameEventType type : TYPES) {
+            List<GameListener> s = new ArrayList<>();
+            List<GameListener> a = new ArrayList<>();
+            for (Subscription sub : subscriptions) {
+                if (sub.types().contains(type)) (sub.async() ? a : s).add(sub.listener());
             }
+            sync[type.ordinal()] = s.toArray(NO_LISTENERS);
+            async[type.ordinal()] = a.toArray(NO_LISTENERS);
         }
+        syncByType = sync;
+        asyncByType = async;
+    }
+
+    private static GameListener[][] emptyTable() {
+        GameListener[][] table = new GameListener[TYPES.length][];
+        for (int i = 0; i < table.length; i++) table[i] = NO_LISTENERS;
+        return table;
     }
 
     /**
@@ -161,4 +296,4 @@ public void onLevelFinished(int levelNumber) {
     public void reset() {
         clearListeners();
     }
-}
\ No newline at end of file
+}
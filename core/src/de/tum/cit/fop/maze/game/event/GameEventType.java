@@ -0,0 +1,16 @@
+package de.tum.cit.fop.maze.game.event;
+
+/**
+ * 游戏事件类型，对应 {@link GameListener} 的四个回调。
+ * 监听器可以只订阅其中几种（见 {@link GameEventSource#addListener(GameListener, GameEventType...)}）。
+ */
+public enum GameEventType {
+    /** {@link GameListener#onEnemyKilled} */
+    ENEMY_KILLED,
+    /** {@link GameListener#onPlayerDamage} */
+    PLAYER_DAMAGE,
+    /** {@link GameListener#onItemCollected} */
+    ITEM_COLLECTED,
+    /** {@link GameListener#onLevelFinished} */
+    LEVEL_FINISHED
+}
@@ -11,7 +11,7 @@
  * <p>
  * 使用方式：
  * 1. ScoreManager 和 AchievementManager 实现此接口。
- * 2. GameManager 持有 List&lt;GameListener&gt; 并在事件发生时遍历调用。
+ * 2. GameManager 发布事件到 GameEventSource 的队列，在每个模拟步结束时统一回调（默认在模拟线程上）。
  */
 public interface GameListener {
 
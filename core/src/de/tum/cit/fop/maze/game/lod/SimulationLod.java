@@ -0,0 +1,175 @@
+package de.tum.cit.fop.maze.game.lod;
+
+import de.tum.cit.fop.maze.entities.GameObject;
+import de.tum.cit.fop.maze.entities.Player;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * 模拟细节层级调度 (Simulation Level of Detail)
+ * <p>
+ * 按实体到最近存活玩家的切比雪夫距离分三档：
+ * <ul>
+ *   <li>NEAR：镜头内及附近，每帧更新</li>
+ *   <li>MID：稍远处，每 {@link #MID_INTERVAL} 帧更新一次，传入累积的 delta（各实体错开相位，负载均匀）</li>
+ *   <li>FAR：远处，休眠不更新，直到玩家靠近</li>
+ * </ul>
+ * 变远时要多走 {@link #HYSTERESIS} 格才降档，避免实体在边界上反复切换导致动画/巡逻"跳变"。
+ * <p>
+ * 用法：每帧先 {@link #beginFrame(List)}，再对每个实体调用 {@link #step(GameObject, float)}，
+ * 返回值 &ge; 0 时用它作为 delta 更新实体。
+ */
+public final class SimulationLod {
+
+    public enum Tier {
+        NEAR, MID, FAR
+    }
+
+    /** 镜头 20x12 格，半宽 10 格，留出余量 */
+    public static final int NEAR_RADIUS = 16;
+    public static final int MID_RADIUS = 40;
+    public static final int HYSTERESIS = 4;
+    public static final int MID_INTERVAL = 4;
+    /** MID 档一次最多补的时间，防止长时间卡顿后一次走太远 */
+    private static final float MAX_ACCUMULATED_DELTA = 0.25f;
+
+    public static final float SKIP = -1f;
+
+    private static final class Slot {
+        Tier tier = Tier.NEAR;
+        float accumulated;
+        int phase;
+    }
+
+    private final IdentityHashMap<GameObject, Slot> slots = new IdentityHashMap<>();
+    private int nextPhase;
+    private int frame;
+    private boolean enabled = true;
+
+    /* ===== 本帧存活玩家位置 ===== */
+    private final int[] focusX = new int[4];
+    private final int[] focusY = new int[4];
+    private int focusCount;
+
+    /* ===== 统计 ===== */
+    private static final int TIER_COUNT = Tier.values().length;
+    private final int[] ranCount = new int[TIER_COUNT];
+    private final int[] entityCount = new int[TIER_COUNT];
+
+    /**
+     * 记录本帧的玩家位置并清零计数
+     */
+    public void beginFrame(List<Player> players) {
+        frame++;
+        focusCount = 0;
+        for (int i = 0; i < players.size() && focusCount < focusX.length; i++) {
+            Player p = players.get(i);
+            if (p == null || p.isDead()) continue;
+            focusX[focusCount] = p.getX();
+            focusY[focusCount] = p.getY();
+            focusCount++;
+        }
+        for (int i = 0; i < TIER_COUNT; i++) {
+            ranCount[i] = 0;
+            entityCount[i] = 0;
+        }
+    }
+
+    /**
+     * 本帧该实体应使用的 delta；返回 {@link #SKIP} 表示本帧跳过
+     */
+    public float step(GameObject obj, float delta) {
+        Slot slot = slots.get(obj);
+        if (slot == null) {
+            slot = new Slot();
+            slot.phase = nextPhase++ % MID_INTERVAL;
+            slots.put(obj, slot);
+        }
+
+        Tier tier = (!enabled || focusCount == 0) ? Tier.NEAR : classify(slot.tier, distanceToFocus(obj));
+        if (tier != slot.tier) {
+            // 换档时丢弃累积时间：醒来的实体从当前时刻开始，而不是一次补完休眠期
+            slot.tier = tier;
+            slot.accumulated = 0f;
+        }
+        entityCount[tier.ordinal()]++;
+
+        switch (tier) {
+            case NEAR -> {
+                ranCount[Tier.NEAR.ordinal()]++;
+                return delta;
+            }
+            case MID -> {
+                slot.accumulated = Math.min(MAX_ACCUMULATED_DELTA, slot.accumulated + delta);
+                if ((frame + slot.phase) % MID_INTERVAL != 0) return SKIP;
+                float dt = slot.accumulated;
+                slot.accumulated = 0f;
+                ranCount[Tier.MID.ordinal()]++;
+                return dt;
+            }
+            default -> {
+                return SKIP;
+            }
+        }
+    }
+
+    public Tier getTier(GameObject obj) {
+        Slot slot = slots.get(obj);
+        return slot == null ? Tier.NEAR : slot.tier;
+    }
+
+    /**
+     * 实体被移除时调用
+     */
+    public void forget(GameObject obj) {
+        slots.remove(obj);
+    }
+
+    public void clear() {
+        slots.clear();
+        nextPhase = 0;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** 本帧在该档位实际更新了的实体数 */
+    public int getRanCount(Tier tier) {
+        return ranCount[tier.ordinal()];
+    }
+
+    /** 本帧处于该档位的实体数（含被跳过的） */
+    public int getEntityCount(Tier tier) {
+        return entityCount[tier.ordinal()];
+    }
+
+    /* ================= 内部 ================= */
+
+    private int distanceToFocus(GameObject obj) {
+        int best = Integer.MAX_VALUE;
+        int ox = obj.getX();
+        int oy = obj.getY();
+        for (int i = 0; i < focusCount; i++) {
+            int d = Math.max(Math.abs(ox - focusX[i]), Math.abs(oy - focusY[i]));
+            if (d < best) best = d;
+        }
+        return best;
+    }
+
+    /**
+     * 靠近时立即升档；远离时超过阈值 + HYSTERESIS 才降档
+     */
+    private static Tier classify(Tier current, int dist) {
+        int nearLimit = current == Tier.NEAR ? NEAR_RADIUS + HYSTERESIS : NEAR_RADIUS;
+        if (dist <= nearLimit) return Tier.NEAR;
+        int midLimit = current == Tier.FAR ? MID_RADIUS : MID_RADIUS + HYSTERESIS;
+        if (dist <= midLimit) return Tier.MID;
+        return Tier.FAR;
+    }
+}
@@ -0,0 +1,67 @@
+package de.tum.cit.fop.maze.game.replay;
+
+import java.util.Arrays;
+
+/**
+ * 帧耗时统计 (Frame Time Percentiles)
+ * <p>
+ * 记录每帧（或无头模式下每个模拟步）的耗时，结束后给出平均值和 p50 / p90 / p99 / p99.9 / 最大值。
+ * 同一段录像在不同版本上回放，对比这些数字即可判断有没有性能回退。
+ */
+public final class FrameTimeStats {
+
+    private long[] samples = new long[1024];
+    private int count;
+    private long total;
+    private long[] sorted;
+
+    public void add(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+        total += nanos;
+        sorted = null;
+    }
+
+    public void clear() {
+        count = 0;
+        total = 0;
+        sorted = null;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public double getMeanMillis() {
+        return count == 0 ? 0 : total / 1e6 / count;
+    }
+
+    /**
+     * 第 p 百分位（0 ~ 100，最近秩法），单位毫秒
+     */
+    public double getPercentileMillis(double p) {
+        if (count == 0) return 0;
+        if (sorted == null) {
+            sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+        }
+        int rank = (int) Math.ceil(p / 100.0 * count);
+        int index = Math.max(0, Math.min(count - 1, rank - 1));
+        return sorted[index] / 1e6;
+    }
+
+    public double getMaxMillis() {
+        return getPercentileMillis(100);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("n=%d mean=%.3fms p50=%.3fms p90=%.3fms p99=%.3fms p99.9=%.3fms max=%.3fms",
+                count, getMeanMillis(),
+                getPercentileMillis(50), getPercentileMillis(90),
+                getPercentileMillis(99), getPercentileMillis(99.9),
+                getMaxMillis());
+    }
+}
@@ -0,0 +1,229 @@
+package de.tum.cit.fop.maze.game.replay;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import de.tum.cit.fop.maze.entities.Player;
+import de.tum.cit.fop.maze.game.Difficulty;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 一段录像 (Replay)
+ * <p>
+ * 内容：难度、单/双人、对局种子、起始关卡、模拟步频，以及按模拟步编号排列的输入事件。
+ * 模拟是确定的（见 {@link de.tum.cit.fop.maze.utils.GameRandom}），所以只存这些就能原样重现整局。
+ * <p>
+ * 文件格式（GZIP 压缩的二进制）：
+ * <pre>
+ * int     MAGIC
+ * byte    VERSION
+ * UTF     难度名
+ * boolean 双人
+ * long    对局种子
+ * varint  起始关卡, 步频, 总步数, 事件数
+ * 每个事件: varint 距上一事件的步数, byte 事件码, [鼠标事件: zigzag varint x, y]
+ * </pre>
+ * 事件码：低 2 位种类（移动/技能/交互/鼠标），第 2 位玩家（0 = P1），高 4 位参数
+ * （移动为 (dx+1)*3+(dy+1)，技能为槽位）。
+ */
+public final class Replay {
+
+    private static final int MAGIC = 0x4D525031; // "MRP1"
+    private static final int VERSION = 1;
+
+    static final int KIND_MOVE = 0;
+    static final int KIND_ABILITY = 1;
+    static final int KIND_INTERACT = 2;
+    static final int KIND_MOUSE = 3;
+
+    private final Difficulty difficulty;
+    private final boolean twoPlayer;
+    private final long seed;
+    private final int startLevel;
+    private final int tickRate;
+
+    private int length;
+    private int eventCount;
+    private int[] ticks = new int[64];
+    private byte[] codes = new byte[64];
+    /* 鼠标事件的坐标，其余事件为 0 */
+    private int[] argX = new int[64];
+    private int[] argY = new int[64];
+
+    public Replay(Difficulty difficulty, boolean twoPlayer, long seed, int startLevel, int tickRate) {
+        this.difficulty = difficulty;
+        this.twoPlayer = twoPlayer;
+        this.seed = seed;
+        this.startLevel = startLevel;
+        this.tickRate = tickRate;
+    }
+
+    public Difficulty getDifficulty() { return difficulty; }
+    public boolean isTwoPlayer() { return twoPlayer; }
+    public long getSeed() { return seed; }
+    public int getStartLevel() { return startLevel; }
+    public int getTickRate() { return tickRate; }
+    /** 录制的总模拟步数 */
+    public int getLength() { return length; }
+    public int getEventCount() { return eventCount; }
+
+    int getTick(int i) { return ticks[i]; }
+    int getCode(int i) { return codes[i] & 0xFF; }
+    int getArgX(int i) { return argX[i]; }
+    int getArgY(int i) { return argY[i]; }
+
+    void setLength(int length) {
+        this.length = length;
+    }
+
+    /* ================= 事件码 ================= */
+
+    static int code(int kind, Player.PlayerIndex index, int arg) {
+        return kind | (index == Player.PlayerIndex.P2 ? 4 : 0) | (arg << 4);
+    }
+
+    static int kindOf(int code) { return code & 3; }
+
+    static Player.PlayerIndex playerOf(int code) {
+        return (code & 4) != 0 ? Player.PlayerIndex.P2 : Player.PlayerIndex.P1;
+    }
+
+    static int argOf(int code) { return code >>> 4; }
+
+    void add(int tick, int code, int x, int y) {
+        if (eventCount == ticks.length) {
+            int cap = eventCount * 2;
+            ticks = Arrays.copyOf(ticks, cap);
+            codes = Arrays.copyOf(codes, cap);
+            argX = Arrays.copyOf(argX, cap);
+            argY = Arrays.copyOf(argY, cap);
+        }
+        ticks[eventCount] = tick;
+        codes[eventCount] = (byte) code;
+        argX[eventCount] = x;
+        argY[eventCount] = y;
+        eventCount++;
+    }
+
+    /* ================= 读写 ================= */
+
+    /**
+     * replays/ 目录下按时间命名的新文件
+     */
+    public static FileHandle newFile() {
+        String stamp = new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
+        return Gdx.files.local("replays/replay_" + stamp + ".mrp");
+    }
+
+    public void save(FileHandle file) throws IOException {
+        try (OutputStream out = file.write(false)) {
+            write(out);
+        }
+    }
+
+    public static Replay load(FileHandle file) throws IOException {
+        try (InputStream in = file.read()) {
+            return read(in);
+        }
+    }
+
+    public void write(OutputStream os) throws IOException {
+        GZIPOutputStream gz = new GZIPOutputStream(new BufferedOutputStream(os));
+        DataOutputStream out = new DataOutputStream(gz);
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeUTF(difficulty.name());
+        out.writeBoolean(twoPlayer);
+        out.writeLong(seed);
+        writeVarInt(out, startLevel);
+        writeVarInt(out, tickRate);
+        writeVarInt(out, length);
+        writeVarInt(out, eventCount);
+
+        int last = 0;
+        for (int i = 0; i < eventCount; i++) {
+            writeVarInt(out, ticks[i] - last);
+            last = ticks[i];
+            out.writeByte(codes[i]);
+            if (kindOf(codes[i]) == KIND_MOUSE) {
+                writeVarInt(out, zigzag(argX[i]));
+                writeVarInt(out, zigzag(argY[i]));
+            }
+        }
+        out.flush();
+        gz.finish();
+        gz.flush();
+    }
+
+    public static Replay read(InputStream is) throws IOException {
+        DataInputStream in = new DataInputStream(new GZIPInputStream(new BufferedInputStream(is)));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a replay file");
+        }
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported replay version " + version);
+        }
+
+        Difficulty difficulty = Difficulty.valueOf(in.readUTF());
+        boolean twoPlayer = in.readBoolean();
+        long seed = in.readLong();
+        int startLevel = readVarInt(in);
+        int tickRate = readVarInt(in);
+
+        Replay replay = new Replay(difficulty, twoPlayer, seed, startLevel, tickRate);
+        replay.length = readVarInt(in);
+        int count = readVarInt(in);
+
+        int tick = 0;
+        for (int i = 0; i < count; i++) {
+            tick += readVarInt(in);
+            int code = in.readUnsignedByte();
+            int x = 0;
+            int y = 0;
+            if (kindOf(code) == KIND_MOUSE) {
+                x = unzigzag(readVarInt(in));
+                y = unzigzag(readVarInt(in));
+            }
+            replay.add(tick, code, x, y);
+        }
+        return replay;
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    private static int zigzag(int v) {
+        return (v << 1) ^ (v >> 31);
+    }
+
+    private static int unzigzag(int v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+}
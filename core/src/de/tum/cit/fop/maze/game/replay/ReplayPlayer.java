@@ -0,0 +1,57 @@
+package de.tum.cit.fop.maze.game.replay;
+
+import de.tum.cit.fop.maze.game.GameManager;
+
+/**
+ * 回放器 (Replay Player)
+ * <p>
+ * GameManager 在每个模拟步开始时调用 {@link #dispatch}，把录在这一步之前的事件原样送回输入回调；
+ * 回放期间键盘鼠标的实时输入由 GameManager 忽略。
+ */
+public final class ReplayPlayer {
+
+    private final Replay replay;
+    private final long startTick;
+    private final FrameTimeStats frameTimes = new FrameTimeStats();
+    private int cursor;
+
+    public ReplayPlayer(Replay replay, long startTick) {
+        this.replay = replay;
+        this.startTick = startTick;
+    }
+
+    public Replay getReplay() {
+        return replay;
+    }
+
+    public FrameTimeStats getFrameTimes() {
+        return frameTimes;
+    }
+
+    /**
+     * 送出步编号不晚于 tick 的所有事件
+     */
+    public void dispatch(long tick, GameManager gm) {
+        long relative = tick - startTick;
+        while (cursor < replay.getEventCount() && replay.getTick(cursor) <= relative) {
+            int code = replay.getCode(cursor);
+            int arg = Replay.argOf(code);
+            switch (Replay.kindOf(code)) {
+                case Replay.KIND_MOVE -> gm.onMoveInput(Replay.playerOf(code), arg / 3 - 1, arg % 3 - 1);
+                case Replay.KIND_ABILITY -> gm.onAbilityInput(Replay.playerOf(code), arg);
+                case Replay.KIND_INTERACT -> gm.onInteractInput(Replay.playerOf(code));
+                default -> gm.setMouseTargetTile(replay.getArgX(cursor), replay.getArgY(cursor));
+            }
+            cursor++;
+        }
+    }
+
+    public boolean isFinished(long tick) {
+        return tick - startTick >= replay.getLength();
+    }
+
+    /** 已回放的步数 */
+    public int getPosition(long tick) {
+        return (int) Math.min(replay.getLength(), tick - startTick);
+    }
+}
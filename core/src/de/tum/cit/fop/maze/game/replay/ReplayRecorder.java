@@ -0,0 +1,65 @@
+package de.tum.cit.fop.maze.game.replay;
+
+import de.tum.cit.fop.maze.entities.Player;
+
+/**
+ * 录制器 (Replay Recorder)
+ * <p>
+ * GameManager 在每个输入回调里把事件连同当前模拟步编号交给录制器；
+ * 步编号相对录制开始时的步数保存，因此录像与 GameManager 已经跑过多少步无关。
+ */
+public final class ReplayRecorder {
+
+    private final Replay replay;
+    private final long startTick;
+    private final FrameTimeStats frameTimes = new FrameTimeStats();
+
+    private boolean mouseKnown;
+    private int lastMouseX;
+    private int lastMouseY;
+
+    public ReplayRecorder(Replay replay, long startTick) {
+        this.replay = replay;
+        this.startTick = startTick;
+    }
+
+    public void onMove(long tick, Player.PlayerIndex index, int dx, int dy) {
+        int arg = (Integer.signum(dx) + 1) * 3 + (Integer.signum(dy) + 1);
+        replay.add(relative(tick), Replay.code(Replay.KIND_MOVE, index, arg), 0, 0);
+    }
+
+    public void onAbility(long tick, Player.PlayerIndex index, int slot) {
+        replay.add(relative(tick), Replay.code(Replay.KIND_ABILITY, index, slot & 0xF), 0, 0);
+    }
+
+    public void onInteract(long tick, Player.PlayerIndex index) {
+        replay.add(relative(tick), Replay.code(Replay.KIND_INTERACT, index, 0), 0, 0);
+    }
+
+    /**
+     * 鼠标目标格子（P2 魔法瞄准用），只在变化时记录
+     */
+    public void onMouse(long tick, int x, int y) {
+        if (mouseKnown && x == lastMouseX && y == lastMouseY) return;
+        mouseKnown = true;
+        lastMouseX = x;
+        lastMouseY = y;
+        replay.add(relative(tick), Replay.code(Replay.KIND_MOUSE, Player.PlayerIndex.P1, 0), x, y);
+    }
+
+    public FrameTimeStats getFrameTimes() {
+        return frameTimes;
+    }
+
+    /**
+     * 结束录制，返回录像（总长度为到 tick 为止的步数）
+     */
+    public Replay finish(long tick) {
+        replay.setLength(relative(tick));
+        return replay;
+    }
+
+    private int relative(long tick) {
+        return (int) (tick - startTick);
+    }
+}
@@ -1,6 +1,7 @@
 package de.tum.cit.fop.maze.game.save;
 
 import de.tum.cit.fop.maze.entities.Player;
+import de.tum.cit.fop.maze.maze.MazeGrid;
 
 import java.util.HashMap;
 import java.util.HashSet;
@@ -22,7 +23,8 @@ public class GameSaveData {
     // ==========================================
     // 1. 基础存档信息 (用于恢复游戏状态)
     // ==========================================
-    public int[][] maze;
+    /** 迷宫位图（序列化格式见 StorageManager 的 MazeGrid serializer，兼容旧 int[][] 存档） */
+    public MazeGrid maze;
     /** 当前关卡数 */
     public int currentLevel = 1;
 
@@ -83,6 +85,9 @@ public GameSaveData() {
 
     /**
      * 拷贝构造函数 (用于创建存档快照)
+     * <p>
+     * 主线程只做这一步：迷宫共享位图（写时复制），其余是几个小集合的浅层复制，
+     * 快照交给存档线程后由它独占，序列化 / 压缩 / 写盘都在存档线程完成。
      * @param other 被拷贝的源数据
      */
     public GameSaveData(GameSaveData other) {
@@ -97,17 +102,16 @@ public GameSaveData(GameSaveData other) {
         this.levelPenalty = other.levelPenalty;
         this.sessionDamageTaken = other.sessionDamageTaken;
 
-        // 深度拷贝迷宫数组
+        // 迷宫快照（写时复制，不再逐行深拷贝）
         if (other.maze != null) {
-            this.maze = new int[other.maze.length][];
-            for (int i = 0; i < other.maze.length; i++) {
-                this.maze[i] = other.maze[i].clone();
-            }
+            this.maze = other.maze.snapshot();
         }
 
         // 深度拷贝集合 (防止原集合被 clear 后影响快照)
         if (other.players != null) {
-            this.players = new HashMap<>(other.players);
+            for (Map.Entry<String, PlayerSaveData> e : other.players.entrySet()) {
+                this.players.put(e.getKey(), e.getValue() == null ? null : new PlayerSaveData(e.getValue()));
+            }
         }
 
         if (other.sessionKills != null) {
@@ -22,4 +22,26 @@ public class PlayerSaveData {
 
     // 技能等级
     public Map<String, Integer> abilityLevels = new HashMap<>();
+
+    public PlayerSaveData() {
+    }
+
+    /**
+     * 拷贝构造函数 (存档快照用)；技能状态里只有数值和布尔，逐个 map 复制即可
+     */
+    public PlayerSaveData(PlayerSaveData other) {
+        this.x = other.x;
+        this.y = other.y;
+        this.lives = other.lives;
+        this.maxLives = other.maxLives;
+        this.mana = other.mana;
+        this.hasKey = other.hasKey;
+        this.buffAttack = other.buffAttack;
+        this.buffRegen = other.buffRegen;
+        this.buffManaEfficiency = other.buffManaEfficiency;
+        for (Map.Entry<String, Map<String, Object>> e : other.abilityStates.entrySet()) {
+            this.abilityStates.put(e.getKey(), e.getValue() == null ? null : new HashMap<>(e.getValue()));
+        }
+        this.abilityLevels.putAll(other.abilityLevels);
+    }
 }
@@ -3,14 +3,18 @@
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.utils.Json;
+import com.badlogic.gdx.utils.JsonValue;
 import com.badlogic.gdx.utils.JsonWriter;
 import de.tum.cit.fop.maze.game.achievement.CareerData;
+import de.tum.cit.fop.maze.maze.MazeGrid;
 import de.tum.cit.fop.maze.utils.Logger;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.text.SimpleDateFormat;
+import java.util.Base64;
 import java.util.Date;
 import java.util.concurrent.*;
 import java.util.zip.GZIPInputStream;
@@ -128,9 +132,49 @@ private Json createJson() {
         Json json = new Json();
         json.setOutputType(JsonWriter.OutputType.json);
         json.setUsePrototypes(false);
+        json.setSerializer(MazeGrid.class, new MazeGridSerializer());
         return json;
     }
 
+    /**
+     * MazeGrid 序列化：{"w":宽,"h":高,"bits":Base64(long[] 位图)}
+     * 读取时兼容旧存档的 int[][] 格式。
+     */
+    private static class MazeGridSerializer implements Json.Serializer<MazeGrid> {
+        @Override
+        @SuppressWarnings("rawtypes")
+        public void write(Json json, MazeGrid grid, Class knownType) {
+            long[] words = grid.toWords();
+            ByteBuffer buf = ByteBuffer.allocate(words.length * Long.BYTES);
+            buf.asLongBuffer().put(words);
+
+            json.writeObjectStart();
+            json.writeValue("w", grid.getWidth());
+            json.writeValue("h", grid.getHeight());
+            json.writeValue("bits", Base64.getEncoder().encodeToString(buf.array()));
+            json.writeObjectEnd();
+        }
+
+        @Override
+        @SuppressWarnings("rawtypes")
+        public MazeGrid read(Json json, JsonValue data, Class type) {
+            if (data == null || data.isNull()) return null;
+
+            // 旧存档：int[][]
+            if (data.isArray()) {
+                int[][] legacy = json.readValue(int[][].class, data);
+                return MazeGrid.fromArray(legacy);
+            }
+
+            int w = data.getInt("w");
+            int h = data.getInt("h");
+            byte[] raw = Base64.getDecoder().decode(data.getString("bits"));
+            long[] words = new long[raw.length / Long.BYTES];
+            ByteBuffer.wrap(raw).asLongBuffer().get(words);
+            return new MazeGrid(w, h, words);
+        }
+    }
+
     private String getSlotFileName(int slot) {
         if (slot < 1 || slot > MAX_SAVE_SLOTS) {
             throw new IllegalArgumentException("Invalid save slot: " + slot);
@@ -336,6 +380,26 @@ public void flushAllSaves() {
         Logger.info("All saves flushed.");
     }
 
+    // ==========================================
+    // 存档流水线的各个阶段（配置与读写存档时相同，供基准测试分别计时）
+    // ==========================================
+
+    public String serialize(Object data) {
+        return createJson().toJson(data);
+    }
+
+    public <T> T deserialize(Class<T> type, String jsonStr) {
+        return createJson().fromJson(type, jsonStr);
+    }
+
+    public byte[] compress(String jsonStr) throws IOException {
+        return compressData(jsonStr);
+    }
+
+    public String decompress(byte[] compressed) throws IOException {
+        return decompressData(compressed);
+    }
+
     private byte[] compressData(String jsonStr) throws IOException {
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
         try (GZIPOutputStream gzos = new GZIPOutputStream(baos)) {
@@ -404,10 +468,10 @@ private void writeJsonSafelySync(String fileName, Object data, boolean useCompre
     private void writeJsonSafelyAsync(String fileName, Object data, boolean useCompression) {
         if (data == null) return;
 
-        // 在主线程执行深拷贝
-        Object dataCopy = deepCopy(data);
+        // 在主线程取快照（存档数据走拷贝构造，不再做 JSON 往返）
+        Object dataCopy = snapshotOf(data);
 
-        // 在后台线程执行文件写入
+        // 在后台线程执行序列化和文件写入
         Future<?> future = saveExecutor.submit(() -> {
             writeJsonSafelySync(fileName, dataCopy, useCompression);
         });
@@ -424,6 +488,16 @@ private void writeJsonSafelyAsync(String fileName, Object data, boolean useCompr
         }
     }
 
+    /**
+     * 异步写盘前的快照：之后主线程继续改原对象，存档线程只读快照。
+     * 存档 / 生涯数据有结构化拷贝（迷宫写时复制），其它类型退回 JSON 往返深拷贝。
+     */
+    private Object snapshotOf(Object data) {
+        if (data instanceof GameSaveData save) return new GameSaveData(save);
+        if (data instanceof CareerData career) return new CareerData(career);
+        return deepCopy(data);
+    }
+
     @SuppressWarnings("unchecked")
     private <T> T deepCopy(T obj) {
         try {
@@ -0,0 +1,210 @@
+package de.tum.cit.fop.maze.game.spatial;
+
+import de.tum.cit.fop.maze.entities.GameObject;
+import de.tum.cit.fop.maze.maze.MazeGrid;
+
+import java.util.Arrays;
+
+/**
+ * BFS 距离场 / 流场 (Distance / Flow Field)
+ * <p>
+ * 以玩家所在格为源，在可通行格子上做一次 BFS，
+ * 得到每个格子到玩家的真实路径距离，同时记录每个格子"下一步该往哪走"。
+ * 敌人追击只需 O(1) 读取 {@link #stepToward(int, int)}，不必各自寻路，也不会卡在墙角。
+ * <p>
+ * 重算是惰性的：只有源格子变化、迷宫版本变化或调用过 {@link #invalidate()}
+ * （例如 MovingWall 的占用格子变化）时，{@link #update} 才会重新 BFS。
+ * 所有数组复用，重算过程不分配内存。
+ */
+public final class DistanceField {
+
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+    public static final int NO_STEP = -1;
+
+    /** 方向顺序与 Enemy.CARDINAL_DIRS 一致：右、左、上、下 */
+    public static final int[] DIR_X = {1, -1, 0, 0};
+    public static final int[] DIR_Y = {0, 0, 1, -1};
+    private static final byte[] OPPOSITE = {1, 0, 3, 2};
+
+    private int width;
+    private int height;
+    private int[] dist = new int[0];
+    /** flow[cell] = 从该格走向源的方向，NO_STEP 表示源本身或不可达 */
+    private byte[] flow = new byte[0];
+    private int[] queue = new int[0];
+
+    private MazeGrid maze;
+    private int mazeVersion;
+    private int sourceX = -1;
+    private int sourceY = -1;
+    private boolean hasSource;
+    private boolean dirty = true;
+
+    /* ================= 维护 ================= */
+
+    /**
+     * 以 (sx, sy) 为源刷新距离场；没有任何变化时直接返回 false
+     */
+    public boolean update(MazeGrid maze, SpatialIndex index, int sx, int sy) {
+        if (maze == null) return false;
+        if (!dirty && hasSource && maze == this.maze && maze.getVersion() == mazeVersion
+                && sx == sourceX && sy == sourceY) {
+            return false;
+        }
+
+        this.maze = maze;
+        this.mazeVersion = maze.getVersion();
+        this.sourceX = sx;
+        this.sourceY = sy;
+        this.hasSource = true;
+        this.dirty = false;
+        recompute(index);
+        return true;
+    }
+
+    /**
+     * 通行性变化（移动墙、机关等）后调用，下次 update 时重算
+     */
+    public void invalidate() {
+        dirty = true;
+    }
+
+    /**
+     * 源失效（玩家死亡等）：所有格子视为不可达
+     */
+    public void clear() {
+        if (!hasSource) return;
+        hasSource = false;
+        dirty = true;
+        Arrays.fill(dist, 0, width * height, UNREACHABLE);
+        Arrays.fill(flow, 0, width * height, (byte) NO_STEP);
+    }
+
+    public boolean hasSource() {
+        return hasSource;
+    }
+
+    /* ================= 查询 ================= */
+
+    public int distanceAt(int x, int y) {
+        if (!hasSource || x < 0 || y < 0 || x >= width || y >= height) return UNREACHABLE;
+        return dist[y * width + x];
+    }
+
+    /**
+     * 到 (x, y) 或其相邻格子的最短路径距离，用于嵌在墙里的目标（如出口门）
+     */
+    public int distanceAround(int x, int y) {
+        int best = distanceAt(x, y);
+        for (int d = 0; d < 4; d++) {
+            int nd = distanceAt(x + DIR_X[d], y + DIR_Y[d]);
+            if (nd != UNREACHABLE && nd + 1 < best) best = nd + 1;
+        }
+        return best;
+    }
+
+    /**
+     * 从 (x, y) 朝源走一步的方向；已在源上或无路可走时返回 NO_STEP
+     */
+    public int stepToward(int x, int y) {
+        if (!hasSource || x < 0 || y < 0 || x >= width || y >= height) return NO_STEP;
+        int c = y * width + x;
+        if (dist[c] != UNREACHABLE) return flow[c];
+
+        // 自身格子不可通行（如 E04 的锚点贴墙）：走向相邻格中距离最小的一个
+        int bestDir = NO_STEP;
+        int best = UNREACHABLE;
+        for (int d = 0; d < 4; d++) {
+            int nd = distanceAt(x + DIR_X[d], y + DIR_Y[d]);
+            if (nd < best) {
+                best = nd;
+                bestDir = d;
+            }
+        }
+        return bestDir;
+    }
+
+    /**
+     * 从 (x, y) 远离源的方向（相邻格中距离最大且比当前更远的一个）；没有时返回 NO_STEP
+     */
+    public int stepAway(int x, int y) {
+        int here = distanceAt(x, y);
+        if (here == UNREACHABLE) return NO_STEP;
+
+        int bestDir = NO_STEP;
+        int best = here;
+        for (int d = 0; d < 4; d++) {
+            int nd = distanceAt(x + DIR_X[d], y + DIR_Y[d]);
+            if (nd != UNREACHABLE && nd > best) {
+                best = nd;
+                bestDir = d;
+            }
+        }
+        return bestDir;
+    }
+
+    /* ================= 内部 ================= */
+
+    private void recompute(SpatialIndex index) {
+        int w = maze.getWidth();
+        int h = maze.getHeight();
+        int cellCount = w * h;
+        if (w != width || h != height || dist.length < cellCount) {
+            width = w;
+            height = h;
+            dist = new int[cellCount];
+            flow = new byte[cellCount];
+            queue = new int[cellCount];
+        }
+
+        Arrays.fill(dist, 0, cellCount, UNREACHABLE);
+        Arrays.fill(flow, 0, cellCount, (byte) NO_STEP);
+        if (sourceX < 0 || sourceY < 0 || sourceX >= w || sourceY >= h) return;
+
+        int head = 0;
+        int tail = 0;
+        int source = sourceY * w + sourceX;
+        dist[source] = 0;
+        queue[tail++] = source;
+
+        while (head < tail) {
+            int c = queue[head++];
+            int cx = c % w;
+            int cy = c / w;
+            int nextDist = dist[c] + 1;
+
+            for (int d = 0; d < 4; d++) {
+                int nx = cx + DIR_X[d];
+                int ny = cy + DIR_Y[d];
+                if (nx < 0 || ny < 0 || nx >= w || ny >= h) continue;
+
+                int n = ny * w + nx;
+                if (dist[n] != UNREACHABLE) continue;
+                if (!isWalkable(index, nx, ny)) continue;
+
+                dist[n] = nextDist;
+                flow[n] = OPPOSITE[d];
+                queue[tail++] = n;
+            }
+        }
+    }
+
+    /**
+     * 与 GameManager.isEnemyValidMove 一致，另外把不可通行的障碍物（MovingWall）视为墙
+     */
+    private boolean isWalkable(SpatialIndex index, int x, int y) {
+        if (!maze.isPath(x, y)) return false;
+        if (index == null) return true;
+        if (!index.isEmpty(SpatialIndex.Layer.EXIT_DOOR, x, y)) return false;
+        return !hasBlocker(index, SpatialIndex.Layer.TRAP, x, y)
+                && !hasBlocker(index, SpatialIndex.Layer.OBSTACLE, x, y);
+    }
+
+    private static boolean hasBlocker(SpatialIndex index, SpatialIndex.Layer layer, int x, int y) {
+        for (int n = index.first(layer, x, y); n != SpatialIndex.NONE; n = index.next(n)) {
+            GameObject o = index.get(n);
+            if (!o.isPassable()) return true;
+        }
+        return false;
+    }
+}
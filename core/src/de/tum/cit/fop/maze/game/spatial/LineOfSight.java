@@ -0,0 +1,182 @@
+package de.tum.cit.fop.maze.game.spatial;
+
+import de.tum.cit.fop.maze.maze.MazeGrid;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 网格视线服务 (Grid Line of Sight)
+ * <p>
+ * {@link #hasLineOfSight}：格子到格子的整数 Bresenham 走线，只看墙体位图，不做浮点运算。
+ * 结果按 (格子, 目标格子) 无序对缓存到本帧结束，同一对格子本帧只走一次线；
+ * 查询对称：A 能看到 B 当且仅当 B 能看到 A。
+ * <p>
+ * 线程模型：{@link #beginTick(MazeGrid)} 只在主线程调用，是唯一写共享字段的地方；
+ * 敌人决策阶段的工作线程只读这些字段。缓存每个线程一份，各自记录自己对应的帧号和迷宫版本，
+ * 发现任一项变了就整体作废（换一个纪元号，不需要清数组），线程之间不共享任何可变状态。
+ */
+public final class LineOfSight {
+
+    private static final int CACHE_CAPACITY = 2048;
+    private static final int CACHE_MASK = CACHE_CAPACITY - 1;
+    private static final int MAX_PROBES = 8;
+
+    private static final class Cache {
+        final long[] keys = new long[CACHE_CAPACITY];
+        final int[] stamps = new int[CACHE_CAPACITY];
+        final boolean[] results = new boolean[CACHE_CAPACITY];
+
+        /** 当前有效条目的纪元号；帧号、迷宫或迷宫版本变化时加一 */
+        int epoch;
+        int tick;
+        MazeGrid maze;
+        int mazeVersion;
+
+        /** 必要时开启新纪元，返回当前纪元号 */
+        int validate(int currentTick, MazeGrid m) {
+            int version = m.getVersion();
+            if (tick != currentTick || maze != m || mazeVersion != version) {
+                tick = currentTick;
+                maze = m;
+                mazeVersion = version;
+                epoch = epoch == Integer.MAX_VALUE ? 1 : epoch + 1;
+            }
+            return epoch;
+        }
+    }
+
+    private final ThreadLocal<Cache> caches = ThreadLocal.withInitial(Cache::new);
+
+    /** 只由主线程在 beginTick 中写入 */
+    private volatile MazeGrid maze;
+    private volatile int tick = 1;
+
+    /* ===== 统计（工作线程并发累加） ===== */
+    private final LongAdder traces = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+
+    /* ================= 维护 ================= */
+
+    /**
+     * 每帧在所有查询之前、并行决策开始之前由主线程调用一次。
+     * 迷宫在本帧中途被改写时不需要额外通知：各线程的缓存查询时会比对迷宫版本，自行作废
+     */
+    public void beginTick(MazeGrid maze) {
+        this.maze = maze;
+        tick = tick == Integer.MAX_VALUE ? 1 : tick + 1;
+        traces.reset();
+        cacheHits.reset();
+    }
+
+    /* ================= 视线 ================= */
+
+    /**
+     * 距离不超过 range 且视线不被墙挡住
+     */
+    public boolean canSee(int x0, int y0, int x1, int y1, float range) {
+        return inRange(x0, y0, x1, y1, range) && hasLineOfSight(x0, y0, x1, y1);
+    }
+
+    /**
+     * 直线距离是否不超过 range（比较平方，不开方）
+     */
+    public static boolean inRange(int x0, int y0, int x1, int y1, float range) {
+        int dx = x1 - x0;
+        int dy = y1 - y0;
+        return dx * dx + dy * dy <= range * range;
+    }
+
+    /**
+     * 两格之间的视线是否畅通（两端格子本身不检查）
+     */
+    public boolean hasLineOfSight(int x0, int y0, int x1, int y1) {
+        MazeGrid m = maze;
+        if (m == null) return false;
+        if (x0 == x1 && y0 == y1) return true;
+
+        int w = m.getWidth();
+        if (!m.inBounds(x0, y0) || !m.inBounds(x1, y1)) return false;
+
+        // 无序对：(a, b) 与 (b, a) 共用一条缓存，同时保证对称
+        long a = (long) y0 * w + x0;
+        long b = (long) y1 * w + x1;
+        boolean swap = a > b;
+        long key = swap ? (b << 32) | a : (a << 32) | b;
+
+        Cache cache = caches.get();
+        int stamp = cache.validate(tick, m);
+        int slot = (int) (mix(key) & CACHE_MASK);
+        int free = -1;
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            int i = (slot + probe) & CACHE_MASK;
+            if (cache.stamps[i] != stamp) {
+                if (free < 0) free = i;
+                continue;
+            }
+            if (cache.keys[i] == key) {
+                cacheHits.increment();
+                return cache.results[i];
+            }
+        }
+
+        // 总是从编号小的一端走线，结果与查询方向无关
+        boolean clear = swap ? trace(m, x1, y1, x0, y0) : trace(m, x0, y0, x1, y1);
+        traces.increment();
+        if (free >= 0) {
+            cache.keys[free] = key;
+            cache.results[free] = clear;
+            cache.stamps[free] = stamp;
+        }
+        return clear;
+    }
+
+    /**
+     * Bresenham 走线；斜向跨过两个墙角之间的缝隙视为被挡住
+     */
+    private static boolean trace(MazeGrid m, int x0, int y0, int x1, int y1) {
+        int dx = Math.abs(x1 - x0);
+        int dy = Math.abs(y1 - y0);
+        int sx = x0 < x1 ? 1 : -1;
+        int sy = y0 < y1 ? 1 : -1;
+        int err = dx - dy;
+        int x = x0;
+        int y = y0;
+
+        while (true) {
+            int e2 = err << 1;
+            boolean stepX = e2 > -dy;
+            boolean stepY = e2 < dx;
+            if (stepX && stepY && !m.isPath(x + sx, y) && !m.isPath(x, y + sy)) {
+                return false;
+            }
+            if (stepX) {
+                err -= dy;
+                x += sx;
+            }
+            if (stepY) {
+                err += dx;
+                y += sy;
+            }
+            if (x == x1 && y == y1) return true;
+            if (!m.isPath(x, y)) return false;
+        }
+    }
+
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    /* ================= 统计 ================= */
+
+    /** 本帧实际走线次数 */
+    public int getTraceCount() {
+        return traces.intValue();
+    }
+
+    public int getCacheHits() {
+        return cacheHits.intValue();
+    }
+}
@@ -0,0 +1,260 @@
+package de.tum.cit.fop.maze.game.spatial;
+
+import de.tum.cit.fop.maze.entities.GameObject;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+
+/**
+ * 格子空间索引 (Uniform Grid Spatial Index)
+ * <p>
+ * 每个格子、每个图层维护一条侵入式双向链表（全部用 int[] 实现，无逐帧分配）。
+ * 实体按自身占用矩形（footprint）登记到所有覆盖的格子中，
+ * 因此 2x2 的 E04 和移动中的 MovingWall 都能被正确查询到。
+ * <p>
+ * 维护是增量的：实体移动后调用 {@link #update(GameObject)}，
+ * 只有占用格子真正变化时才重新挂链，代价 O(占用格子数)。
+ * <p>
+ * 遍历某个格子：
+ * <pre>
+ * for (int n = index.first(layer, x, y); n != SpatialIndex.NONE; n = index.next(n)) {
+ *     GameObject o = index.get(n);
+ * }
+ * </pre>
+ */
+public final class SpatialIndex {
+
+    public enum Layer {
+        ENEMY, TRAP, EXIT_DOOR, OBSTACLE, KEY, HEART, HEART_CONTAINER, TREASURE
+    }
+
+    public static final int NONE = -1;
+    private static final int LAYER_COUNT = Layer.values().length;
+
+    private final int width;
+    private final int height;
+    private final int cellCount;
+
+    /** heads[layer * cellCount + cell] = 链表头节点 */
+    private final int[] heads;
+
+    /* ===== 节点池 ===== */
+    private GameObject[] nodeObj = new GameObject[256];
+    private int[] nodeNext = new int[256];
+    private int[] nodePrev = new int[256];
+    private int[] nodeSlot = new int[256];
+    private int nodeTop = 0;
+    private int freeHead = NONE;
+
+    private final int[] layerSizes = new int[LAYER_COUNT];
+    private final IdentityHashMap<GameObject, Entry> entries = new IdentityHashMap<>();
+
+    /** 一个实体当前登记的占用矩形及其节点 */
+    private static final class Entry {
+        final Layer layer;
+        int fx, fy, fw, fh;
+        int[] nodes = new int[4];
+        int nodeCount;
+
+        Entry(Layer layer) {
+            this.layer = layer;
+        }
+    }
+
+    public SpatialIndex(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.cellCount = width * height;
+        this.heads = new int[LAYER_COUNT * cellCount];
+        Arrays.fill(heads, NONE);
+    }
+
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+
+    /* ================= 登记 / 移除 ================= */
+
+    public void add(GameObject obj, Layer layer) {
+        if (obj == null) return;
+        Entry e = entries.get(obj);
+        if (e != null) {
+            if (e.layer == layer) {
+                update(obj);
+                return;
+            }
+            remove(obj);
+        }
+        e = new Entry(layer);
+        entries.put(obj, e);
+        layerSizes[layer.ordinal()]++;
+        link(obj, e);
+    }
+
+    public <T extends GameObject> void addAll(Iterable<T> objs, Layer layer) {
+        for (T obj : objs) {
+            add(obj, layer);
+        }
+    }
+
+    public void remove(GameObject obj) {
+        if (obj == null) return;
+        Entry e = entries.remove(obj);
+        if (e == null) return;
+        unlink(e);
+        layerSizes[e.layer.ordinal()]--;
+    }
+
+    /**
+     * 实体可能移动过：占用矩形不变时直接返回 false
+     *
+     * @return 占用格子是否发生变化
+     */
+    public boolean update(GameObject obj) {
+        Entry e = entries.get(obj);
+        if (e == null) return false;
+        if (e.fx == obj.getFootprintX() && e.fy == obj.getFootprintY()
+                && e.fw == obj.getFootprintWidth() && e.fh == obj.getFootprintHeight()) {
+            return false;
+        }
+        unlink(e);
+        link(obj, e);
+        return true;
+    }
+
+    public boolean contains(GameObject obj) {
+        return entries.containsKey(obj);
+    }
+
+    public void clear(Layer layer) {
+        var it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            var en = it.next();
+            if (en.getValue().layer == layer) {
+                unlink(en.getValue());
+                it.remove();
+            }
+        }
+        layerSizes[layer.ordinal()] = 0;
+    }
+
+    public void clear() {
+        entries.clear();
+        Arrays.fill(heads, NONE);
+        Arrays.fill(nodeObj, 0, nodeTop, null);
+        Arrays.fill(layerSizes, 0);
+        nodeTop = 0;
+        freeHead = NONE;
+    }
+
+    public int size(Layer layer) {
+        return layerSizes[layer.ordinal()];
+    }
+
+    /* ================= 查询 ================= */
+
+    /**
+     * 格子 (x, y) 在该图层的第一个节点；越界或为空返回 NONE
+     */
+    public int first(Layer layer, int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) return NONE;
+        return heads[layer.ordinal() * cellCount + y * width + x];
+    }
+
+    public int next(int node) {
+        return nodeNext[node];
+    }
+
+    public GameObject get(int node) {
+        return nodeObj[node];
+    }
+
+    public boolean isEmpty(Layer layer, int x, int y) {
+        return first(layer, x, y) == NONE;
+    }
+
+    /**
+     * 格子中第一个 type 类型且 active 的实体
+     */
+    public <T extends GameObject> T find(Layer layer, int x, int y, Class<T> type) {
+        for (int n = first(layer, x, y); n != NONE; n = nodeNext[n]) {
+            GameObject o = nodeObj[n];
+            if (o.isActive() && type.isInstance(o)) return type.cast(o);
+        }
+        return null;
+    }
+
+    public boolean hasActive(Layer layer, int x, int y) {
+        for (int n = first(layer, x, y); n != NONE; n = nodeNext[n]) {
+            if (nodeObj[n].isActive()) return true;
+        }
+        return false;
+    }
+
+    /* ================= 内部 ================= */
+
+    private void link(GameObject obj, Entry e) {
+        int fx = obj.getFootprintX();
+        int fy = obj.getFootprintY();
+        int fw = obj.getFootprintWidth();
+        int fh = obj.getFootprintHeight();
+        e.fx = fx;
+        e.fy = fy;
+        e.fw = fw;
+        e.fh = fh;
+        e.nodeCount = 0;
+
+        int base = e.layer.ordinal() * cellCount;
+        for (int cy = Math.max(0, fy); cy < Math.min(height, fy + fh); cy++) {
+            for (int cx = Math.max(0, fx); cx < Math.min(width, fx + fw); cx++) {
+                int slot = base + cy * width + cx;
+                int n = allocNode();
+                nodeObj[n] = obj;
+                nodeSlot[n] = slot;
+                nodePrev[n] = NONE;
+                nodeNext[n] = heads[slot];
+                if (heads[slot] != NONE) nodePrev[heads[slot]] = n;
+                heads[slot] = n;
+
+                if (e.nodeCount == e.nodes.length) {
+                    e.nodes = Arrays.copyOf(e.nodes, e.nodes.length * 2);
+                }
+                e.nodes[e.nodeCount++] = n;
+            }
+        }
+    }
+
+    private void unlink(Entry e) {
+        for (int i = 0; i < e.nodeCount; i++) {
+            int n = e.nodes[i];
+            int prev = nodePrev[n];
+            int next = nodeNext[n];
+            if (prev != NONE) nodeNext[prev] = next;
+            else heads[nodeSlot[n]] = next;
+            if (next != NONE) nodePrev[next] = prev;
+            freeNode(n);
+        }
+        e.nodeCount = 0;
+    }
+
+    private int allocNode() {
+        if (freeHead != NONE) {
+            int n = freeHead;
+            freeHead = nodeNext[n];
+            return n;
+        }
+        if (nodeTop == nodeObj.length) {
+            int cap = nodeObj.length * 2;
+            nodeObj = Arrays.copyOf(nodeObj, cap);
+            nodeNext = Arrays.copyOf(nodeNext, cap);
+            nodePrev = Arrays.copyOf(nodePrev, cap);
+            nodeSlot = Arrays.copyOf(nodeSlot, cap);
+        }
+        return nodeTop++;
+    }
+
+    private void freeNode(int n) {
+        nodeObj[n] = null;
+        nodeNext[n] = freeHead;
+        freeHead = n;
+    }
+}
@@ -0,0 +1,276 @@
+package de.tum.cit.fop.maze.game.time;
+
+import de.tum.cit.fop.maze.game.FixedTimestep;
+
+import java.util.Arrays;
+
+/**
+ * 游戏时间调度器 (Game-Time Scheduler)
+ * <p>
+ * 由 GameManager 在每个模拟步推进一次（{@link #advance(float)}），时间单位是模拟步：
+ * 顿帧期间模拟不推进，调度器也不走；time_scale 改变每帧的步数，调度器同样跟着变快变慢。
+ * 按步计时也保证了录像回放时回调在同一步触发。
+ * <p>
+ * 内部是分层时间轮（4 层 × 64 槽，覆盖 2^24 步，更远的到期时间在最高层循环降级）：
+ * 登记、取消都是 O(1)，每步只处理当前槽，没到期的计时器每帧零开销。
+ * 计时器节点放在数组里复用，登记时不分配对象（回调请提前存成字段，不要每次新建 lambda）。
+ * <p>
+ * 只能在模拟线程（渲染线程）使用。
+ */
+public final class GameScheduler {
+
+    /** 无效句柄 */
+    public static final long NONE = 0L;
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long MAX_SPAN = 1L << (SLOT_BITS * LEVELS);
+
+    private static final int NIL = -1;
+    /* slotOf 的特殊值 */
+    private static final int FREE = -1;
+    private static final int FIRING = -2;
+
+    /* ===== 时间 ===== */
+    /** 下一个要处理的步 */
+    private long base = 1;
+    private double time;
+    private float step = 1f / FixedTimestep.DEFAULT_TICK_RATE;
+
+    /* ===== 节点池 ===== */
+    private int[] next = new int[0];
+    private int[] prev = new int[0];
+    private int[] slotOf = new int[0];
+    private int[] generation = new int[0];
+    private long[] expires = new long[0];
+    private Runnable[] tasks = new Runnable[0];
+    private int freeHead = NIL;
+    private int size;
+
+    /* ===== 时间轮 ===== */
+    private final int[] heads = new int[LEVELS * SLOTS];
+    private final int[] tails = new int[LEVELS * SLOTS];
+    /** 本步正在触发的链表（回调里可以取消其中尚未触发的计时器） */
+    private int firingHead = NIL;
+
+    public GameScheduler() {
+        Arrays.fill(heads, NIL);
+        Arrays.fill(tails, NIL);
+        grow(64);
+    }
+
+    /* ================= 时间 ================= */
+
+    /** 已推进的步数 */
+    public long getTick() {
+        return base - 1;
+    }
+
+    /** 已推进的游戏时间（秒），用于不需要回调的动画相位 */
+    public float getTime() {
+        return (float) time;
+    }
+
+    /** 当前步长（秒） */
+    public float getStep() {
+        return step;
+    }
+
+    /**
+     * 秒数换成步数：第一次累计时间 &ge; seconds 的那一步，至少 1 步
+     */
+    public int toTicks(float seconds) {
+        return Math.max(1, (int) Math.ceil(seconds / step - 1e-4));
+    }
+
+    /* ================= 登记 / 取消 ================= */
+
+    /**
+     * seconds 秒后（按当前步长换算成步数）调用 task，返回可用于取消的句柄
+     */
+    public long schedule(float seconds, Runnable task) {
+        return scheduleTicks(toTicks(seconds), task);
+    }
+
+    /**
+     * ticks 步后调用 task（至少 1 步，即最早下一步）
+     */
+    public long scheduleTicks(int ticks, Runnable task) {
+        if (task == null) throw new IllegalArgumentException("task is null");
+        if (freeHead == NIL) grow(next.length * 2);
+
+        int i = freeHead;
+        freeHead = next[i];
+        expires[i] = getTick() + Math.max(1, ticks);
+        tasks[i] = task;
+        size++;
+        insert(i);
+        return ((long) generation[i] << 32) | (i + 1);
+    }
+
+    /**
+     * 取消尚未触发的计时器；句柄已触发、已取消或为 {@link #NONE} 时返回 false
+     */
+    public boolean cancel(long handle) {
+        int i = resolve(handle);
+        if (i == NIL) return false;
+        unlink(i);
+        release(i);
+        return true;
+    }
+
+    public boolean isPending(long handle) {
+        return resolve(handle) != NIL;
+    }
+
+    /** 距触发还剩多少步；未登记时为 0 */
+    public int getRemainingTicks(long handle) {
+        int i = resolve(handle);
+        return i == NIL ? 0 : (int) (expires[i] - getTick());
+    }
+
+    /** 距触发还剩多少秒；未登记时为 0 */
+    public float getRemaining(long handle) {
+        return getRemainingTicks(handle) * step;
+    }
+
+    /** 登记中的计时器数 */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 丢弃全部计时器并把时钟归零（换关 / 重建世界时），旧句柄全部失效。
+     * 归零后每关的时间轮从同一位置开始，录像回放时同一步到期的回调顺序也和录制时一致。
+     */
+    public void clear() {
+        for (int i = 0; i < slotOf.length; i++) {
+            if (slotOf[i] != FREE) release(i);
+        }
+        Arrays.fill(heads, NIL);
+        Arrays.fill(tails, NIL);
+        firingHead = NIL;
+        base = 1;
+        time = 0;
+    }
+
+    /* ================= 推进 ================= */
+
+    /**
+     * 推进一步并触发到期的回调。回调里可以登记新的计时器（最早下一步触发）、取消计时器或调用 {@link #clear()}。
+     */
+    public void advance(float step) {
+        this.step = step;
+        long t = base;
+
+        // 低层转完一圈时，把上一层对应槽里的计时器降到下层
+        int index = (int) (t & SLOT_MASK);
+        for (int level = 1; index == 0 && level < LEVELS; level++) {
+            index = (int) ((t >>> (SLOT_BITS * level)) & SLOT_MASK);
+            cascade(level * SLOTS + index);
+        }
+
+        int slot = (int) (t & SLOT_MASK);
+        firingHead = heads[slot];
+        for (int i = firingHead; i != NIL; i = next[i]) slotOf[i] = FIRING;
+        heads[slot] = NIL;
+        tails[slot] = NIL;
+
+        base = t + 1;
+        time += step;
+
+        while (firingHead != NIL) {
+            int i = firingHead;
+            firingHead = next[i];
+            if (firingHead != NIL) prev[firingHead] = NIL;
+            Runnable task = tasks[i];
+            release(i);
+            task.run();
+        }
+    }
+
+    /* ================= 内部 ================= */
+
+    private void insert(int i) {
+        long e = expires[i];
+        long delta = e - base;
+        int level;
+        if (delta < SLOTS) {
+            level = 0;
+        } else if (delta < (1L << (SLOT_BITS * 2))) {
+            level = 1;
+        } else if (delta < (1L << (SLOT_BITS * 3))) {
+            level = 2;
+        } else {
+            level = 3;
+            // 超出整个时间轮：先放在最远的槽，降级时按真实到期时间重新放置
+            if (delta >= MAX_SPAN) e = base + MAX_SPAN - 1;
+        }
+        int slot = level * SLOTS + (int) ((e >>> (SLOT_BITS * level)) & SLOT_MASK);
+
+        slotOf[i] = slot;
+        next[i] = NIL;
+        prev[i] = tails[slot];
+        if (tails[slot] != NIL) next[tails[slot]] = i;
+        else heads[slot] = i;
+        tails[slot] = i;
+    }
+
+    private void cascade(int slot) {
+        int i = heads[slot];
+        heads[slot] = NIL;
+        tails[slot] = NIL;
+        while (i != NIL) {
+            int n = next[i];
+            insert(i);
+            i = n;
+        }
+    }
+
+    private void unlink(int i) {
+        int s = slotOf[i];
+        int p = prev[i];
+        int n = next[i];
+        if (p != NIL) next[p] = n;
+        else if (s == FIRING) firingHead = n;
+        else heads[s] = n;
+        if (n != NIL) prev[n] = p;
+        else if (s != FIRING) tails[s] = p;
+    }
+
+    private void release(int i) {
+        slotOf[i] = FREE;
+        tasks[i] = null;
+        generation[i]++;
+        next[i] = freeHead;
+        prev[i] = NIL;
+        freeHead = i;
+        size--;
+    }
+
+    private int resolve(long handle) {
+        int i = (int) handle - 1;
+        if (i < 0 || i >= slotOf.length) return NIL;
+        if (generation[i] != (int) (handle >>> 32) || slotOf[i] == FREE) return NIL;
+        return i;
+    }
+
+    private void grow(int capacity) {
+        int old = next.length;
+        next = Arrays.copyOf(next, capacity);
+        prev = Arrays.copyOf(prev, capacity);
+        slotOf = Arrays.copyOf(slotOf, capacity);
+        generation = Arrays.copyOf(generation, capacity);
+        expires = Arrays.copyOf(expires, capacity);
+        tasks = Arrays.copyOf(tasks, capacity);
+        for (int i = capacity - 1; i >= old; i--) {
+            slotOf[i] = FREE;
+            generation[i] = 1;
+            prev[i] = NIL;
+            next[i] = freeHead;
+            freeHead = i;
+        }
+    }
+}
@@ -39,7 +39,8 @@ public enum GameAction {
 
         // ===== SYSTEM =====
         CONSOLE,
-        PAUSE
+        PAUSE,
+        PROFILER
     }
     private final Map<GameAction, Integer> keyBindings;
 
@@ -81,6 +82,7 @@ private void load() {
         // ===== SYSTEM =====
         loadBinding(GameAction.CONSOLE, Input.Keys.GRAVE);
         loadBinding(GameAction.PAUSE, Input.Keys.ESCAPE);
+        loadBinding(GameAction.PROFILER, Input.Keys.F3);
 
     }
 
@@ -165,6 +167,7 @@ public void resetToDefaults() {
         // 通用
         // ======================
         setBinding(GameAction.CONSOLE, Input.Keys.GRAVE); // `
+        setBinding(GameAction.PROFILER, Input.Keys.F3);    // 帧分析叠加层
     }
 
 }
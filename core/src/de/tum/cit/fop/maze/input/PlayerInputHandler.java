@@ -14,182 +14,200 @@ public class PlayerInputHandler {
     private boolean movedLeft = false;
     private boolean movedRight = false;
 
-    private float moveTimer = 0f;
-    private float abilityCooldownP1 = 0f;
-    private float abilityCooldownP2 = 0f;
-
     private static final float ABILITY_COOLDOWN = 0.1f;
 
+    /**
+     * 每个玩家锁存的输入：按住的方向每帧刷新；"刚按下"的键一直保留到被某个模拟步消费，
+     * 一帧跑零步不会漏掉，一帧跑多步也只触发一次
+     */
+    private static final class Latch {
+        int dx, dy;
+        boolean ability, dash, interact;
+        float moveTimer;
+        float abilityCooldown;
+
+        void clearPresses() {
+            ability = dash = interact = false;
+        }
+    }
+
+    private final Latch p1 = new Latch();
+    private final Latch p2 = new Latch();
+    private boolean menuPressed;
+
     public PlayerInputHandler() {
         Logger.debug("PlayerInputHandler initialized");
     }
 
     /**
-     * ⚠️ 这是 GameScreen / BossFightScreen 真正调用的方法
+     * 每帧调用一次：读键盘 / 鼠标，记下按住的方向和刚按下的键
+     */
+    public void latch(InputHandlerCallback callback, boolean twoPlayer) {
+        var km = KeyBindingManager.getInstance();
+
+        if (Gdx.input.isKeyJustPressed(Input.Keys.ESCAPE)) {
+            menuPressed = true;
+        }
+
+        latchMovement(p1, km,
+                KeyBindingManager.GameAction.P1_MOVE_UP, KeyBindingManager.GameAction.P1_MOVE_DOWN,
+                KeyBindingManager.GameAction.P1_MOVE_LEFT, KeyBindingManager.GameAction.P1_MOVE_RIGHT);
+        if (twoPlayer) {
+            latchMovement(p2, km,
+                    KeyBindingManager.GameAction.P2_MOVE_UP, KeyBindingManager.GameAction.P2_MOVE_DOWN,
+                    KeyBindingManager.GameAction.P2_MOVE_LEFT, KeyBindingManager.GameAction.P2_MOVE_RIGHT);
+        }
+
+        // 🔒 UI 吃鼠标（例如点击升级按钮）→ 这一帧的按键不算游戏输入
+        if (callback.isUIConsumingMouse()) return;
+
+        p1.ability |= km.isJustPressed(KeyBindingManager.GameAction.P1_USE_ABILITY);
+        p1.dash |= km.isJustPressed(KeyBindingManager.GameAction.P1_DASH);
+        p1.interact |= km.isJustPressed(KeyBindingManager.GameAction.P1_INTERACT);
+        if (twoPlayer) {
+            p2.ability |= km.isJustPressed(KeyBindingManager.GameAction.P2_USE_ABILITY);
+            p2.dash |= km.isJustPressed(KeyBindingManager.GameAction.P2_DASH);
+            p2.interact |= km.isJustPressed(KeyBindingManager.GameAction.P2_INTERACT);
+        }
+    }
+
+    private static void latchMovement(
+            Latch latch,
+            KeyBindingManager km,
+            KeyBindingManager.GameAction up,
+            KeyBindingManager.GameAction down,
+            KeyBindingManager.GameAction left,
+            KeyBindingManager.GameAction right
+    ) {
+        latch.dx = 0;
+        latch.dy = 0;
+        if (km.isPressed(up)) {
+            latch.dy = 1;
+        } else if (km.isPressed(down)) {
+            latch.dy = -1;
+        } else if (km.isPressed(left)) {
+            latch.dx = -1;
+        } else if (km.isPressed(right)) {
+            latch.dx = 1;
+        }
+    }
+
+    /**
+     * 每个模拟步调用：按步长推进移动间隔和技能冷却，消费锁存的输入
      */
     public void update(
             float delta,
             InputHandlerCallback callback,
             Player.PlayerIndex index
     ) {
-        // ===============================
-        // 🔒 UI 吃输入 → 本帧彻底不处理任何 Gameplay Input
-        // ===============================
+        Latch latch = index == Player.PlayerIndex.P1 ? p1 : p2;
+
+        // 🔒 UI 吃输入 → 本步彻底不处理任何 Gameplay Input
         if (callback.isUIConsumingMouse()) {
-        // 如果 UI 正在通过 HUD 吃鼠标（例如点击升级按钮），则屏蔽游戏内输入
-        if (callback.isUIConsumingMouse())
+            latch.clearPresses();
             return;
         }
 
         // ===== 移动 =====
-        handleMovementInput(delta, callback, index);
+        handleMovementInput(delta, latch, callback, index);
 
         // ===== 技能 / Dash =====
-        handleAbilityInput(delta, callback, index);
+        handleAbilityInput(delta, latch, callback, index);
 
         // ===== 交互 & 菜单 =====
-        handleActionInput(callback, index);
-
+        handleActionInput(latch, callback, index);
+    }
 
+    /**
+     * 丢掉还没消费的按键（暂停、切关时调用，免得恢复后补触发）
+     */
+    public void clear() {
+        p1.clearPresses();
+        p2.clearPresses();
+        menuPressed = false;
     }
 
     /* ================= 移动 ================= */
 
     private void handleMovementInput(
             float delta,
+            Latch latch,
             InputHandlerCallback callback,
             Player.PlayerIndex index
     ) {
-        moveTimer += delta;
+        latch.moveTimer += delta;
 
         float moveDelay =
                 GameConstants.MOVE_DELAY_NORMAL * callback.getMoveDelayMultiplier();
 
-        if (moveTimer < moveDelay) return;
-        moveTimer -= moveDelay;
-
-        int dx = 0;
-        int dy = 0;
+        if (latch.moveTimer < moveDelay) return;
+        latch.moveTimer -= moveDelay;
 
-        var km = KeyBindingManager.getInstance();
+        int dx = latch.dx;
+        int dy = latch.dy;
+        if (dx == 0 && dy == 0) return;
 
         if (index == Player.PlayerIndex.P1) {
-            if (km.isPressed(KeyBindingManager.GameAction.P1_MOVE_UP)) {
-                dy = 1;
-                movedUp = true;
-            } else if (km.isPressed(KeyBindingManager.GameAction.P1_MOVE_DOWN)) {
-                dy = -1;
-                movedDown = true;
-            } else if (km.isPressed(KeyBindingManager.GameAction.P1_MOVE_LEFT)) {
-                dx = -1;
-                movedLeft = true;
-            } else if (km.isPressed(KeyBindingManager.GameAction.P1_MOVE_RIGHT)) {
-                dx = 1;
-                movedRight = true;
-            }
-
-        } else { // ===== P2 =====
-            if (km.isPressed(KeyBindingManager.GameAction.P2_MOVE_UP)) {
-                dy = 1;
-            } else if (km.isPressed(KeyBindingManager.GameAction.P2_MOVE_DOWN)) {
-                dy = -1;
-            } else if (km.isPressed(KeyBindingManager.GameAction.P2_MOVE_LEFT)) {
-                dx = -1;
-            } else if (km.isPressed(KeyBindingManager.GameAction.P2_MOVE_RIGHT)) {
-                dx = 1;
-            }
-        }
-
-        if (dx != 0 || dy != 0) {
-            callback.onMoveInput(index, dx, dy);
+            if (dy > 0) movedUp = true;
+            else if (dy < 0) movedDown = true;
+            else if (dx < 0) movedLeft = true;
+            else movedRight = true;
         }
+        callback.onMoveInput(index, dx, dy);
     }
 
     /* ================= 技能 / Dash ================= */
 
     private void handleAbilityInput(
             float delta,
+            Latch latch,
             InputHandlerCallback callback,
             Player.PlayerIndex index
     ){
-        // 🔒 UI 吃鼠标 → 本帧不允许任何技能
-        if (callback.isUIConsumingMouse()) {
-            return;
-        }
-        float cd = (index == Player.PlayerIndex.P1)
-                ? abilityCooldownP1
-                : abilityCooldownP2;
-
-        if (cd > 0f) {
-            if (index == Player.PlayerIndex.P1) {
-                abilityCooldownP1 -= delta;
-            } else {
-                abilityCooldownP2 -= delta;
-            }
+        boolean ability = latch.ability;
+        boolean dash = latch.dash;
+        latch.ability = false;
+        latch.dash = false;
+
+        // 冷却中按下的键直接作废
+        if (latch.abilityCooldown > 0f) {
+            latch.abilityCooldown -= delta;
             return;
         }
 
         boolean used = false;
-        var km = KeyBindingManager.getInstance();
 
-        if (index == Player.PlayerIndex.P1) {
-
-            // P1：Space = 技能 / 近战
-            if (km.isJustPressed(KeyBindingManager.GameAction.P1_USE_ABILITY)) {
-                used = callback.onAbilityInput(index, 0);
-            }
-
-            // P1：Shift = Dash
-            if (km.isJustPressed(KeyBindingManager.GameAction.P1_DASH)) {
-                used = callback.onAbilityInput(index, 1);
-            }
-
-        } else { // ===== P2 =====
-
-            // P2：鼠标左键 = 魔法技能
-            if (km.isJustPressed(KeyBindingManager.GameAction.P2_USE_ABILITY)) {
-                used = callback.onAbilityInput(index, 0);
-            }
-
-            // P2：鼠标右键 = Dash
-            if (km.isJustPressed(KeyBindingManager.GameAction.P2_DASH)) {
-                used = callback.onAbilityInput(index, 1);
-            }
+        // P1：Space = 技能 / 近战，Shift = Dash
+        // P2：鼠标左键 = 魔法技能，鼠标右键 = Dash
+        if (ability) {
+            used = callback.onAbilityInput(index, 0);
+        }
+        if (dash) {
+            used = callback.onAbilityInput(index, 1);
         }
 
         if (used) {
-            if (index == Player.PlayerIndex.P1) {
-                abilityCooldownP1 = ABILITY_COOLDOWN;
-            } else {
-                abilityCooldownP2 = ABILITY_COOLDOWN;
-            }
+            latch.abilityCooldown = ABILITY_COOLDOWN;
         }
     }
 
     /* ================= 交互 & 菜单 ================= */
 
     private void handleActionInput(
+            Latch latch,
             InputHandlerCallback callback,
             Player.PlayerIndex index
     ) {
-        var km = KeyBindingManager.getInstance();
-
         // 🔥 新增：菜单/暂停检测
         // 如果是 P1，且按下了 ESC，触发菜单回调
-        if (index == Player.PlayerIndex.P1) {
-            if (Gdx.input.isKeyJustPressed(Input.Keys.ESCAPE)) {
-                callback.onMenuInput();
-            }
+        if (index == Player.PlayerIndex.P1 && menuPressed) {
+            menuPressed = false;
+            callback.onMenuInput();
         }
 
-        if (index == Player.PlayerIndex.P1) {
-            if (km.isJustPressed(KeyBindingManager.GameAction.P1_INTERACT)) {
-                callback.onInteractInput(index);
-            }
-        } else {
-            if (km.isJustPressed(KeyBindingManager.GameAction.P2_INTERACT)) {
-                callback.onInteractInput(index);
-            }
+        if (latch.interact) {
+            latch.interact = false;
+            callback.onInteractInput(index);
         }
     }
 
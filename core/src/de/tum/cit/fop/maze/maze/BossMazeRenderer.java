@@ -25,6 +25,8 @@ public class BossMazeRenderer extends MazeRenderer {
     // 2 -> (5,6)
     // 3 -> (7,8)
     private TextureRegion[][] wallSkinPools;
+    /** 皮肤池里每张贴图预先切好的切片：[textureIndex][skin][i] */
+    private TextureRegion[][][] wallSkinSlices;
 
     public BossMazeRenderer(GameManager gm, DifficultyConfig difficultyConfig) {
         super(gm, difficultyConfig);
@@ -62,11 +64,19 @@ private void loadBossWallTextures() {
                 { regions.get(5), regions.get(6) },                 // group 2
                 { regions.get(7), regions.get(8) }                  // group 3
         };
+
+        wallSkinSlices = new TextureRegion[wallSkinPools.length][][];
+        for (int t = 0; t < wallSkinPools.length; t++) {
+            wallSkinSlices[t] = new TextureRegion[wallSkinPools[t].length][];
+            for (int k = 0; k < wallSkinPools[t].length; k++) {
+                wallSkinSlices[t][k] = sliceRegion(wallSkinPools[t][k], GROUP_LENGTHS[t]);
+            }
+        }
     }
 
     // ✅ 关键：给每个 WallGroup 一个“稳定随机”的 texture
     // 不能用 Math.random() 每帧抽，否则墙会闪
-    private TextureRegion pickStableTexture(WallGroup g) {
+    private int pickStableSkin(WallGroup g) {
         TextureRegion[] pool = wallSkinPools[g.textureIndex];
 
         // 用坐标 + 长度做 seed（保证同一段墙在一个迷宫里一直是同一张）
@@ -77,40 +87,24 @@ private TextureRegion pickStableTexture(WallGroup g) {
         seed ^= g.textureIndex; seed *= 1099511628211L;
 
         Random r = new Random(seed);
-        return pool[r.nextInt(pool.length)];
+        return r.nextInt(pool.length);
     }
 
     @Override
-    public void renderWallGroup(SpriteBatch batch, WallGroup g) {
-        float cs = GameConstants.CELL_SIZE;
-        float h  = cs * BOSS_WALL_HEIGHT_MULT;
-
-        // ✅ 不再用 “bossWallRegions[g.textureIndex]”
-        // ✅ 改成：从池子里稳定随机选一张
-        TextureRegion base = pickStableTexture(g);
-
-        float u0 = base.getU();
-        float u1 = base.getU2();
-        float v0 = base.getV();
-
-        float step = (u1 - u0) / g.length;
-
-        for (int i = 0; i < g.length; i++) {
-            TextureRegion slice = new TextureRegion(
-                    base.getTexture(),
-                    (int)((u0 + i * step) * base.getTexture().getWidth()),
-                    (int)(v0 * base.getTexture().getHeight()),
-                    (int)(step * base.getTexture().getWidth()),
-                    base.getRegionHeight()
-            );
-
-            batch.draw(
-                    slice,
-                    (g.startX + i) * cs,
-                    g.startY * cs - OVERLAP,
-                    cs,
-                    h
-            );
-        }
+    protected float getWallHeight() {
+        return GameConstants.CELL_SIZE * BOSS_WALL_HEIGHT_MULT;
+    }
+
+    @Override
+    protected float getWallOverlap() {
+        return OVERLAP;
+    }
+
+    // ✅ 不再用 “bossWallRegions[g.textureIndex]”
+    // ✅ 改成：从池子里稳定随机选一张（只在烘焙墙层时调用）
+    @Override
+    protected TextureRegion[] getWallSlices(WallGroup g) {
+        if (wallSkinSlices == null) return null;
+        return wallSkinSlices[g.textureIndex][pickStableSkin(g)];
     }
 }
@@ -6,11 +6,17 @@
 import de.tum.cit.fop.maze.game.GameConstants;
 import de.tum.cit.fop.maze.utils.Logger;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Random;
-import java.util.Stack;
-
+import java.util.concurrent.CancellationException;
+
+/**
+ * 迷宫生成器
+ * <p>
+ * 生成过程不再逐步分配对象：DFS 栈、BFS 队列和 visited 位图都是可复用的
+ * 原始数组，格子坐标打包成 {@code y * width + x} 存入 int。
+ * 同一个 seed + 同一份 DifficultyConfig 会生成完全相同的迷宫。
+ */
 public class MazeGenerator {
 
     // 新的单元格配置
@@ -19,15 +25,98 @@ public class MazeGenerator {
     private static final int PATH_WIDTH = 2;      // 道路宽度：2格
     private static final int PATH_HEIGHT = 3;     // 道路高度：3格
     public static final int BORDER_THICKNESS = 12;
-    private final Random random = new Random();
+
+    private static final int HORIZONTAL_STEP = PATH_WIDTH + WALL_WIDTH;
+    private static final int VERTICAL_STEP = PATH_HEIGHT + WALL_HEIGHT;
+
+    // 方向数组（每次移动 PATH_SIZE + WALL_SIZE 格）：上、右、下、左
+    private static final int[] DIR_X = {0, HORIZONTAL_STEP, 0, -HORIZONTAL_STEP};
+    private static final int[] DIR_Y = {VERTICAL_STEP, 0, -VERTICAL_STEP, 0};
+    private static final int[] DIR_BLOCK_X = {0, 1, 0, -1};
+    private static final int[] DIR_BLOCK_Y = {1, 0, -1, 0};
+
+    // 额外打通墙体、形成环路的概率
+    private static final float EXTRA_PATH_CHANCE = 0.19f;
+
+    private final Random random;
+    private long seed;
+
+    /* ===== 可复用的工作缓冲区（只增不减） ===== */
+    private int[] stack = new int[256];
+    private int[] queue = new int[256];
+    private long[] visited = new long[0];
+    private final int[] neighborDirs = new int[4];
+
+    /** 最近一次 generateMaze 的耗时（纳秒） */
+    private long lastGenerationNanos;
+
+    /** 后台生成时响应线程中断（Future.cancel(true)），见 {@link #setInterruptible} */
+    private boolean interruptible;
+    /** 距下一次检查中断还剩的循环次数 */
+    private int interruptCountdown;
+    private static final int INTERRUPT_CHECK_INTERVAL = 1024;
 
     public MazeGenerator() {
+        this(System.nanoTime());
+    }
+
+    public MazeGenerator(long seed) {
+        this.seed = seed;
+        this.random = new Random(seed);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * 重新设置种子，下一次 generateMaze 从该种子开始
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+        random.setSeed(seed);
+    }
+
+    /**
+     * 开启后，生成过程中当前线程被中断会抛出 {@link CancellationException}，
+     * 供后台预生成在被取消时尽快让出工作线程。渲染线程上的生成器不开启
+     */
+    public void setInterruptible(boolean interruptible) {
+        this.interruptible = interruptible;
+    }
+
+    private void checkInterrupted() {
+        if (interruptible && Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Maze generation interrupted");
+        }
+    }
 
+    /** 循环内调用：每 INTERRUPT_CHECK_INTERVAL 次才真正读一次中断标志 */
+    private void pollInterrupted() {
+        if (interruptible && --interruptCountdown <= 0) {
+            interruptCountdown = INTERRUPT_CHECK_INTERVAL;
+            checkInterrupted();
+        }
+    }
+
+    public long getLastGenerationNanos() {
+        return lastGenerationNanos;
+    }
+
+    public float getLastGenerationMillis() {
+        return lastGenerationNanos / 1_000_000f;
     }
 
+    /**
+     * 用指定种子生成迷宫（可复现）
+     */
+    public MazeGrid generateMaze(DifficultyConfig config, long seed) {
+        setSeed(seed);
+        return generateMaze(config);
+    }
 
-    public int[][] generateMaze(DifficultyConfig config) {
-        long startTime = System.currentTimeMillis();
+    public MazeGrid generateMaze(DifficultyConfig config) {
+        long startTime = System.nanoTime();
 
         // 计算调整后的尺寸
         int cellGroupWidth = PATH_WIDTH + WALL_WIDTH;
@@ -36,64 +125,48 @@ public int[][] generateMaze(DifficultyConfig config) {
         int adjustedWidth = adjustSize(config.mazeWidth, cellGroupWidth);
         int adjustedHeight = adjustSize(config.mazeHeight, cellGroupHeight);
 
-        int[][] maze = new int[adjustedHeight][adjustedWidth];
-
-        // 初始化迷宫，全部设为墙
-        for (int y = 0; y < adjustedHeight; y++) {
-            Arrays.fill(maze[y], 0);
-        }
-
-        // 确保边界是墙
-        for (int x = 0; x < adjustedWidth; x++) {
-            maze[0][x] = 0; // 上边界
-            maze[adjustedHeight - 1][x] = 0; // 下边界
-        }
-        for (int y = 0; y < adjustedHeight; y++) {
-            maze[y][0] = 0; // 左边界
-            maze[y][adjustedWidth - 1] = 0; // 右边界
-        }
+        // 初始化迷宫，全部设为墙（边界自然也是墙）
+        MazeGrid maze = new MazeGrid(adjustedWidth, adjustedHeight);
 
         // 使用新的DFS生成迷宫（基于3x3道路和1x2墙）
+        interruptCountdown = INTERRUPT_CHECK_INTERVAL;
         generate3x3PathDFS(maze);
-
+        checkInterrupted();
 
         // 添加更多通路（防止死胡同）
-        add3x3AdditionalPaths(maze, 0.19f);
+        add3x3AdditionalPaths(maze, EXTRA_PATH_CHANCE);
+        checkInterrupted();
 
         // 验证迷宫连通性
         validate3x3Maze(maze);
+        checkInterrupted();
 
         // 清理孤立的小墙块
         cleanupSmallWalls(maze);
 
-        long endTime = System.currentTimeMillis();
-
         addOuterBorderWalls(maze);
+
+        long endTime = System.nanoTime();
+        lastGenerationNanos = endTime - startTime;
+        Logger.debug("Maze " + adjustedWidth + "x" + adjustedHeight + " generated in "
+                + String.format("%.2f", getLastGenerationMillis()) + " ms (seed=" + seed + ")");
         return maze;
     }
 
     /**
      * 在迷宫四周生成固定厚度的外墙（用于主题贴图）
      */
-    private void addOuterBorderWalls(int[][] maze) {
-        int height = maze.length;
-        int width = maze[0].length;
+    private void addOuterBorderWalls(MazeGrid maze) {
+        int height = maze.getHeight();
+        int width = maze.getWidth();
 
         // 上下边界
-        for (int y = 0; y < BORDER_THICKNESS; y++) {
-            for (int x = 0; x < width; x++) {
-                maze[y][x] = 0;                     // 下
-                maze[height - 1 - y][x] = 0;        // 上
-            }
-        }
+        maze.fillRect(0, 0, width, BORDER_THICKNESS, 0);                        // 下
+        maze.fillRect(0, height - BORDER_THICKNESS, width, BORDER_THICKNESS, 0); // 上
 
         // 左右边界
-        for (int x = 0; x < BORDER_THICKNESS; x++) {
-            for (int y = 0; y < height; y++) {
-                maze[y][x] = 0;                     // 左
-                maze[y][width - 1 - x] = 0;         // 右
-            }
-        }
+        maze.fillRect(0, 0, BORDER_THICKNESS, height, 0);                       // 左
+        maze.fillRect(width - BORDER_THICKNESS, 0, BORDER_THICKNESS, height, 0); // 右
 
         Logger.debug("Applied outer border walls with thickness = " + BORDER_THICKNESS);
     }
@@ -113,119 +186,187 @@ private int adjustSize(int originalSize, int cellGroup) {
 
     /**
      * 生成基于3x3道路的DFS迷宫
+     * <p>
+     * 道路块落在固定的格点上：块 (bx, by) 的左下角是
+     * (BORDER + bx * HORIZONTAL_STEP, BORDER + by * VERTICAL_STEP)。
+     * DFS 打通中间墙时不会碰到未访问的块，所以“整块都是墙”等价于“未访问”，
+     * 直接用格点位图判断即可。栈里存打包后的块下标 (by * blocksX + bx)，
+     * 邻居候选放在固定的 int[4] 里，整个过程不分配任何对象。
      */
-    private void generate3x3PathDFS(int[][] maze) {
-        // 起始位置考虑墙的厚度
-        int startX = BORDER_THICKNESS;
-        int startY = BORDER_THICKNESS;
+    private void generate3x3PathDFS(MazeGrid maze) {
+        int blocksX = getBlocksX(maze);
+        int blocksY = getBlocksY(maze);
+        if (blocksX <= 0 || blocksY <= 0) return;
+        carveBlocks(maze, 0, 0, blocksX, blocksY);
+    }
 
-        Stack<int[]> stack = new Stack<>();
-        stack.push(new int[]{startX, startY});
+    /**
+     * 在块区域 [bx0, bx0 + blocksX) x [by0, by0 + blocksY) 内做 DFS，从区域左下角的块开始。
+     * 区域外的块不会被访问，也不会被打通。
+     */
+    private void carveBlocks(MazeGrid maze, int bx0, int by0, int blocksX, int blocksY) {
+        int blocks = blocksX * blocksY;
+        clearVisited(blocks);
+        if (stack.length < blocks) {
+            stack = new int[blocks];
+        }
 
-        // 标记起始3x3区域为通路
-        set3x3AreaAsPath(maze, startX, startY);
-
-        // 方向数组（每次移动 PATH_SIZE + WALL_SIZE 格）
-        int horizontalStep = PATH_WIDTH + WALL_WIDTH;
-        int verticalStep = PATH_HEIGHT + WALL_HEIGHT;
-
-        int[][] directions = {
-            {0, verticalStep},     // 上
-            {horizontalStep, 0},   // 右
-            {0, -verticalStep},    // 下
-            {-horizontalStep, 0}   // 左
-        };
-
-        while (!stack.isEmpty()) {
-            int[] current = stack.peek();
-            int x = current[0];
-            int y = current[1];
-
-            // 获取未访问的3x3邻居
-            ArrayList<int[]> unvisitedNeighbors = new ArrayList<>();
-
-            for (int[] dir : directions) {
-                int nx = x + dir[0];
-                int ny = y + dir[1];
-
-                // 检查是否在边界内且未被访问
-                if (canCreate3x3Path(maze, nx, ny)) {
-                    // 计算中间位置（墙区域）
-                    int midX = x + dir[0] / 2;
-                    int midY = y + dir[1] / 2;
-                    unvisitedNeighbors.add(new int[]{nx, ny, midX, midY});
-                }
-            }
+        // 起始位置考虑墙的厚度
+        int top = 0;
+        stack[top++] = 0;
+        visited[0] |= 1L;
 
-            if (!unvisitedNeighbors.isEmpty()) {
+        // 标记起始3x3区域为通路
+        set3x3AreaAsPath(maze, blockOriginX(bx0), blockOriginY(by0));
+
+        while (top > 0) {
+            pollInterrupted();
+            int current = stack[top - 1];
+            int bx = current % blocksX;
+            int by = current / blocksX;
+
+            // 获取未访问的3x3邻居（方向顺序：上、右、下、左）
+            int count = 0;
+            if (by + 1 < blocksY && !isVisited(current + blocksX)) neighborDirs[count++] = 0;
+            if (bx + 1 < blocksX && !isVisited(current + 1)) neighborDirs[count++] = 1;
+            if (by > 0 && !isVisited(current - blocksX)) neighborDirs[count++] = 2;
+            if (bx > 0 && !isVisited(current - 1)) neighborDirs[count++] = 3;
+
+            if (count > 0) {
                 // 随机选择一个邻居
-                int[] neighbor = unvisitedNeighbors.get(random.nextInt(unvisitedNeighbors.size()));
-                int nx = neighbor[0];
-                int ny = neighbor[1];
-                int midX = neighbor[2];
-                int midY = neighbor[3];
+                int d = neighborDirs[random.nextInt(count)];
+                int x = blockOriginX(bx0 + bx);
+                int y = blockOriginY(by0 + by);
 
                 // 打通中间区域（当前是墙，需要变成3x3道路）
-                set3x3AreaAsPath(maze, midX, midY);
+                set3x3AreaAsPath(maze, x + DIR_X[d] / 2, y + DIR_Y[d] / 2);
 
                 // 打通目标区域
-                set3x3AreaAsPath(maze, nx, ny);
+                set3x3AreaAsPath(maze, x + DIR_X[d], y + DIR_Y[d]);
 
-                stack.push(new int[]{nx, ny});
+                int next = current + DIR_BLOCK_X[d] + DIR_BLOCK_Y[d] * blocksX;
+                visited[next >>> 6] |= 1L << next;
+                stack[top++] = next;
             } else {
-                stack.pop();
+                top--;
             }
         }
     }
 
+    /* ================= 块格点 / 分区块生成（无尽模式） ================= */
+
+    public static int getBlocksX(MazeGrid maze) {
+        return blockCount(maze.getWidth(), PATH_WIDTH, HORIZONTAL_STEP);
+    }
+
+    public static int getBlocksY(MazeGrid maze) {
+        return blockCount(maze.getHeight(), PATH_HEIGHT, VERTICAL_STEP);
+    }
+
+    /** 块 bx 左下角的格子 x */
+    public static int blockOriginX(int bx) {
+        return BORDER_THICKNESS + bx * HORIZONTAL_STEP;
+    }
+
+    /** 块 by 左下角的格子 y */
+    public static int blockOriginY(int by) {
+        return BORDER_THICKNESS + by * VERTICAL_STEP;
+    }
+
+    /** 格子 x 所在（或左侧紧邻）的块下标，可能为负 */
+    public static int blockAtX(int x) {
+        return Math.floorDiv(x - BORDER_THICKNESS, HORIZONTAL_STEP);
+    }
+
+    public static int blockAtY(int y) {
+        return Math.floorDiv(y - BORDER_THICKNESS, VERTICAL_STEP);
+    }
+
     /**
-     * 检查是否可以在指定位置创建3x3通路
+     * 与 generateMaze 相同尺寸规则的全墙迷宫，供按区块逐步生成
      */
-    private boolean canCreate3x3Path(int[][] maze, int startX, int startY) {
-        int width = maze[0].length;
-        int height = maze.length;
-
-        // 检查边界
-        if (startX < BORDER_THICKNESS ||
-                startY < BORDER_THICKNESS ||
-                startX >= width - BORDER_THICKNESS - PATH_WIDTH ||
-                startY >= height - BORDER_THICKNESS - PATH_HEIGHT) {
-            return false;
-        }
+    public MazeGrid createEmptyMaze(DifficultyConfig config) {
+        int adjustedWidth = adjustSize(config.mazeWidth, HORIZONTAL_STEP);
+        int adjustedHeight = adjustSize(config.mazeHeight, VERTICAL_STEP);
+        return new MazeGrid(adjustedWidth, adjustedHeight);
+    }
+
+    /**
+     * 只生成一个块区域（区块）：区域内 DFS + 额外环路 + 清理小墙块。
+     * 同一 seed 总是得到相同的区块；区块之间的连通由 {@link #connectBlocks} 负责。
+     */
+    public void carveBlockRegion(MazeGrid maze, int bx0, int by0, int blocksX, int blocksY, long seed) {
+        if (blocksX <= 0 || blocksY <= 0) return;
+        random.setSeed(seed);
 
-        // 检查3x3区域是否都是墙（未访问）
-        for (int dy = 0; dy < PATH_HEIGHT; dy++) {
-            for (int dx = 0; dx < PATH_WIDTH; dx++) {
-                if (maze[startY + dy][startX + dx] != 0) {
-                    return false;
+        carveBlocks(maze, bx0, by0, blocksX, blocksY);
+
+        // 区域内部随机多打通一些相邻块，形成环路
+        for (int by = by0; by < by0 + blocksY; by++) {
+            for (int bx = bx0; bx < bx0 + blocksX; bx++) {
+                if (bx + 1 < bx0 + blocksX && random.nextFloat() < EXTRA_PATH_CHANCE) {
+                    connectBlocks(maze, bx, by, 1);
+                }
+                if (by + 1 < by0 + blocksY && random.nextFloat() < EXTRA_PATH_CHANCE) {
+                    connectBlocks(maze, bx, by, 0);
                 }
             }
         }
 
-        return true;
+        int x1 = Math.min(blockOriginX(bx0 + blocksX), maze.getWidth() - BORDER_THICKNESS);
+        int y1 = Math.min(blockOriginY(by0 + blocksY), maze.getHeight() - BORDER_THICKNESS);
+        cleanupSmallWalls(maze, blockOriginX(bx0), blockOriginY(by0), x1, y1);
     }
 
     /**
-     * 设置3x3区域为通路
+     * 打通块 (bx, by) 与其 dir 方向（0 上、1 右、2 下、3 左）相邻块之间的墙，并确保两块都是通路
      */
-    private void set3x3AreaAsPath(int[][] maze, int startX, int startY) {
-        for (int dy = 0; dy < PATH_HEIGHT; dy++) {
-            for (int dx = 0; dx < PATH_WIDTH; dx++) {
-                if (startY + dy < maze.length && startX + dx < maze[0].length) {
-                    maze[startY + dy][startX + dx] = 1;
-                }
-            }
+    public void connectBlocks(MazeGrid maze, int bx, int by, int dir) {
+        int x = blockOriginX(bx);
+        int y = blockOriginY(by);
+        set3x3AreaAsPath(maze, x, y);
+        set3x3AreaAsPath(maze, x + DIR_X[dir] / 2, y + DIR_Y[dir] / 2);
+        set3x3AreaAsPath(maze, x + DIR_X[dir], y + DIR_Y[dir]);
+    }
+
+    /**
+     * 某一维上可以放下多少个道路块：左下角需满足 BORDER <= pos < size - BORDER - pathSize
+     */
+    private static int blockCount(int size, int pathSize, int step) {
+        int limit = size - BORDER_THICKNESS - pathSize;
+        if (limit <= BORDER_THICKNESS) return 0;
+        return (limit - BORDER_THICKNESS + step - 1) / step;
+    }
+
+    private void clearVisited(int bitCount) {
+        int words = (bitCount + 63) >>> 6;
+        if (visited.length < words) {
+            visited = new long[words];
+        } else {
+            Arrays.fill(visited, 0, words, 0L);
         }
     }
 
+    private boolean isVisited(int index) {
+        return (visited[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * 设置3x3区域为通路
+     */
+    private void set3x3AreaAsPath(MazeGrid maze, int startX, int startY) {
+        // fillRect 会自动裁剪越界部分
+        maze.fillRect(startX, startY, PATH_WIDTH, PATH_HEIGHT, 1);
+    }
+
 
 
     /**
      * 确保起点和终点的3x3区域
      */
-    private void ensureStartEnd3x3Areas(int[][] maze) {
-        int width = maze[0].length;
-        int height = maze.length;
+    private void ensureStartEnd3x3Areas(MazeGrid maze) {
+        int width = maze.getWidth();
+        int height = maze.getHeight();
 
         // 起点区域（左下角）
         set3x3AreaAsPath(maze, WALL_WIDTH, WALL_HEIGHT);
@@ -242,18 +383,18 @@ private void ensureStartEnd3x3Areas(int[][] maze) {
     /**
      * 确保边界是墙 - 修复右上角问题
      */
-    private void ensureBoundaryWalls(int[][] maze) {
-        int width = maze[0].length;
-        int height = maze.length;
+    private void ensureBoundaryWalls(MazeGrid maze) {
+        int width = maze.getWidth();
+        int height = maze.getHeight();
 
         // 四周设置墙
         for (int x = 0; x < width; x++) {
-            maze[0][x] = 0; // 上边界
-            maze[height - 1][x] = 0; // 下边界
+            maze.set(x, 0, 0); // 上边界
+            maze.set(x, height - 1, 0); // 下边界
         }
         for (int y = 0; y < height; y++) {
-            maze[y][0] = 0; // 左边界
-            maze[y][width - 1] = 0; // 右边界
+            maze.set(0, y, 0); // 左边界
+            maze.set(width - 1, y, 0); // 右边界
         }
 
         // 修复：特别确保右上角区域是完整的墙
@@ -261,7 +402,7 @@ private void ensureBoundaryWalls(int[][] maze) {
         for (int y = height - 3; y < height; y++) {
             for (int x = width - 3; x < width; x++) {
                 if (y >= 0 && x >= 0) {
-                    maze[y][x] = 0;
+                    maze.set(x, y, 0);
                 }
             }
         }
@@ -272,9 +413,9 @@ private void ensureBoundaryWalls(int[][] maze) {
     /**
      * 确保通往起点和终点的路径
      */
-    private void ensurePathToStartEnd(int[][] maze) {
-        int width = maze[0].length;
-        int height = maze.length;
+    private void ensurePathToStartEnd(MazeGrid maze) {
+        int width = maze.getWidth();
+        int height = maze.getHeight();
 
         // 起点区域
         int startX = WALL_WIDTH;
@@ -288,7 +429,7 @@ private void ensurePathToStartEnd(int[][] maze) {
         if (startCenterX + 1 < width) {
             for (int x = startCenterX; x <= startCenterX + 2; x++) {
                 if (startCenterY < height) {
-                    maze[startCenterY][x] = 1;
+                    maze.set(x, startCenterY, 1);
                 }
             }
         }
@@ -297,7 +438,7 @@ private void ensurePathToStartEnd(int[][] maze) {
         if (startCenterY + 1 < height) {
             for (int y = startCenterY; y <= startCenterY + 2; y++) {
                 if (startCenterX < width) {
-                    maze[y][startCenterX] = 1;
+                    maze.set(startCenterX, y, 1);
                 }
             }
         }
@@ -312,7 +453,7 @@ private void ensurePathToStartEnd(int[][] maze) {
         if (endCenterX - 1 >= 0) {
             for (int x = endCenterX - 2; x <= endCenterX; x++) {
                 if (endCenterY < height) {
-                    maze[endCenterY][x] = 1;
+                    maze.set(x, endCenterY, 1);
                 }
             }
         }
@@ -321,7 +462,7 @@ private void ensurePathToStartEnd(int[][] maze) {
         if (endCenterY - 1 >= 0) {
             for (int y = endCenterY - 2; y <= endCenterY; y++) {
                 if (endCenterX < width) {
-                    maze[y][endCenterX] = 1;
+                    maze.set(endCenterX, y, 1);
                 }
             }
         }
@@ -330,37 +471,17 @@ private void ensurePathToStartEnd(int[][] maze) {
     /**
      * 为3x3迷宫添加额外通路
      */
-    private void add3x3AdditionalPaths(int[][] maze, float chance) {
-        int width = maze[0].length;
-        int height = maze.length;
+    private void add3x3AdditionalPaths(MazeGrid maze, float chance) {
+        int width = maze.getWidth();
+        int height = maze.getHeight();
         int pathsAdded = 0;
 
-        int horizontalStep = PATH_WIDTH + WALL_WIDTH;
-        int verticalStep = PATH_HEIGHT + WALL_HEIGHT;
-
-        for (int y = verticalStep; y < height - verticalStep; y += verticalStep) {
-            for (int x = horizontalStep; x < width - horizontalStep; x += horizontalStep) {
+        for (int y = VERTICAL_STEP; y < height - VERTICAL_STEP; y += VERTICAL_STEP) {
+            for (int x = HORIZONTAL_STEP; x < width - HORIZONTAL_STEP; x += HORIZONTAL_STEP) {
                 // 检查这个位置是否是墙区域
                 if (is1x2WallArea(maze, x, y)) {
                     // 检查周围是否有足够的通路
-                    int adjacentPaths = 0;
-
-                    // 检查各个方向
-                    int[][] checkDirs = {
-                        {0, -verticalStep}, {0, verticalStep},
-                        {-horizontalStep, 0}, {horizontalStep, 0}
-                    };
-
-                    for (int[] dir : checkDirs) {
-                        int checkX = x + dir[0];
-                        int checkY = y + dir[1];
-
-                        if (checkX >= 0 && checkX < width - PATH_WIDTH &&
-                            checkY >= 0 && checkY < height - PATH_HEIGHT &&
-                            is3x3PathArea(maze, checkX, checkY)) {
-                            adjacentPaths++;
-                        }
-                    }
+                    int adjacentPaths = countAdjacent3x3Paths(maze, x, y);
 
                     // 如果连接两个以上的通路区域，有几率打通
                     if (adjacentPaths >= 2 && random.nextFloat() < chance) {
@@ -375,14 +496,33 @@ private void add3x3AdditionalPaths(int[][] maze, float chance) {
         Logger.debug("Added " + pathsAdded + " additional 3x3 paths");
     }
 
+    /**
+     * 统计 (x, y) 上下左右相邻的完整 3x3 通路区域数量
+     */
+    private int countAdjacent3x3Paths(MazeGrid maze, int x, int y) {
+        int width = maze.getWidth();
+        int height = maze.getHeight();
+        int count = 0;
+        for (int d = 0; d < 4; d++) {
+            int checkX = x + DIR_X[d];
+            int checkY = y + DIR_Y[d];
+            if (checkX >= 0 && checkX < width - PATH_WIDTH &&
+                checkY >= 0 && checkY < height - PATH_HEIGHT &&
+                is3x3PathArea(maze, checkX, checkY)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
     /**
      * 检查是否是1x2墙区域
      */
-    private boolean is1x2WallArea(int[][] maze, int startX, int startY) {
+    private boolean is1x2WallArea(MazeGrid maze, int startX, int startY) {
         for (int dy = 0; dy < WALL_HEIGHT; dy++) {
             for (int dx = 0; dx < WALL_WIDTH; dx++) {
-                if (startY + dy < maze.length && startX + dx < maze[0].length) {
-                    if (maze[startY + dy][startX + dx] != 0) {
+                if (startY + dy < maze.getHeight() && startX + dx < maze.getWidth()) {
+                    if (maze.get(startX + dx, startY + dy) != 0) {
                         return false;
                     }
                 }
@@ -394,22 +534,14 @@ private boolean is1x2WallArea(int[][] maze, int startX, int startY) {
     /**
      * 检查是否是3x3通路区域
      */
-    private boolean is3x3PathArea(int[][] maze, int startX, int startY) {
-        for (int dy = 0; dy < PATH_HEIGHT; dy++) {
-            for (int dx = 0; dx < PATH_WIDTH; dx++) {
-                if (startY + dy >= maze.length || startX + dx >= maze[0].length ||
-                    maze[startY + dy][startX + dx] != 1) {
-                    return false;
-                }
-            }
-        }
-        return true;
+    private boolean is3x3PathArea(MazeGrid maze, int startX, int startY) {
+        return maze.isAreaAll(startX, startY, PATH_WIDTH, PATH_HEIGHT, 1);
     }
 
     /**
      * 将墙区域转换为道路
      */
-    private void convertWallToPath(int[][] maze, int wallX, int wallY) {
+    private void convertWallToPath(MazeGrid maze, int wallX, int wallY) {
         // 将墙区域扩展为3x3道路
         int pathX = Math.max(0, wallX - 1);
         int pathY = Math.max(0, wallY - 1);
@@ -419,9 +551,9 @@ private void convertWallToPath(int[][] maze, int wallX, int wallY) {
     /**
      * 验证3x3迷宫的连通性
      */
-    private void validate3x3Maze(int[][] maze) {
-        int width = maze[0].length;
-        int height = maze.length;
+    private void validate3x3Maze(MazeGrid maze) {
+        int width = maze.getWidth();
+        int height = maze.getHeight();
 
         // 起点和终点坐标
         int startX = WALL_WIDTH + 1;  // 起点区域的中心
@@ -438,35 +570,16 @@ private void validate3x3Maze(int[][] maze) {
     /**
      * 修复3x3迷宫的连通性
      */
-    private void fix3x3MazeConnectivity(int[][] maze) {
-        int width = maze[0].length;
-        int height = maze.length;
-
-        int horizontalStep = PATH_WIDTH + WALL_WIDTH;
-        int verticalStep = PATH_HEIGHT + WALL_HEIGHT;
+    private void fix3x3MazeConnectivity(MazeGrid maze) {
+        int width = maze.getWidth();
+        int height = maze.getHeight();
 
         // 尝试打通一些关键路径
-        for (int y = verticalStep; y < height - verticalStep; y += verticalStep) {
-            for (int x = horizontalStep; x < width - horizontalStep; x += horizontalStep) {
+        for (int y = VERTICAL_STEP; y < height - VERTICAL_STEP; y += VERTICAL_STEP) {
+            for (int x = HORIZONTAL_STEP; x < width - HORIZONTAL_STEP; x += HORIZONTAL_STEP) {
                 if (is1x2WallArea(maze, x, y)) {
                     // 检查是否连接多个区域
-                    int connectedRegions = 0;
-
-                    int[][] checkDirs = {
-                        {0, -verticalStep}, {0, verticalStep},
-                        {-horizontalStep, 0}, {horizontalStep, 0}
-                    };
-
-                    for (int[] dir : checkDirs) {
-                        int nx = x + dir[0];
-                        int ny = y + dir[1];
-
-                        if (nx >= 0 && nx < width - PATH_WIDTH &&
-                            ny >= 0 && ny < height - PATH_HEIGHT &&
-                            is3x3PathArea(maze, nx, ny)) {
-                            connectedRegions++;
-                        }
-                    }
+                    int connectedRegions = countAdjacent3x3Paths(maze, x, y);
 
                     if (connectedRegions >= 2) {
                         convertWallToPath(maze, x, y);
@@ -481,25 +594,51 @@ private void fix3x3MazeConnectivity(int[][] maze) {
     /**
      * 清理孤立的小墙块
      */
-    private void cleanupSmallWalls(int[][] maze) {
-        int width = maze[0].length;
-        int height = maze.length;
+    private void cleanupSmallWalls(MazeGrid maze) {
+        cleanupSmallWalls(maze, 1, 1, maze.getWidth() - 1, maze.getHeight() - 1);
+    }
+
+    /**
+     * 只清理 [x0, x1) x [y0, y1) 范围内的墙格（边界会被收缩到迷宫内圈）
+     */
+    private void cleanupSmallWalls(MazeGrid maze, int x0, int y0, int x1, int y1) {
+        int width = maze.getWidth();
+        int height = maze.getHeight();
+        x0 = Math.max(1, x0);
+        y0 = Math.max(1, y0);
+        x1 = Math.min(width - 1, x1);
+        y1 = Math.min(height - 1, y1);
+        if (x0 >= x1 || y0 >= y1) return;
         int cleaned = 0;
 
-        for (int y = 1; y < height - 1; y++) {
-            for (int x = 1; x < width - 1; x++) {
-                if (maze[y][x] == 0) {
-                    // 检查是否是孤立的小墙块
-                    int pathNeighbors = 0;
+        int wordsPerRow = maze.getWordsPerRow();
+
+        // 逐行、逐 64 位字处理：先用位运算筛出“上/下/右至少两个通路”的墙格，
+        // 再按从左到右的顺序逐个确认（左邻居可能刚被清理过），保证随机数消耗顺序不变
+        for (int y = y0; y < y1; y++) {
+            for (int wi = x0 >>> 6; wi <= (x1 - 1) >>> 6; wi++) {
+                long cur = maze.rowWord(y, wi);
+                long next = (wi + 1 < wordsPerRow) ? maze.rowWord(y, wi + 1) : 0L;
+                long up = maze.rowWord(y + 1, wi);
+                long down = maze.rowWord(y - 1, wi);
+                long right = (cur >>> 1) | (next << 63);
 
-                    if (maze[y-1][x] == 1) pathNeighbors++;
-                    if (maze[y+1][x] == 1) pathNeighbors++;
-                    if (maze[y][x-1] == 1) pathNeighbors++;
-                    if (maze[y][x+1] == 1) pathNeighbors++;
+                long suspects = ~cur & ((up & down) | (up & right) | (down & right));
+                long allThree = up & down & right;
+
+                while (suspects != 0) {
+                    int bit = Long.numberOfTrailingZeros(suspects);
+                    suspects &= suspects - 1;
+                    int x = (wi << 6) + bit;
+                    if (x < x0) continue;
+                    if (x >= x1) break;
+
+                    // 检查是否是孤立的小墙块（上下左右至少 3 个通路）
+                    boolean surrounded = ((allThree >>> bit) & 1L) != 0 || maze.isPath(x - 1, y);
 
                     // 如果小墙块被道路包围，清理它
-                    if (pathNeighbors >= 3 && random.nextFloat() < 0.7f) {
-                        maze[y][x] = 1;
+                    if (surrounded && random.nextFloat() < 0.7f) {
+                        maze.setPath(x, y);
                         cleaned++;
                     }
                 }
@@ -511,45 +650,54 @@ private void cleanupSmallWalls(int[][] maze) {
         }
     }
 
-    private boolean isPathReachable(int[][] maze, int startX, int startY, int endX, int endY) {
-        int width = maze[0].length;
-        int height = maze.length;
-
-        boolean[][] visited = new boolean[height][width];
-        java.util.Queue<int[]> queue = new java.util.LinkedList<>();
-
-        queue.offer(new int[]{startX, startY});
-        visited[startY][startX] = true;
-
-        int[][] directions = {{0, 1}, {1, 0}, {0, -1}, {-1, 0}};
-
-        while (!queue.isEmpty()) {
-            int[] current = queue.poll();
-            int x = current[0];
-            int y = current[1];
+    /**
+     * BFS 判断两点是否连通。队列为打包下标的 int 数组（每格最多入队一次），visited 为位图，均跨调用复用。
+     */
+    private boolean isPathReachable(MazeGrid maze, int startX, int startY, int endX, int endY) {
+        int width = maze.getWidth();
+        int height = maze.getHeight();
+        int cells = width * height;
+
+        clearVisited(cells);
+        if (queue.length < cells) {
+            queue = new int[cells];
+        }
 
-            if (x == endX && y == endY) {
+        int head = 0;
+        int tail = 0;
+        int start = startY * width + startX;
+        int end = endY * width + endX;
+        queue[tail++] = start;
+        visited[start >>> 6] |= 1L << start;
+
+        while (head < tail) {
+            pollInterrupted();
+            int current = queue[head++];
+            if (current == end) {
                 return true;
             }
-
-            for (int[] dir : directions) {
-                int nx = x + dir[0];
-                int ny = y + dir[1];
-
-                if (nx >= 0 && nx < width &&
-                    ny >= 0 && ny < height &&
-                    !visited[ny][nx] && maze[ny][nx] == 1) {
-                    visited[ny][nx] = true;
-                    queue.offer(new int[]{nx, ny});
-                }
-            }
+            int x = current % width;
+            int y = current / width;
+
+            // 上、右、下、左
+            if (y + 1 < height) tail = visit(maze, x, y + 1, current + width, tail);
+            if (x + 1 < width) tail = visit(maze, x + 1, y, current + 1, tail);
+            if (y > 0) tail = visit(maze, x, y - 1, current - width, tail);
+            if (x > 0) tail = visit(maze, x - 1, y, current - 1, tail);
         }
 
         return false;
     }
 
-    public static boolean isValidPosition(int[][] maze, int x, int y) {
-        if (x < 0 || x >= maze[0].length || y < 0 || y >= maze.length) {
+    private int visit(MazeGrid maze, int x, int y, int index, int tail) {
+        if (isVisited(index) || !maze.isPath(x, y)) return tail;
+        visited[index >>> 6] |= 1L << index;
+        queue[tail] = index;
+        return tail + 1;
+    }
+
+    public static boolean isValidPosition(MazeGrid maze, int x, int y) {
+        if (x < 0 || x >= maze.getWidth() || y < 0 || y >= maze.getHeight()) {
             return false;
         }
 
@@ -559,8 +707,8 @@ public static boolean isValidPosition(int[][] maze, int x, int y) {
             for (int dx = -1; dx <= 1; dx++) {
                 int nx = x + dx;
                 int ny = y + dy;
-                if (nx >= 0 && nx < maze[0].length && ny >= 0 && ny < maze.length) {
-                    if (maze[ny][nx] == 1) {
+                if (nx >= 0 && nx < maze.getWidth() && ny >= 0 && ny < maze.getHeight()) {
+                    if (maze.get(nx, ny) == 1) {
                         pathCount++;
                     }
                 }
@@ -571,28 +719,28 @@ public static boolean isValidPosition(int[][] maze, int x, int y) {
         return pathCount >= 5; // 3x3区域中至少5个是通路
     }
 
-    public static void printMazeForDebug(int[][] maze) {
+    public static void printMazeForDebug(MazeGrid maze) {
         StringBuilder sb = new StringBuilder();
         sb.append("\n=== 3x3 MAZE DEBUG ===\n");
 
         // 打印坐标轴
         sb.append("   ");
-        for (int x = 0; x < Math.min(maze[0].length, 50); x++) {
+        for (int x = 0; x < Math.min(maze.getWidth(), 50); x++) {
             sb.append(x % 10);
         }
         sb.append("\n");
 
-        for (int y = maze.length - 1; y >= Math.max(0, maze.length - 30); y--) {
+        for (int y = maze.getHeight() - 1; y >= Math.max(0, maze.getHeight() - 30); y--) {
             sb.append(String.format("%2d ", y));
-            for (int x = 0; x < Math.min(maze[0].length, 50); x++) {
+            for (int x = 0; x < Math.min(maze.getWidth(), 50); x++) {
                 // 用不同符号表示不同元素
-                if (maze[y][x] == 1) {
+                if (maze.get(x, y) == 1) {
                     // 通路：根据周围情况显示
                     int neighbors = 0;
-                    if (y > 0 && maze[y-1][x] == 1) neighbors++;
-                    if (y < maze.length-1 && maze[y+1][x] == 1) neighbors++;
-                    if (x > 0 && maze[y][x-1] == 1) neighbors++;
-                    if (x < maze[0].length-1 && maze[y][x+1] == 1) neighbors++;
+                    if (y > 0 && maze.get(x, y-1) == 1) neighbors++;
+                    if (y < maze.getHeight()-1 && maze.get(x, y+1) == 1) neighbors++;
+                    if (x > 0 && maze.get(x-1, y) == 1) neighbors++;
+                    if (x < maze.getWidth()-1 && maze.get(x+1, y) == 1) neighbors++;
 
                     if (neighbors >= 3) {
                         sb.append("╋"); // 十字路口
@@ -604,8 +752,8 @@ public static void printMazeForDebug(int[][] maze) {
                 } else {
                     // 墙：检查是否是高墙（1x2）
                     boolean isTallWall = false;
-                    if (y > 0 && maze[y-1][x] == 0) isTallWall = true;
-                    if (y < maze.length-1 && maze[y+1][x] == 0) isTallWall = true;
+                    if (y > 0 && maze.get(x, y-1) == 0) isTallWall = true;
+                    if (y < maze.getHeight()-1 && maze.get(x, y+1) == 0) isTallWall = true;
 
                     if (isTallWall) {
                         sb.append("█"); // 高墙
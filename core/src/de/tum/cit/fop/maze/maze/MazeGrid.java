@@ -0,0 +1,313 @@
+package de.tum.cit.fop.maze.maze;
+
+import java.util.Arrays;
+
+/**
+ * 迷宫格子数据 (Bit-packed Maze Grid)
+ * <p>
+ * 每个格子只有两种状态：0 = 墙，1 = 通路。
+ * 用 long[] 位图按行存储（行优先，每行对齐到 64 位字），
+ * 相比 int[][] 每格 4 字节 + 每行数组头，内存缩小 32 倍且对缓存友好。
+ * <p>
+ * 快照 (snapshot) 采用写时复制：快照与原对象共享底层位图，
+ * 任意一方第一次写入时才真正拷贝。
+ * <p>
+ * 线程：单个 MazeGrid 不是线程安全的，只能由一个线程写。
+ * 位图一旦被共享就不会再被原地修改（写入方总是先拷贝出自己的一份），
+ * 所以快照交给其他线程后可以放心只读；但 {@code bits} 不是 final 字段，
+ * 快照对象本身必须经由带 happens-before 的方式交出去
+ * （Future / ExecutorService 提交、ForkJoin 任务、volatile 字段、加锁），不能通过数据竞争发布。
+ */
+public final class MazeGrid {
+
+    private final int width;
+    private final int height;
+    private final int wordsPerRow;
+
+    private long[] bits;
+    /** true 表示 bits 可能被其他 MazeGrid 共享，写入前必须先拷贝 */
+    private boolean shared;
+    /** 每次写入递增，供渲染/寻路等缓存判断迷宫是否变化 */
+    private int version;
+
+    /**
+     * 创建一个全部为墙的迷宫
+     */
+    public MazeGrid(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("MazeGrid size must be positive: " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+        this.wordsPerRow = (width + 63) >>> 6;
+        this.bits = new long[wordsPerRow * height];
+    }
+
+    /**
+     * 从原始位图恢复（用于存档反序列化）
+     */
+    public MazeGrid(int width, int height, long[] words) {
+        this(width, height);
+        if (words.length != bits.length) {
+            throw new IllegalArgumentException("MazeGrid word count mismatch: " + words.length + " != " + bits.length);
+        }
+        System.arraycopy(words, 0, bits, 0, bits.length);
+        clearPadding();
+    }
+
+    private MazeGrid(MazeGrid src) {
+        this.width = src.width;
+        this.height = src.height;
+        this.wordsPerRow = src.wordsPerRow;
+        this.bits = src.bits;
+        this.shared = true;
+        this.version = src.version;
+    }
+
+    /* ================= 转换 ================= */
+
+    /**
+     * 兼容旧的 int[][] 迷宫（maze[y][x]，非 0 视为通路）
+     */
+    public static MazeGrid fromArray(int[][] maze) {
+        if (maze == null || maze.length == 0 || maze[0].length == 0) return null;
+        MazeGrid grid = new MazeGrid(maze[0].length, maze.length);
+        for (int y = 0; y < grid.height; y++) {
+            int[] row = maze[y];
+            int n = Math.min(row.length, grid.width);
+            int base = y * grid.wordsPerRow;
+            for (int x = 0; x < n; x++) {
+                if (row[x] != 0) grid.bits[base + (x >>> 6)] |= 1L << x;
+            }
+        }
+        return grid;
+    }
+
+    public int[][] toArray() {
+        int[][] maze = new int[height][width];
+        for (int y = 0; y < height; y++) {
+            int base = y * wordsPerRow;
+            for (int x = 0; x < width; x++) {
+                maze[y][x] = (int) ((bits[base + (x >>> 6)] >>> x) & 1L);
+            }
+        }
+        return maze;
+    }
+
+    /* ================= 读取 ================= */
+
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+    public int getWordsPerRow() { return wordsPerRow; }
+    public int getVersion() { return version; }
+
+    public boolean inBounds(int x, int y) {
+        return x >= 0 && y >= 0 && x < width && y < height;
+    }
+
+    /**
+     * 与旧 maze[y][x] 语义一致：1 = 通路，0 = 墙；越界视为墙
+     */
+    public int get(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) return 0;
+        return (int) ((bits[y * wordsPerRow + (x >>> 6)] >>> x) & 1L);
+    }
+
+    public boolean isPath(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) return false;
+        return (bits[y * wordsPerRow + (x >>> 6)] & (1L << x)) != 0;
+    }
+
+    public boolean isWall(int x, int y) {
+        return !isPath(x, y);
+    }
+
+    /**
+     * 第 y 行的第 wordIndex 个 64 位字（bit i 对应 x = wordIndex * 64 + i）
+     */
+    public long rowWord(int y, int wordIndex) {
+        return bits[y * wordsPerRow + wordIndex];
+    }
+
+    /**
+     * 从 fromX 开始向右找到第一个墙格；没有则返回 width
+     */
+    public int nextWall(int y, int fromX) {
+        return scan(y, fromX, true);
+    }
+
+    /**
+     * 从 fromX 开始向右找到第一个通路格；没有则返回 width
+     */
+    public int nextPath(int y, int fromX) {
+        return scan(y, fromX, false);
+    }
+
+    private int scan(int y, int fromX, boolean findWall) {
+        if (fromX < 0) fromX = 0;
+        if (y < 0 || y >= height || fromX >= width) return width;
+
+        int base = y * wordsPerRow;
+        int w = fromX >>> 6;
+        long word = bits[base + w];
+        if (findWall) word = ~word;
+        word &= -1L << fromX;
+
+        while (true) {
+            if (word != 0) {
+                int x = (w << 6) + Long.numberOfTrailingZeros(word);
+                return Math.min(x, width);
+            }
+            if (++w >= wordsPerRow) return width;
+            word = bits[base + w];
+            if (findWall) word = ~word;
+        }
+    }
+
+    /**
+     * 矩形区域内是否全部等于 value（按 64 位字整体比较）；越界部分视为墙
+     */
+    public boolean isAreaAll(int x, int y, int w, int h, int value) {
+        if (w <= 0 || h <= 0) return true;
+        if (x < 0 || y < 0 || x + w > width || y + h > height) {
+            // 越界格子是墙：只有在检查“全为墙”时才可能成立，逐格回退
+            for (int cy = y; cy < y + h; cy++) {
+                for (int cx = x; cx < x + w; cx++) {
+                    if (get(cx, cy) != value) return false;
+                }
+            }
+            return true;
+        }
+        int x1 = x + w;
+        for (int row = y; row < y + h; row++) {
+            int base = row * wordsPerRow;
+            for (int cx = x; cx < x1; ) {
+                int wi = cx >>> 6;
+                int end = Math.min(x1, (wi + 1) << 6);
+                long mask = (-1L << cx) & (end - (wi << 6) == 64 ? -1L : (1L << end) - 1);
+                long word = bits[base + wi] & mask;
+                if (value != 0 ? word != mask : word != 0) return false;
+                cx = end;
+            }
+        }
+        return true;
+    }
+
+    public int countPaths() {
+        int count = 0;
+        for (long word : bits) count += Long.bitCount(word);
+        return count;
+    }
+
+    /* ================= 写入 ================= */
+
+    public void set(int x, int y, int value) {
+        if (value != 0) setPath(x, y);
+        else setWall(x, y);
+    }
+
+    public void setPath(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) return;
+        int i = y * wordsPerRow + (x >>> 6);
+        long mask = 1L << x;
+        if ((bits[i] & mask) != 0) return;
+        ensureOwned();
+        bits[i] |= mask;
+        version++;
+    }
+
+    public void setWall(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) return;
+        int i = y * wordsPerRow + (x >>> 6);
+        long mask = 1L << x;
+        if ((bits[i] & mask) == 0) return;
+        ensureOwned();
+        bits[i] &= ~mask;
+        version++;
+    }
+
+    /**
+     * 把矩形区域设为同一个值（越界部分自动裁剪）
+     */
+    public void fillRect(int x, int y, int w, int h, int value) {
+        int x0 = Math.max(0, x);
+        int y0 = Math.max(0, y);
+        int x1 = Math.min(width, x + w);
+        int y1 = Math.min(height, y + h);
+        if (x0 >= x1 || y0 >= y1) return;
+
+        ensureOwned();
+        for (int row = y0; row < y1; row++) {
+            int base = row * wordsPerRow;
+            for (int cx = x0; cx < x1; ) {
+                int wi = cx >>> 6;
+                int end = Math.min(x1, (wi + 1) << 6);
+                long mask = (-1L << cx) & (end - (wi << 6) == 64 ? -1L : (1L << end) - 1);
+                if (value != 0) bits[base + wi] |= mask;
+                else bits[base + wi] &= ~mask;
+                cx = end;
+            }
+        }
+        version++;
+    }
+
+    public void fill(int value) {
+        fillRect(0, 0, width, height, value);
+    }
+
+    /* ================= 拷贝 ================= */
+
+    /**
+     * 写时复制快照：O(1)，共享底层位图直到任意一方写入。
+     * 只能在写入本迷宫的线程上调用；得到的快照可交给其他线程只读（发布方式见类注释）
+     */
+    public MazeGrid snapshot() {
+        shared = true;
+        return new MazeGrid(this);
+    }
+
+    /**
+     * 立即深拷贝
+     */
+    public MazeGrid copy() {
+        MazeGrid c = new MazeGrid(width, height);
+        System.arraycopy(bits, 0, c.bits, 0, bits.length);
+        c.version = version;
+        return c;
+    }
+
+    /**
+     * 原始位图的只读副本（用于序列化）
+     */
+    public long[] toWords() {
+        return Arrays.copyOf(bits, bits.length);
+    }
+
+    private void ensureOwned() {
+        if (shared) {
+            bits = Arrays.copyOf(bits, bits.length);
+            shared = false;
+        }
+    }
+
+    private void clearPadding() {
+        int tail = width & 63;
+        if (tail == 0) return;
+        long mask = (1L << tail) - 1;
+        for (int y = 0; y < height; y++) {
+            bits[y * wordsPerRow + wordsPerRow - 1] &= mask;
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof MazeGrid other)) return false;
+        return width == other.width && height == other.height && Arrays.equals(bits, other.bits);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * width + height) + Arrays.hashCode(bits);
+    }
+}
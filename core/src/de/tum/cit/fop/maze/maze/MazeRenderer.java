@@ -2,6 +2,7 @@
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureAtlas;
@@ -11,9 +12,12 @@
 import de.tum.cit.fop.maze.game.DifficultyConfig;
 import de.tum.cit.fop.maze.game.GameConstants;
 import de.tum.cit.fop.maze.game.GameManager;
+import de.tum.cit.fop.maze.game.GameRuntime;
 import de.tum.cit.fop.maze.utils.TextureManager;
+import de.tum.cit.fop.maze.utils.ViewCuller;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public class MazeRenderer {
@@ -21,7 +25,8 @@ public class MazeRenderer {
     private final GameManager gameManager;
     protected final DifficultyConfig difficultyConfig;
     private final TextureManager textureManager = TextureManager.getInstance();
-    private int[][] lastMazeRef = null;
+    private MazeGrid lastMazeRef = null;
+    private int lastMazeVersion = -1;
 
 
     /* ===== 地板 ===== */
@@ -30,9 +35,31 @@ public class MazeRenderer {
     /* ===== 墙 ===== */
     private TextureAtlas wallAtlas;
     private TextureRegion[] wallRegions;
+    /** 每种墙段按长度预先切好的 1 格切片：[textureIndex][i] */
+    private TextureRegion[][] wallSlices;
+
+    /** textureIndex 对应的墙段长度（见 splitWall） */
+    protected static final int[] GROUP_LENGTHS = {1, 2, 3, 5};
+    private static final int MAX_GROUP_LENGTH = 5;
 
     private boolean analyzed = false;
     private final List<WallGroup> wallGroups = new ArrayList<>();
+    /** 出口门所在格（墙段在这里断开），每次分析时重新收集 */
+    private int[] doorXs = new int[4];
+    private int[] doorYs = new int[4];
+    private int doorCount;
+
+    /* ===== 烘焙墙层 ===== */
+    /** 每块 CHUNK_SIZE x CHUNK_SIZE 格；墙段按起点格归属 */
+    static final int CHUNK_SIZE = 16;
+    /** 每个切片 4 个顶点 x (x, y, color, u, v)，与 SpriteBatch 的顶点格式一致 */
+    private static final int SPRITE_SIZE = 20;
+    private WallChunk[] chunks;
+    private int chunkCols, chunkRows;
+    private boolean[] rowHasWalls = new boolean[0];
+
+    /* ===== 前后遮挡 ===== */
+    private int minOccupiedRow = Integer.MAX_VALUE;
 
     /* ================================================= */
 
@@ -47,6 +74,24 @@ public WallGroup(int x, int y, int len, int tex) {
         }
     }
 
+    /**
+     * 一块墙的烘焙结果：顶点一次写好，之后每帧按行整段交给 SpriteBatch，不再逐片计算、分配
+     */
+    private static final class WallChunk {
+        List<WallGroup> groups = new ArrayList<>();
+        List<WallGroup> scratch = new ArrayList<>();
+        boolean dirty = true;
+
+        float[] vertices = new float[0];
+        /** 连续、同一张纹理的一段切片 */
+        Texture[] runTextures = new Texture[4];
+        int[] runOffsets = new int[4];
+        int[] runLengths = new int[4];
+        int runCount;
+        /** 第 r 行（块内）的段是 [rowFirstRun[r], rowFirstRun[r + 1]) */
+        final int[] rowFirstRun = new int[CHUNK_SIZE + 1];
+    }
+
     public MazeRenderer(GameManager gm, DifficultyConfig difficultyConfig) {
         this.gameManager = gm;
         this.difficultyConfig = difficultyConfig;
@@ -56,6 +101,7 @@ public MazeRenderer(GameManager gm, DifficultyConfig difficultyConfig) {
     /* ================= 纹理加载 ================= */
 
     private void loadTextures() {
+        if (GameRuntime.isHeadless()) return; // 无头模式（基准测试）只用墙分析
         floorTexture = textureManager.getFloorTexture();
 
         FileHandle fh = Gdx.files.internal("Wallpaper/Wallpaper.atlas");
@@ -65,11 +111,34 @@ private void loadTextures() {
                 wallAtlas.findRegions("Wallpaper");
 
         wallRegions = new TextureRegion[4];
+        wallSlices = new TextureRegion[4][];
         for (int i = 0; i < 4; i++) {
             wallRegions[i] = regions.get(i % regions.size);
+            wallSlices[i] = sliceRegion(wallRegions[i], GROUP_LENGTHS[i]);
         }
     }
 
+    /**
+     * 把整张墙贴图横向切成 parts 片（按整像素取整，和原来逐帧切的结果一致）
+     */
+    protected static TextureRegion[] sliceRegion(TextureRegion base, int parts) {
+        Texture tex = base.getTexture();
+        float u0 = base.getU();
+        float step = (base.getU2() - u0) / parts;
+
+        TextureRegion[] slices = new TextureRegion[parts];
+        for (int i = 0; i < parts; i++) {
+            slices[i] = new TextureRegion(
+                    tex,
+                    (int) ((u0 + i * step) * tex.getWidth()),
+                    (int) (base.getV() * tex.getHeight()),
+                    (int) (step * tex.getWidth()),
+                    base.getRegionHeight()
+            );
+        }
+        return slices;
+    }
+
     /* ================= 地板 ================= */
 
     public void renderFloor(SpriteBatch batch) {
@@ -86,132 +155,345 @@ public void renderFloor(SpriteBatch batch) {
     private void analyze() {
         wallGroups.clear();
 
-        int[][] maze = gameManager.getMaze();
+        MazeGrid maze = gameManager.getMaze();
         if (maze == null) return;
 
-        for (int y = 0; y < maze.length; y++) {
-            int x = 0;
-            while (x < maze[y].length) {
-
-                if (!isWallCellButNotExit(x, y)) {
-                    x++;
-                    continue;
+        // 出口门视为“非墙”：墙段在门所在格断开
+        collectDoorCells();
+
+        // 后台预生成关卡时已按原始迷宫扫好的墙段：没有门的行直接沿用，有门的行重扫
+        List<WallGroup> prepared = gameManager.takePreparedWalls(maze);
+        int next = 0;
+        for (int y = 0; y < maze.getHeight(); y++) {
+            boolean doorRow = rowHasDoor(y);
+            if (prepared != null) {
+                while (next < prepared.size() && prepared.get(next).startY == y) {
+                    if (!doorRow) wallGroups.add(prepared.get(next));
+                    next++;
                 }
+                if (!doorRow) continue;
+            }
+            if (doorRow) {
+                scanDoorRow(maze, y);
+            } else {
+                scanWallRow(maze, y, wallGroups);
+            }
+        }
 
-                int startX = x;
-                int len = 0;
+        indexChunks(maze.getWidth(), maze.getHeight());
+        analyzed = true;
+    }
 
-                while (x < maze[y].length && isWallCellButNotExit(x, y)) {
-                    len++;
-                    x++;
-                }
+    /**
+     * 按行、再按 x 扫出整张迷宫的墙段（不考虑出口门）。不依赖纹理和游戏状态，可以在后台线程调用
+     */
+    public static List<WallGroup> scanWalls(MazeGrid maze) {
+        List<WallGroup> out = new ArrayList<>();
+        for (int y = 0; y < maze.getHeight(); y++) {
+            scanWallRow(maze, y, out);
+        }
+        return out;
+    }
+
+    /**
+     * 扫描一行：整行按位找出连续墙段再切分
+     */
+    private static void scanWallRow(MazeGrid maze, int y, List<WallGroup> out) {
+        int width = maze.getWidth();
+        int x = maze.nextWall(y, 0);
+        while (x < width) {
+            int end = maze.nextPath(y, x);
+            splitWall(out, x, y, end - x);
+            x = maze.nextWall(y, end);
+        }
+    }
 
-                splitWall(startX, y, len);
+    /**
+     * 有出口门的行：同 scanWallRow，但墙段在门所在格断开
+     */
+    private void scanDoorRow(MazeGrid maze, int y) {
+        int width = maze.getWidth();
+        int x = maze.nextWall(y, 0);
+        while (x < width) {
+            int end = maze.nextPath(y, x);
+            int start = x;
+            for (int cx = x; cx < end; cx++) {
+                if (!isDoorCell(cx, y)) continue;
+                if (cx > start) splitWall(wallGroups, start, y, cx - start);
+                start = cx + 1;
             }
+            if (end > start) splitWall(wallGroups, start, y, end - start);
+            x = maze.nextWall(y, end);
         }
+    }
 
-        analyzed = true;
+    private void collectDoorCells() {
+        doorCount = 0;
+        for (ExitDoor door : gameManager.getExitDoors()) {
+            if (door == null) continue;
+            if (doorCount == doorXs.length) {
+                doorXs = Arrays.copyOf(doorXs, doorCount * 2);
+                doorYs = Arrays.copyOf(doorYs, doorCount * 2);
+            }
+            doorXs[doorCount] = door.getX();
+            doorYs[doorCount] = door.getY();
+            doorCount++;
+        }
     }
 
+    private boolean rowHasDoor(int y) {
+        for (int i = 0; i < doorCount; i++) {
+            if (doorYs[i] == y) return true;
+        }
+        return false;
+    }
+
+    private boolean isDoorCell(int x, int y) {
+        for (int i = 0; i < doorCount; i++) {
+            if (doorXs[i] == x && doorYs[i] == y) return true;
+        }
+        return false;
+    }
 
     /**
-     * ✅ 核心判断：
-     * 是墙，并且不是出口门
+     * 把墙段分到各块；墙段和上次完全相同的块保留烘焙结果，其余标记为待重建
      */
-    private boolean isWallCellButNotExit(int x, int y) {
-        return gameManager.getMaze()[y][x] == 0
-                && !gameManager.isExitDoorAt(x, y);
+    private void indexChunks(int width, int height) {
+        int cols = (width + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        int rows = (height + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        if (chunks == null || cols != chunkCols || rows != chunkRows) {
+            chunks = new WallChunk[cols * rows];
+            for (int i = 0; i < chunks.length; i++) chunks[i] = new WallChunk();
+            chunkCols = cols;
+            chunkRows = rows;
+        }
+        if (rowHasWalls.length != height) rowHasWalls = new boolean[height];
+        else Arrays.fill(rowHasWalls, false);
+
+        for (WallChunk c : chunks) c.scratch.clear();
+        for (WallGroup g : wallGroups) {
+            chunks[(g.startY / CHUNK_SIZE) * chunkCols + g.startX / CHUNK_SIZE].scratch.add(g);
+            rowHasWalls[g.startY] = true;
+        }
+        for (WallChunk c : chunks) {
+            if (!sameLayout(c.groups, c.scratch)) c.dirty = true;
+            List<WallGroup> t = c.groups;
+            c.groups = c.scratch;
+            c.scratch = t;
+        }
+    }
+
+    private static boolean sameLayout(List<WallGroup> a, List<WallGroup> b) {
+        if (a.size() != b.size()) return false;
+        for (int i = 0; i < a.size(); i++) {
+            WallGroup x = a.get(i), y = b.get(i);
+            if (x.startX != y.startX || x.startY != y.startY
+                    || x.length != y.length || x.textureIndex != y.textureIndex) return false;
+        }
+        return true;
     }
 
-    private void splitWall(int x, int y, int len) {
+    private static void splitWall(List<WallGroup> out, int x, int y, int len) {
         int cx = x;
         int remain = len;
 
         while (remain > 0) {
             if (remain >= 5) {
-                wallGroups.add(new WallGroup(cx, y, 5, 3));
+                out.add(new WallGroup(cx, y, 5, 3));
                 cx += 5;
                 remain -= 5;
             } else if (remain == 4) {
-                wallGroups.add(new WallGroup(cx, y, 2, 1));
-                wallGroups.add(new WallGroup(cx + 2, y, 2, 1));
+                out.add(new WallGroup(cx, y, 2, 1));
+                out.add(new WallGroup(cx + 2, y, 2, 1));
                 return;
             } else if (remain >= 3) {
-                wallGroups.add(new WallGroup(cx, y, 3, 2));
+                out.add(new WallGroup(cx, y, 3, 2));
                 cx += 3;
                 remain -= 3;
             } else if (remain == 2) {
-                wallGroups.add(new WallGroup(cx, y, 2, 1));
+                out.add(new WallGroup(cx, y, 2, 1));
                 return;
             } else {
-                wallGroups.add(new WallGroup(cx, y, 1, 0));
+                out.add(new WallGroup(cx, y, 1, 0));
                 return;
             }
         }
     }
 
     public List<WallGroup> getWallGroups() {
-        int[][] currentMaze = gameManager.getMaze();
+        ensureAnalyzed();
+        return wallGroups;
+    }
 
-        // 🔥 迷宫引用变了 → 强制重新分析
-        if (!analyzed || currentMaze != lastMazeRef) {
+    private void ensureAnalyzed() {
+        MazeGrid currentMaze = gameManager.getMaze();
+
+        // 🔥 迷宫引用变了 / 迷宫内容被改写 → 强制重新分析
+        if (!analyzed || currentMaze != lastMazeRef
+                || (currentMaze != null && currentMaze.getVersion() != lastMazeVersion)) {
             analyze();
             lastMazeRef = currentMaze;
+            lastMazeVersion = currentMaze != null ? currentMaze.getVersion() : -1;
         }
+    }
 
-        return wallGroups;
+    /**
+     * 这一行有没有墙（越界返回 false）
+     */
+    public boolean hasWallsInRow(int y) {
+        ensureAnalyzed();
+        return y >= 0 && y < rowHasWalls.length && rowHasWalls[y];
     }
 
 
     /* ================= 前后遮挡判断 ================= */
 
-    public boolean isWallInFrontOfAnyEntity(int wx, int wy) {
+    /**
+     * 每帧一次：记下玩家、活着的敌人和出口门里最低的一行
+     */
+    public void updateOcclusion() {
+        int min = Integer.MAX_VALUE;
+
         var p = gameManager.getPlayer();
-        if (p != null && wy > p.getY()) return true;
+        if (p != null) min = p.getY();
 
         for (var e : gameManager.getEnemies()) {
-            if (e.isActive() && wy > e.getY()) return true;
+            if (e.isActive() && e.getY() < min) min = e.getY();
         }
 
         for (ExitDoor d : gameManager.getExitDoors()) {
-            if (wy > d.getY()) return true;
+            if (d.getY() < min) min = d.getY();
         }
 
-        return false;
+        minOccupiedRow = min;
+    }
+
+    /**
+     * 第 wy 行的墙是否要画在同一行的实体前面：只要有实体站在更低的行就是（O(1)，先 {@link #updateOcclusion()}）
+     */
+    public boolean isWallRowInFrontOfAnyEntity(int wy) {
+        return wy > minOccupiedRow;
     }
 
     /* ================= 墙绘制 ================= */
 
-    public void renderWallGroup(SpriteBatch batch, WallGroup g) {
-        float cs = GameConstants.CELL_SIZE;
-        float h = cs * 2.4f;//目前测试下来这个最好看
-        int overlap = 6;
+    /** 墙贴图高度：目前测试下来 2.4 格最好看 */
+    protected float getWallHeight() {
+        return GameConstants.CELL_SIZE * 2.4f;
+    }
 
-        TextureRegion base = wallRegions[g.textureIndex];
+    /** 墙贴图从格子下沿往下多画的像素 */
+    protected float getWallOverlap() {
+        return 6;
+    }
 
-        float u0 = base.getU();
-        float u1 = base.getU2();
-        float v0 = base.getV();
+    /**
+     * 墙段每一格用的切片；子类可以换皮肤，但同一段墙必须每次返回同一组
+     * @return null 表示没有纹理（无头模式）
+     */
+    protected TextureRegion[] getWallSlices(WallGroup g) {
+        return wallSlices != null ? wallSlices[g.textureIndex] : null;
+    }
 
-        float step = (u1 - u0) / g.length;
+    /**
+     * 画第 y 行的墙：只画与视野相交的块，每块的这一行是一两段现成的顶点
+     * @param view 为 null 时不裁剪
+     */
+    public void renderWallRow(SpriteBatch batch, int y, ViewCuller view) {
+        if (!hasWallsInRow(y)) return;
+        int cy = y / CHUNK_SIZE;
+        int local = y - cy * CHUNK_SIZE;
+
+        for (int cx = 0; cx < chunkCols; cx++) {
+            int x0 = cx * CHUNK_SIZE;
+            // 墙段从块内起步，最长伸出块外 MAX_GROUP_LENGTH - 1 格
+            if (view != null && !view.isCellRangeVisible(x0, y, x0 + CHUNK_SIZE + MAX_GROUP_LENGTH - 2, y)) continue;
+
+            WallChunk c = chunks[cy * chunkCols + cx];
+            if (c.groups.isEmpty()) continue;
+            if (c.dirty && !bake(c)) return;
+
+            for (int r = c.rowFirstRun[local]; r < c.rowFirstRun[local + 1]; r++) {
+                batch.draw(c.runTextures[r], c.vertices, c.runOffsets[r], c.runLengths[r]);
+            }
+        }
+    }
 
-        for (int i = 0; i < g.length; i++) {
-            TextureRegion slice = new TextureRegion(
-                    base.getTexture(),
-                    (int) ((u0 + i * step) * base.getTexture().getWidth()),
-                    (int) (v0 * base.getTexture().getHeight()),
-                    (int) (step * base.getTexture().getWidth()),
-                    base.getRegionHeight()
-            );
+    /**
+     * 按从下到上的行序画整张图的墙（不和实体排序的场景用）
+     */
+    public void renderWalls(SpriteBatch batch, ViewCuller view) {
+        ensureAnalyzed();
+        for (int y = 0; y < rowHasWalls.length; y++) {
+            renderWallRow(batch, y, view);
+        }
+    }
 
-            batch.draw(
-                    slice,
-                    (g.startX + i) * cs,
-                    g.startY * cs - overlap,
-                    cs,
-                    h
-            );
+    /**
+     * 重建一块的顶点
+     * @return 没有纹理时返回 false
+     */
+    private boolean bake(WallChunk c) {
+        float cs = GameConstants.CELL_SIZE;
+        float h = getWallHeight();
+        float overlap = getWallOverlap();
+        float color = Color.WHITE_FLOAT_BITS;
+
+        int sprites = 0;
+        for (WallGroup g : c.groups) sprites += g.length;
+        if (c.vertices.length < sprites * SPRITE_SIZE) c.vertices = new float[sprites * SPRITE_SIZE];
+
+        float[] v = c.vertices;
+        int idx = 0;
+        int gi = 0;
+        c.runCount = 0;
+        int chunkY = c.groups.get(0).startY / CHUNK_SIZE * CHUNK_SIZE;
+
+        for (int row = 0; row < CHUNK_SIZE; row++) {
+            c.rowFirstRun[row] = c.runCount;
+            boolean rowStarted = false;
+
+            // groups 按行、再按 x 排好（analyze 的扫描顺序）
+            while (gi < c.groups.size() && c.groups.get(gi).startY == chunkY + row) {
+                WallGroup g = c.groups.get(gi++);
+                TextureRegion[] slices = getWallSlices(g);
+                if (slices == null) return false;
+
+                float y = g.startY * cs - overlap;
+                float y2 = y + h;
+                for (int i = 0; i < g.length; i++) {
+                    TextureRegion s = slices[i];
+                    if (!rowStarted || c.runTextures[c.runCount - 1] != s.getTexture()) {
+                        startRun(c, s.getTexture(), idx);
+                        rowStarted = true;
+                    }
+                    float x = (g.startX + i) * cs;
+                    float x2 = x + cs;
+
+                    v[idx++] = x;  v[idx++] = y;  v[idx++] = color; v[idx++] = s.getU();  v[idx++] = s.getV2();
+                    v[idx++] = x;  v[idx++] = y2; v[idx++] = color; v[idx++] = s.getU();  v[idx++] = s.getV();
+                    v[idx++] = x2; v[idx++] = y2; v[idx++] = color; v[idx++] = s.getU2(); v[idx++] = s.getV();
+                    v[idx++] = x2; v[idx++] = y;  v[idx++] = color; v[idx++] = s.getU2(); v[idx++] = s.getV2();
+                    c.runLengths[c.runCount - 1] += SPRITE_SIZE;
+                }
+            }
+        }
+        c.rowFirstRun[CHUNK_SIZE] = c.runCount;
+        c.dirty = false;
+        return true;
+    }
+
+    private static void startRun(WallChunk c, Texture texture, int offset) {
+        if (c.runCount == c.runTextures.length) {
+            int n = c.runCount * 2;
+            c.runTextures = Arrays.copyOf(c.runTextures, n);
+            c.runOffsets = Arrays.copyOf(c.runOffsets, n);
+            c.runLengths = Arrays.copyOf(c.runLengths, n);
         }
+        c.runTextures[c.runCount] = texture;
+        c.runOffsets[c.runCount] = offset;
+        c.runLengths[c.runCount] = 0;
+        c.runCount++;
     }
 
     public void dispose() {
@@ -0,0 +1,90 @@
+package de.tum.cit.fop.maze.maze;
+
+/**
+ * 一次寻路请求的句柄 (Path Request)
+ * <p>
+ * 由 {@link PathfindingService#request} 返回。命中缓存时立即完成；
+ * 否则排队，在之后若干帧内按节点预算逐步搜索，调用方每帧查看 {@link #isDone()} 即可。
+ * <p>
+ * 路径以逐格展开的格子序列保存，调用方用 {@link #nextStep(int, int)} 沿路径前进。
+ */
+public final class PathRequest {
+
+    public enum Status {
+        PENDING,
+        FOUND,
+        NO_PATH,
+        CANCELLED
+    }
+
+    final int startX;
+    final int startY;
+    final int goalX;
+    final int goalY;
+    final int size;
+
+    Status status = Status.PENDING;
+
+    /** 路径格子（y * width + x），cells[0] 为起点 */
+    int[] cells;
+    int length;
+    int width;
+    /** 下一次查找的起始下标，路径只会向前走 */
+    private int cursor;
+
+    PathRequest(int startX, int startY, int goalX, int goalY, int size) {
+        this.startX = startX;
+        this.startY = startY;
+        this.goalX = goalX;
+        this.goalY = goalY;
+        this.size = size;
+    }
+
+    void complete(int[] cells, int offset, int length, int width) {
+        this.cells = cells;
+        this.cursor = offset;
+        this.length = length;
+        this.width = width;
+        this.status = Status.FOUND;
+    }
+
+    public Status getStatus() { return status; }
+    public boolean isDone() { return status != Status.PENDING; }
+    public boolean isFound() { return status == Status.FOUND; }
+
+    public int getStartX() { return startX; }
+    public int getStartY() { return startY; }
+    public int getGoalX() { return goalX; }
+    public int getGoalY() { return goalY; }
+    public int getSize() { return size; }
+
+    /** 剩余步数（未找到时为 0） */
+    public int getRemainingSteps() {
+        return isFound() ? Math.max(0, length - 1 - cursor) : 0;
+    }
+
+    public boolean matches(int goalX, int goalY, int size) {
+        return this.goalX == goalX && this.goalY == goalY && this.size == size;
+    }
+
+    /**
+     * 从 (x, y) 沿路径再走一步的方向（{@link PathfindingService#DIR_X} 的下标）。
+     * 已到终点、(x, y) 不在剩余路径上或路径不可用时返回 {@link PathfindingService#NO_STEP}
+     */
+    public int nextStep(int x, int y) {
+        if (!isFound()) return PathfindingService.NO_STEP;
+        int here = y * width + x;
+        for (int i = cursor; i < length - 1; i++) {
+            if (cells[i] != here) continue;
+            cursor = i;
+            int next = cells[i + 1];
+            int dx = next % width - x;
+            int dy = next / width - y;
+            for (int d = 0; d < 4; d++) {
+                if (PathfindingService.DIR_X[d] == dx && PathfindingService.DIR_Y[d] == dy) return d;
+            }
+            return PathfindingService.NO_STEP;
+        }
+        return PathfindingService.NO_STEP;
+    }
+}
@@ -0,0 +1,549 @@
+package de.tum.cit.fop.maze.maze;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 点对点寻路服务 (Jump Point Search Pathfinding)
+ * <p>
+ * 在 {@link MazeGrid} 上做四连通的 JPS：直线段上不逐格入堆，只在"跳点"处停下，
+ * 迷宫里大段走廊的搜索量因此远小于普通 A*。
+ * <ul>
+ *   <li>净空图 (clearance)：每格记录以它为左下角、全是通路的最大正方形边长，
+ *       多格实体（如 2x2 的 E04）按自身尺寸寻路，不会卡进 1 格宽的缝里。</li>
+ *   <li>路径缓存：按 (起点区域, 终点, 尺寸) 缓存；同区域内其他起点只要落在缓存路径上就直接复用后半段。
+ *       障碍物移动时调用 {@link #invalidateRegion} 只丢弃经过该区域的路径。</li>
+ *   <li>节点预算：请求先排队，{@link #update()} 每帧最多消耗 {@link #getNodeBudget()} 个节点，
+ *       搜索可以跨帧继续，寻路永远不会把一帧拖长。</li>
+ * </ul>
+ * 只在渲染线程使用，非线程安全。
+ */
+public final class PathfindingService {
+
+    /** 动态阻挡（机关、移动墙、出口门等），由游戏层提供 */
+    @FunctionalInterface
+    public interface CellBlocker {
+        boolean isBlocked(int x, int y);
+    }
+
+    public static final int NO_STEP = -1;
+    /** 方向顺序与 Enemy.CARDINAL_DIRS 一致：右、左、上、下 */
+    public static final int[] DIR_X = {1, -1, 0, 0};
+    public static final int[] DIR_Y = {0, 0, 1, -1};
+
+    /** 净空只需要区分到实体最大尺寸 */
+    public static final int MAX_CLEARANCE = 4;
+    /** 缓存区域边长 = 2^REGION_SHIFT 格 */
+    private static final int REGION_SHIFT = 3;
+    private static final int MAX_CACHED_PATHS = 64;
+    private static final int DEFAULT_NODE_BUDGET = 2000;
+    /**
+     * 单次直线跳跃最多扫描的格数。扫满仍没遇到跳点就把当前格当作跳点入堆，
+     * 下次弹出时从这里接着扫，一次扩展的开销因此与地图大小无关。
+     */
+    private static final int MAX_JUMP = 8;
+    /** 一次扩展最多消耗的节点数：弹出 1 + 两次水平跳 + 两次竖直跳（每行再带两次水平扫描） */
+    private static final int MAX_EXPANSION_WORK = 1 + 2 * MAX_JUMP + 2 * MAX_JUMP * (1 + 2 * MAX_JUMP);
+
+    private MazeGrid maze;
+    private int mazeVersion;
+    private int width;
+    private int height;
+    private byte[] clearance = new byte[0];
+    private CellBlocker blocker;
+
+    /* ===== 搜索状态（复用） ===== */
+    private int[] gScore = new int[0];
+    private int[] parent = new int[0];
+    private int[] seenStamp = new int[0];
+    private int[] closedStamp = new int[0];
+    private int searchId;
+
+    private int[] heapCell = new int[64];
+    private int[] heapF = new int[64];
+    private int[] heapG = new int[64];
+    private int heapSize;
+
+    private final ArrayDeque<PathRequest> queue = new ArrayDeque<>();
+    private PathRequest active;
+    /** 搜索期间有区域失效：结果照常返回，但不进缓存 */
+    private boolean activeTainted;
+    private int goalX;
+    private int goalY;
+    private int agentSize;
+
+    private int nodeBudget = DEFAULT_NODE_BUDGET;
+    private int work;
+    private int lastFrameWork;
+
+    /* ===== 缓存 ===== */
+    private static final class CachedPath {
+        final int[] cells;
+        final int length;
+        final long[] regions;
+
+        CachedPath(int[] cells, int length, long[] regions) {
+            this.cells = cells;
+            this.length = length;
+            this.regions = regions;
+        }
+    }
+
+    private final LinkedHashMap<Long, CachedPath> cache = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, CachedPath> eldest) {
+            return size() > MAX_CACHED_PATHS;
+        }
+    };
+    private int regionsX;
+    private int cacheHits;
+    private int cacheMisses;
+
+    /* ================= 配置 ================= */
+
+    /**
+     * 切换迷宫：清空缓存，取消所有未完成的请求
+     */
+    public void setMaze(MazeGrid maze) {
+        if (this.maze == maze) return;
+        this.maze = maze;
+        this.mazeVersion = maze == null ? 0 : maze.getVersion() - 1;
+        cancelAll();
+        syncMaze();
+    }
+
+    public void setBlocker(CellBlocker blocker) {
+        this.blocker = blocker;
+    }
+
+    public void setNodeBudget(int nodeBudget) {
+        this.nodeBudget = Math.max(1, nodeBudget);
+    }
+
+    public int getNodeBudget() { return nodeBudget; }
+    public int getLastFrameWork() { return lastFrameWork; }
+    public int getCacheHits() { return cacheHits; }
+    public int getCacheMisses() { return cacheMisses; }
+    public int getPendingCount() { return queue.size() + (active != null ? 1 : 0); }
+
+    /**
+     * 以 (x, y) 为左下角、全部为通路的最大正方形边长（上限 {@link #MAX_CLEARANCE}）
+     */
+    public int getClearance(int x, int y) {
+        syncMaze();
+        if (maze == null || x < 0 || y < 0 || x >= width || y >= height) return 0;
+        return clearance[y * width + x];
+    }
+
+    /* ================= 请求 ================= */
+
+    /**
+     * 请求一条从 (sx, sy) 到 (gx, gy) 的路径，size 为实体边长（锚点在左下角）。
+     * 命中缓存时返回的请求已完成，否则排队等待 {@link #update()}。
+     */
+    public PathRequest request(int sx, int sy, int gx, int gy, int size) {
+        syncMaze();
+        PathRequest req = new PathRequest(sx, sy, gx, gy, Math.max(1, Math.min(size, MAX_CLEARANCE)));
+        if (maze == null || !inBounds(sx, sy) || !inBounds(gx, gy)) {
+            req.status = PathRequest.Status.NO_PATH;
+            return req;
+        }
+
+        if (sx == gx && sy == gy) {
+            req.complete(new int[]{sy * width + sx}, 0, 1, width);
+            return req;
+        }
+
+        CachedPath cached = cache.get(cacheKey(sx, sy, gx, gy, req.size));
+        if (cached != null) {
+            int start = sy * width + sx;
+            for (int i = 0; i < cached.length - 1; i++) {
+                if (cached.cells[i] == start) {
+                    req.complete(cached.cells, i, cached.length, width);
+                    cacheHits++;
+                    return req;
+                }
+            }
+        }
+
+        cacheMisses++;
+        queue.add(req);
+        return req;
+    }
+
+    public void cancel(PathRequest req) {
+        if (req == null || req.isDone()) return;
+        req.status = PathRequest.Status.CANCELLED;
+        queue.remove(req);
+        if (active == req) active = null;
+    }
+
+    public void cancelAll() {
+        for (PathRequest req : queue) {
+            req.status = PathRequest.Status.CANCELLED;
+        }
+        queue.clear();
+        if (active != null) {
+            active.status = PathRequest.Status.CANCELLED;
+            active = null;
+        }
+    }
+
+    /**
+     * 每帧调用一次：在节点预算内推进排队中的搜索
+     */
+    public void update() {
+        syncMaze();
+        work = 0;
+        while (work < nodeBudget) {
+            if (active == null) {
+                active = queue.poll();
+                if (active == null) break;
+                beginSearch(active);
+                if (active.isDone()) {
+                    active = null;
+                    continue;
+                }
+            }
+            if (!runSearch()) break;
+            active = null;
+        }
+        lastFrameWork = work;
+    }
+
+    /* ================= 缓存失效 ================= */
+
+    /**
+     * 矩形 [x0, x1] x [y0, y1] 的通行性变化：丢弃经过相关区域的缓存路径
+     */
+    public void invalidateRegion(int x0, int y0, int x1, int y1) {
+        if (maze == null) return;
+        int rx0 = Math.max(0, x0) >> REGION_SHIFT;
+        int ry0 = Math.max(0, y0) >> REGION_SHIFT;
+        int rx1 = Math.min(width - 1, x1) >> REGION_SHIFT;
+        int ry1 = Math.min(height - 1, y1) >> REGION_SHIFT;
+
+        Iterator<CachedPath> it = cache.values().iterator();
+        while (it.hasNext()) {
+            long[] regions = it.next().regions;
+            if (intersects(regions, rx0, ry0, rx1, ry1)) it.remove();
+        }
+        if (active != null) activeTainted = true;
+    }
+
+    public void clearCache() {
+        cache.clear();
+    }
+
+    /* ================= 迷宫 / 净空 ================= */
+
+    private void syncMaze() {
+        if (maze == null || maze.getVersion() == mazeVersion) return;
+
+        mazeVersion = maze.getVersion();
+        int w = maze.getWidth();
+        int h = maze.getHeight();
+        if (w != width || h != height) {
+            width = w;
+            height = h;
+            int cells = w * h;
+            clearance = new byte[cells];
+            gScore = new int[cells];
+            parent = new int[cells];
+            seenStamp = new int[cells];
+            closedStamp = new int[cells];
+            searchId = 0;
+        }
+        regionsX = (width + (1 << REGION_SHIFT) - 1) >> REGION_SHIFT;
+        rebuildClearance();
+        cache.clear();
+
+        // 进行中的搜索基于旧迷宫：重新开始
+        if (active != null) {
+            queue.addFirst(active);
+            active = null;
+        }
+    }
+
+    private void rebuildClearance() {
+        for (int y = height - 1; y >= 0; y--) {
+            for (int x = width - 1; x >= 0; x--) {
+                int c = y * width + x;
+                if (!maze.isPath(x, y)) {
+                    clearance[c] = 0;
+                    continue;
+                }
+                int right = x + 1 < width ? clearance[c + 1] : 0;
+                int up = y + 1 < height ? clearance[c + width] : 0;
+                int diag = x + 1 < width && y + 1 < height ? clearance[c + width + 1] : 0;
+                clearance[c] = (byte) Math.min(MAX_CLEARANCE, 1 + Math.min(right, Math.min(up, diag)));
+            }
+        }
+    }
+
+    /* ================= JPS ================= */
+
+    private void beginSearch(PathRequest req) {
+        goalX = req.goalX;
+        goalY = req.goalY;
+        agentSize = req.size;
+        activeTainted = false;
+        heapSize = 0;
+
+        if (!isOpen(goalX, goalY)) {
+            req.status = PathRequest.Status.NO_PATH;
+            return;
+        }
+
+        if (++searchId == Integer.MAX_VALUE) {
+            Arrays.fill(seenStamp, 0);
+            Arrays.fill(closedStamp, 0);
+            searchId = 1;
+        }
+
+        int start = req.startY * width + req.startX;
+        seenStamp[start] = searchId;
+        gScore[start] = 0;
+        parent[start] = -1;
+        push(start, heuristic(req.startX, req.startY), 0);
+    }
+
+    /**
+     * 推进当前搜索直到完成或本帧预算耗尽；完成时返回 true
+     */
+    private boolean runSearch() {
+        PathRequest req = active;
+        while (heapSize > 0) {
+            // 剩余预算不够一次最坏扩展就留到下一帧；帧首总允许扩展一次，预算很小时搜索也能推进
+            if (work > 0 && work + MAX_EXPANSION_WORK > nodeBudget) return false;
+
+            int c = pop();
+            if (closedStamp[c] == searchId) continue;
+            closedStamp[c] = searchId;
+            work++;
+
+            int cx = c % width;
+            int cy = c / width;
+            if (cx == goalX && cy == goalY) {
+                finish(req, c);
+                return true;
+            }
+
+            int p = parent[c];
+            if (p < 0) {
+                for (int d = 0; d < 4; d++) {
+                    relax(c, jump(cx, cy, DIR_X[d], DIR_Y[d]));
+                }
+                continue;
+            }
+
+            int dx = Integer.signum(cx - p % width);
+            int dy = Integer.signum(cy - p / width);
+            if (dx != 0) {
+                // 水平前进：继续直行，只在出现强制邻居时拐弯
+                relax(c, jump(cx, cy, dx, 0));
+                if (isOpen(cx, cy + 1) && !isOpen(cx - dx, cy + 1)) relax(c, jump(cx, cy, 0, 1));
+                if (isOpen(cx, cy - 1) && !isOpen(cx - dx, cy - 1)) relax(c, jump(cx, cy, 0, -1));
+            } else {
+                // 竖直前进：继续直行，并向两侧水平扫描
+                relax(c, jump(cx, cy, 0, dy));
+                relax(c, jump(cx, cy, 1, 0));
+                relax(c, jump(cx, cy, -1, 0));
+            }
+        }
+
+        req.status = PathRequest.Status.NO_PATH;
+        return true;
+    }
+
+    private void relax(int from, int to) {
+        if (to < 0) return;
+        int fx = from % width;
+        int fy = from / width;
+        int tx = to % width;
+        int ty = to / width;
+        int g = gScore[from] + Math.abs(tx - fx) + Math.abs(ty - fy);
+        if (seenStamp[to] == searchId && g >= gScore[to]) return;
+
+        seenStamp[to] = searchId;
+        gScore[to] = g;
+        parent[to] = from;
+        push(to, g + heuristic(tx, ty), g);
+    }
+
+    /**
+     * 从 (x, y) 沿 (dx, dy) 跳到下一个跳点；撞墙返回 -1。
+     * 最多走 {@link #MAX_JUMP} 格，走满就停在当前格（多出的跳点不影响最优性，只是多入一次堆）。
+     */
+    private int jump(int x, int y, int dx, int dy) {
+        if (dx != 0) return jumpHorizontal(x, y, dx);
+        return jumpVertical(x, y, dy);
+    }
+
+    private int jumpHorizontal(int x, int y, int dx) {
+        for (int step = 1; ; step++) {
+            x += dx;
+            work++;
+            if (!isOpen(x, y)) return -1;
+            if (x == goalX && y == goalY) return y * width + x;
+            if ((isOpen(x, y + 1) && !isOpen(x - dx, y + 1))
+                    || (isOpen(x, y - 1) && !isOpen(x - dx, y - 1))) {
+                return y * width + x;
+            }
+            if (step == MAX_JUMP) return y * width + x;
+        }
+    }
+
+    /**
+     * 竖直跳跃每一行都向两侧做水平扫描；水平扫描被截断时同样算作找到跳点，
+     * 让这一行的水平方向留给该跳点出堆后再展开
+     */
+    private int jumpVertical(int x, int y, int dy) {
+        for (int step = 1; ; step++) {
+            y += dy;
+            work++;
+            if (!isOpen(x, y)) return -1;
+            if (x == goalX && y == goalY) return y * width + x;
+            if (jumpHorizontal(x, y, 1) >= 0 || jumpHorizontal(x, y, -1) >= 0) {
+                return y * width + x;
+            }
+            if (step == MAX_JUMP) return y * width + x;
+        }
+    }
+
+    private boolean isOpen(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) return false;
+        if (clearance[y * width + x] < agentSize) return false;
+        if (blocker == null) return true;
+        for (int oy = 0; oy < agentSize; oy++) {
+            for (int ox = 0; ox < agentSize; ox++) {
+                if (blocker.isBlocked(x + ox, y + oy)) return false;
+            }
+        }
+        return true;
+    }
+
+    private int heuristic(int x, int y) {
+        return Math.abs(goalX - x) + Math.abs(goalY - y);
+    }
+
+    /**
+     * 由跳点链展开成逐格路径，并写入缓存
+     */
+    private void finish(PathRequest req, int goal) {
+        int length = gScore[goal] + 1;
+        int[] cells = new int[length];
+        int i = length - 1;
+        for (int c = goal; parent[c] >= 0; c = parent[c]) {
+            int p = parent[c];
+            int sx = Integer.signum(p % width - c % width);
+            int sy = Integer.signum(p / width - c / width);
+            int step = sy * width + sx;
+            for (int k = c; k != p; k += step) {
+                cells[i--] = k;
+            }
+        }
+        cells[i] = req.startY * width + req.startX;
+        req.complete(cells, 0, length, width);
+
+        if (!activeTainted) {
+            cache.put(cacheKey(req.startX, req.startY, req.goalX, req.goalY, req.size),
+                    new CachedPath(cells, length, regionsOf(cells, length, req.size)));
+        }
+    }
+
+    /* ================= 小工具 ================= */
+
+    private boolean inBounds(int x, int y) {
+        return x >= 0 && y >= 0 && x < width && y < height;
+    }
+
+    private long cacheKey(int sx, int sy, int gx, int gy, int size) {
+        long region = (long) (sy >> REGION_SHIFT) * regionsX + (sx >> REGION_SHIFT);
+        long goal = (long) gy * width + gx;
+        return (region << 36) | (goal << 4) | size;
+    }
+
+    private long[] regionsOf(int[] cells, int length, int size) {
+        int regionsY = (height + (1 << REGION_SHIFT) - 1) >> REGION_SHIFT;
+        long[] bits = new long[(regionsX * regionsY + 63) >>> 6];
+        for (int i = 0; i < length; i++) {
+            int x = cells[i] % width;
+            int y = cells[i] / width;
+            // 多格实体的整个占用矩形都算经过
+            for (int ry = y >> REGION_SHIFT; ry <= Math.min(height - 1, y + size - 1) >> REGION_SHIFT; ry++) {
+                for (int rx = x >> REGION_SHIFT; rx <= Math.min(width - 1, x + size - 1) >> REGION_SHIFT; rx++) {
+                    int r = ry * regionsX + rx;
+                    bits[r >>> 6] |= 1L << r;
+                }
+            }
+        }
+        return bits;
+    }
+
+    private boolean intersects(long[] regions, int rx0, int ry0, int rx1, int ry1) {
+        for (int ry = ry0; ry <= ry1; ry++) {
+            for (int rx = rx0; rx <= rx1; rx++) {
+                int r = ry * regionsX + rx;
+                if ((regions[r >>> 6] & (1L << r)) != 0) return true;
+            }
+        }
+        return false;
+    }
+
+    /* ===== 二叉堆：f 小者优先，f 相同时 g 大者优先（更靠近终点） ===== */
+
+    private void push(int cell, int f, int g) {
+        if (heapSize == heapCell.length) {
+            int cap = heapSize * 2;
+            heapCell = Arrays.copyOf(heapCell, cap);
+            heapF = Arrays.copyOf(heapF, cap);
+            heapG = Arrays.copyOf(heapG, cap);
+        }
+        int i = heapSize++;
+        while (i > 0) {
+            int p = (i - 1) >>> 1;
+            if (!less(f, g, heapF[p], heapG[p])) break;
+            heapCell[i] = heapCell[p];
+            heapF[i] = heapF[p];
+            heapG[i] = heapG[p];
+            i = p;
+        }
+        heapCell[i] = cell;
+        heapF[i] = f;
+        heapG[i] = g;
+    }
+
+    private int pop() {
+        int top = heapCell[0];
+        int last = --heapSize;
+        if (last > 0) {
+            int cell = heapCell[last];
+            int f = heapF[last];
+            int g = heapG[last];
+            int i = 0;
+            while (true) {
+                int l = 2 * i + 1;
+                if (l >= last) break;
+                int r = l + 1;
+                int m = (r < last && less(heapF[r], heapG[r], heapF[l], heapG[l])) ? r : l;
+                if (!less(heapF[m], heapG[m], f, g)) break;
+                heapCell[i] = heapCell[m];
+                heapF[i] = heapF[m];
+                heapG[i] = heapG[m];
+                i = m;
+            }
+            heapCell[i] = cell;
+            heapF[i] = f;
+            heapG[i] = g;
+        }
+        return top;
+    }
+
+    private static boolean less(int f1, int g1, int f2, int g2) {
+        return f1 < f2 || (f1 == f2 && g1 > g2);
+    }
+}
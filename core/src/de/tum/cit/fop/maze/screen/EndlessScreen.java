@@ -24,15 +24,25 @@
 import de.tum.cit.fop.maze.game.DifficultyConfig;
 import de.tum.cit.fop.maze.game.GameConstants;
 import de.tum.cit.fop.maze.game.GameManager;
-import de.tum.cit.fop.maze.input.PlayerInputHandler;
+import de.tum.cit.fop.maze.game.SimulationStepListener;
+import de.tum.cit.fop.maze.game.endless.EndlessChunkManager;
+import de.tum.cit.fop.maze.game.spatial.DistanceField;
+import de.tum.cit.fop.maze.game.spatial.SpatialIndex;
+import de.tum.cit.fop.maze.maze.MazeGrid;
 import de.tum.cit.fop.maze.maze.MazeRenderer;
 import de.tum.cit.fop.maze.tools.ButtonFactory;
 import de.tum.cit.fop.maze.ui.HUD;
 import de.tum.cit.fop.maze.utils.CameraManager;
+import de.tum.cit.fop.maze.utils.GameRandom;
+import de.tum.cit.fop.maze.utils.RenderQueue;
+import de.tum.cit.fop.maze.utils.ViewCuller;
 import de.tum.cit.fop.maze.tools.DeveloperConsole;
+import de.tum.cit.fop.maze.tools.Profiler;
+import de.tum.cit.fop.maze.tools.ProfilerOverlay;
 import de.tum.cit.fop.maze.input.KeyBindingManager;
 
 // ✅ 新增导入：事件监听相关
+import de.tum.cit.fop.maze.game.event.GameEventType;
 import de.tum.cit.fop.maze.game.event.GameListener;
 import de.tum.cit.fop.maze.game.score.DamageSource;
 import de.tum.cit.fop.maze.game.EnemyTier;
@@ -41,10 +51,9 @@
 import java.util.*;
 
 import static de.tum.cit.fop.maze.maze.MazeGenerator.BORDER_THICKNESS;
-import static com.badlogic.gdx.math.MathUtils.random;
 
 // ✅ 修改：实现 GameListener 接口
-public class EndlessScreen implements Screen, GameListener {
+public class EndlessScreen implements Screen, GameListener, SimulationStepListener {
 
     private final MazeRunnerGame game;
     private final DifficultyConfig difficultyConfig;
@@ -54,9 +63,11 @@ public class EndlessScreen implements Screen, GameListener {
     private CameraManager cam;
     private SpriteBatch batch;
     private ShapeRenderer shapeRenderer;
+    private final ViewCuller viewCuller = new ViewCuller();
+    private final RenderQueue renderQueue = new RenderQueue();
     private HUD hud;
-    private PlayerInputHandler input;
     private DeveloperConsole console;
+    private final ProfilerOverlay profilerOverlay = new ProfilerOverlay();
 
     private Texture uiTop, uiBottom, uiLeft, uiRight;
 
@@ -89,31 +100,12 @@ public class EndlessScreen implements Screen, GameListener {
     private int powerupsSpawnedThisWave = 0;
     private Map<String, Long> heartCreationTimes = new HashMap<>();
 
-    private final Random randomGenerator = new Random();
+    // ===== 敌人数量 =====
+    /** 场上敌人上限（含冻结区块里暂存的），到上限后按血量刷怪暂停 */
+    private static final int MAX_ENDLESS_ENEMIES = 40;
+    /** 敌人类型统计用的复用列表（活跃 + 冻结） */
+    private final List<Enemy> enemyStatBuffer = new ArrayList<>();
 
-    // ===== 渲染排序相关 =====
-    enum Type { WALL_BEHIND, ENTITY, WALL_FRONT }
-
-    static class Item {
-        float y;
-        int priority;
-        Type type;
-        MazeRenderer.WallGroup wall;
-        GameObject entity;
-
-        Item(MazeRenderer.WallGroup w, Type t) {
-            wall = w;
-            y = w.startY;
-            type = t;
-        }
-
-        Item(GameObject e, int p) {
-            entity = e;
-            y = e.getY();
-            priority = p;
-            type = Type.ENTITY;
-        }
-    }
 
     enum HeartSpawnStrategy {
         NEAR_PLAYER,
@@ -141,14 +133,15 @@ public void show() {
         uiLeft = new Texture("Wallpaper/HUD_left.png");
         uiRight = new Texture("Wallpaper/HUD_right.png");
 
-        input = new PlayerInputHandler();
         batch = game.getSpriteBatch();
         shapeRenderer = new ShapeRenderer();
 
         gm = game.getGameManager();
 
         // ✅ 关键修复：注册事件监听器，让EndlessScreen能接收到击杀/受伤事件
-        gm.setGameListener(this);
+        gm.setGameListener(this, GameEventType.ENEMY_KILLED, GameEventType.PLAYER_DAMAGE);
+        // 波次、刷怪和掉落跟着固定模拟步走，回放时随机序列与录制时一致
+        gm.setStepListener(this);
 
         cam = new CameraManager(difficultyConfig);
         cam.resize(Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
@@ -210,8 +203,8 @@ private void initializeEndlessMode() {
         powerupsSpawnedThisWave = 0;
         heartCreationTimes.clear();
 
-        gm.getExitDoors().clear();
-        gm.getKeys().clear();
+        gm.clearExitDoors();
+        gm.clearKeys();
 
         spawnInitialEndlessEnemies();
     }
@@ -238,6 +231,14 @@ public void onLevelFinished(int levelNumber) {}
 
     @Override
     public void render(float delta) {
+        Profiler.begin(Profiler.Phase.FRAME);
+        renderFrame(delta);
+        Profiler.end(Profiler.Phase.FRAME);
+        Profiler.endFrame();
+        profilerOverlay.render();
+    }
+
+    private void renderFrame(float delta) {
         gm.setUIConsumesMouse(hud.isMouseOverInteractiveUI());
         Vector3 world = cam.getCamera().unproject(
                 new Vector3(Gdx.input.getX(), Gdx.input.getY(), 0)
@@ -248,16 +249,15 @@ public void render(float delta) {
                 (int)(world.y / GameConstants.CELL_SIZE)
         );
 
+        Profiler.begin(Profiler.Phase.INPUT);
         handleInput(delta);
+        Profiler.end(Profiler.Phase.INPUT);
 
         float timeScale = console.isVisible() ? 0f : gm.getVariable("time_scale");
         float gameDelta = delta * timeScale;
 
         if (!paused && !console.isVisible()) {
-            gm.update(gameDelta);
-            if (isEndlessMode() && !endlessGameOver) {
-                updateEndlessMode(gameDelta);
-            }
+            gm.advance(gameDelta);
         }
 
         if (!paused && !console.isVisible()) {
@@ -266,43 +266,45 @@ public void render(float delta) {
 
         ScreenUtils.clear(0.1f, 0.1f, 0.1f, 1f);
 
+        // 实体画在上一步与当前步之间的插值位置
+        Profiler.begin(Profiler.Phase.WORLD);
+        gm.beginInterpolatedRender();
+
         batch.setProjectionMatrix(cam.getCamera().combined);
+        // 只处理镜头内（含贴图余量）的墙、实体和特效
+        viewCuller.begin(cam.getCamera());
         batch.begin();
 
         maze.renderFloor(batch);
 
         // B. 传送阵背景
-        List<ExitDoor> exitDoorsCopy = new ArrayList<>(gm.getExitDoors());
-        exitDoorsCopy.forEach(d -> d.renderPortalBack(batch));
-
-        // C. 排序后的实体 (墙、玩家、敌人等)
-        List<Item> items = prepareRenderItems(exitDoorsCopy);
-        items.sort(Comparator.comparingDouble((Item i) -> -i.y)
-                .thenComparingInt(i -> i.type.ordinal())
-                .thenComparingInt(i -> i.priority));
-
-        for (Item it : items) {
-            if (it.wall != null) {
-                maze.renderWallGroup(batch, it.wall);
-            } else {
-                it.entity.drawSprite(batch);
+        for (ExitDoor d : gm.getExitDoors()) {
+            float cs = GameConstants.CELL_SIZE;
+            if (viewCuller.isPointVisible((d.getX() + 0.5f) * cs, (d.getY() + 0.5f) * cs, ViewCuller.EFFECT_MARGIN)) {
+                d.renderPortalBack(batch);
             }
         }
 
+        // C. 排序后的实体 (墙、玩家、敌人等)
+        submitRenderItems();
+        renderQueue.render(batch, maze, viewCuller);
+
         if (gm.getKeyEffectManager() != null) {
             gm.getKeyEffectManager().render(batch);
         }
         if (gm.getBobaBulletEffectManager() != null) {
-            gm.getBobaBulletEffectManager().render(batch);
+            gm.getBobaBulletEffectManager().render(batch, viewCuller);
         }
 
-        if (gm.getItemEffectManager() != null) gm.getItemEffectManager().renderSprites(batch);
-        if (gm.getTrapEffectManager() != null) gm.getTrapEffectManager().renderSprites(batch);
-        if (gm.getCombatEffectManager() != null) gm.getCombatEffectManager().renderSprites(batch);
+        if (gm.getItemEffectManager() != null) gm.getItemEffectManager().renderSprites(batch, viewCuller);
+        if (gm.getTrapEffectManager() != null) gm.getTrapEffectManager().renderSprites(batch, viewCuller);
+        if (gm.getCombatEffectManager() != null) gm.getCombatEffectManager().renderSprites(batch, viewCuller);
 
         batch.end();
+        Profiler.end(Profiler.Phase.WORLD);
 
         // ===== Ability AOE / Targeting=====
+        Profiler.begin(Profiler.Phase.SHAPES);
         shapeRenderer.setProjectionMatrix(cam.getCamera().combined);
 
         for (Player p : gm.getPlayers()) {
@@ -310,8 +312,14 @@ public void render(float delta) {
                 p.getAbilityManager().drawAbilities(batch, shapeRenderer, p);
             }
         }
+        gm.endInterpolatedRender();
+        viewCuller.report();
+        Profiler.end(Profiler.Phase.SHAPES);
+
         /* ================= 渲染 UI (切换到屏幕坐标) ================= */
+        Profiler.begin(Profiler.Phase.HUD);
         renderUI();
+        Profiler.end(Profiler.Phase.HUD);
 
         // 4. 暂停和结束界面 (它们使用 Stage，会自动管理自己的投影矩阵)
         if (paused) {
@@ -379,6 +387,20 @@ private void renderMazeBorderDecorations(SpriteBatch batch) {
     // =========================
     // 无尽模式核心更新
     // =========================
+    @Override
+    public void onSimulationStep(float delta) {
+        if (isEndlessMode() && !endlessGameOver) {
+            updateEndlessMode(delta);
+        }
+    }
+
+    @Override
+    public void onLevelReset() {
+        if (isEndlessMode()) {
+            initializeEndlessMode();
+        }
+    }
+
     private void updateEndlessMode(float delta) {
 
         if (gm == null || gm.getPlayer() == null) return;
@@ -413,11 +435,25 @@ private void updateEndlessMode(float delta) {
             resetWaveSpawnCounters();
         }
         // 🔥 新增：实时监控敌人类型和数量 //TODO 后期可关掉监控
+        // 每3秒输出一次敌人状态（冻结区块里的敌人也算在内）
+        if ((int)(endlessSurvivalTime / 3) != (int)((endlessSurvivalTime - delta) / 3)) {
+            logEnemyStats();
+        }
+    }
+
+    private void logEnemyStats() {
+        enemyStatBuffer.clear();
+        for (Enemy enemy : gm.getEnemies()) {
+            enemyStatBuffer.add(enemy);
+        }
+        if (gm.getEndlessChunks() != null) {
+            gm.getEndlessChunks().collectFrozenEnemies(enemyStatBuffer);
+        }
+
         int pearlCount = 0;
         int coffeeCount = 0;
         int caramelCount = 0;
-
-        for (Enemy enemy : gm.getEnemies()) {
+        for (Enemy enemy : enemyStatBuffer) {
             if (enemy instanceof EnemyE01_CorruptedPearl) {
                 pearlCount++;
             } else if (enemy instanceof EnemyE02_SmallCoffeeBean) {
@@ -427,14 +463,12 @@ private void updateEndlessMode(float delta) {
             }
         }
 
-        // 每3秒输出一次敌人状态
-        if ((int)(endlessSurvivalTime / 3) != (int)((endlessSurvivalTime - delta) / 3)) {
-            System.out.println("🎯 敌人类型统计:");
-            System.out.println("   珍珠敌人: " + pearlCount + " 个");
-            System.out.println("   咖啡敌人: " + coffeeCount + " 个");
-            System.out.println("   焦糖敌人: " + caramelCount + " 个");
-            System.out.println("   敌人总数: " + gm.getEnemies().size() + " 个");
-        }
+        System.out.println("🎯 敌人类型统计:");
+        System.out.println("   珍珠敌人: " + pearlCount + " 个");
+        System.out.println("   咖啡敌人: " + coffeeCount + " 个");
+        System.out.println("   焦糖敌人: " + caramelCount + " 个");
+        System.out.println("   敌人总数: " + enemyStatBuffer.size() + " 个");
+        enemyStatBuffer.clear();
     }
 
     private boolean isEndlessGameOver() {
@@ -520,11 +554,11 @@ private void spawnSmartHeart(float healthPercent) {
         heartCreationTimes.put(pos[0] + "," + pos[1], System.currentTimeMillis());
 
         // 根据血量决定血包类型（普通/加强）
-        if (healthPercent < 30 && randomGenerator.nextFloat() < 0.3f) {
+        if (healthPercent < 30 && GameRandom.random() < 0.3f) {
             // 30%几率生成加强血包（回2血）
             heart = createEnhancedHeart(pos[0], pos[1]);
         }
-        gm.getHearts().add(heart);
+        gm.spawnHeart(heart);
     }
     private Heart createEnhancedHeart(int x, int y) {
         Heart heart = new Heart(x, y);
@@ -543,7 +577,7 @@ private Heart createEnhancedHeart(int x, int y) {
     private HeartSpawnStrategy determineHeartSpawnStrategy(float healthPercent) {
         if (healthPercent < 20) return HeartSpawnStrategy.NEAR_PLAYER;
         if (healthPercent < 40) return HeartSpawnStrategy.SAFE_ZONE;
-        if (gm.getEnemies().size() > 5) return HeartSpawnStrategy.FAR_FROM_ENEMIES;
+        if (gm.getTotalEnemyCount() > 5) return HeartSpawnStrategy.FAR_FROM_ENEMIES;
         return HeartSpawnStrategy.STRATEGIC_POINT;
     }
 
@@ -573,8 +607,8 @@ private float calculatePositionScore(int x, int y, int px, int py, HeartSpawnStr
 
         switch (s) {
             case NEAR_PLAYER:
-                // 靠近玩家（距离3-8格最好）
-                float distToPlayer = Math.abs(x - px) + Math.abs(y - py);
+                // 靠近玩家（真实路径距离3-8格最好）
+                float distToPlayer = getPathDistanceToPlayer(x, y, px, py);
                 if (distToPlayer >= 3 && distToPlayer <= 8) {
                     score += 100 - distToPlayer;
                 }
@@ -606,6 +640,15 @@ private float calculatePositionScore(int x, int y, int px, int py, HeartSpawnStr
         return score;
     }
 
+    /**
+     * 距离场给出的真实路径距离；不可达时退回曼哈顿距离
+     */
+    private float getPathDistanceToPlayer(int x, int y, int px, int py) {
+        int path = gm.getPathDistanceToNearestPlayer(x, y);
+        if (path != DistanceField.UNREACHABLE) return path;
+        return Math.abs(x - px) + Math.abs(y - py);
+    }
+
     private float getMinDistanceToEnemies(int x, int y) {
         float min = Float.MAX_VALUE;
         for (Enemy e : gm.getEnemies()) {
@@ -712,7 +755,7 @@ private void spawnRandomPowerup(float healthPercent) {
 
 
     private PowerupType selectPowerupType(float healthPercent) {
-        float rand = randomGenerator.nextFloat();
+        float rand = GameRandom.random();
 
         if (healthPercent < 30) {
             // 低生命值优先防御和冷却
@@ -765,6 +808,7 @@ private void cleanupExpiredItems() {
                 long age = currentTime - creationTime;
                 if (age > 60000) { // 60秒后清理
                     heartIter.remove();
+                    gm.untrackEntity(heart);
                     heartCreationTimes.remove(heartKey);
                     System.out.println("🧹 清理过期血包（生成超过60秒）");
                 }
@@ -830,7 +874,10 @@ private void resetWaveSpawnCounters() {
         powerupsSpawnedThisWave = 0;
     }
     private void spawnHealthBasedEnemies(float healthPercent) {
-        int spawnCount = calculateSpawnCount(healthPercent);
+        // 冻结区块里的敌人只是暂时离场，同样占上限
+        int room = MAX_ENDLESS_ENEMIES - gm.getTotalEnemyCount();
+        int spawnCount = Math.min(calculateSpawnCount(healthPercent), Math.max(0, room));
+        if (spawnCount == 0) return;
 
         for (int i = 0; i < spawnCount; i++) {
             int[] pos = findEmptyCellForEndlessSpawn();
@@ -838,7 +885,7 @@ private void spawnHealthBasedEnemies(float healthPercent) {
 
             Enemy enemy = createEnemyBasedOnHealth(healthPercent, pos[0], pos[1]);
             if (enemy != null) {
-                gm.getEnemies().add(enemy);
+                gm.spawnEnemy(enemy);
             }
         }
 
@@ -846,7 +893,7 @@ private void spawnHealthBasedEnemies(float healthPercent) {
     }
 
     private Enemy createEnemyBasedOnHealth(float healthPercent, int x, int y) {
-        float randValue = randomGenerator.nextFloat() * 100f;
+        float randValue = GameRandom.random() * 100f;
 
         try {
             if (healthPercent > 70) {
@@ -917,39 +964,17 @@ private boolean isCellOccupied(int x, int y) {
             return true;
         }
 
-        // 检查敌人
-        List<Enemy> enemiesCopy = new ArrayList<>(gm.getEnemies());
-        for (Enemy enemy : enemiesCopy) {
-            if (enemy != null && enemy.isActive() && enemy.getX() == x && enemy.getY() == y) {
-                if (enemy instanceof EnemyE04_CrystallizedCaramelShell e04) {
-                    if (e04.occupiesCell(x, y)) return true;
-                }
-            }
-        }
-
-        // 检查生命包
-        List<Heart> heartsCopy = new ArrayList<>(gm.getHearts());
-        for (Heart heart : heartsCopy) {
-            if (heart != null && heart.isActive() && heart.getX() == x && heart.getY() == y) {
-                return true;
-            }
-        }
-
-        // 检查宝箱
-        List<Treasure> treasuresCopy = new ArrayList<>(gm.getTreasures());
-        for (Treasure treasure : treasuresCopy) {
-            if (treasure != null && treasure.isActive() && treasure.getX() == x && treasure.getY() == y) {
-                return true;
-            }
-        }
-
-        // 检查钥匙
-        List<Key> keysCopy = new ArrayList<>(gm.getKeys());
-        for (Key key : keysCopy) {
-            if (key != null && key.isActive() && key.getX() == x && key.getY() == y) {
+        // 检查敌人 / 生命包 / 宝箱 / 钥匙（按格子查空间索引）
+        SpatialIndex index = gm.getSpatialIndex();
+        for (int n = index.first(SpatialIndex.Layer.ENEMY, x, y); n != SpatialIndex.NONE; n = index.next(n)) {
+            if (index.get(n) instanceof EnemyE04_CrystallizedCaramelShell e04
+                    && e04.isActive() && e04.getX() == x && e04.getY() == y) {
                 return true;
             }
         }
+        if (index.hasActive(SpatialIndex.Layer.HEART, x, y)) return true;
+        if (index.hasActive(SpatialIndex.Layer.TREASURE, x, y)) return true;
+        if (index.hasActive(SpatialIndex.Layer.KEY, x, y)) return true;
 
         return false;
     }
@@ -962,16 +987,16 @@ private int[] findEmptyCellForEndlessSpawn() {
         int playerY = player.getY();
 
         for (int attempt = 0; attempt < 50; attempt++) {
-            int x = BORDER_THICKNESS + random.nextInt(
+            int x = BORDER_THICKNESS + GameRandom.get().nextInt(
                     difficultyConfig.mazeWidth - BORDER_THICKNESS * 2
             );
-            int y = BORDER_THICKNESS + random.nextInt(
+            int y = BORDER_THICKNESS + GameRandom.get().nextInt(
                     difficultyConfig.mazeHeight - BORDER_THICKNESS * 2
             );
 
             if (isCellWalkable(x, y) && !isCellOccupied(x, y)) {
-                // 尽量远离玩家（至少5格距离）
-                if (Math.abs(x - playerX) > 5 || Math.abs(y - playerY) > 5) {
+                // 尽量远离玩家（至少5格路径距离，隔墙近在咫尺的不算远）
+                if (getPathDistanceToPlayer(x, y, playerX, playerY) > 5) {
                     return new int[]{x, y};
                 }
             }
@@ -987,12 +1012,18 @@ private boolean isCellWalkable(int x, int y) {
         }
 
         // 检查迷宫单元格（1表示可通行，0表示墙）
-        int[][] mazeArray = gm.getMaze();
-        if (mazeArray == null || y >= mazeArray.length || x >= mazeArray[0].length) {
+        MazeGrid maze = gm.getMaze();
+        if (maze == null) {
             return false;
         }
 
-        return mazeArray[y][x] == 1;
+        // 冻结区块不接收新实体：放进去的东西会一直留在活跃列表里
+        EndlessChunkManager chunks = gm.getEndlessChunks();
+        if (chunks != null && chunks.isCellFrozen(x, y)) {
+            return false;
+        }
+
+        return maze.isPath(x, y);
     }
 
 
@@ -1001,8 +1032,8 @@ private int[] findAnyEmptyCell() {
         int height = difficultyConfig.mazeHeight;
 
         for (int attempt = 0; attempt < 100; attempt++) {
-            int x = BORDER_THICKNESS + random.nextInt(width - BORDER_THICKNESS * 2);
-            int y = BORDER_THICKNESS + random.nextInt(height - BORDER_THICKNESS * 2);
+            int x = BORDER_THICKNESS + GameRandom.get().nextInt(width - BORDER_THICKNESS * 2);
+            int y = BORDER_THICKNESS + GameRandom.get().nextInt(height - BORDER_THICKNESS * 2);
 
             if (isCellWalkable(x, y) && !isCellOccupied(x, y)) {
                 return new int[]{x, y};
@@ -1017,7 +1048,7 @@ private void spawnEndlessHealthPack() {
         if (pos != null) {
             try {
                 Heart heart = new Heart(pos[0], pos[1]);
-                gm.getHearts().add(heart);
+                gm.spawnHeart(heart);
                 System.out.println("生成生命包于位置 (" + pos[0] + ", " + pos[1] + ")");
             } catch (Exception e) {
                 System.out.println("生成生命包失败: " + e.getMessage());
@@ -1029,7 +1060,7 @@ private void spawnInitialEndlessEnemies() {
             int[] pos = findEmptyCellForEndlessSpawn();
             if (pos != null) {
                 try {
-                    gm.getEnemies().add(new EnemyE01_CorruptedPearl(pos[0], pos[1]));
+                    gm.spawnEnemy(new EnemyE01_CorruptedPearl(pos[0], pos[1]));
                 } catch (Exception e) {
                     System.out.println("初始敌人生成失败: " + e.getMessage());
                 }
@@ -1128,90 +1159,11 @@ private void handleInput(float delta) {
         if (KeyBindingManager.getInstance().isJustPressed(KeyBindingManager.GameAction.CONSOLE)) {
             console.toggle();
         }
-
-        if (paused || console.isVisible() || gm.isLevelTransitionInProgress() || endlessGameOver) {
-            return;
+        if (KeyBindingManager.getInstance().isJustPressed(KeyBindingManager.GameAction.PROFILER)) {
+            Profiler.toggle();
         }
 
-        // =========================
-        // P1 输入
-        // =========================
-        input.update(delta, new PlayerInputHandler.InputHandlerCallback() {
-
-            @Override
-            public void onMoveInput(Player.PlayerIndex index, int dx, int dy) {
-                gm.onMoveInput(index, dx, dy);
-            }
-
-            @Override
-            public float getMoveDelayMultiplier() {
-                return 1.0f;
-            }
-
-            @Override
-            public boolean onAbilityInput(Player.PlayerIndex index, int slot) {
-                return gm.onAbilityInput(index, slot);
-            }
-
-            @Override
-            public void onInteractInput(Player.PlayerIndex index) {
-                gm.onInteractInput(index);
-            }
-
-
-            @Override
-            public boolean isUIConsumingMouse() {
-                return gm.isUIConsumingMouse();
-            }
-
-            // 🔥 [修复] 实现缺失方法
-            @Override
-            public void onMenuInput() {
-                togglePause();
-            }
-
-        }, Player.PlayerIndex.P1);
-
-        // =========================
-        // P2 输入（如果开启双人）
-        // =========================
-        if (gm.isTwoPlayerMode()) {
-            input.update(delta, new PlayerInputHandler.InputHandlerCallback() {
-
-                @Override
-                public void onMoveInput(Player.PlayerIndex index, int dx, int dy) {
-                    gm.onMoveInput(index, dx, dy);
-                }
-
-                @Override
-                public float getMoveDelayMultiplier() {
-                    return 1.0f;
-                }
-
-                @Override
-                public boolean onAbilityInput(Player.PlayerIndex index, int slot) {
-                    return gm.onAbilityInput(index, slot);
-                }
-
-                @Override
-                public void onInteractInput(Player.PlayerIndex index) {
-                    gm.onInteractInput(index);
-                }
-
-
-                @Override
-                public boolean isUIConsumingMouse() {
-                    return gm.isUIConsumingMouse();
-                }
-
-                // 🔥 [修复] 实现缺失方法
-                @Override
-                public void onMenuInput() {
-                    togglePause();
-                }
-
-            }, Player.PlayerIndex.P2);
-        }
+        // 玩家的移动 / 技能 / 交互由 GameManager 锁存，在模拟步里按步长消费
     }
     // ===== 暂停功能 =====
     private void togglePause() {
@@ -1277,49 +1229,48 @@ private void initPauseUI() {
         pauseUIInitialized = true;
     }
 
-    private List<Item> prepareRenderItems(List<ExitDoor> exitDoorsCopy) {
-        List<Item> items = new ArrayList<>();
-
-        // 墙壁
-        for (var wg : maze.getWallGroups()) {
-            boolean front = maze.isWallInFrontOfAnyEntity(wg.startX, wg.startY);
-            items.add(new Item(wg, front ? Type.WALL_FRONT : Type.WALL_BEHIND));
-        }
+    /**
+     * 把本帧可见的实体交给渲染队列（墙按行常驻在烘焙墙层里，不用提交）
+     */
+    private void submitRenderItems() {
+        renderQueue.begin(gm.getMaze().getHeight());
 
         // 玩家（最高优先级）
         for (Player p : gm.getPlayers()) {
             if (!p.isDead()) {
-                items.add(new Item(p, 100));
+                renderQueue.submit(p, 100);
             }
         }
 
 
         // 敌人
-        List<Enemy> enemiesCopy = new ArrayList<>(gm.getEnemies());
-        enemiesCopy.forEach(e -> items.add(new Item(e, 50)));
+        for (Enemy e : gm.getEnemies()) {
+            if (viewCuller.isVisible(e)) renderQueue.submit(e, 50);
+        }
 
         // 门
-        exitDoorsCopy.forEach(d -> items.add(new Item(d, 45)));
+        for (ExitDoor d : gm.getExitDoors()) {
+            if (viewCuller.isVisible(d)) renderQueue.submit(d, 45);
+        }
 
         // 生命包
-        List<Heart> heartsCopy = new ArrayList<>(gm.getHearts());
-        heartsCopy.forEach(h -> {
-            if (h.isActive()) items.add(new Item(h, 30));
-        });
+        for (Heart h : gm.getHearts()) {
+            if (h.isActive() && viewCuller.isVisible(h)) renderQueue.submit(h, 30);
+        }
 
         // 宝箱
-        List<Treasure> treasuresCopy = new ArrayList<>(gm.getTreasures());
-        treasuresCopy.forEach(t -> items.add(new Item(t, 20)));
+        for (Treasure t : gm.getTreasures()) {
+            if (viewCuller.isVisible(t)) renderQueue.submit(t, 20);
+        }
 
         // 钥匙
-        List<Key> keysCopy = new ArrayList<>(gm.getKeys());
-        keysCopy.forEach(k -> {
-            if (k.isActive()) {
-                items.add(new Item(k, 35));
+        for (Key k : gm.getKeys()) {
+            if (k.isActive() && viewCuller.isVisible(k)) {
+                renderQueue.submit(k, 35);
             }
-        });
+        }
 
-        return items;
+        renderQueue.end();
     }
 
     // ===== LibGDX Screen接口方法 =====
@@ -1347,12 +1298,16 @@ public void resize(int width, int height) {
 
     @Override public void pause() {}
     @Override public void resume() {}
-    @Override public void hide() {}
+    @Override
+    public void hide() {
+        if (gm != null) gm.setStepListener(null);
+    }
 
     @Override
     public void dispose() {
         if (maze != null) maze.dispose();
         if (console != null) console.dispose();
+        profilerOverlay.dispose();
         if (shapeRenderer != null) shapeRenderer.dispose();
         if (uiTop != null) uiTop.dispose();
         if (uiBottom != null) uiBottom.dispose();
@@ -41,17 +41,19 @@
 import de.tum.cit.fop.maze.game.score.LevelResult;
 import de.tum.cit.fop.maze.game.story.StoryProgress;
 import de.tum.cit.fop.maze.input.KeyBindingManager;
-import de.tum.cit.fop.maze.input.PlayerInputHandler;
 import de.tum.cit.fop.maze.maze.MazeRenderer;
 import de.tum.cit.fop.maze.tools.ButtonFactory;
 import de.tum.cit.fop.maze.tools.DeveloperConsole;
+import de.tum.cit.fop.maze.tools.Profiler;
+import de.tum.cit.fop.maze.tools.ProfilerOverlay;
 import de.tum.cit.fop.maze.ui.HUD;
 import de.tum.cit.fop.maze.utils.CameraManager;
 import de.tum.cit.fop.maze.utils.Logger;
+import de.tum.cit.fop.maze.utils.RenderQueue;
+import de.tum.cit.fop.maze.utils.ViewCuller;
 import de.tum.cit.fop.maze.game.save.StorageManager;
 
 import java.util.*;
-import java.util.List;
 
 public class GameScreen implements Screen, Chapter1RelicListener {
 
@@ -67,10 +69,12 @@ public class GameScreen implements Screen, Chapter1RelicListener {
     private CameraManager cam;
     private SpriteBatch batch;
     private HUD hud;
-    private PlayerInputHandler input;
     private DeveloperConsole console;
+    private final ProfilerOverlay profilerOverlay = new ProfilerOverlay();
 
     private PlayerTrailManager playerTrailManager;
+    private final ViewCuller viewCuller = new ViewCuller();
+    private final RenderQueue renderQueue = new RenderQueue();
     private Texture uiTop, uiBottom, uiLeft, uiRight;
     private ShapeRenderer shapeRenderer = new ShapeRenderer();
 
@@ -146,29 +150,6 @@ public void onDiscard() {
     private final ChapterContext chapterContext;
     private BitmapFont worldHintFont;
 
-    enum Type { WALL_BEHIND, ENTITY, WALL_FRONT }
-
-    static class Item {
-        float y;
-        int priority;
-        Type type;
-        MazeRenderer.WallGroup wall;
-        GameObject entity;
-
-        Item(MazeRenderer.WallGroup w, Type t) {
-            wall = w;
-            y = w.startY;
-            type = t;
-        }
-
-        Item(GameObject e, int p) {
-            entity = e;
-            y = e.getY();
-            priority = p;
-            type = Type.ENTITY;
-        }
-    }
-
     public GameScreen(MazeRunnerGame game, DifficultyConfig difficultyConfig) {
         this(game, difficultyConfig, null);
     }
@@ -196,7 +177,6 @@ public void show() {
         uiLeft   = new Texture("Wallpaper/HUD_left.png");
         uiRight  = new Texture("Wallpaper/HUD_right.png");
 
-        input = new PlayerInputHandler();
         batch = game.getSpriteBatch();
 
         gm = game.getGameManager();
@@ -229,6 +209,27 @@ public void show() {
         playMazeBGM();
     }
 
+    /**
+     * 门的传送阵光效和龙卷风粒子以门为中心向外画，按特效余量判断
+     */
+    private boolean isPortalVisible(ExitDoor d) {
+        float cs = GameConstants.CELL_SIZE;
+        return viewCuller.isPointVisible((d.getX() + 0.5f) * cs, (d.getY() + 0.5f) * cs, ViewCuller.EFFECT_MARGIN);
+    }
+
+    private void updatePlayerTrails(float delta) {
+        for (Player p : gm.getPlayers()) {
+            playerTrailManager.update(
+                    delta,
+                    p.getWorldX(),
+                    p.getWorldY(),
+                    p.isDashing(),
+                    p.getCurrentFrame(),
+                    Color.CYAN // 残影颜色
+            );
+        }
+    }
+
     private void playMazeBGM() {
         AudioManager audio = AudioManager.getInstance();
         audio.stopMusic();
@@ -247,6 +248,14 @@ private void playMazeBGM() {
 
     @Override
     public void render(float delta) {
+        Profiler.begin(Profiler.Phase.FRAME);
+        renderFrame(delta);
+        Profiler.end(Profiler.Phase.FRAME);
+        Profiler.endFrame();
+        profilerOverlay.render();
+    }
+
+    private void renderFrame(float delta) {
         gm.setUIConsumesMouse(hud.isMouseOverInteractiveUI());
 
         // ===== Global Menu / Pause Input =====
@@ -284,47 +293,21 @@ public void render(float delta) {
         if (KeyBindingManager.getInstance().isJustPressed(KeyBindingManager.GameAction.CONSOLE)) {
             console.toggle();
         }
-
-        // ===== Input =====
-        if (!paused && !console.isVisible() && !gm.isLevelTransitionInProgress() && !gameOverShown) {
-            input.update(delta, new PlayerInputHandler.InputHandlerCallback() {
-                @Override public void onMoveInput(Player.PlayerIndex i, int dx, int dy) { gm.onMoveInput(i, dx, dy); }
-                @Override public float getMoveDelayMultiplier() { return 1f; }
-                @Override public boolean onAbilityInput(Player.PlayerIndex i, int s) { return gm.onAbilityInput(i, s); }
-                @Override public void onInteractInput(Player.PlayerIndex i) { gm.onInteractInput(i); }
-                @Override public void onMenuInput() { togglePause();  }
-                @Override public boolean isUIConsumingMouse() { return gm.isUIConsumingMouse(); }
-            }, Player.PlayerIndex.P1);
-
-            if (gm.isTwoPlayerMode()) {
-                input.update(delta, new PlayerInputHandler.InputHandlerCallback() {
-                    @Override public void onMoveInput(Player.PlayerIndex i, int dx, int dy) { gm.onMoveInput(i, dx, dy); }
-                    @Override public float getMoveDelayMultiplier() { return 1f; }
-                    @Override public boolean onAbilityInput(Player.PlayerIndex i, int s) { return gm.onAbilityInput(i, s); }
-                    @Override public void onInteractInput(Player.PlayerIndex i) { gm.onInteractInput(i); }
-                    @Override public void onMenuInput() {}
-                    @Override public boolean isUIConsumingMouse() { return gm.isUIConsumingMouse(); }
-                }, Player.PlayerIndex.P2);
-            }
+        if (KeyBindingManager.getInstance().isJustPressed(KeyBindingManager.GameAction.PROFILER)) {
+            Profiler.toggle();
         }
+
         ScreenUtils.clear(0.1f, 0.1f, 0.1f, 1f);
 
         // ===== Update =====
         if (!isGamePaused()) {
-            gm.update(delta);
+            // time_scale 改变每帧的模拟步数（和无尽模式一致），计时器和冷却跟着变快变慢
+            float timeScale = gm.getVariable("time_scale");
+            gm.advance(delta * timeScale);
             if (fogSystem != null) fogSystem.update(delta);
 
             if (playerTrailManager != null) {
-                for (Player p : gm.getPlayers()) {
-                    playerTrailManager.update(
-                            delta,
-                            p.getWorldX(),
-                            p.getWorldY(),
-                            p.isDashing(),
-                            p.getCurrentFrame(),
-                            Color.CYAN // 残影颜色
-                    );
-                }
+                updatePlayerTrails(delta);
             }
 
             if (gm.isLevelCompletedPendingSettlement()) {
@@ -337,15 +320,18 @@ public void render(float delta) {
             }
 
             if (!console.isVisible()) {
-                float timeScale = gm.getVariable("time_scale");
-                float gameDelta = delta * timeScale;
-                cam.update(gameDelta, gm);
+                cam.update(delta * timeScale, gm);
             }
         }
 
         // ===== World Render =====
+        // 实体画在上一步与当前步之间的插值位置
+        Profiler.begin(Profiler.Phase.WORLD);
+        gm.beginInterpolatedRender();
         worldViewport.apply();
         batch.setProjectionMatrix(cam.getCamera().combined);
+        // 只处理镜头内（含贴图余量）的墙、实体和特效
+        viewCuller.begin(cam.getCamera());
 
         /* =========================================================
            ① 地板 + 门背后呼吸光
@@ -355,51 +341,32 @@ public void render(float delta) {
         batch.setColor(Color.WHITE);
 
         maze.renderFloor(batch);
-        List<ExitDoor> exitDoorsCopy = new ArrayList<>(gm.getExitDoors());
-        exitDoorsCopy.forEach(d -> d.renderPortalBack(batch));
+        for (ExitDoor d : gm.getExitDoors()) {
+            if (isPortalVisible(d)) d.renderPortalBack(batch);
+        }
         batch.end();
 
         /* =========================================================
            ② 世界实体排序渲染
            ========================================================= */
-        List<Item> items = new ArrayList<>();
-        // ... (Item sorting logic unchanged)
-        for (var wg : maze.getWallGroups()) {
-            boolean front = maze.isWallInFrontOfAnyEntity(wg.startX, wg.startY);
-            items.add(new Item(wg, front ? Type.WALL_FRONT : Type.WALL_BEHIND));
-        }
-        for (Player p : gm.getPlayers()) items.add(new Item(p, 100));
-        if (gm.getCat() != null) items.add(new Item(gm.getCat(), 95));
-        List<Enemy> enemiesCopy = new ArrayList<>(gm.getEnemies());
-        enemiesCopy.forEach(e -> items.add(new Item(e, 50)));
-        List<Trap> trapsCopy = new ArrayList<>(gm.getTraps());
-        trapsCopy.forEach(t -> { if (t.isActive() && t instanceof GameObject) items.add(new Item((GameObject)t, 45)); });
-        exitDoorsCopy.forEach(d -> items.add(new Item(d, 45)));
-        List<Heart> heartsCopy = new ArrayList<>(gm.getHearts());
-        heartsCopy.forEach(h -> { if (h.isActive()) items.add(new Item(h, 30)); });
-        List<Treasure> treasuresCopy = new ArrayList<>(gm.getTreasures());
-        treasuresCopy.forEach(t -> items.add(new Item(t, 20)));
-        List<Chapter1Relic> relicsCopy = new ArrayList<>(gm.getChapterRelics());
-        relicsCopy.forEach(r -> items.add(new Item(r, 25)));
-        List<HeartContainer> containersCopy = new ArrayList<>(gm.getHeartContainers());
-        containersCopy.forEach(hc -> { if (hc.isActive()) items.add(new Item(hc, 30)); });
-        List<DynamicObstacle> obstaclesCopy = new ArrayList<>(gm.getObstacles());
-        obstaclesCopy.forEach(o -> items.add(new Item(o, 40)));
-        List<Key> keysCopy = new ArrayList<>(gm.getKeys());
-        keysCopy.forEach(k -> { if (k.isActive()) items.add(new Item(k, 35)); });
-
-        items.sort(Comparator.comparingDouble((Item i) -> -i.y)
-                .thenComparingInt(i -> i.type.ordinal())
-                .thenComparingInt(i -> i.priority));
+        // 墙按行常驻在烘焙墙层里；实体条目跨帧保留，换行时才换桶
+        renderQueue.begin(gm.getMaze().getHeight());
+        for (Player p : gm.getPlayers()) renderQueue.submit(p, 100);
+        if (gm.getCat() != null) renderQueue.submit(gm.getCat(), 95);
+        // 直接遍历实体存储，不再每帧复制列表
+        for (Enemy e : gm.getEnemies()) if (viewCuller.isVisible(e)) renderQueue.submit(e, 50);
+        for (Trap t : gm.getTraps()) if (t.isActive() && viewCuller.isVisible(t)) renderQueue.submit(t, 45);
+        for (ExitDoor d : gm.getExitDoors()) if (viewCuller.isVisible(d)) renderQueue.submit(d, 45);
+        for (Heart h : gm.getHearts()) if (h.isActive() && viewCuller.isVisible(h)) renderQueue.submit(h, 30);
+        for (Treasure t : gm.getTreasures()) if (viewCuller.isVisible(t)) renderQueue.submit(t, 20);
+        for (Chapter1Relic r : gm.getChapterRelics()) if (viewCuller.isVisible(r)) renderQueue.submit(r, 25);
+        for (HeartContainer hc : gm.getHeartContainers()) if (hc.isActive() && viewCuller.isVisible(hc)) renderQueue.submit(hc, 30);
+        for (DynamicObstacle o : gm.getObstacles()) if (viewCuller.isVisible(o)) renderQueue.submit(o, 40);
+        for (Key k : gm.getKeys()) if (k.isActive() && viewCuller.isVisible(k)) renderQueue.submit(k, 35);
+        renderQueue.end();
 
         batch.begin();
-        for (Item it : items) {
-            if (it.wall != null) {
-                maze.renderWallGroup(batch, it.wall);
-            } else {
-                it.entity.drawSprite(batch);
-            }
-        }
+        renderQueue.render(batch, maze, viewCuller);
         batch.end();
 
         batch.begin();
@@ -420,25 +387,29 @@ public void render(float delta) {
            ③ 门前龙卷风粒子 + 特效
            ========================================================= */
         batch.begin();
-        exitDoorsCopy.forEach(d -> d.renderPortalFront(batch));
+        for (ExitDoor d : gm.getExitDoors()) {
+            if (isPortalVisible(d)) d.renderPortalFront(batch);
+        }
         if (gm.getKeyEffectManager() != null) gm.getKeyEffectManager().render(batch);
 
         if (playerTrailManager != null) {
-            playerTrailManager.render(batch);
+            playerTrailManager.render(batch, viewCuller);
             // 残影绘制完后，立即重置颜色为白色，防止影响后续特效
             batch.setColor(Color.WHITE);
         }
 
-        gm.getBobaBulletEffectManager().render(batch);
-        if (gm.getItemEffectManager() != null) gm.getItemEffectManager().renderSprites(batch);
-        if (gm.getTrapEffectManager() != null) gm.getTrapEffectManager().renderSprites(batch);
-        if (gm.getCombatEffectManager() != null) gm.getCombatEffectManager().renderSprites(batch);
+        gm.getBobaBulletEffectManager().render(batch, viewCuller);
+        if (gm.getItemEffectManager() != null) gm.getItemEffectManager().renderSprites(batch, viewCuller);
+        if (gm.getTrapEffectManager() != null) gm.getTrapEffectManager().renderSprites(batch, viewCuller);
+        if (gm.getCombatEffectManager() != null) gm.getCombatEffectManager().renderSprites(batch, viewCuller);
         batch.end();
+        Profiler.end(Profiler.Phase.WORLD);
 
         // ===== Shape/粒子层 =====
+        Profiler.begin(Profiler.Phase.SHAPES);
         shapeRenderer.setProjectionMatrix(cam.getCamera().combined);
-        if (gm.getItemEffectManager() != null) gm.getItemEffectManager().renderShapes(shapeRenderer);
-        if (gm.getTrapEffectManager() != null) gm.getTrapEffectManager().renderShapes(shapeRenderer);
+        if (gm.getItemEffectManager() != null) gm.getItemEffectManager().renderShapes(shapeRenderer, viewCuller);
+        if (gm.getTrapEffectManager() != null) gm.getTrapEffectManager().renderShapes(shapeRenderer, viewCuller);
 
         if (gm.getCombatEffectManager() != null) {
             Gdx.gl.glEnable(Gdx.gl.GL_BLEND);
@@ -446,7 +417,7 @@ public void render(float delta) {
 
             // 确保使用 Filled 模式，避免 DashEffect 的潜在 Line 模式残留
             shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
-            gm.getCombatEffectManager().renderShapes(shapeRenderer);
+            gm.getCombatEffectManager().renderShapes(shapeRenderer, viewCuller);
             shapeRenderer.end();
         }
 
@@ -469,8 +440,11 @@ public void render(float delta) {
                 p.getAbilityManager().drawAbilities(batch, shapeRenderer, p);
             }
         }
+        viewCuller.report();
+        Profiler.end(Profiler.Phase.SHAPES);
 
         // 雾
+        Profiler.begin(Profiler.Phase.FOG);
         batch.begin();
         if (fogSystem != null) {
             fogSystem.render(
@@ -481,6 +455,7 @@ public void render(float delta) {
             );
         }
         batch.end();
+        Profiler.end(Profiler.Phase.FOG);
 
         // Debug Lines
         if (Logger.isDebugEnabled()) {
@@ -506,7 +481,11 @@ public void render(float delta) {
             shapeRenderer.end();
         }
 
+        gm.endInterpolatedRender();
+
+        Profiler.begin(Profiler.Phase.HUD);
         renderUI();
+        Profiler.end(Profiler.Phase.HUD);
 
         if (paused) {
             if (!pauseUIInitialized) initPauseUI();
@@ -681,6 +660,7 @@ private void showGameOverScreen() {
     public void dispose() {
         maze.dispose();
         if (console != null) console.dispose();
+        profilerOverlay.dispose();
         if (gameOverStage != null) gameOverStage.dispose();
         if (worldHintFont != null) worldHintFont.dispose();
         if (playerTrailManager != null) playerTrailManager.dispose();
@@ -1,6 +1,7 @@
 package de.tum.cit.fop.maze.tools;
 
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.Texture;
@@ -14,9 +15,15 @@
 import com.badlogic.gdx.utils.Align;
 import com.badlogic.gdx.utils.viewport.ScreenViewport;
 import de.tum.cit.fop.maze.game.GameManager;
+import de.tum.cit.fop.maze.game.replay.Replay;
+import de.tum.cit.fop.maze.game.replay.ReplayPlayer;
 import de.tum.cit.fop.maze.entities.Player;
 import de.tum.cit.fop.maze.entities.enemy.Enemy;
 
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
 /**
  * 开发者控制台 (独立样式版)
  * 不依赖 uiskin.json，使用自带的字体和纹理生成 UI。
@@ -125,7 +132,7 @@ private void processCommand(String rawCommand) {
         try {
             switch (command) {
                 case "help":
-                    log("Available: heal [amt], give_key, kill_all, clear");
+                    log("Available: heal [amt], give_key, kill_all, clear, replay record|stop|play [file]|status, prof on|off|dump");
                     break;
                 case "clear":
                     logHistory.setLength(0);
@@ -169,6 +176,16 @@ private void processCommand(String rawCommand) {
                                     log("Error: time_scale cannot be negative."); // 不能是负数 (>=0)
                                     break; // 终止执行
                                 }
+                            } else if (key.equals("tick_rate")) {
+                                if (val < 10 || val > 240) {
+                                    log("Error: tick_rate must be between 10 and 240."); // 每秒模拟步数
+                                    break;
+                                }
+                            } else if (key.equals("max_catchup")) {
+                                if (val < 1) {
+                                    log("Error: max_catchup must be at least 1."); // 单帧最多追帧步数
+                                    break;
+                                }
                             }
 
                             // 检查通过，执行设置
@@ -192,6 +209,16 @@ private void processCommand(String rawCommand) {
                     }
                     break;
 
+                // 录像：record 从本关开头重新开始并录制，stop 保存到 replays/，play 用录像的种子重开本关并回放
+                case "replay":
+                    handleReplayCommand(parts);
+                    break;
+
+                // 帧分析：on/off 开关叠加层（同 F3），dump 把各阶段百分位写到 profiles/
+                case "prof":
+                    handleProfilerCommand(parts);
+                    break;
+
                 default:
                     log("Unknown command.");
                     break;
@@ -201,6 +228,84 @@ private void processCommand(String rawCommand) {
         }
     }
 
+    private void handleReplayCommand(String[] parts) throws IOException {
+        String sub = parts.length > 1 ? parts[1].toLowerCase() : "status";
+        switch (sub) {
+            case "record":
+                gameManager.startRecording();
+                log("Level restarted, recording...");
+                break;
+            case "stop":
+                FileHandle saved = gameManager.stopRecording();
+                log(saved == null ? "Not recording." : gameManager.getLastReplayReport());
+                break;
+            case "play":
+                FileHandle file = parts.length > 2 ? resolveReplayFile(parts[2]) : latestReplayFile();
+                if (file == null || !file.exists()) {
+                    log("Replay file not found.");
+                    break;
+                }
+                gameManager.startPlayback(Replay.load(file));
+                log("Playing " + file.name() + " ...");
+                break;
+            case "status":
+                if (gameManager.isRecording()) {
+                    log("Recording (tick " + gameManager.getSimulationTick() + ")");
+                } else if (gameManager.getReplayPlayer() != null) {
+                    ReplayPlayer player = gameManager.getReplayPlayer();
+                    log("Playing " + player.getPosition(gameManager.getSimulationTick()) + " / " + player.getReplay().getLength());
+                } else {
+                    String report = gameManager.getLastReplayReport();
+                    log(report == null ? "Idle." : report);
+                }
+                break;
+            default:
+                log("Usage: replay record|stop|play [file]|status");
+                break;
+        }
+    }
+
+    private void handleProfilerCommand(String[] parts) {
+        String sub = parts.length > 1 ? parts[1].toLowerCase() : "";
+        switch (sub) {
+            case "on":
+                Profiler.setEnabled(true);
+                log("Profiler on.");
+                break;
+            case "off":
+                Profiler.setEnabled(false);
+                log("Profiler off.");
+                break;
+            case "dump":
+                if (Profiler.getFrameCount() == 0) {
+                    log("No samples yet. Use 'prof on' first.");
+                    break;
+                }
+                String stamp = new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
+                FileHandle csv = Gdx.files.local("profiles/profile_" + stamp + ".csv");
+                Profiler.exportCsv(csv);
+                log(Profiler.summary());
+                log("Saved " + csv.path());
+                break;
+            default:
+                log("Usage: prof on|off|dump");
+                break;
+        }
+    }
+
+    private FileHandle resolveReplayFile(String name) {
+        FileHandle direct = Gdx.files.local(name);
+        return direct.exists() ? direct : Gdx.files.local("replays/" + name);
+    }
+
+    private FileHandle latestReplayFile() {
+        FileHandle latest = null;
+        for (FileHandle f : Gdx.files.local("replays").list(".mrp")) {
+            if (latest == null || f.lastModified() > latest.lastModified()) latest = f;
+        }
+        return latest;
+    }
+
     private void log(String message) {
         logHistory.append(message).append("\n");
         if (logLabel != null) {
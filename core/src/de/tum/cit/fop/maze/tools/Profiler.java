@@ -0,0 +1,271 @@
+package de.tum.cit.fop.maze.tools;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
+import de.tum.cit.fop.maze.game.GameRuntime;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * 帧分析器 (Frame Profiler)
+ * <p>
+ * 用法：{@code Profiler.begin(Phase.ENEMIES); ...; Profiler.end(Phase.ENEMIES);}，
+ * 每帧结束时调用 {@link #endFrame()}。同一阶段一帧内可以进出多次（例如一帧跑了两个模拟步），耗时累加。
+ * <p>
+ * 每个阶段最近 {@link #HISTORY} 帧的耗时存在定长环形数组里，运行中不分配任何对象；
+ * 关闭时 begin / end 只判断一次开关。只能在渲染线程调用。
+ * <p>
+ * 开关：{@link de.tum.cit.fop.maze.input.KeyBindingManager.GameAction#PROFILER}（默认 F3）
+ * 或控制台 {@code prof on|off|dump}；dump 把各阶段 p50 / p95 / p99 写成 CSV。
+ * <p>
+ * 除了耗时，还可以用 {@link #count(Counter, int)} 记录每帧的计数（如视野裁剪的可见 / 裁掉数量），
+ * 叠加层显示上一帧的值。
+ * 打开时还通过 {@link GLProfiler} 统计每帧的 draw call 和纹理切换次数（合并图集前后对比用）。
+ */
+public final class Profiler {
+
+    /**
+     * 计时阶段；depth 只用于叠加层缩进，表示被哪个阶段包含
+     */
+    public enum Phase {
+        FRAME("Frame", 0),
+        INPUT("Input", 1),
+        SIMULATION("Simulation", 1),
+        PLAYERS("Players", 2),
+        PATHFINDING("Pathfinding", 2),
+        TRAPS("Traps", 2),
+        ENEMIES("Enemies", 2),
+        OBSTACLES("Obstacles", 2),
+        BULLETS("Bullets", 2),
+        COLLISIONS("Collisions", 2),
+        EFFECTS("Effects", 2),
+        AUTOSAVE("Autosave", 2),
+        WORLD("World", 1),
+        SHAPES("Shapes", 1),
+        FOG("Fog", 1),
+        HUD("HUD", 1);
+
+        public final String label;
+        public final int depth;
+
+        Phase(String label, int depth) {
+            this.label = label;
+            this.depth = depth;
+        }
+    }
+
+    /**
+     * 每帧计数项
+     */
+    public enum Counter {
+        VISIBLE("Visible"),
+        CULLED("Culled"),
+        DRAW_CALLS("Draws"),
+        TEXTURE_BINDS("Binds");
+
+        public final String label;
+
+        Counter(String label) {
+            this.label = label;
+        }
+    }
+
+    /** 每个阶段保留的帧数（60 FPS 下约 10 秒） */
+    public static final int HISTORY = 600;
+
+    private static final Phase[] PHASES = Phase.values();
+    private static final Counter[] COUNTERS = Counter.values();
+
+    private static boolean enabled;
+    /** 包装 GL 调用做计数；只在打开分析器时启用（无头模式没有 GL） */
+    private static GLProfiler glProfiler;
+
+    private static final long[] startNanos = new long[PHASES.length];
+    private static final long[] frameNanos = new long[PHASES.length];
+    private static final long[][] history = new long[PHASES.length][HISTORY];
+    /* 下一帧写入的位置 */
+    private static int cursor;
+    /* 已记录的帧数（不超过 HISTORY） */
+    private static int frames;
+    /* 计算百分位用的排序缓冲 */
+    private static final long[] scratch = new long[HISTORY];
+
+    private static final int[] frameCounts = new int[COUNTERS.length];
+    private static final int[] lastCounts = new int[COUNTERS.length];
+
+    private Profiler() {}
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 打开时清空旧数据，避免混入上一次的采样
+     */
+    public static void setEnabled(boolean on) {
+        if (on && !enabled) reset();
+        enabled = on;
+        setGlProfiling(on);
+    }
+
+    private static void setGlProfiling(boolean on) {
+        if (GameRuntime.isHeadless() || Gdx.graphics == null) return;
+        if (glProfiler == null) {
+            if (!on) return;
+            glProfiler = new GLProfiler(Gdx.graphics);
+        }
+        if (on) {
+            glProfiler.reset();
+            glProfiler.enable();
+        } else {
+            glProfiler.disable();
+        }
+    }
+
+    public static void toggle() {
+        setEnabled(!enabled);
+    }
+
+    public static void reset() {
+        Arrays.fill(frameNanos, 0);
+        for (long[] h : history) Arrays.fill(h, 0);
+        Arrays.fill(frameCounts, 0);
+        Arrays.fill(lastCounts, 0);
+        cursor = 0;
+        frames = 0;
+    }
+
+    public static void begin(Phase phase) {
+        if (!enabled) return;
+        startNanos[phase.ordinal()] = System.nanoTime();
+    }
+
+    public static void end(Phase phase) {
+        if (!enabled) return;
+        int i = phase.ordinal();
+        if (startNanos[i] == 0) return;
+        frameNanos[i] += System.nanoTime() - startNanos[i];
+        startNanos[i] = 0;
+    }
+
+    public static void count(Counter counter, int n) {
+        if (!enabled) return;
+        frameCounts[counter.ordinal()] += n;
+    }
+
+    /**
+     * 上一帧的计数
+     */
+    public static int getLastCount(Counter counter) {
+        return lastCounts[counter.ordinal()];
+    }
+
+    /**
+     * 把本帧各阶段的累计耗时写入环形数组；没有进入过的阶段记 0
+     */
+    public static void endFrame() {
+        if (!enabled) return;
+        if (glProfiler != null && glProfiler.isEnabled()) {
+            count(Counter.DRAW_CALLS, glProfiler.getDrawCalls());
+            count(Counter.TEXTURE_BINDS, glProfiler.getTextureBindings());
+            glProfiler.reset();
+        }
+        for (int i = 0; i < PHASES.length; i++) {
+            history[i][cursor] = frameNanos[i];
+            frameNanos[i] = 0;
+            startNanos[i] = 0;
+        }
+        for (int i = 0; i < COUNTERS.length; i++) {
+            lastCounts[i] = frameCounts[i];
+            frameCounts[i] = 0;
+        }
+        cursor = (cursor + 1) % HISTORY;
+        if (frames < HISTORY) frames++;
+    }
+
+    public static int getFrameCount() {
+        return frames;
+    }
+
+    /**
+     * 最近 n 帧的平均耗时（纳秒）
+     */
+    public static long getAverageNanos(Phase phase, int n) {
+        n = Math.min(n, frames);
+        if (n == 0) return 0;
+        long[] h = history[phase.ordinal()];
+        long sum = 0;
+        for (int k = 1; k <= n; k++) {
+            sum += h[(cursor - k + HISTORY) % HISTORY];
+        }
+        return sum / n;
+    }
+
+    /**
+     * 最近 n 帧中的最大耗时（纳秒）
+     */
+    public static long getMaxNanos(Phase phase, int n) {
+        n = Math.min(n, frames);
+        long[] h = history[phase.ordinal()];
+        long max = 0;
+        for (int k = 1; k <= n; k++) {
+            max = Math.max(max, h[(cursor - k + HISTORY) % HISTORY]);
+        }
+        return max;
+    }
+
+    /**
+     * 全部已记录帧的第 p 百分位（0 ~ 100，最近秩法），单位纳秒
+     */
+    public static long getPercentileNanos(Phase phase, double p) {
+        if (frames == 0) return 0;
+        System.arraycopy(history[phase.ordinal()], 0, scratch, 0, frames);
+        Arrays.sort(scratch, 0, frames);
+        int rank = (int) Math.ceil(p / 100.0 * frames);
+        return scratch[Math.max(0, Math.min(frames - 1, rank - 1))];
+    }
+
+    /**
+     * 各阶段的 p50 / p95 / p99 / 平均 / 最大（毫秒）
+     */
+    public static String toCsv() {
+        StringBuilder sb = new StringBuilder("phase,p50_ms,p95_ms,p99_ms,mean_ms,max_ms,frames\n");
+        for (Phase phase : PHASES) {
+            sb.append(phase.name().toLowerCase(Locale.ROOT));
+            for (double p : new double[]{50, 95, 99}) {
+                sb.append(',').append(millis(getPercentileNanos(phase, p)));
+            }
+            sb.append(',').append(millis(getAverageNanos(phase, frames)));
+            sb.append(',').append(millis(getMaxNanos(phase, frames)));
+            sb.append(',').append(frames).append('\n');
+        }
+        return sb.toString();
+    }
+
+    public static void exportCsv(FileHandle file) {
+        file.writeString(toCsv(), false, "UTF-8");
+    }
+
+    /**
+     * 一行摘要：每个阶段的 p95，按耗时从大到小（FRAME 放最前）
+     */
+    public static String summary() {
+        Phase[] sorted = PHASES.clone();
+        long[] p95 = new long[PHASES.length];
+        for (Phase phase : PHASES) p95[phase.ordinal()] = getPercentileNanos(phase, 95);
+        Arrays.sort(sorted, (a, b) -> a == Phase.FRAME ? -1 : b == Phase.FRAME ? 1
+                : Long.compare(p95[b.ordinal()], p95[a.ordinal()]));
+
+        StringBuilder sb = new StringBuilder("p95 over ").append(frames).append(" frames:");
+        for (Phase phase : sorted) {
+            sb.append(' ').append(phase.label).append('=').append(millis(p95[phase.ordinal()])).append("ms");
+        }
+        return sb.toString();
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1e6);
+    }
+}
@@ -0,0 +1,134 @@
+package de.tum.cit.fop.maze.tools;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.math.Matrix4;
+import de.tum.cit.fop.maze.game.GameRuntime;
+
+/**
+ * 帧分析叠加层 (Profiler Overlay)
+ * <p>
+ * 左上角按阶段画横条：条长为最近 {@link #WINDOW} 帧的平均耗时，细线为其中的最大值，
+ * 竖线是 16.6 ms（60 FPS）预算。子阶段按 {@link Profiler.Phase#depth} 缩进。
+ * 最下面一行是上一帧的计数（{@link Profiler.Counter}）。
+ * 自带画笔和字体，不受游戏镜头影响；绘制过程不分配对象。
+ */
+public class ProfilerOverlay {
+
+    /** 平均值取最近多少帧 */
+    private static final int WINDOW = 60;
+    private static final float BUDGET_MS = 1000f / 60f;
+    /** 条长：每毫秒多少像素 */
+    private static final float PX_PER_MS = 24f;
+
+    private static final float ROW_H = 18f;
+    private static final float LABEL_W = 150f;
+    private static final float INDENT = 12f;
+    private static final float MARGIN = 12f;
+
+    private static final Profiler.Counter[] COUNTERS = Profiler.Counter.values();
+
+    private ShapeRenderer shapes;
+    private SpriteBatch batch;
+    private BitmapFont font;
+    private final Matrix4 projection = new Matrix4();
+    private final StringBuilder text = new StringBuilder();
+
+    public void render() {
+        if (!Profiler.isEnabled() || GameRuntime.isHeadless()) return;
+        if (shapes == null) {
+            shapes = new ShapeRenderer();
+            batch = new SpriteBatch();
+            font = new BitmapFont();
+        }
+
+        int w = Gdx.graphics.getWidth();
+        int h = Gdx.graphics.getHeight();
+        Gdx.gl.glViewport(0, 0, w, h);
+        projection.setToOrtho2D(0, 0, w, h);
+
+        Profiler.Phase[] phases = Profiler.Phase.values();
+        float barX = MARGIN + LABEL_W;
+        float budgetX = barX + BUDGET_MS * PX_PER_MS;
+        float panelW = LABEL_W + BUDGET_MS * PX_PER_MS * 1.5f + MARGIN;
+        float panelH = (phases.length + 2) * ROW_H + MARGIN;
+        float top = h - MARGIN;
+
+        Gdx.gl.glEnable(GL20.GL_BLEND);
+        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        shapes.setProjectionMatrix(projection);
+        shapes.begin(ShapeRenderer.ShapeType.Filled);
+        shapes.setColor(0f, 0f, 0f, 0.6f);
+        shapes.rect(MARGIN / 2f, top - panelH, panelW, panelH);
+
+        for (int i = 0; i < phases.length; i++) {
+            Profiler.Phase phase = phases[i];
+            float y = top - (i + 2) * ROW_H + 4f;
+            float avgMs = Profiler.getAverageNanos(phase, WINDOW) / 1e6f;
+            float maxMs = Profiler.getMaxNanos(phase, WINDOW) / 1e6f;
+            float x = barX + phase.depth * INDENT;
+            float limit = panelW - (x - MARGIN / 2f);
+
+            // 超出预算的阶段画红色，超过一半画黄色
+            if (avgMs > BUDGET_MS) shapes.setColor(0.95f, 0.25f, 0.2f, 0.9f);
+            else if (avgMs > BUDGET_MS / 2f) shapes.setColor(0.95f, 0.8f, 0.2f, 0.9f);
+            else shapes.setColor(0.3f, 0.85f, 0.4f, 0.9f);
+            shapes.rect(x, y, Math.min(avgMs * PX_PER_MS, limit), ROW_H - 6f);
+
+            shapes.setColor(1f, 1f, 1f, 0.6f);
+            shapes.rect(x, y + (ROW_H - 6f) / 2f - 0.5f, Math.min(maxMs * PX_PER_MS, limit), 1f);
+        }
+
+        shapes.setColor(1f, 0.3f, 0.3f, 1f);
+        shapes.rect(budgetX, top - panelH, 1.5f, panelH - ROW_H);
+        shapes.end();
+
+        batch.setProjectionMatrix(projection);
+        batch.begin();
+        text.setLength(0);
+        text.append("PROFILER  avg/max of ").append(Math.min(WINDOW, Profiler.getFrameCount()))
+                .append(" frames  | budget 16.6 ms");
+        font.draw(batch, text, MARGIN, top - 2f);
+
+        for (int i = 0; i < phases.length; i++) {
+            Profiler.Phase phase = phases[i];
+            float y = top - (i + 1) * ROW_H - 2f;
+            text.setLength(0);
+            for (int d = 0; d < phase.depth; d++) text.append("  ");
+            text.append(phase.label).append(' ');
+            appendMillis(text, Profiler.getAverageNanos(phase, WINDOW));
+            font.draw(batch, text, MARGIN, y);
+        }
+
+        text.setLength(0);
+        for (Profiler.Counter counter : COUNTERS) {
+            if (text.length() > 0) text.append("  ");
+            text.append(counter.label).append(' ').append(Profiler.getLastCount(counter));
+        }
+        font.draw(batch, text, MARGIN, top - (phases.length + 1) * ROW_H - 2f);
+        batch.end();
+    }
+
+    /**
+     * 追加 "x.xx" 格式的毫秒数（不经过 String.format，避免每帧分配）
+     */
+    private static void appendMillis(StringBuilder sb, long nanos) {
+        long hundredths = (nanos + 5_000) / 10_000;
+        sb.append(hundredths / 100).append('.');
+        long frac = hundredths % 100;
+        if (frac < 10) sb.append('0');
+        sb.append(frac);
+    }
+
+    public void dispose() {
+        if (shapes != null) shapes.dispose();
+        if (batch != null) batch.dispose();
+        if (font != null) font.dispose();
+        shapes = null;
+        batch = null;
+        font = null;
+    }
+}
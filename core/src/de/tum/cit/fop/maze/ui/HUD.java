@@ -3,7 +3,6 @@
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.*;
 import com.badlogic.gdx.graphics.glutils.ShaderProgram;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
@@ -18,6 +17,7 @@
 import de.tum.cit.fop.maze.game.GameManager;
 import de.tum.cit.fop.maze.game.achievement.*;
 import de.tum.cit.fop.maze.game.score.UpgradeCost;
+import de.tum.cit.fop.maze.utils.AtlasManager;
 import de.tum.cit.fop.maze.utils.Logger;
 import de.tum.cit.fop.maze.utils.TextureManager;
 
@@ -134,8 +134,8 @@ private enum HUDLayoutMode {
     private ShaderProgram iceHeartShader;
 
     // ===== 生命值 =====
-    private Texture heartFull;
-    private Texture heartHalf;
+    private TextureRegion heartFull;
+    private TextureRegion heartHalf;
 
     private static final int MAX_HEARTS_DISPLAY = 40;
     private static final int HEARTS_PER_ROW = 5;
@@ -150,16 +150,19 @@ private enum HUDLayoutMode {
     private final Map<Player.PlayerIndex, Boolean> shakingMap = new HashMap<>();
     private final Map<Player.PlayerIndex, Float> shakeTimerMap = new HashMap<>();
     // ===== Mana UI =====
-    private Texture manaBaseP1;
-    private Texture manaFillP1;
-    private Texture manaGlowP1;
+    /** 法力条切片用的临时区域（左右帽、中段、光晕），避免每帧 new */
+    private final TextureRegion subRegion = new TextureRegion();
 
-    private Texture manaBaseP2;
-    private Texture manaFillP2;
-    private Texture manaGlowP2;
+    private TextureRegion manaBaseP1;
+    private TextureRegion manaFillP1;
+    private TextureRegion manaGlowP1;
 
-    private Texture manadeco_1;
-    private Texture manadeco_2;
+    private TextureRegion manaBaseP2;
+    private TextureRegion manaFillP2;
+    private TextureRegion manaGlowP2;
+
+    private TextureRegion manadeco_1;
+    private TextureRegion manadeco_2;
 
     private float manaGlowTime = 0f;
 
@@ -173,15 +176,15 @@ private enum HUDLayoutMode {
     private final Map<Integer, List<ManaParticle>> manaParticlesMap = new HashMap<>();
 
     // ===== Dash / Melee / Magic =====
-    private Texture dashIconP1;
-    private Texture dashIconP2;
-    private Texture dashIcon;
+    private TextureRegion dashIconP1;
+    private TextureRegion dashIconP2;
+    private TextureRegion dashIcon;
 
-    private Texture meleeIcon;
+    private TextureRegion meleeIcon;
 
-    private Texture magicBg;
-    private Texture magicGrow;
-    private Texture magicIconTop;
+    private TextureRegion magicBg;
+    private TextureRegion magicGrow;
+    private TextureRegion magicIconTop;
 
     private static final int DASH_ICON_SIZE = 200;
     private static final int MELEE_ICON_SIZE = 160;
@@ -190,9 +193,9 @@ private enum HUDLayoutMode {
     private static final int MELEE_UI_OFFSET_X = DASH_ICON_SIZE + 20;
 
     // ===== Buff Icons =====
-    private Texture iconAtk;
-    private Texture iconRegen;
-    private Texture iconMana;
+    private TextureRegion iconAtk;
+    private TextureRegion iconRegen;
+    private TextureRegion iconMana;
     // ===== Mouse Click Edge Detect =====
     private boolean lastMouseDown = false;
 
@@ -265,35 +268,36 @@ public HUD(GameManager gameManager) {
         sparkleStar = sparkleAtlas.findRegion("star");
         sparkleFlower = sparkleAtlas.findRegion("flower");
 
-        // Mana
-        manaBaseP1 = new Texture(Gdx.files.internal("ui/HUD/manabar_base.png"));
+        // Mana（按路径从 AtlasManager 取区域，大部分在 HUD 合并图集的同一张纹理上）
+        AtlasManager atlas = AtlasManager.getInstance();
+        manaBaseP1 = atlas.findRegion("ui/HUD/manabar_base.png");
         manaBaseP2 = manaBaseP1;
 
-        manaFillP1 = new Texture(Gdx.files.internal("ui/HUD/manabar_1_fill.png"));
-        manaGlowP1 = new Texture(Gdx.files.internal("ui/HUD/manabar_1_grow.png"));
-        manadeco_1 = new Texture(Gdx.files.internal("ui/HUD/bar_star1.png"));
+        manaFillP1 = atlas.findRegion("ui/HUD/manabar_1_fill.png");
+        manaGlowP1 = atlas.findRegion("ui/HUD/manabar_1_grow.png");
+        manadeco_1 = atlas.findRegion("ui/HUD/bar_star1.png");
 
-        manaFillP2 = new Texture(Gdx.files.internal("ui/HUD/manabar_2_fill.png"));
-        manaGlowP2 = new Texture(Gdx.files.internal("ui/HUD/manabar_2_grow.png"));
-        manadeco_2 = new Texture(Gdx.files.internal("ui/HUD/bar_star2.png"));
+        manaFillP2 = atlas.findRegion("ui/HUD/manabar_2_fill.png");
+        manaGlowP2 = atlas.findRegion("ui/HUD/manabar_2_grow.png");
+        manadeco_2 = atlas.findRegion("ui/HUD/bar_star2.png");
 
         // Hearts
-        heartFull = new Texture(Gdx.files.internal("ui/HUD/live_000.png"));
-        heartHalf = new Texture(Gdx.files.internal("ui/HUD/live_001.png"));
+        heartFull = atlas.findRegion("ui/HUD/live_000.png");
+        heartHalf = atlas.findRegion("ui/HUD/live_001.png");
 
         // Dash / Melee / Magic
-        dashIconP1 = new Texture(Gdx.files.internal("ui/HUD/icon_dash.png"));
-        dashIconP2 = new Texture(Gdx.files.internal("ui/HUD/icon_dash_2.png"));
+        dashIconP1 = atlas.findRegion("ui/HUD/icon_dash.png");
+        dashIconP2 = atlas.findRegion("ui/HUD/icon_dash_2.png");
 
-        meleeIcon = new Texture(Gdx.files.internal("ui/HUD/icon_melee.png"));
-        magicBg = new Texture(Gdx.files.internal("ui/HUD/magicicon_bg.png"));
-        magicGrow = new Texture(Gdx.files.internal("ui/HUD/magicicon_grow.png"));
-        magicIconTop = new Texture(Gdx.files.internal("ui/HUD/icon_magic_base.png"));
+        meleeIcon = atlas.findRegion("ui/HUD/icon_melee.png");
+        magicBg = atlas.findRegion("ui/HUD/magicicon_bg.png");
+        magicGrow = atlas.findRegion("ui/HUD/magicicon_grow.png");
+        magicIconTop = atlas.findRegion("ui/HUD/icon_magic_base.png");
 
         // Buff
-        iconAtk = new Texture(Gdx.files.internal("imgs/Items/icon_atk.png"));
-        iconRegen = new Texture(Gdx.files.internal("imgs/Items/icon_regen.png"));
-        iconMana = new Texture(Gdx.files.internal("imgs/Items/icon_mana.png"));
+        iconAtk = atlas.findRegion("imgs/Items/icon_atk.png");
+        iconRegen = atlas.findRegion("imgs/Items/icon_regen.png");
+        iconMana = atlas.findRegion("imgs/Items/icon_mana.png");
 
         // Cat
         catAtlas = new TextureAtlas(Gdx.files.internal("ani/Character/cat/cat.atlas"));
@@ -593,7 +597,7 @@ private void renderTwoPlayerHUD(SpriteBatch uiBatch, boolean allowInteraction) {
             int rightStartX =
                     Gdx.graphics.getWidth()
                             - 20
-                            - heartFull.getWidth();
+                            - heartFull.getRegionWidth();
 
             renderLivesAsHearts(
                     uiBatch,
@@ -633,7 +637,7 @@ private void renderDashIcon(
         }
         if (dash == null) return;
 
-        Texture icon =
+        TextureRegion icon =
                 player.getPlayerIndex() == Player.PlayerIndex.P1
                         ? dashIconP1
                         : dashIconP2;
@@ -787,11 +791,7 @@ private void renderMagicIcon(
                     originX, originY,
                     size, size,
                     1f, 1f,
-                    rotation,
-                    0, 0,
-                    magicBg.getWidth(),
-                    magicBg.getHeight(),
-                    false, false
+                    rotation
             );
 
 
@@ -902,10 +902,10 @@ private void renderManaBarForPlayer(
             float y,
             float barWidth
     ) {
-        Texture manaBase = (playerId == 0) ? manaBaseP1 : manaBaseP2;
-        Texture manaFill = (playerId == 0) ? manaFillP1 : manaFillP2;
-        Texture manaGlow = (playerId == 0) ? manaGlowP1 : manaGlowP2;
-        Texture manaDeco = (playerId == 0) ? manadeco_1 : manadeco_2;
+        TextureRegion manaBase = (playerId == 0) ? manaBaseP1 : manaBaseP2;
+        TextureRegion manaFill = (playerId == 0) ? manaFillP1 : manaFillP2;
+        TextureRegion manaGlow = (playerId == 0) ? manaGlowP1 : manaGlowP2;
+        TextureRegion manaDeco = (playerId == 0) ? manadeco_1 : manadeco_2;
 
         if (player == null || manaFill == null || manaBase == null) return;
         List<ManaParticle> particles =
@@ -932,7 +932,7 @@ private void renderManaBarForPlayer(
         float capW = fillWidth * 0.06f;
         capW = Math.max(8f, capW);
 
-        int capSrcW = (int)(manaFill.getWidth() * 0.09f);
+        int capSrcW = (int)(manaFill.getRegionWidth() * 0.09f);
 
         float liquidMaxW = Math.max(0f, fillWidth - capW * 2f);
         float liquidW    = liquidMaxW * percent;
@@ -947,49 +947,21 @@ private void renderManaBarForPlayer(
         }
 
         // --- 左帽 ---
-        uiBatch.draw(
-                manaFill,
-                fillStartX,
-                y,
-                capW,
-                barHeight,
-                0, 0,
-                capSrcW,
-                manaFill.getHeight(),
-                false, false
-        );
+        subRegion.setRegion(manaFill, 0, 0, capSrcW, manaFill.getRegionHeight());
+        uiBatch.draw(subRegion, fillStartX, y, capW, barHeight);
 
         // --- 中段 ---
         if (liquidW > 0f) {
             int midSrcX = capSrcW;
-            int midSrcW = manaFill.getWidth() - capSrcW * 2;
+            int midSrcW = manaFill.getRegionWidth() - capSrcW * 2;
 
-            uiBatch.draw(
-                    manaFill,
-                    fillStartX + capW,
-                    y,
-                    liquidW,
-                    barHeight,
-                    midSrcX, 0,
-                    midSrcW,
-                    manaFill.getHeight(),
-                    false, false
-            );
+            subRegion.setRegion(manaFill, midSrcX, 0, midSrcW, manaFill.getRegionHeight());
+            uiBatch.draw(subRegion, fillStartX + capW, y, liquidW, barHeight);
         }
 
         // --- 右帽 ---
-        uiBatch.draw(
-                manaFill,
-                fillStartX + capW + liquidW,
-                y,
-                capW,
-                barHeight,
-                manaFill.getWidth() - capSrcW,
-                0,
-                capSrcW,
-                manaFill.getHeight(),
-                false, false
-        );
+        subRegion.setRegion(manaFill, manaFill.getRegionWidth() - capSrcW, 0, capSrcW, manaFill.getRegionHeight());
+        uiBatch.draw(subRegion, fillStartX + capW + liquidW, y, capW, barHeight);
 
         renderManaGlowEffect(uiBatch,  manaGlow, fillStartX, y, fillWidth, barHeight, percent);
         updateAndRenderLongTrail(
@@ -1027,7 +999,7 @@ private void renderManaBarForPlayer(
 
     private void renderManaGlowEffect(
             SpriteBatch uiBatch,
-            Texture manaGlow,
+            TextureRegion manaGlow,
             float fillStartX,
             float y,
             float fillWidth,
@@ -1046,13 +1018,12 @@ private void renderManaGlowEffect(
         );
         uiBatch.setColor(1f, 0.8f, 0.95f, glowAlpha);
 
-        int srcW = (int)(manaGlow.getWidth() * percent);
+        int srcW = (int)(manaGlow.getRegionWidth() * percent);
         if (srcW > 0) {
-            TextureRegion glowRegion =
-                    new TextureRegion(manaGlow, 0, 0, srcW, manaGlow.getHeight());
+            subRegion.setRegion(manaGlow, 0, 0, srcW, manaGlow.getRegionHeight());
 
             uiBatch.draw(
-                    glowRegion,
+                    subRegion,
                     fillStartX,
                     y + h * 0.15f,
                     fillWidth * percent,
@@ -1069,7 +1040,7 @@ private void renderManaGlowEffect(
 
     private void updateAndRenderLongTrail(
             SpriteBatch uiBatch,
-            Texture manaGlow,
+            TextureRegion manaGlow,
             List<ManaParticle> particles,
             int playerId,
             float fillStartX,
@@ -1660,19 +1631,9 @@ public boolean isHoveringInteractiveUI() {
 
     public void dispose() {
         font.dispose();
-        heartFull.dispose();
-        heartHalf.dispose();
         shapeRenderer.dispose();
         catAtlas.dispose();
-        iconAtk.dispose();
-        iconRegen.dispose();
-        iconMana.dispose();
         sparkleAtlas.dispose();
-        if (manaBaseP2 != manaBaseP1) manaBaseP2.dispose();
-        manaFillP1.dispose();
-        manaFillP2.dispose();
-        manaGlowP1.dispose();
-        manaGlowP2.dispose();
     }
     public void enableBossHUD(float maxHp) {
         this.hudMode = HUDMode.BOSS;
@@ -0,0 +1,228 @@
+package de.tum.cit.fop.maze.utils;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.Texture.TextureFilter;
+import com.badlogic.gdx.graphics.g2d.PixmapPacker;
+import com.badlogic.gdx.graphics.g2d.PixmapPackerIO;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import de.tum.cit.fop.maze.game.GameRuntime;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * 运行时合并图集 (Runtime Atlas)
+ * <p>
+ * HUD 图标、门、道具这些散落的单张 PNG，第一次用到某个分组时用 {@link PixmapPacker} 打包成一两张大图，
+ * 结果写到本地 {@code cache/atlas/} 下；以后启动直接读缓存，源图增减或内容变了才重新打包。
+ * 同一分组的图共用一张纹理，SpriteBatch 连续画它们时不用切换纹理，也就不会提前 flush。
+ * <p>
+ * 用 {@link #findRegion(String)} 按原来的文件路径取区域。区域是共享的，调用方不要 dispose 它的纹理。
+ * 不在任何分组里、或者比一页还大的图，退回单独加载成一张纹理。
+ * 用自定义着色器按纹理坐标算效果的图（雾气遮罩、冰冻血量心、近战冷却图标）故意不打包，
+ * 保持整张纹理 0..1 的坐标。
+ */
+public final class AtlasManager implements Disposable {
+
+    /**
+     * 打包分组：按屏幕 / 图层分，同一帧里一起画的放一组
+     */
+    public enum Group {
+        /** HUD：法力条、技能 / buff 图标、指南针 */
+        HUD(TextureFilter.Nearest,
+                "ui/HUD/manabar_base.png",
+                "ui/HUD/manabar_1_fill.png",
+                "ui/HUD/manabar_1_grow.png",
+                "ui/HUD/bar_star1.png",
+                "ui/HUD/manabar_2_fill.png",
+                "ui/HUD/manabar_2_grow.png",
+                "ui/HUD/bar_star2.png",
+                "ui/HUD/icon_dash.png",
+                "ui/HUD/icon_dash_2.png",
+                "ui/HUD/magicicon_bg.png",
+                "ui/HUD/magicicon_grow.png",
+                "ui/HUD/icon_magic_base.png",
+                "ui/HUD/compass_base.png",
+                "ui/HUD/compass_needle.png",
+                "imgs/Items/icon_atk.png",
+                "imgs/Items/icon_regen.png",
+                "imgs/Items/icon_mana.png"),
+        /** 世界里的道具和门，和实体在同一个 batch 里交错绘制 */
+        ITEMS(TextureFilter.Nearest,
+                "imgs/Items/door_up_locked.png",
+                "imgs/Items/door_down_locked.png",
+                "imgs/Items/door_left_locked.png",
+                "imgs/Items/door_right_locked.png",
+                "imgs/Items/heart.png",
+                "imgs/Items/heart_container.png",
+                "imgs/Items/chest_closed.png",
+                "imgs/Items/chest_open.png"),
+        /** 需要线性过滤的特效贴图 */
+        EFFECTS(TextureFilter.Linear,
+                "effects/boba-bullet.png");
+
+        final TextureFilter filter;
+        final String[] paths;
+
+        Group(TextureFilter filter, String... paths) {
+            this.filter = filter;
+            this.paths = paths;
+        }
+    }
+
+    private static final int PAGE_SIZE = 2048;
+    /** 区域之间留 2 像素并复制边缘像素，防止采样时串到隔壁 */
+    private static final int PADDING = 2;
+    /** 打包参数变了就加一，让旧缓存失效 */
+    private static final int CACHE_VERSION = 1;
+    private static final String CACHE_DIR = "cache/atlas/";
+
+    private static AtlasManager instance;
+
+    private final Map<String, Group> groupOf = new HashMap<>();
+    private final EnumMap<Group, TextureAtlas> atlases = new EnumMap<>(Group.class);
+    private final Map<String, TextureRegion> regions = new HashMap<>();
+    /** 没能打包进图集、单独加载的纹理 */
+    private final Map<String, Texture> standalone = new HashMap<>();
+
+    private AtlasManager() {
+        for (Group g : Group.values()) {
+            for (String path : g.paths) groupOf.put(path, g);
+        }
+    }
+
+    public static AtlasManager getInstance() {
+        if (instance == null) {
+            instance = new AtlasManager();
+        }
+        return instance;
+    }
+
+    /**
+     * 按原文件路径取区域；无头模式返回 null
+     * @throws GdxRuntimeException 文件不存在（和直接 new Texture 一样）
+     */
+    public TextureRegion findRegion(String path) {
+        if (GameRuntime.isHeadless()) return null;
+
+        TextureRegion region = regions.get(path);
+        if (region != null) return region;
+
+        Group group = groupOf.get(path);
+        if (group != null) region = getAtlas(group).findRegion(path);
+        if (region == null) {
+            Texture tex = new Texture(Gdx.files.internal(path));
+            if (group != null) tex.setFilter(group.filter, group.filter);
+            standalone.put(path, tex);
+            region = new TextureRegion(tex);
+        }
+        regions.put(path, region);
+        return region;
+    }
+
+    private TextureAtlas getAtlas(Group group) {
+        TextureAtlas atlas = atlases.get(group);
+        if (atlas == null) {
+            atlas = loadOrPack(group);
+            atlases.put(group, atlas);
+        }
+        return atlas;
+    }
+
+    /**
+     * 缓存有效就直接读；否则重新打包并写缓存，写不了就只留在内存里
+     */
+    private TextureAtlas loadOrPack(Group group) {
+        String name = group.name().toLowerCase(Locale.ROOT);
+        FileHandle atlasFile = Gdx.files.local(CACHE_DIR + name + ".atlas");
+        FileHandle stampFile = Gdx.files.local(CACHE_DIR + name + ".stamp");
+        String stamp = stampOf(group);
+
+        if (atlasFile.exists() && stampFile.exists() && stamp.equals(stampFile.readString())) {
+            try {
+                return new TextureAtlas(atlasFile);
+            } catch (GdxRuntimeException e) {
+                Logger.warning("Atlas cache " + atlasFile.path() + " unreadable, repacking: " + e.getMessage());
+            }
+        }
+
+        long start = System.nanoTime();
+        PixmapPacker packer = pack(group);
+        TextureAtlas atlas;
+        try {
+            PixmapPackerIO.SaveParameters params = new PixmapPackerIO.SaveParameters();
+            params.minFilter = group.filter;
+            params.magFilter = group.filter;
+            params.useIndexes = false;
+            new PixmapPackerIO().save(atlasFile, packer, params);
+            stampFile.writeString(stamp, false);
+            atlas = new TextureAtlas(atlasFile);
+        } catch (IOException | GdxRuntimeException e) {
+            Logger.warning("Atlas cache not writable, keeping " + name + " in memory: " + e.getMessage());
+            atlas = packer.generateTextureAtlas(group.filter, group.filter, false);
+        }
+        packer.dispose();
+
+        Logger.debug(String.format("Packed atlas %s: %d pages in %.2f ms",
+                name, atlas.getTextures().size, (System.nanoTime() - start) / 1e6));
+        return atlas;
+    }
+
+    private PixmapPacker pack(Group group) {
+        PixmapPacker packer = new PixmapPacker(PAGE_SIZE, PAGE_SIZE, Pixmap.Format.RGBA8888, PADDING, true);
+        for (String path : group.paths) {
+            FileHandle fh = Gdx.files.internal(path);
+            if (!fh.exists()) {
+                Logger.warning("Atlas source missing: " + path);
+                continue;
+            }
+            Pixmap pixmap = new Pixmap(fh);
+            // 比一页还大的留给 findRegion 单独加载
+            if (pixmap.getWidth() + PADDING * 2 <= PAGE_SIZE && pixmap.getHeight() + PADDING * 2 <= PAGE_SIZE) {
+                packer.pack(path, pixmap);
+            }
+            pixmap.dispose();
+        }
+        return packer;
+    }
+
+    /**
+     * 分组的指纹：版本号 + 每张源图的路径和内容 CRC
+     * （打进 jar 的资源拿不到文件大小，只读字节不解码，比重新打包便宜得多）
+     */
+    private static String stampOf(Group group) {
+        StringBuilder sb = new StringBuilder().append(CACHE_VERSION).append('\n');
+        CRC32 crc = new CRC32();
+        for (String path : group.paths) {
+            FileHandle fh = Gdx.files.internal(path);
+            long sum = -1;
+            if (fh.exists()) {
+                crc.reset();
+                crc.update(fh.readBytes());
+                sum = crc.getValue();
+            }
+            sb.append(path).append(':').append(sum).append('\n');
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public void dispose() {
+        for (TextureAtlas atlas : atlases.values()) atlas.dispose();
+        for (Texture tex : standalone.values()) tex.dispose();
+        atlases.clear();
+        standalone.clear();
+        regions.clear();
+        instance = null;
+    }
+}
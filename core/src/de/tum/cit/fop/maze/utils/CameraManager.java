@@ -1,6 +1,7 @@
 package de.tum.cit.fop.maze.utils;
 
 import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.math.MathUtils;
 import de.tum.cit.fop.maze.entities.Player;
 import de.tum.cit.fop.maze.game.DifficultyConfig;
 import de.tum.cit.fop.maze.game.GameConstants;
@@ -110,8 +111,8 @@ public void update(float deltaTime, GameManager gm) {
             float progress = shakeTime / shakeDuration;
 
             // 生成随机偏移
-            float offsetX = (float)(Math.random() * 2 - 1) * shakeStrength * progress;
-            float offsetY = (float)(Math.random() * 2 - 1) * shakeStrength * progress;
+            float offsetX = MathUtils.random(-1f, 1f) * shakeStrength * progress;
+            float offsetY = MathUtils.random(-1f, 1f) * shakeStrength * progress;
 
             newX += offsetX;
             newY += offsetY;
@@ -204,8 +205,8 @@ public void update(float deltaTime) {
             shakeTime -= deltaTime;
             float progress = shakeTime / shakeDuration;
 
-            float offsetX = (float)(Math.random() * 2 - 1) * shakeStrength * progress;
-            float offsetY = (float)(Math.random() * 2 - 1) * shakeStrength * progress;
+            float offsetX = MathUtils.random(-1f, 1f) * shakeStrength * progress;
+            float offsetY = MathUtils.random(-1f, 1f) * shakeStrength * progress;
 
             newX += offsetX;
             newY += offsetY;
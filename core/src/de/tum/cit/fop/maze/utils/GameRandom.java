@@ -0,0 +1,69 @@
+package de.tum.cit.fop.maze.utils;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.RandomXS128;
+
+/**
+ * 模拟随机数 (Simulation Random)
+ * <p>
+ * 所有会影响游戏结果的随机（出生点、掉落、章节遗物、无尽模式刷怪）都从这里取，
+ * 每关开始时由 GameManager 用关卡种子重置，因此同一种子 + 同一串输入 = 同一局游戏。
+ * <p>
+ * 纯表现的随机（粒子、镜头震动）继续使用 {@link MathUtils#random}，不占用这里的序列，
+ * 所以渲染帧数不同（例如有画面 vs 无头）也不会让模拟结果分叉。
+ * 只能在模拟线程（渲染线程）使用。
+ */
+public final class GameRandom {
+
+    private static final RandomXS128 random = new RandomXS128();
+
+    private GameRandom() {}
+
+    /**
+     * 重置模拟随机序列；同时重置表现随机序列，让回放时的粒子数量也一致
+     */
+    public static void setSeed(long seed) {
+        random.setSeed(seed);
+        MathUtils.random.setSeed(mix(~seed));
+    }
+
+    public static RandomXS128 get() {
+        return random;
+    }
+
+    /** [0, range] */
+    public static int random(int range) {
+        return random.nextInt(range + 1);
+    }
+
+    /** [start, end] */
+    public static int random(int start, int end) {
+        return start + random.nextInt(end - start + 1);
+    }
+
+    /** [0, 1) */
+    public static float random() {
+        return random.nextFloat();
+    }
+
+    /** [start, end) */
+    public static float random(float start, float end) {
+        return start + random.nextFloat() * (end - start);
+    }
+
+    /**
+     * 新的随机种子（用于非回放的普通对局）
+     */
+    public static long newSeed() {
+        return mix(System.nanoTime() ^ Thread.currentThread().getId());
+    }
+
+    /**
+     * 64 位混合函数，把相邻的种子打散
+     */
+    public static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,166 @@
+package de.tum.cit.fop.maze.utils;
+
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IdentityMap;
+import com.badlogic.gdx.utils.Pool;
+import de.tum.cit.fop.maze.entities.GameObject;
+import de.tum.cit.fop.maze.maze.MazeRenderer;
+
+import java.util.Arrays;
+
+/**
+ * 常驻的世界渲染队列 (Render Queue)
+ * <p>
+ * 按迷宫行分桶：每行一条按优先级排好的实体链表，墙本来就按行烘焙在 {@link MazeRenderer} 里，不进队列。
+ * 绘制时从上往下逐行输出「身后的墙 → 实体 → 身前的墙」，相当于按 (行, 层, 优先级) 做计数排序，
+ * 不需要每帧新建条目再整体排序。
+ * <p>
+ * 实体的条目跨帧保留（从池里取），只有所在行或优先级变了才换桶；
+ * 某帧没有再提交的实体（离开视野、被移除）在 {@link #end()} 时回收。
+ * <p>
+ * 用法：每帧 {@link #begin(int)}，对每个可见实体 {@link #submit}，{@link #end()}，再 {@link #render}。
+ */
+public final class RenderQueue {
+
+    private static final class Entry {
+        GameObject obj;
+        int priority;
+        int row = -1;
+        long frame;
+        Entry prev, next;
+    }
+
+    private final Pool<Entry> pool = new Pool<Entry>() {
+        @Override
+        protected Entry newObject() {
+            return new Entry();
+        }
+    };
+    private final IdentityMap<GameObject, Entry> entries = new IdentityMap<>();
+    private final Array<Entry> live = new Array<>(false, 64);
+
+    /** 每行链表的表头，按优先级从小到大（先画的在前） */
+    private Entry[] heads = new Entry[0];
+    private long frame;
+    /* 本帧提交的实体所在行的范围 */
+    private int minRow, maxRow;
+
+    /**
+     * 开始新的一帧
+     * @param rows 迷宫行数；变了（换关、Boss 重建）会清空队列
+     */
+    public void begin(int rows) {
+        if (rows != heads.length) {
+            clear();
+            heads = new Entry[rows];
+        }
+        frame++;
+        minRow = Integer.MAX_VALUE;
+        maxRow = Integer.MIN_VALUE;
+    }
+
+    /**
+     * 提交本帧要画的实体；同一实体一帧只画一次，重复提交以最后一次为准
+     * @param priority 同一行内越大越后画（越靠前）
+     */
+    public void submit(GameObject obj, int priority) {
+        if (heads.length == 0) return;
+        int row = Math.max(0, Math.min(heads.length - 1, obj.getY()));
+
+        Entry e = entries.get(obj);
+        if (e == null) {
+            e = pool.obtain();
+            e.obj = obj;
+            entries.put(obj, e);
+            live.add(e);
+            e.priority = priority;
+            link(e, row);
+        } else if (e.row != row || e.priority != priority) {
+            unlink(e);
+            e.priority = priority;
+            link(e, row);
+        }
+        e.frame = frame;
+
+        if (row < minRow) minRow = row;
+        if (row > maxRow) maxRow = row;
+    }
+
+    /**
+     * 回收本帧没有提交的实体
+     */
+    public void end() {
+        for (int i = live.size - 1; i >= 0; i--) {
+            Entry e = live.get(i);
+            if (e.frame == frame) continue;
+            unlink(e);
+            entries.remove(e.obj);
+            live.removeIndex(i);
+            e.obj = null;
+            pool.free(e);
+        }
+    }
+
+    /**
+     * 从上往下逐行画墙和实体（调用方已 batch.begin）
+     */
+    public void render(SpriteBatch batch, MazeRenderer maze, ViewCuller view) {
+        int top = Math.min(heads.length - 1, Math.max(view.getMaxCellY(), maxRow));
+        int bottom = Math.max(0, Math.min(view.getMinCellY(), minRow));
+
+        maze.updateOcclusion();
+        for (int y = top; y >= bottom; y--) {
+            boolean walls = maze.hasWallsInRow(y);
+            Entry head = heads[y];
+            // 没有实体的行不用分前后
+            if (head == null) {
+                if (walls) maze.renderWallRow(batch, y, view);
+                continue;
+            }
+            boolean front = walls && maze.isWallRowInFrontOfAnyEntity(y);
+
+            if (walls && !front) maze.renderWallRow(batch, y, view);
+            for (Entry e = head; e != null; e = e.next) {
+                e.obj.drawSprite(batch);
+            }
+            if (front) maze.renderWallRow(batch, y, view);
+        }
+    }
+
+    public void clear() {
+        for (Entry e : live) {
+            e.obj = null;
+            e.prev = e.next = null;
+            e.row = -1;
+            pool.free(e);
+        }
+        live.clear();
+        entries.clear();
+        Arrays.fill(heads, null);
+    }
+
+    /** 按优先级插入；同优先级的排在已有条目之后 */
+    private void link(Entry e, int row) {
+        e.row = row;
+        Entry prev = null;
+        Entry cur = heads[row];
+        while (cur != null && cur.priority <= e.priority) {
+            prev = cur;
+            cur = cur.next;
+        }
+        e.prev = prev;
+        e.next = cur;
+        if (prev == null) heads[row] = e;
+        else prev.next = e;
+        if (cur != null) cur.prev = e;
+    }
+
+    private void unlink(Entry e) {
+        if (e.prev == null) heads[e.row] = e.next;
+        else e.prev.next = e.next;
+        if (e.next != null) e.next.prev = e.prev;
+        e.prev = e.next = null;
+        e.row = -1;
+    }
+}
@@ -9,6 +9,7 @@
 import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 import com.badlogic.gdx.utils.Disposable;
 import de.tum.cit.fop.maze.game.GameConstants;
+import de.tum.cit.fop.maze.game.GameRuntime;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -77,10 +78,13 @@ public enum TextureMode {
     private TextureManager() {
         textures = new HashMap<>();
         textureFileMap = new HashMap<>();
-        loadWallAtlas();
-        loadE01Atlas();
-        loadE02_T04Atlas();
-        loadCatAtlas();
+        // 无头模式：不加载任何图集，所有纹理查询返回 null（不会有人去画）
+        if (!GameRuntime.isHeadless()) {
+            loadWallAtlas();
+            loadE01Atlas();
+            loadE02_T04Atlas();
+            loadCatAtlas();
+        }
 
 
         // 初始化各模式的图片映射
@@ -269,6 +273,7 @@ private void clearAllNonColorTextures() {
      * 获取纹理 - 智能选择
      */
     public Texture getTexture(String key) {
+        if (GameRuntime.isHeadless()) return null;
         // 1. 首先尝试获取已加载的纹理
         if (textures.containsKey(key)) {
             return textures.get(key);
@@ -316,6 +321,7 @@ private Texture getColorTextureByKey(String key) {
      * 创建纯色纹理（原有功能保留）
      */
     public Texture getColorTexture(Color color) {
+        if (GameRuntime.isHeadless()) return null;
         String key = "color_custom_" + color.toString();
         if (!textures.containsKey(key)) {
             textures.put(key, createColorTexture(color));
@@ -432,6 +438,7 @@ public void dispose() {
     }
 
     public Texture getWhitePixel() {
+        if (GameRuntime.isHeadless()) return null;
         if (whitePixel == null) {
             Pixmap pm = new Pixmap(1, 1, Pixmap.Format.RGBA8888);
             pm.setColor(Color.WHITE);
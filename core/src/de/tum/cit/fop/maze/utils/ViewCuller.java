@@ -0,0 +1,104 @@
+package de.tum.cit.fop.maze.utils;
+
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import de.tum.cit.fop.maze.entities.GameObject;
+import de.tum.cit.fop.maze.game.GameConstants;
+import de.tum.cit.fop.maze.tools.Profiler;
+
+/**
+ * 视野裁剪 (View Culling)
+ * <p>
+ * 镜头只看得到约 20x12 格，而地图有上百格宽：每帧绘制前先用正交镜头的范围
+ * （加上贴图超出格子的余量）筛掉看不见的墙段、实体、门的传送阵、特效和粒子，
+ * 排序和绘制只处理剩下的部分。
+ * <p>
+ * 用法：每帧绘制世界前 {@link #begin(OrthographicCamera)}，之后对每个候选调用 isXxxVisible；
+ * 绘制结束后 {@link #report()} 把可见 / 裁掉的数量交给帧分析叠加层。
+ */
+public final class ViewCuller {
+
+    /** 墙贴图高 2.4 格、从格子下方开始画：视野下方 2 格内的墙也会伸进画面 */
+    public static final int WALL_OVERDRAW_CELLS = 2;
+    /** 实体贴图可能比格子大，插值位置也可能偏出半格，四周各多留 1 格 */
+    public static final int SPRITE_MARGIN_CELLS = 1;
+    /** 特效只有锚点，光圈、刀光、飘字从锚点向外画，最多约 2 格 */
+    public static final float EFFECT_MARGIN = 2f * GameConstants.CELL_SIZE;
+
+    /* 镜头范围（世界像素） */
+    private float left, bottom, right, top;
+    /* 带余量的可见格子范围（含两端） */
+    private int minCellX, minCellY, maxCellX, maxCellY;
+
+    private int visibleCount;
+    private int culledCount;
+
+    public void begin(OrthographicCamera camera) {
+        float halfW = camera.viewportWidth * camera.zoom / 2f;
+        float halfH = camera.viewportHeight * camera.zoom / 2f;
+        left = camera.position.x - halfW;
+        right = camera.position.x + halfW;
+        bottom = camera.position.y - halfH;
+        top = camera.position.y + halfH;
+
+        float cs = GameConstants.CELL_SIZE;
+        minCellX = (int) Math.floor(left / cs) - SPRITE_MARGIN_CELLS;
+        maxCellX = (int) Math.floor(right / cs) + SPRITE_MARGIN_CELLS;
+        minCellY = (int) Math.floor(bottom / cs) - SPRITE_MARGIN_CELLS - WALL_OVERDRAW_CELLS;
+        maxCellY = (int) Math.floor(top / cs) + SPRITE_MARGIN_CELLS;
+
+        visibleCount = 0;
+        culledCount = 0;
+    }
+
+    /**
+     * 格子矩形 [x0, x1] x [y0, y1]（含两端）是否与视野相交
+     */
+    public boolean isCellRangeVisible(int x0, int y0, int x1, int y1) {
+        return count(x1 >= minCellX && x0 <= maxCellX && y1 >= minCellY && y0 <= maxCellY);
+    }
+
+    /**
+     * 按实体占用的格子矩形判断
+     */
+    public boolean isVisible(GameObject obj) {
+        int x = obj.getFootprintX();
+        int y = obj.getFootprintY();
+        return isCellRangeVisible(x, y, x + obj.getFootprintWidth() - 1, y + obj.getFootprintHeight() - 1);
+    }
+
+    /**
+     * 世界像素坐标的点，向四周扩 margin 后是否与镜头范围相交（特效、粒子、残影）
+     */
+    public boolean isPointVisible(float wx, float wy, float margin) {
+        return count(wx + margin >= left && wx - margin <= right
+                && wy + margin >= bottom && wy - margin <= top);
+    }
+
+    private boolean count(boolean visible) {
+        if (visible) visibleCount++;
+        else culledCount++;
+        return visible;
+    }
+
+    /* 带余量的可见格子范围（含两端），按行遍历墙时用 */
+    public int getMinCellX() { return minCellX; }
+    public int getMaxCellX() { return maxCellX; }
+    public int getMinCellY() { return minCellY; }
+    public int getMaxCellY() { return maxCellY; }
+
+    public int getVisibleCount() {
+        return visibleCount;
+    }
+
+    public int getCulledCount() {
+        return culledCount;
+    }
+
+    /**
+     * 本帧的可见 / 裁掉数量记入帧分析器（关闭时不做任何事）
+     */
+    public void report() {
+        Profiler.count(Profiler.Counter.VISIBLE, visibleCount);
+        Profiler.count(Profiler.Counter.CULLED, culledCount);
+    }
+}
@@ -0,0 +1,233 @@
+package de.tum.cit.fop.maze.game.entity;
+
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import de.tum.cit.fop.maze.entities.GameObject;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntityStoreTest {
+
+    private static final class Thing extends GameObject {
+        Thing() { super(0, 0); }
+
+        @Override public void drawShape(ShapeRenderer shapeRenderer) {}
+        @Override public void drawSprite(SpriteBatch batch) {}
+        @Override public RenderType getRenderType() { return RenderType.SHAPE; }
+    }
+
+    private final EntityRegistry registry = new EntityRegistry();
+    private final EntityStore<Thing> store = registry.createStore();
+
+    @Test
+    void idsAreAssignedOnceAndSurviveRemoval() {
+        Thing a = new Thing();
+        Thing b = new Thing();
+        store.add(a);
+        store.add(b);
+        int idA = a.getEntityId();
+        assertNotEquals(0, idA);
+        assertNotEquals(idA, b.getEntityId());
+
+        store.remove(a);
+        store.add(a);
+        assertEquals(idA, a.getEntityId());
+    }
+
+    @Test
+    void addIsIdempotent() {
+        Thing a = new Thing();
+        store.add(a);
+        store.add(a);
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void swapRemoveOutsideATickMovesTheLastEntityIntoTheHole() {
+        Thing[] things = addThings(4);
+        assertTrue(store.remove(things[1]));
+        assertFalse(store.remove(things[1]));
+
+        assertEquals(3, store.size());
+        assertSame(things[0], store.get(0));
+        assertSame(things[3], store.get(1));
+        assertSame(things[2], store.get(2));
+        assertFalse(store.contains(things[1]));
+        assertTrue(store.contains(things[3]));
+
+        // 换过槽位的实体仍能按 id 删除
+        assertTrue(store.remove(things[3]));
+        assertEquals(List.of(things[0], things[2]), contents());
+    }
+
+    @Test
+    void iteratorRemoveOutsideATickVisitsEveryEntityOnce() {
+        Thing[] things = addThings(6);
+        List<Thing> seen = new ArrayList<>();
+        Iterator<Thing> it = store.iterator();
+        while (it.hasNext()) {
+            Thing t = it.next();
+            seen.add(t);
+            if (t == things[0] || t == things[3] || t == things[5]) it.remove();
+        }
+        assertEquals(Set.of(things), new HashSet<>(seen));
+        assertEquals(6, seen.size());
+        assertEquals(Set.of(things[1], things[2], things[4]), new HashSet<>(contents()));
+    }
+
+    @Test
+    void removalInsideATickHidesImmediatelyAndCompactsAtTickEnd() {
+        Thing[] things = addThings(4);
+        registry.beginTick();
+        store.remove(things[0]);
+
+        assertEquals(3, store.size());
+        assertFalse(store.contains(things[0]));
+        assertEquals(List.of(things[1], things[2], things[3]), contents());
+        // 步内删除不搬动槽位
+        assertSame(things[1], store.get(1));
+
+        registry.endTick();
+        assertEquals(3, store.size());
+        assertEquals(Set.of(things[1], things[2], things[3]), new HashSet<>(contents()));
+    }
+
+    @Test
+    void additionInsideATickIsQueuedUntilTickEnd() {
+        Thing[] things = addThings(2);
+        registry.beginTick();
+        Thing late = new Thing();
+        store.add(late);
+        store.add(late);
+
+        assertEquals(2, store.size());
+        assertFalse(store.contains(late));
+        assertEquals(List.of(things[0], things[1]), contents());
+
+        registry.endTick();
+        assertEquals(3, store.size());
+        assertTrue(store.contains(late));
+    }
+
+    @Test
+    void iterationInsideATickToleratesAddsAndRemoves() {
+        Thing[] things = addThings(5);
+        registry.beginTick();
+        List<Thing> seen = new ArrayList<>();
+        List<Thing> spawned = new ArrayList<>();
+        for (Thing t : store) {
+            seen.add(t);
+            // 遍历途中删掉后面的、再加新的：删掉的不再出现，新加的本轮不出现
+            if (t == things[1]) store.remove(things[3]);
+            Thing child = new Thing();
+            spawned.add(child);
+            store.add(child);
+            // 嵌套遍历同一个 store
+            int inner = 0;
+            for (Thing ignored : store) inner++;
+            assertEquals(store.size(), inner);
+        }
+        registry.endTick();
+
+        assertEquals(List.of(things[0], things[1], things[2], things[4]), seen);
+        assertEquals(4 + spawned.size(), store.size());
+        for (Thing child : spawned) assertTrue(store.contains(child));
+    }
+
+    @Test
+    void removeThenAddInTheSameTickKeepsTheEntity() {
+        Thing[] things = addThings(3);
+        registry.beginTick();
+        store.remove(things[1]);
+        store.add(things[1]);
+        assertTrue(store.contains(things[1]));
+        registry.endTick();
+
+        assertEquals(3, store.size());
+        assertTrue(store.contains(things[1]));
+    }
+
+    @Test
+    void addThenRemoveInTheSameTickDropsThePendingEntity() {
+        addThings(2);
+        registry.beginTick();
+        Thing temp = new Thing();
+        store.add(temp);
+        assertTrue(store.remove(temp));
+        assertFalse(store.remove(temp));
+        registry.endTick();
+
+        assertEquals(2, store.size());
+        assertFalse(store.contains(temp));
+    }
+
+    @Test
+    void clearInsideATickAlsoDropsPendingAdds() {
+        addThings(3);
+        registry.beginTick();
+        store.add(new Thing());
+        store.clear();
+        assertEquals(0, store.size());
+        assertFalse(store.iterator().hasNext());
+        registry.endTick();
+
+        assertTrue(store.isEmpty());
+    }
+
+    /** 随机步内 / 步外增删，和一个普通集合对比 */
+    @Test
+    void randomOperationsMatchAReferenceSet() {
+        Random rnd = new Random(5);
+        List<Thing> pool = new ArrayList<>();
+        for (int i = 0; i < 40; i++) pool.add(new Thing());
+
+        Set<Thing> visible = new HashSet<>();
+        Set<Thing> afterTick = new HashSet<>();
+        for (int round = 0; round < 500; round++) {
+            boolean inTick = rnd.nextBoolean();
+            if (inTick) registry.beginTick();
+            for (int op = 0; op < 20; op++) {
+                Thing t = pool.get(rnd.nextInt(pool.size()));
+                if (rnd.nextBoolean()) {
+                    store.add(t);
+                    afterTick.add(t);
+                    // 步内新增对已经在里面的实体是撤销删除，新实体要到步末才可见
+                    if (!inTick || store.contains(t)) visible.add(t);
+                } else {
+                    store.remove(t);
+                    afterTick.remove(t);
+                    visible.remove(t);
+                }
+                assertEquals(visible, new HashSet<>(contents()));
+                assertEquals(visible.size(), store.size());
+            }
+            if (inTick) registry.endTick();
+            visible = new HashSet<>(afterTick);
+            assertEquals(afterTick, new HashSet<>(contents()));
+            assertEquals(afterTick.size(), store.size());
+        }
+    }
+
+    private Thing[] addThings(int n) {
+        Thing[] things = new Thing[n];
+        for (int i = 0; i < n; i++) {
+            things[i] = new Thing();
+            store.add(things[i]);
+        }
+        return things;
+    }
+
+    private List<Thing> contents() {
+        List<Thing> out = new ArrayList<>();
+        for (Thing t : store) out.add(t);
+        return out;
+    }
+}
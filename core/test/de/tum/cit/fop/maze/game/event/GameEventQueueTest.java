@@ -0,0 +1,186 @@
+package de.tum.cit.fop.maze.game.event;
+
+import de.tum.cit.fop.maze.game.EnemyTier;
+import de.tum.cit.fop.maze.game.score.DamageSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameEventQueueTest {
+
+    /* ================= 环形缓冲区 ================= */
+
+    @Test
+    void popsInPushOrder() {
+        GameEventQueue queue = new GameEventQueue(4);
+        queue.push(GameEventType.ENEMY_KILLED, 1, 0, null);
+        queue.push(GameEventType.ITEM_COLLECTED, 0, 0, "KEY");
+        queue.push(GameEventType.LEVEL_FINISHED, 3, 0, null);
+
+        assertEquals(3, queue.size());
+        assertHead(queue, GameEventType.ENEMY_KILLED, 1, 0, null);
+        assertHead(queue, GameEventType.ITEM_COLLECTED, 0, 0, "KEY");
+        assertHead(queue, GameEventType.LEVEL_FINISHED, 3, 0, null);
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    void keepsOrderAcrossWrapAroundAndGrowth() {
+        GameEventQueue queue = new GameEventQueue(4);
+        int pushed = 0;
+        int popped = 0;
+        // 先让队首转到缓冲区中间，再在绕回状态下触发扩容
+        for (int round = 0; round < 50; round++) {
+            for (int i = 0; i < 3 + round % 5; i++) {
+                queue.push(GameEventType.PLAYER_DAMAGE, pushed, -pushed, "e" + pushed);
+                pushed++;
+            }
+            for (int i = 0; i < 2 + round % 3 && !queue.isEmpty(); i++) {
+                assertHead(queue, GameEventType.PLAYER_DAMAGE, popped, -popped, "e" + popped);
+                popped++;
+            }
+            assertEquals(pushed - popped, queue.size());
+        }
+        while (!queue.isEmpty()) {
+            assertHead(queue, GameEventType.PLAYER_DAMAGE, popped, -popped, "e" + popped);
+            popped++;
+        }
+        assertEquals(pushed, popped);
+    }
+
+    @Test
+    void clearEmptiesTheQueue() {
+        GameEventQueue queue = new GameEventQueue(2);
+        queue.push(GameEventType.ENEMY_KILLED, 0, 0, null);
+        queue.push(GameEventType.ENEMY_KILLED, 1, 0, null);
+        queue.pop();
+        queue.clear();
+        assertTrue(queue.isEmpty());
+
+        queue.push(GameEventType.LEVEL_FINISHED, 7, 0, null);
+        assertHead(queue, GameEventType.LEVEL_FINISHED, 7, 0, null);
+    }
+
+    /* ================= 分发顺序 ================= */
+
+    private final GameEventSource source = GameEventSource.getInstance();
+
+    @BeforeEach
+    void resetSource() {
+        source.reset();
+        source.dispatch();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        source.reset();
+        source.dispatch();
+    }
+
+    @Test
+    void eventsAreDeferredUntilDispatchAndDeliveredInOrder() {
+        Recorder recorder = new Recorder();
+        source.addListener(recorder);
+
+        source.onEnemyKilled(EnemyTier.E02, true);
+        source.onPlayerDamage(3, DamageSource.TRAP_SPIKE);
+        source.onItemCollected("HEART");
+        source.onLevelFinished(2);
+        assertTrue(recorder.log.isEmpty());
+        assertEquals(4, source.getPendingCount());
+
+        source.dispatch();
+        assertEquals(List.of("kill:E02:true", "damage:3:TRAP_SPIKE", "item:HEART", "level:2"), recorder.log);
+        assertEquals(0, source.getPendingCount());
+    }
+
+    @Test
+    void eventsPublishedDuringDispatchFollowInTheSameRound() {
+        List<String> log = new ArrayList<>();
+        Recorder chained = new Recorder() {
+            @Override
+            public void onEnemyKilled(EnemyTier tier, boolean isDashKill) {
+                super.onEnemyKilled(tier, isDashKill);
+                if (tier == EnemyTier.E01) source.onItemCollected("DROP");
+            }
+        };
+        chained.log = log;
+        source.addListener(chained);
+
+        source.onEnemyKilled(EnemyTier.E01, false);
+        source.onEnemyKilled(EnemyTier.E03, false);
+        source.dispatch();
+
+        // 回调里发布的事件排在已经入队的事件之后
+        assertEquals(List.of("kill:E01:false", "kill:E03:false", "item:DROP"), log);
+    }
+
+    @Test
+    void listenersOnlyReceiveSubscribedTypes() {
+        Recorder all = new Recorder();
+        Recorder kills = new Recorder();
+        source.addListener(all);
+        source.addListener(kills, GameEventType.ENEMY_KILLED);
+
+        source.onItemCollected("KEY");
+        source.onEnemyKilled(EnemyTier.E04, false);
+        source.dispatch();
+
+        assertEquals(List.of("item:KEY", "kill:E04:false"), all.log);
+        assertEquals(List.of("kill:E04:false"), kills.log);
+    }
+
+    @Test
+    void failingListenerDoesNotStopDelivery() {
+        Recorder after = new Recorder();
+        source.addListener(new Recorder() {
+            @Override
+            public void onLevelFinished(int levelNumber) {
+                throw new IllegalStateException("boom");
+            }
+        });
+        source.addListener(after);
+
+        source.onLevelFinished(1);
+        source.onLevelFinished(2);
+        source.dispatch();
+        assertEquals(List.of("level:1", "level:2"), after.log);
+    }
+
+    private static void assertHead(GameEventQueue queue, GameEventType type, int arg0, int arg1, String text) {
+        assertEquals(type.ordinal(), queue.headType());
+        assertEquals(arg0, queue.headArg0());
+        assertEquals(arg1, queue.headArg1());
+        assertEquals(text, queue.headText());
+        queue.pop();
+    }
+
+    private static class Recorder implements GameListener {
+        List<String> log = new ArrayList<>();
+
+        @Override
+        public void onEnemyKilled(EnemyTier tier, boolean isDashKill) {
+            log.add("kill:" + tier + ":" + isDashKill);
+        }
+
+        @Override
+        public void onPlayerDamage(int currentHp, DamageSource source) {
+            log.add("damage:" + currentHp + ":" + source);
+        }
+
+        @Override
+        public void onItemCollected(String itemType) {
+            log.add("item:" + itemType);
+        }
+
+        @Override
+        public void onLevelFinished(int levelNumber) {
+            log.add("level:" + levelNumber);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package de.tum.cit.fop.maze.game.replay;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import de.tum.cit.fop.maze.entities.Player;
+import de.tum.cit.fop.maze.entities.enemy.Enemy;
+import de.tum.cit.fop.maze.game.Difficulty;
+import de.tum.cit.fop.maze.game.DifficultyConfig;
+import de.tum.cit.fop.maze.game.GameManager;
+import de.tum.cit.fop.maze.game.HeadlessSimulation;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplayTest {
+
+    private static HeadlessApplication app;
+
+    @BeforeAll
+    static void startHeadless() {
+        // GameManager 读存档目录和按键偏好，需要 Gdx.files / Gdx.app；不加载原生库
+        GdxNativesLoader.disableNativesLoading = true;
+        HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+        config.updatesPerSecond = 1;
+        app = new HeadlessApplication(new ApplicationAdapter() {}, config);
+    }
+
+    @AfterAll
+    static void stopHeadless() {
+        if (app != null) app.exit();
+    }
+
+    /* ================= 文件格式 ================= */
+
+    @Test
+    void writeReadRoundTripKeepsHeaderAndEvents() throws IOException {
+        Replay replay = new Replay(Difficulty.HARD, true, 0x1234_5678_9ABCL, 3, 60);
+        ReplayRecorder recorder = new ReplayRecorder(replay, 1000);
+        recorder.onMouse(1000, 5, 7);
+        recorder.onMove(1000, Player.PlayerIndex.P1, 1, 0);
+        recorder.onMove(1003, Player.PlayerIndex.P2, 0, -1);
+        recorder.onAbility(1003, Player.PlayerIndex.P1, 2);
+        recorder.onInteract(1200, Player.PlayerIndex.P2);
+        recorder.onMouse(1200, 5, 7);
+        recorder.onMouse(1201, -3, 100_000);
+        recorder.onMove(1_000_000, Player.PlayerIndex.P1, -1, 1);
+        recorder.finish(1_000_050);
+
+        Replay copy = roundTrip(replay);
+
+        assertEquals(Difficulty.HARD, copy.getDifficulty());
+        assertTrue(copy.isTwoPlayer());
+        assertEquals(0x1234_5678_9ABCL, copy.getSeed());
+        assertEquals(3, copy.getStartLevel());
+        assertEquals(60, copy.getTickRate());
+        assertEquals(999_050, copy.getLength());
+        // 重复的鼠标位置不记录
+        assertEquals(7, replay.getEventCount());
+        assertEquals(replay.getEventCount(), copy.getEventCount());
+        for (int i = 0; i < replay.getEventCount(); i++) {
+            assertEquals(replay.getTick(i), copy.getTick(i), "tick " + i);
+            assertEquals(replay.getCode(i), copy.getCode(i), "code " + i);
+            assertEquals(replay.getArgX(i), copy.getArgX(i), "x " + i);
+            assertEquals(replay.getArgY(i), copy.getArgY(i), "y " + i);
+        }
+        assertEquals(-3, copy.getArgX(5));
+        assertEquals(100_000, copy.getArgY(5));
+    }
+
+    @Test
+    void eventCodesDecodeBackToTheInput() {
+        for (Player.PlayerIndex index : Player.PlayerIndex.values()) {
+            for (int kind = 0; kind < 4; kind++) {
+                for (int arg = 0; arg < 16; arg++) {
+                    int code = Replay.code(kind, index, arg);
+                    assertEquals(kind, Replay.kindOf(code));
+                    assertEquals(index, Replay.playerOf(code));
+                    assertEquals(arg, Replay.argOf(code));
+                }
+            }
+        }
+    }
+
+    @Test
+    void readRejectsForeignData() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (var gz = new java.util.zip.GZIPOutputStream(bytes)) {
+            gz.write(new byte[]{1, 2, 3, 4, 5});
+        }
+        assertThrows(IOException.class, () -> Replay.read(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+
+    /* ================= 录制 / 回放一致 ================= */
+
+    @Test
+    void playbackReproducesTheRecordedRunSinglePlayer() throws IOException {
+        assertPlaybackMatches(Difficulty.HARD, false, 3);
+    }
+
+    @Test
+    void playbackReproducesTheRecordedRunTwoPlayers() throws IOException {
+        assertPlaybackMatches(Difficulty.NORMAL, true, 4);
+    }
+
+    private static void assertPlaybackMatches(Difficulty difficulty, boolean twoPlayer, long inputSeed) throws IOException {
+        HeadlessSimulation recording = new HeadlessSimulation(DifficultyConfig.of(difficulty), twoPlayer);
+        GameManager gm = recording.getGameManager();
+        gm.startRecording();
+        recording.setStopOnLevelEnd(false);
+        recording.setInputScript(scriptedInput(inputSeed, twoPlayer));
+        recording.run(1500);
+        String expected = signature(gm);
+        Replay replay = gm.finishRecording();
+        assertNotNull(replay);
+        assertTrue(replay.getEventCount() > 0);
+        recording.dispose();
+
+        HeadlessSimulation playback = HeadlessSimulation.forReplay(roundTrip(replay));
+        playback.setStopOnLevelEnd(false);
+        playback.run(replay.getLength() + 10);
+        String actual = signature(playback.getGameManager());
+        playback.dispose();
+
+        assertEquals(expected, actual);
+    }
+
+    private static HeadlessSimulation.InputScript scriptedInput(long seed, boolean twoPlayer) {
+        Random rnd = new Random(seed);
+        int[][] dirs = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+        return (tick, gm) -> {
+            if (tick % 8 == 0) {
+                int[] d = dirs[rnd.nextInt(4)];
+                gm.onMoveInput(Player.PlayerIndex.P1, d[0], d[1]);
+                if (twoPlayer) {
+                    d = dirs[rnd.nextInt(4)];
+                    gm.onMoveInput(Player.PlayerIndex.P2, d[0], d[1]);
+                    gm.setMouseTargetTile(rnd.nextInt(40), rnd.nextInt(40));
+                }
+            }
+            if (tick % 30 == 0) {
+                gm.onAbilityInput(Player.PlayerIndex.P1, 0);
+                if (twoPlayer) gm.onAbilityInput(Player.PlayerIndex.P2, 0);
+            }
+        };
+    }
+
+    /** 分数、玩家状态和所有敌人的位置 / 生死；回放和录制的绝对步数不同，不参与比较 */
+    private static String signature(GameManager gm) {
+        StringBuilder sb = new StringBuilder("score=").append(gm.getScore());
+        for (Player p : gm.getPlayers()) {
+            sb.append(" P(").append(p.getX()).append(',').append(p.getY())
+                    .append(',').append(p.getLives()).append(',').append(p.getWorldX()).append(')');
+        }
+        sb.append(" enemies=").append(gm.getEnemies().size());
+        for (Enemy e : gm.getEnemies()) {
+            sb.append(" E(").append(e.getX()).append(',').append(e.getY())
+                    .append(',').append(e.getWorldX()).append(',').append(e.isDead()).append(')');
+        }
+        return sb.toString();
+    }
+
+    private static Replay roundTrip(Replay replay) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        replay.write(out);
+        return Replay.read(new ByteArrayInputStream(out.toByteArray()));
+    }
+}
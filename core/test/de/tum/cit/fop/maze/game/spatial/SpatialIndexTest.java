@@ -0,0 +1,195 @@
+package de.tum.cit.fop.maze.game.spatial;
+
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import de.tum.cit.fop.maze.entities.GameObject;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpatialIndexTest {
+
+    private static final int W = 12;
+    private static final int H = 9;
+
+    /** 占用矩形可调的最小实体，不碰任何图形资源 */
+    private static final class Box extends GameObject {
+        int w = 1, h = 1;
+
+        Box(int x, int y) { super(x, y); }
+
+        Box(int x, int y, int w, int h) {
+            super(x, y);
+            this.w = w;
+            this.h = h;
+        }
+
+        @Override public int getFootprintWidth() { return w; }
+        @Override public int getFootprintHeight() { return h; }
+        @Override public void drawShape(ShapeRenderer shapeRenderer) {}
+        @Override public void drawSprite(SpriteBatch batch) {}
+        @Override public RenderType getRenderType() { return RenderType.SHAPE; }
+    }
+
+    @Test
+    void addIsVisibleOnlyInItsCellAndLayer() {
+        SpatialIndex index = new SpatialIndex(W, H);
+        Box a = new Box(3, 4);
+        index.add(a, SpatialIndex.Layer.ENEMY);
+
+        assertEquals(List.of(a), at(index, SpatialIndex.Layer.ENEMY, 3, 4));
+        assertTrue(index.isEmpty(SpatialIndex.Layer.TRAP, 3, 4));
+        assertTrue(index.isEmpty(SpatialIndex.Layer.ENEMY, 4, 4));
+        assertEquals(1, index.size(SpatialIndex.Layer.ENEMY));
+        assertTrue(index.contains(a));
+    }
+
+    @Test
+    void sharedCellListsEveryEntity() {
+        SpatialIndex index = new SpatialIndex(W, H);
+        Box a = new Box(2, 2);
+        Box b = new Box(2, 2);
+        Box c = new Box(2, 2);
+        index.add(a, SpatialIndex.Layer.ENEMY);
+        index.add(b, SpatialIndex.Layer.ENEMY);
+        index.add(c, SpatialIndex.Layer.ENEMY);
+
+        assertEquals(Set.of(a, b, c), new HashSet<>(at(index, SpatialIndex.Layer.ENEMY, 2, 2)));
+
+        index.remove(b);
+        assertEquals(Set.of(a, c), new HashSet<>(at(index, SpatialIndex.Layer.ENEMY, 2, 2)));
+        assertEquals(2, index.size(SpatialIndex.Layer.ENEMY));
+        assertFalse(index.contains(b));
+    }
+
+    @Test
+    void footprintCoversEveryCellAndIsClippedAtTheBorder() {
+        SpatialIndex index = new SpatialIndex(W, H);
+        Box big = new Box(W - 1, 3, 2, 2);
+        index.add(big, SpatialIndex.Layer.ENEMY);
+
+        assertEquals(List.of(big), at(index, SpatialIndex.Layer.ENEMY, W - 1, 3));
+        assertEquals(List.of(big), at(index, SpatialIndex.Layer.ENEMY, W - 1, 4));
+        assertTrue(index.isEmpty(SpatialIndex.Layer.ENEMY, W - 2, 3));
+        assertEquals(SpatialIndex.NONE, index.first(SpatialIndex.Layer.ENEMY, W, 3));
+    }
+
+    @Test
+    void updateRelinksOnlyWhenTheFootprintChanges() {
+        SpatialIndex index = new SpatialIndex(W, H);
+        Box a = new Box(1, 1);
+        index.add(a, SpatialIndex.Layer.ENEMY);
+
+        assertFalse(index.update(a));
+
+        a.setPosition(5, 6);
+        assertTrue(index.update(a));
+        assertTrue(index.isEmpty(SpatialIndex.Layer.ENEMY, 1, 1));
+        assertEquals(List.of(a), at(index, SpatialIndex.Layer.ENEMY, 5, 6));
+
+        a.w = 2;
+        assertTrue(index.update(a));
+        assertEquals(List.of(a), at(index, SpatialIndex.Layer.ENEMY, 6, 6));
+    }
+
+    @Test
+    void updateOfUnknownEntityIsIgnored() {
+        SpatialIndex index = new SpatialIndex(W, H);
+        Box a = new Box(1, 1);
+        assertFalse(index.update(a));
+        assertTrue(index.isEmpty(SpatialIndex.Layer.ENEMY, 1, 1));
+    }
+
+    @Test
+    void readdingMovesEntityBetweenLayers() {
+        SpatialIndex index = new SpatialIndex(W, H);
+        Box a = new Box(3, 3);
+        index.add(a, SpatialIndex.Layer.HEART);
+        index.add(a, SpatialIndex.Layer.KEY);
+
+        assertTrue(index.isEmpty(SpatialIndex.Layer.HEART, 3, 3));
+        assertEquals(List.of(a), at(index, SpatialIndex.Layer.KEY, 3, 3));
+        assertEquals(0, index.size(SpatialIndex.Layer.HEART));
+        assertEquals(1, index.size(SpatialIndex.Layer.KEY));
+    }
+
+    @Test
+    void findAndHasActiveSkipInactiveEntities() {
+        SpatialIndex index = new SpatialIndex(W, H);
+        Box a = new Box(4, 4);
+        index.add(a, SpatialIndex.Layer.TREASURE);
+        assertTrue(index.hasActive(SpatialIndex.Layer.TREASURE, 4, 4));
+        assertSame(a, index.find(SpatialIndex.Layer.TREASURE, 4, 4, Box.class));
+
+        a.setActive(false);
+        assertFalse(index.hasActive(SpatialIndex.Layer.TREASURE, 4, 4));
+        assertNull(index.find(SpatialIndex.Layer.TREASURE, 4, 4, Box.class));
+    }
+
+    @Test
+    void clearLayerKeepsOtherLayers() {
+        SpatialIndex index = new SpatialIndex(W, H);
+        Box enemy = new Box(2, 2);
+        Box trap = new Box(2, 2);
+        index.add(enemy, SpatialIndex.Layer.ENEMY);
+        index.add(trap, SpatialIndex.Layer.TRAP);
+
+        index.clear(SpatialIndex.Layer.ENEMY);
+        assertTrue(index.isEmpty(SpatialIndex.Layer.ENEMY, 2, 2));
+        assertFalse(index.contains(enemy));
+        assertEquals(List.of(trap), at(index, SpatialIndex.Layer.TRAP, 2, 2));
+    }
+
+    /** 随机增删移动，和逐个实体扫描的结果对比（覆盖节点回收） */
+    @Test
+    void randomOperationsMatchBruteForce() {
+        SpatialIndex index = new SpatialIndex(W, H);
+        List<Box> live = new ArrayList<>();
+        Random rnd = new Random(1234);
+
+        for (int step = 0; step < 5000; step++) {
+            int op = rnd.nextInt(3);
+            if (op == 0 || live.isEmpty()) {
+                Box b = new Box(rnd.nextInt(W), rnd.nextInt(H), 1 + rnd.nextInt(2), 1 + rnd.nextInt(2));
+                index.add(b, SpatialIndex.Layer.ENEMY);
+                live.add(b);
+            } else if (op == 1) {
+                Box b = live.remove(rnd.nextInt(live.size()));
+                index.remove(b);
+            } else {
+                Box b = live.get(rnd.nextInt(live.size()));
+                b.setPosition(rnd.nextInt(W), rnd.nextInt(H));
+                index.update(b);
+            }
+        }
+
+        assertEquals(live.size(), index.size(SpatialIndex.Layer.ENEMY));
+        for (int y = 0; y < H; y++) {
+            for (int x = 0; x < W; x++) {
+                Set<Box> expected = new HashSet<>();
+                for (Box b : live) {
+                    if (x >= b.getX() && x < b.getX() + b.w && y >= b.getY() && y < b.getY() + b.h) {
+                        expected.add(b);
+                    }
+                }
+                List<GameObject> actual = at(index, SpatialIndex.Layer.ENEMY, x, y);
+                assertEquals(expected.size(), actual.size(), "duplicates at " + x + "," + y);
+                assertEquals(expected, new HashSet<>(actual), "cell " + x + "," + y);
+            }
+        }
+    }
+
+    private static List<GameObject> at(SpatialIndex index, SpatialIndex.Layer layer, int x, int y) {
+        List<GameObject> out = new ArrayList<>();
+        for (int n = index.first(layer, x, y); n != SpatialIndex.NONE; n = index.next(n)) {
+            out.add(index.get(n));
+        }
+        return out;
+    }
+}
@@ -0,0 +1,205 @@
+package de.tum.cit.fop.maze.game.time;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameSchedulerTest {
+
+    private static final float STEP = 1f / 60f;
+
+    @Test
+    void firesOnExactlyTheRequestedTick() {
+        GameScheduler scheduler = new GameScheduler();
+        // 覆盖每一层的边界：第 0 层内、刚好跨层、需要多次降级
+        int[] delays = {1, 2, 63, 64, 65, 127, 128, 4095, 4096, 4097, 262143, 262144, 262145, 300000};
+        long[] fired = new long[delays.length];
+        for (int i = 0; i < delays.length; i++) {
+            int k = i;
+            scheduler.scheduleTicks(delays[i], () -> fired[k] = scheduler.getTick());
+        }
+
+        advance(scheduler, 300000);
+        for (int i = 0; i < delays.length; i++) {
+            assertEquals(delays[i], fired[i], "delay " + delays[i]);
+        }
+        assertEquals(0, scheduler.size());
+    }
+
+    @Test
+    void delayBeyondTheWheelSpanStillFiresOnTime() {
+        GameScheduler scheduler = new GameScheduler();
+        int delay = (1 << 24) + 5;
+        long[] fired = {-1};
+        long handle = scheduler.scheduleTicks(delay, () -> fired[0] = scheduler.getTick());
+
+        advance(scheduler, delay - 1);
+        assertEquals(-1, fired[0]);
+        assertEquals(1, scheduler.getRemainingTicks(handle));
+        scheduler.advance(STEP);
+        assertEquals(delay, fired[0]);
+    }
+
+    @Test
+    void randomScheduleMatchesNaiveModel() {
+        GameScheduler scheduler = new GameScheduler();
+        Random rnd = new Random(99);
+        int count = 3000;
+        long[] expected = new long[count];
+        long[] fired = new long[count];
+        long[] handles = new long[count];
+        Arrays.fill(fired, -1);
+
+        int horizon = 20000;
+        for (int i = 0; i < count; i++) {
+            int k = i;
+            int delay = 1 + switch (rnd.nextInt(3)) {
+                case 0 -> rnd.nextInt(64);
+                case 1 -> rnd.nextInt(4096);
+                default -> rnd.nextInt(horizon - 1);
+            };
+            // 登记时刻分散在前几百步里，让计时器落在时间轮的不同相位
+            long at = scheduler.getTick();
+            expected[i] = at + delay;
+            handles[i] = scheduler.scheduleTicks(delay, () -> fired[k] = scheduler.getTick());
+            if (rnd.nextInt(10) == 0) scheduler.advance(STEP);
+        }
+
+        // 取消一部分还没到期的
+        int cancelled = 0;
+        for (int i = 0; i < count; i += 7) {
+            if (expected[i] <= scheduler.getTick()) {
+                assertFalse(scheduler.isPending(handles[i]));
+                continue;
+            }
+            assertTrue(scheduler.cancel(handles[i]));
+            expected[i] = -1;
+            cancelled++;
+        }
+        assertTrue(cancelled > 0);
+
+        advance(scheduler, horizon + 1000);
+        for (int i = 0; i < count; i++) {
+            assertEquals(expected[i], fired[i], "timer " + i);
+        }
+        assertEquals(0, scheduler.size());
+    }
+
+    @Test
+    void sameTickTimersFireInRegistrationOrder() {
+        GameScheduler scheduler = new GameScheduler();
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            int k = i;
+            scheduler.scheduleTicks(200, () -> order.add(k));
+        }
+        advance(scheduler, 200);
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), order);
+    }
+
+    @Test
+    void callbackCanCancelALaterTimerOfTheSameTick() {
+        GameScheduler scheduler = new GameScheduler();
+        List<String> order = new ArrayList<>();
+        long[] victim = new long[1];
+        scheduler.scheduleTicks(3, () -> {
+            order.add("a");
+            assertTrue(scheduler.cancel(victim[0]));
+        });
+        victim[0] = scheduler.scheduleTicks(3, () -> order.add("b"));
+        scheduler.scheduleTicks(3, () -> order.add("c"));
+
+        advance(scheduler, 3);
+        assertEquals(List.of("a", "c"), order);
+        assertEquals(0, scheduler.size());
+    }
+
+    @Test
+    void timersScheduledFromACallbackFireNoEarlierThanTheNextTick() {
+        GameScheduler scheduler = new GameScheduler();
+        List<Long> fired = new ArrayList<>();
+        Runnable[] tick = new Runnable[1];
+        tick[0] = () -> {
+            fired.add(scheduler.getTick());
+            if (fired.size() < 5) scheduler.scheduleTicks(0, tick[0]);
+        };
+        scheduler.scheduleTicks(1, tick[0]);
+
+        advance(scheduler, 10);
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), fired);
+    }
+
+    @Test
+    void handlesBecomeInvalidAfterFiringOrCancel() {
+        GameScheduler scheduler = new GameScheduler();
+        long fired = scheduler.scheduleTicks(1, () -> {});
+        long cancelled = scheduler.scheduleTicks(5, () -> {});
+        assertTrue(scheduler.isPending(fired));
+        assertEquals(5, scheduler.getRemainingTicks(cancelled));
+
+        scheduler.advance(STEP);
+        assertFalse(scheduler.isPending(fired));
+        assertFalse(scheduler.cancel(fired));
+        assertEquals(4, scheduler.getRemainingTicks(cancelled));
+
+        assertTrue(scheduler.cancel(cancelled));
+        assertFalse(scheduler.cancel(cancelled));
+
+        // 节点被复用后，旧句柄仍然不能取消新的计时器
+        long reused = scheduler.scheduleTicks(2, () -> {});
+        assertFalse(scheduler.cancel(fired));
+        assertFalse(scheduler.cancel(cancelled));
+        assertTrue(scheduler.isPending(reused));
+        assertFalse(scheduler.cancel(GameScheduler.NONE));
+    }
+
+    @Test
+    void clearDropsEverythingAndResetsTheClock() {
+        GameScheduler scheduler = new GameScheduler();
+        boolean[] fired = {false};
+        long handle = scheduler.scheduleTicks(10, () -> fired[0] = true);
+        advance(scheduler, 5);
+
+        scheduler.clear();
+        assertEquals(0, scheduler.size());
+        assertEquals(0, scheduler.getTick());
+        assertFalse(scheduler.isPending(handle));
+
+        advance(scheduler, 20);
+        assertFalse(fired[0]);
+    }
+
+    @Test
+    void clearFromACallbackStopsTheRestOfTheTick() {
+        GameScheduler scheduler = new GameScheduler();
+        List<String> order = new ArrayList<>();
+        scheduler.scheduleTicks(2, () -> {
+            order.add("a");
+            scheduler.clear();
+        });
+        scheduler.scheduleTicks(2, () -> order.add("b"));
+        scheduler.scheduleTicks(50, () -> order.add("c"));
+
+        advance(scheduler, 100);
+        assertEquals(List.of("a"), order);
+        assertEquals(0, scheduler.size());
+    }
+
+    @Test
+    void secondsAreConvertedWithTheCurrentStep() {
+        GameScheduler scheduler = new GameScheduler();
+        scheduler.advance(0.1f);
+        assertEquals(10, scheduler.toTicks(1f));
+        assertEquals(1, scheduler.toTicks(0f));
+        assertEquals(0.1f, scheduler.getTime(), 1e-6f);
+    }
+
+    private static void advance(GameScheduler scheduler, int ticks) {
+        for (int i = 0; i < ticks; i++) scheduler.advance(STEP);
+    }
+}
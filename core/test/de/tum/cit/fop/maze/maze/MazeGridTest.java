@@ -0,0 +1,223 @@
+package de.tum.cit.fop.maze.maze;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MazeGridTest {
+
+    /** 跨 64 位字边界的宽度，padding 位也会被覆盖到 */
+    private static final int W = 131;
+    private static final int H = 7;
+
+    @Test
+    void newGridIsAllWall() {
+        MazeGrid grid = new MazeGrid(W, H);
+        assertEquals(0, grid.countPaths());
+        assertTrue(grid.isWall(0, 0));
+        assertTrue(grid.isAreaAll(0, 0, W, H, 0));
+    }
+
+    @Test
+    void setAndGetAcrossWordBoundaries() {
+        MazeGrid grid = new MazeGrid(W, H);
+        int[] xs = {0, 63, 64, 65, 127, 128, W - 1};
+        for (int x : xs) grid.setPath(x, 3);
+
+        for (int x = 0; x < W; x++) {
+            boolean expected = contains(xs, x);
+            assertEquals(expected, grid.isPath(x, 3), "x=" + x);
+            assertEquals(expected ? 1 : 0, grid.get(x, 3), "x=" + x);
+            assertFalse(grid.isPath(x, 2));
+        }
+        assertEquals(xs.length, grid.countPaths());
+
+        grid.setWall(64, 3);
+        assertFalse(grid.isPath(64, 3));
+        assertTrue(grid.isPath(63, 3));
+        assertTrue(grid.isPath(65, 3));
+    }
+
+    @Test
+    void outOfBoundsReadsAsWallAndWritesAreIgnored() {
+        MazeGrid grid = new MazeGrid(W, H);
+        grid.fill(1);
+        assertEquals(0, grid.get(-1, 0));
+        assertEquals(0, grid.get(W, 0));
+        assertEquals(0, grid.get(0, H));
+        assertFalse(grid.isPath(0, -1));
+
+        int before = grid.getVersion();
+        grid.setPath(W, 0);
+        grid.setWall(-1, 0);
+        assertEquals(before, grid.getVersion());
+        assertEquals(W * H, grid.countPaths());
+    }
+
+    @Test
+    void versionOnlyChangesOnRealWrites() {
+        MazeGrid grid = new MazeGrid(W, H);
+        int v0 = grid.getVersion();
+        grid.setWall(5, 5);
+        assertEquals(v0, grid.getVersion());
+        grid.setPath(5, 5);
+        assertEquals(v0 + 1, grid.getVersion());
+        grid.setPath(5, 5);
+        assertEquals(v0 + 1, grid.getVersion());
+    }
+
+    @Test
+    void fillRectClipsAndMatchesPerCellWrites() {
+        MazeGrid grid = new MazeGrid(W, H);
+        grid.fillRect(60, 1, 70, 3, 1);
+        grid.fillRect(-5, -5, 10, 10, 1);
+        grid.fillRect(W - 2, H - 2, 10, 10, 1);
+
+        MazeGrid expected = new MazeGrid(W, H);
+        for (int y = 0; y < H; y++) {
+            for (int x = 0; x < W; x++) {
+                boolean inA = x >= 60 && x < 130 && y >= 1 && y < 4;
+                boolean inB = x < 5 && y < 5;
+                boolean inC = x >= W - 2 && y >= H - 2;
+                if (inA || inB || inC) expected.setPath(x, y);
+            }
+        }
+        assertEquals(expected, grid);
+
+        grid.fillRect(61, 2, 68, 1, 0);
+        assertTrue(grid.isPath(60, 2));
+        assertFalse(grid.isPath(61, 2));
+        assertFalse(grid.isPath(128, 2));
+        assertTrue(grid.isPath(129, 2));
+    }
+
+    @Test
+    void isAreaAllMatchesCellScan() {
+        MazeGrid grid = randomGrid(42);
+        Random rnd = new Random(7);
+        for (int i = 0; i < 2000; i++) {
+            int x = rnd.nextInt(W + 4) - 2;
+            int y = rnd.nextInt(H + 2) - 1;
+            int w = rnd.nextInt(80);
+            int h = rnd.nextInt(4);
+            int value = rnd.nextInt(2);
+            assertEquals(naiveAreaAll(grid, x, y, w, h, value), grid.isAreaAll(x, y, w, h, value),
+                    "x=" + x + " y=" + y + " w=" + w + " h=" + h + " v=" + value);
+        }
+    }
+
+    @Test
+    void nextWallAndNextPathMatchCellScan() {
+        MazeGrid grid = randomGrid(3);
+        for (int y = 0; y < H; y++) {
+            for (int from = -1; from <= W; from++) {
+                assertEquals(naiveNext(grid, y, from, false), grid.nextWall(y, from), "wall y=" + y + " from=" + from);
+                assertEquals(naiveNext(grid, y, from, true), grid.nextPath(y, from), "path y=" + y + " from=" + from);
+            }
+        }
+        // 整行都是通路时 padding 位不能被当成墙
+        MazeGrid open = new MazeGrid(W, 1);
+        open.fill(1);
+        assertEquals(W, open.nextWall(0, 0));
+    }
+
+    @Test
+    void arrayRoundTrip() {
+        MazeGrid grid = randomGrid(11);
+        int[][] array = grid.toArray();
+        assertEquals(H, array.length);
+        assertEquals(W, array[0].length);
+        assertEquals(grid, MazeGrid.fromArray(array));
+        assertEquals(grid, new MazeGrid(W, H, grid.toWords()));
+    }
+
+    /* ================= 写时复制 ================= */
+
+    @Test
+    void snapshotIsUnaffectedByLaterWrites() {
+        MazeGrid grid = randomGrid(5);
+        MazeGrid reference = grid.copy();
+        MazeGrid snap = grid.snapshot();
+        assertEquals(reference, snap);
+
+        grid.setPath(0, 0);
+        grid.setWall(1, 1);
+        grid.fillRect(0, 2, W, 1, 1);
+        assertEquals(reference, snap);
+        assertNotEquals(reference, grid);
+    }
+
+    @Test
+    void writingToSnapshotLeavesSourceIntact() {
+        MazeGrid grid = randomGrid(6);
+        MazeGrid reference = grid.copy();
+        MazeGrid snap = grid.snapshot();
+
+        snap.fill(0);
+        assertEquals(0, snap.countPaths());
+        assertEquals(reference, grid);
+    }
+
+    @Test
+    void chainedSnapshotsStayIndependent() {
+        MazeGrid grid = new MazeGrid(W, H);
+        MazeGrid a = grid.snapshot();
+        grid.setPath(10, 1);
+        MazeGrid b = grid.snapshot();
+        grid.setPath(20, 2);
+        MazeGrid c = b.snapshot();
+        b.setPath(30, 3);
+
+        assertEquals(0, a.countPaths());
+        assertTrue(b.isPath(10, 1));
+        assertTrue(b.isPath(30, 3));
+        assertFalse(b.isPath(20, 2));
+        assertTrue(c.isPath(10, 1));
+        assertFalse(c.isPath(30, 3));
+        assertTrue(grid.isPath(20, 2));
+        assertFalse(grid.isPath(30, 3));
+    }
+
+    @Test
+    void snapshotKeepsVersion() {
+        MazeGrid grid = new MazeGrid(W, H);
+        grid.setPath(1, 1);
+        MazeGrid snap = grid.snapshot();
+        assertEquals(grid.getVersion(), snap.getVersion());
+        assertEquals(grid.getVersion(), grid.copy().getVersion());
+    }
+
+    private static MazeGrid randomGrid(long seed) {
+        Random rnd = new Random(seed);
+        MazeGrid grid = new MazeGrid(W, H);
+        for (int y = 0; y < H; y++) {
+            for (int x = 0; x < W; x++) {
+                if (rnd.nextInt(3) != 0) grid.setPath(x, y);
+            }
+        }
+        return grid;
+    }
+
+    private static boolean naiveAreaAll(MazeGrid grid, int x, int y, int w, int h, int value) {
+        for (int cy = y; cy < y + h; cy++) {
+            for (int cx = x; cx < x + w; cx++) {
+                if (grid.get(cx, cy) != value) return false;
+            }
+        }
+        return true;
+    }
+
+    private static int naiveNext(MazeGrid grid, int y, int from, boolean path) {
+        for (int x = Math.max(0, from); x < grid.getWidth(); x++) {
+            if (grid.isPath(x, y) == path) return x;
+        }
+        return grid.getWidth();
+    }
+
+    private static boolean contains(int[] values, int v) {
+        for (int value : values) if (value == v) return true;
+        return false;
+    }
+}
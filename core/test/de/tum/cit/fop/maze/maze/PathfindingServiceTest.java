@@ -0,0 +1,236 @@
+package de.tum.cit.fop.maze.maze;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JPS 的结果和逐格 BFS 对比：找到的路径必须最短、每一步都可通行，不可达时两边一致
+ */
+class PathfindingServiceTest {
+
+    private static final int UNREACHABLE = -1;
+
+    @Test
+    void shortestPathMatchesBfsOnRandomGrids() {
+        Random rnd = new Random(1);
+        for (int t = 0; t < 60; t++) {
+            MazeGrid grid = randomGrid(rnd, 20 + rnd.nextInt(60), 20 + rnd.nextInt(60), (t % 4) * 10);
+            PathfindingService service = new PathfindingService();
+            service.setMaze(grid);
+            service.setNodeBudget(t % 2 == 0 ? 2000 : 50);
+
+            for (int q = 0; q < 5; q++) {
+                int[] s = randomOpenCell(rnd, grid, 1, null);
+                int[] g = randomOpenCell(rnd, grid, 1, null);
+                checkAgainstBfs(service, grid, null, s, g, 1, "grid " + t + " query " + q);
+            }
+        }
+    }
+
+    @Test
+    void multiCellAgentsRespectClearance() {
+        Random rnd = new Random(2);
+        for (int t = 0; t < 30; t++) {
+            MazeGrid grid = randomGrid(rnd, 40, 40, 15);
+            PathfindingService service = new PathfindingService();
+            service.setMaze(grid);
+            for (int size = 2; size <= 3; size++) {
+                int[] s = randomOpenCell(rnd, grid, size, null);
+                int[] g = randomOpenCell(rnd, grid, size, null);
+                if (s == null || g == null) continue;
+                checkAgainstBfs(service, grid, null, s, g, size, "grid " + t + " size " + size);
+            }
+        }
+    }
+
+    @Test
+    void blockerCellsAreAvoided() {
+        Random rnd = new Random(3);
+        for (int t = 0; t < 30; t++) {
+            MazeGrid grid = randomGrid(rnd, 50, 50, 5);
+            boolean[] blocked = new boolean[grid.getWidth() * grid.getHeight()];
+            for (int i = 0; i < blocked.length; i++) blocked[i] = rnd.nextInt(100) < 15;
+
+            PathfindingService service = new PathfindingService();
+            service.setMaze(grid);
+            service.setBlocker((x, y) -> blocked[y * grid.getWidth() + x]);
+            int[] s = randomOpenCell(rnd, grid, 1, blocked);
+            int[] g = randomOpenCell(rnd, grid, 1, blocked);
+            checkAgainstBfs(service, grid, blocked, s, g, 1, "grid " + t);
+        }
+    }
+
+    @Test
+    void walledOffGoalReportsNoPath() {
+        MazeGrid grid = new MazeGrid(30, 30);
+        grid.fillRect(1, 1, 28, 28, 1);
+        grid.fillRect(15, 0, 1, 30, 0);
+
+        PathfindingService service = new PathfindingService();
+        service.setMaze(grid);
+        PathRequest req = service.request(2, 2, 27, 27, 1);
+        runToCompletion(service, req);
+        assertEquals(PathRequest.Status.NO_PATH, req.getStatus());
+        assertEquals(PathfindingService.NO_STEP, req.nextStep(2, 2));
+    }
+
+    @Test
+    void frameWorkStaysWithinBudget() {
+        Random rnd = new Random(4);
+        MazeGrid grid = randomGrid(rnd, 140, 140, 10);
+        PathfindingService service = new PathfindingService();
+        service.setMaze(grid);
+        service.setNodeBudget(2000);
+
+        for (int q = 0; q < 10; q++) {
+            int[] s = randomOpenCell(rnd, grid, 1, null);
+            int[] g = randomOpenCell(rnd, grid, 1, null);
+            service.request(s[0], s[1], g[0], g[1], 1);
+        }
+        while (service.getPendingCount() > 0) {
+            service.update();
+            assertTrue(service.getLastFrameWork() <= service.getNodeBudget(),
+                    "work " + service.getLastFrameWork());
+        }
+    }
+
+    @Test
+    void requestFromCachedPathCompletesImmediately() {
+        MazeGrid grid = new MazeGrid(40, 40);
+        grid.fillRect(1, 1, 38, 38, 1);
+        PathfindingService service = new PathfindingService();
+        service.setMaze(grid);
+
+        PathRequest first = service.request(2, 2, 30, 2, 1);
+        runToCompletion(service, first);
+        assertTrue(first.isFound());
+
+        // 同一区域、落在缓存路径上的起点直接复用
+        PathRequest second = service.request(3, 2, 30, 2, 1);
+        assertTrue(second.isDone());
+        assertEquals(27, second.getRemainingSteps());
+        assertEquals(1, service.getCacheHits());
+
+        service.invalidateRegion(3, 2, 3, 2);
+        PathRequest third = service.request(3, 2, 30, 2, 1);
+        assertFalse(third.isDone());
+    }
+
+    @Test
+    void mazeEditsAreSeenByLaterRequests() {
+        MazeGrid grid = new MazeGrid(30, 10);
+        grid.fillRect(1, 1, 28, 8, 1);
+        PathfindingService service = new PathfindingService();
+        service.setMaze(grid);
+
+        PathRequest before = service.request(2, 5, 27, 5, 1);
+        runToCompletion(service, before);
+        assertEquals(25, before.getRemainingSteps());
+
+        grid.fillRect(15, 0, 1, 10, 0);
+        PathRequest after = service.request(2, 5, 27, 5, 1);
+        runToCompletion(service, after);
+        assertEquals(PathRequest.Status.NO_PATH, after.getStatus());
+    }
+
+    /* ================= 工具 ================= */
+
+    private static void checkAgainstBfs(PathfindingService service, MazeGrid grid, boolean[] blocked,
+                                        int[] s, int[] g, int size, String label) {
+        PathRequest req = service.request(s[0], s[1], g[0], g[1], size);
+        runToCompletion(service, req);
+        int expected = bfs(grid, blocked, s[0], s[1], g[0], g[1], size);
+
+        if (expected == UNREACHABLE) {
+            assertEquals(PathRequest.Status.NO_PATH, req.getStatus(), label);
+            return;
+        }
+        assertTrue(req.isFound(), label);
+        assertEquals(expected, req.getRemainingSteps(), label);
+
+        // 沿路径逐步走到终点，每一步都必须可通行
+        int x = s[0];
+        int y = s[1];
+        for (int i = 0; i < expected; i++) {
+            int dir = req.nextStep(x, y);
+            assertNotEquals(PathfindingService.NO_STEP, dir, label + " step " + i);
+            x += PathfindingService.DIR_X[dir];
+            y += PathfindingService.DIR_Y[dir];
+            assertTrue(open(grid, blocked, x, y, size), label + " blocked at " + x + "," + y);
+        }
+        assertEquals(g[0], x, label);
+        assertEquals(g[1], y, label);
+    }
+
+    private static void runToCompletion(PathfindingService service, PathRequest req) {
+        for (int frame = 0; !req.isDone(); frame++) {
+            assertTrue(frame < 100_000, "search never finished");
+            service.update();
+        }
+    }
+
+    private static int bfs(MazeGrid grid, boolean[] blocked, int sx, int sy, int gx, int gy, int size) {
+        int w = grid.getWidth();
+        int h = grid.getHeight();
+        if (!open(grid, blocked, sx, sy, size) || !open(grid, blocked, gx, gy, size)) return UNREACHABLE;
+        int[] dist = new int[w * h];
+        Arrays.fill(dist, UNREACHABLE);
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        dist[sy * w + sx] = 0;
+        queue.add(sy * w + sx);
+        while (!queue.isEmpty()) {
+            int c = queue.poll();
+            int x = c % w;
+            int y = c / w;
+            if (x == gx && y == gy) return dist[c];
+            for (int d = 0; d < 4; d++) {
+                int nx = x + PathfindingService.DIR_X[d];
+                int ny = y + PathfindingService.DIR_Y[d];
+                if (!open(grid, blocked, nx, ny, size)) continue;
+                int n = ny * w + nx;
+                if (dist[n] == UNREACHABLE) {
+                    dist[n] = dist[c] + 1;
+                    queue.add(n);
+                }
+            }
+        }
+        return UNREACHABLE;
+    }
+
+    /** 以 (x, y) 为左下角的 size x size 方块全部是通路且没有被阻挡 */
+    private static boolean open(MazeGrid grid, boolean[] blocked, int x, int y, int size) {
+        for (int oy = 0; oy < size; oy++) {
+            for (int ox = 0; ox < size; ox++) {
+                int cx = x + ox;
+                int cy = y + oy;
+                if (!grid.isPath(cx, cy)) return false;
+                if (blocked != null && blocked[cy * grid.getWidth() + cx]) return false;
+            }
+        }
+        return true;
+    }
+
+    private static MazeGrid randomGrid(Random rnd, int w, int h, int wallPercent) {
+        MazeGrid grid = new MazeGrid(w, h);
+        for (int y = 1; y < h - 1; y++) {
+            for (int x = 1; x < w - 1; x++) {
+                if (rnd.nextInt(100) >= wallPercent) grid.setPath(x, y);
+            }
+        }
+        return grid;
+    }
+
+    private static int[] randomOpenCell(Random rnd, MazeGrid grid, int size, boolean[] blocked) {
+        for (int i = 0; i < 10_000; i++) {
+            int x = rnd.nextInt(grid.getWidth());
+            int y = rnd.nextInt(grid.getHeight());
+            if (open(grid, blocked, x, y, size)) return new int[]{x, y};
+        }
+        return null;
+    }
+}
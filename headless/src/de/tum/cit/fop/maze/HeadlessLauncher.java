@@ -0,0 +1,97 @@
+package de.tum.cit.fop.maze;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import de.tum.cit.fop.maze.entities.Player;
+import de.tum.cit.fop.maze.game.Difficulty;
+import de.tum.cit.fop.maze.game.DifficultyConfig;
+import de.tum.cit.fop.maze.game.GameRuntime;
+import de.tum.cit.fop.maze.game.HeadlessSimulation;
+import de.tum.cit.fop.maze.game.replay.Replay;
+
+import java.io.File;
+import java.util.Random;
+
+/**
+ * 无头启动器：不开窗口、不需要显卡，跑完指定步数后打印结果并退出。
+ * <p>
+ * 参数：[难度=NORMAL] [步数=10000] [2p] [seed=种子] [replay=录像文件]
+ * 给了种子时玩家 1 按种子随机走动并释放技能，否则原地不动。
+ * 给了录像时按录像的难度和人数全速回放到结尾，其余参数忽略；输出的每步耗时百分位可在不同版本间对比。
+ */
+public class HeadlessLauncher {
+    private static final int[][] DIRS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+
+    public static void main(String[] arg) {
+        Difficulty difficulty = Difficulty.NORMAL;
+        int ticks = 10000;
+        boolean twoPlayer = false;
+        Long seed = null;
+        String replayPath = null;
+        for (String a : arg) {
+            if (a.startsWith("replay=")) {
+                replayPath = a.substring(7);
+            } else if (a.equalsIgnoreCase("2p")) {
+                twoPlayer = true;
+            } else if (a.startsWith("seed=")) {
+                seed = Long.parseLong(a.substring(5));
+            } else if (a.chars().allMatch(Character::isDigit)) {
+                ticks = Integer.parseInt(a);
+            } else {
+                difficulty = Difficulty.valueOf(a.toUpperCase());
+            }
+        }
+
+        final Difficulty d = difficulty;
+        final int n = ticks;
+        final boolean p2 = twoPlayer;
+        final Long s = seed;
+        final String r = replayPath;
+
+        GameRuntime.setHeadless(true);
+        HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+        config.updatesPerSecond = -1; // 不调用 render，模拟在 create 里一次跑完
+
+        new HeadlessApplication(new ApplicationAdapter() {
+            @Override
+            public void create() {
+                try {
+                    if (r != null) {
+                        Replay replay = Replay.load(Gdx.files.absolute(new File(r).getAbsolutePath()));
+                        HeadlessSimulation sim = HeadlessSimulation.forReplay(replay);
+                        sim.setStopOnLevelEnd(false);
+                        HeadlessSimulation.Result result = sim.run(replay.getLength() + 1);
+                        System.out.println("[Replay] " + replay.getDifficulty() + (replay.isTwoPlayer() ? " 2P " : " ") + result);
+                        sim.dispose();
+                        Gdx.app.exit();
+                        return;
+                    }
+
+                    HeadlessSimulation sim = new HeadlessSimulation(DifficultyConfig.of(d), p2);
+                    if (s != null) {
+                        Random random = new Random(s);
+                        sim.setInputScript((tick, gm) -> {
+                            if (tick % 8 == 0) {
+                                int[] dir = DIRS[random.nextInt(DIRS.length)];
+                                gm.onMoveInput(Player.PlayerIndex.P1, dir[0], dir[1]);
+                            }
+                            if (tick % 30 == 0) {
+                                gm.onAbilityInput(Player.PlayerIndex.P1, 0);
+                            }
+                        });
+                    }
+                    HeadlessSimulation.Result result = sim.run(n);
+                    System.out.println("[Headless] " + d + (p2 ? " 2P " : " ") + result);
+                    sim.dispose();
+                } catch (Exception e) {
+                    System.err.println("❌ 无头模拟失败:");
+                    e.printStackTrace();
+                    System.exit(1);
+                }
+                Gdx.app.exit();
+            }
+        }, config);
+    }
+}